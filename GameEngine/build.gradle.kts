@@ -13,6 +13,8 @@ val `steamworks4j-serverVersion` = "1.9.0"
 val jomlVersion = "1.10.4"
 //Other
 val reflectionsVersion = "0.10.2"
+val jmhVersion = "1.35"
+val junitVersion = "5.10.2"
 
 val lwjglNatives = Pair(
     System.getProperty("os.name")!!,
@@ -40,6 +42,14 @@ repositories {
     mavenCentral()
 }
 
+//Benchmarks, they live in src/jmh/java and can use everything the Engine uses
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     //LWJGL
     implementation(platform("org.lwjgl:lwjgl-bom:$lwjglVersion"))
@@ -81,4 +91,41 @@ dependencies {
     implementation("org.joml", "joml", jomlVersion)
     //Other
     implementation("org.reflections", "reflections", reflectionsVersion)
+    //Generates the Index of all Component and System Types at Compile Time, so that no Classpath Scan is needed on Startup
+    annotationProcessor(project(":componentIndexer"))
+    //Tests
+    testImplementation(platform("org.junit:junit-bom:$junitVersion"))
+    testImplementation("org.junit.jupiter", "junit-jupiter")
+    testRuntimeOnly("org.junit.platform", "junit-platform-launcher")
+    //Benchmarks
+    "jmhImplementation"("org.openjdk.jmh", "jmh-core", jmhVersion)
+    "jmhAnnotationProcessor"("org.openjdk.jmh", "jmh-generator-annprocess", jmhVersion)
+}
+
+//Every Lint Warning is shown, the Build has to stay free of them.
+tasks.withType<JavaCompile>().configureEach {
+    options.compilerArgs.add("-Xlint:all")
+}
+
+//The Tests live in src/test/java and run headless, so they are part of the normal Build.
+tasks.test {
+    useJUnitPlatform()
+}
+
+//Runs the Benchmarks, they aren't part of the normal Build.
+//"gradle jmh" runs all of them with the GC Profiler, "-Pjmh.include=<Regex>" selects Benchmarks and "-Pjmh.profilers=" disables the Profiler.
+//The Results are written as JSON to build/reports/jmh, so they can be compared against the Results of another Branch.
+//benchmarks/ holds the Results of the Benchmarks on the main Branch, ecs-baseline.json for the ECS and render-queue-baseline.json for the Render Queue.
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH Benchmarks of the Engine."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    outputs.upToDateWhen { false }
+    doFirst { results.get().asFile.parentFile.mkdirs() }
+    args("-rf", "json", "-rff", results.get().asFile.absolutePath)
+    val profilers = (project.findProperty("jmh.profilers") as String?) ?: "gc"
+    profilers.split(",").filter { it.isNotBlank() }.forEach { args("-prof", it.trim()) }
+    (project.findProperty("jmh.include") as String?)?.let { args(it) }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package org.euph.engine.indexer;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/** An Annotation Processor that writes an Index of all compiled Subtypes of the Engine Base Types, like Component and EngineSystem.
+ * The Engine reads these Indices on Startup instead of scanning the Classpath. Every compiled Module that uses this Processor gets its own Index,
+ * so Types defined outside the Engine, for example in the Game, are found as well.
+ * The Index of a Base Type is a Resource at {@value #INDEX_PATH} followed by the Name of the Base Type, with one Class Name per Line.
+ *
+ * @implNote It looks at every compiled Type, not only annotated ones, because the Subtypes don't need any Annotation.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+@SupportedAnnotationTypes("*")
+public class TypeIndexProcessor extends AbstractProcessor {
+
+    /** The Path all Indices are stored at, followed by the Name of the Base Type. */
+    public static final String INDEX_PATH = "META-INF/euph/index/";
+    /** The Base Types whose Subtypes are indexed. */
+    private static final String[] BASE_TYPES = {
+            "org.euph.engine.entityComponentSystem.Component",
+            "org.euph.engine.entityComponentSystem.EngineSystem"
+    };
+
+    //The Names of all found Subtypes, by Base Type.
+    private final Map<String, Set<String>> index = new LinkedHashMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if(roundEnv.processingOver()){
+            write();
+            return false;
+        }
+        for(String baseType : BASE_TYPES){
+            TypeElement base = processingEnv.getElementUtils().getTypeElement(baseType);
+            //The Base Type isn't on the Classpath of this Module, so nothing can extend it
+            if(base == null) continue;
+            TypeMirror erasure = processingEnv.getTypeUtils().erasure(base.asType());
+            Set<String> subTypes = index.computeIfAbsent(baseType, key -> new TreeSet<>());
+            for(Element element : roundEnv.getRootElements()){
+                collect(element, base, erasure, subTypes);
+            }
+        }
+        //Other Processors should still see all Annotations
+        return false;
+    }
+
+    /** Adds a Type and all Types nested in it to the Index, if they are Subtypes of the Base Type.
+     *
+     * @param element the Element to test.
+     * @param base the Base Type.
+     * @param erasure the Erasure of the Base Type.
+     * @param subTypes the Subtypes found so far.
+     *
+     * @author snoweuph
+     */
+    private void collect(Element element, TypeElement base, TypeMirror erasure, Set<String> subTypes){
+        if(!(element instanceof TypeElement type)) return;
+        if(!type.equals(base) && processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(type.asType()), erasure)){
+            subTypes.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+        }
+        for(Element enclosed : type.getEnclosedElements()){
+            collect(enclosed, base, erasure, subTypes);
+        }
+    }
+
+    /** Writes the Index of every Base Type that has Subtypes in this Module.
+     *
+     * @author snoweuph
+     */
+    private void write(){
+        for(Map.Entry<String, Set<String>> entry : index.entrySet()){
+            if(entry.getValue().isEmpty()) continue;
+            try{
+                FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_PATH + entry.getKey());
+                try(Writer writer = resource.openWriter()){
+                    for(String subType : entry.getValue()){
+                        writer.write(subType);
+                        writer.write('\n');
+                    }
+                }
+            }catch (IOException e){
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Couldn't write the Type Index of " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -1,2 +1,2 @@
 rootProject.name = "GameEngine"
-
+include("componentIndexer")
@@ -0,0 +1,108 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The {@link Component Components} the Benchmarks work with.
+ * They are shaped like typical Game Components: a few Fields of plain Data, some Requirements and some Inheritance.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class BenchmarkComponents {
+
+    private BenchmarkComponents(){}
+
+    public static class Position extends Component {
+        public float x, y, z;
+        @Override
+        protected List<Component> getRequiredComponents() {
+            return new ArrayList<>();
+        }
+    }
+    public static class Velocity extends Component {
+        public float x = 1, y = 0.5f, z = 0;
+        @Override
+        protected List<Component> getRequiredComponents() {
+            List<Component> required = new ArrayList<>();
+            required.add(new Position());
+            return required;
+        }
+    }
+    public static class Health extends Component {
+        public int value = 100;
+        @Override
+        protected List<Component> getRequiredComponents() {
+            return new ArrayList<>();
+        }
+    }
+
+    //Inheritance, removing all Shapes also removes Circles and Boxes
+    public static class Shape extends Component {
+        @Override
+        protected List<Component> getRequiredComponents() {
+            return new ArrayList<>();
+        }
+    }
+    public static class Circle extends Shape {
+        public float radius = 1;
+    }
+    public static class Box extends Shape {
+        public float width = 1, height = 1;
+    }
+
+    //A Chain of Requirements, each Link requires the next one, so putting Link0 adds all eight
+    public static class Link0 extends Component {
+        @Override
+        protected List<Component> getRequiredComponents() {
+            return requires(new Link1());
+        }
+    }
+    public static class Link1 extends Component {
+        @Override
+        protected List<Component> getRequiredComponents() {
+            return requires(new Link2());
+        }
+    }
+    public static class Link2 extends Component {
+        @Override
+        protected List<Component> getRequiredComponents() {
+            return requires(new Link3());
+        }
+    }
+    public static class Link3 extends Component {
+        @Override
+        protected List<Component> getRequiredComponents() {
+            return requires(new Link4());
+        }
+    }
+    public static class Link4 extends Component {
+        @Override
+        protected List<Component> getRequiredComponents() {
+            return requires(new Link5());
+        }
+    }
+    public static class Link5 extends Component {
+        @Override
+        protected List<Component> getRequiredComponents() {
+            return requires(new Link6());
+        }
+    }
+    public static class Link6 extends Component {
+        @Override
+        protected List<Component> getRequiredComponents() {
+            return requires(new Link7());
+        }
+    }
+    public static class Link7 extends Component {
+        @Override
+        protected List<Component> getRequiredComponents() {
+            return new ArrayList<>();
+        }
+    }
+    private static List<Component> requires(Component component){
+        List<Component> required = new ArrayList<>();
+        required.add(component);
+        return required;
+    }
+}
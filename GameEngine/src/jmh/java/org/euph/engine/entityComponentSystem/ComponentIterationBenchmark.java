@@ -0,0 +1,57 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Position;
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Velocity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Measures iterating all {@link Component Components} of a type, through {@link EntityComponentSystem#getComponentInstances(Class)} and through a {@link Query}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentIterationBenchmark {
+
+    @Param({"10000", "100000"})
+    public int count;
+    private long[] handles;
+    private Query query;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        handles = Entity.spawnBatch(count, Position::new, Velocity::new);
+        query = new Query().with(Position.class, Velocity.class);
+    }
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        query.dispose();
+        Entity.destroyBatch(handles);
+    }
+
+    @Benchmark
+    public float componentInstances(){
+        float sum = 0;
+        for(Component component : EntityComponentSystem.getComponentInstances(Position.class)){
+            sum += ((Position) component).x;
+        }
+        return sum;
+    }
+    @Benchmark
+    public float query(){
+        float sum = 0;
+        QueryIterator iterator = query.iterator();
+        while(iterator.next()){
+            Position position = iterator.get(0);
+            Velocity velocity = iterator.get(1);
+            sum += position.x + velocity.x;
+        }
+        return sum;
+    }
+}
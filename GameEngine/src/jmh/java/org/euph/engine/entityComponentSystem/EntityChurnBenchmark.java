@@ -0,0 +1,57 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Position;
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Velocity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Measures creating and destroying Entities, one by one and in Batches, while other Entities exist.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityChurnBenchmark {
+
+    private static final int BATCH = 1024;
+
+    //The Entities that exist during the whole Benchmark
+    @Param({"10000"})
+    public int population;
+    private long[] background;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        background = Entity.spawnBatch(population, Position::new, Velocity::new);
+    }
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        Entity.destroyBatch(background);
+    }
+
+    @Benchmark
+    public long createDestroyHandle(){
+        long handle = Entity.createHandle();
+        Entity.destroy(handle);
+        return handle;
+    }
+    @Benchmark
+    public long createDestroyEntity(){
+        Entity entity = new Entity().putComponent(new Position()).putComponent(new Velocity());
+        entity.destroy();
+        return entity.getHandle();
+    }
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long[] spawnDestroyBatch(){
+        long[] handles = Entity.spawnBatch(BATCH, Position::new, Velocity::new);
+        Entity.destroyBatch(handles);
+        return handles;
+    }
+}
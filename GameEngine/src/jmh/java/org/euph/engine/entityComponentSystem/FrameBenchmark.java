@@ -0,0 +1,114 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Health;
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Position;
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Velocity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/** Measures a full simulated Frame of a {@link SystemScheduler}: moving all Entities, damaging them,
+ * destroying the dead ones and spawning Replacements through the {@link CommandBuffer}, so that the Population stays the same.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameBenchmark {
+
+    private static final float DELTA = 1f / 60f;
+
+    @Param({"10000"})
+    public int population;
+    //The amount of Workers, 1 runs all Systems on a single Thread
+    @Param({"1", "4"})
+    public int workers;
+    private long[] handles;
+    private ForkJoinPool pool;
+    private SystemScheduler scheduler;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        handles = Entity.spawnBatch(population, Velocity::new, Health::new);
+        //Spread the Health, so that some Entities die every Frame
+        int i = 0;
+        for(Component component : EntityComponentSystem.getComponentInstances(Health.class)){
+            ((Health) component).value = 1 + i++ % 100;
+        }
+        pool = new ForkJoinPool(workers);
+        scheduler = new SystemScheduler(pool)
+                .addSystem(new MovementSystem())
+                .addSystem(new DamageSystem());
+    }
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long frame(){
+        scheduler.run(DELTA);
+        return scheduler.getFrameTime();
+    }
+
+    /** Moves every Entity by its Velocity. */
+    public static class MovementSystem extends EngineSystem {
+        private Query movable;
+        @Override
+        protected void update(float delta) {
+            if(movable == null) movable = query(Position.class, Velocity.class);
+            QueryIterator iterator = movable.iterator();
+            while(iterator.next()){
+                Position position = iterator.getMut(0);
+                Velocity velocity = iterator.get(1);
+                position.x += velocity.x * delta;
+                position.y += velocity.y * delta;
+                position.z += velocity.z * delta;
+            }
+        }
+        @Override
+        protected List<Class<? extends Component>> getReadComponents() {
+            List<Class<? extends Component>> read = new ArrayList<>();
+            read.add(Velocity.class);
+            return read;
+        }
+        @Override
+        protected List<Class<? extends Component>> getWriteComponents() {
+            List<Class<? extends Component>> write = new ArrayList<>();
+            write.add(Position.class);
+            return write;
+        }
+    }
+    /** Damages every Entity and replaces the dead ones with new Entities. */
+    public static class DamageSystem extends EngineSystem {
+        private Query living;
+        @Override
+        protected void update(float delta) {
+            if(living == null) living = query(Health.class);
+            CommandBuffer commands = getCommands();
+            QueryIterator iterator = living.iterator();
+            while(iterator.next()){
+                Health health = iterator.getMut(0);
+                if(--health.value > 0) continue;
+                commands.destroy(iterator.getEntity());
+                long spawned = commands.create();
+                commands.add(spawned, new Velocity());
+                commands.add(spawned, new Health());
+            }
+        }
+        @Override
+        protected List<Class<? extends Component>> getWriteComponents() {
+            List<Class<? extends Component>> write = new ArrayList<>();
+            write.add(Health.class);
+            return write;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Box;
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Circle;
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Position;
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Shape;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Measures removing all {@link Component Components} of a Base type, including the inheriting types, from every Entity.
+ * Every Entity has a Circle and a Box, which both inherit from Shape, so each Entity loses two Components.
+ * The Entities are created fresh before every Invocation, so each Invocation is a single Shot.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RemoveComponentsBenchmark {
+
+    //The amount of Entities, with 1000000 Entities two Million Components are removed
+    @Param({"10000", "1000000"})
+    public int count;
+    private long[] handles;
+
+    @Setup(Level.Invocation)
+    public void setup(){
+        handles = Entity.spawnBatch(count, Position::new, Circle::new, Box::new);
+    }
+    @TearDown(Level.Invocation)
+    public void tearDown(){
+        Entity.destroyBatch(handles);
+    }
+
+    @Benchmark
+    public long[] removeAllShapes(){
+        for(long handle : handles){
+            EntityComponentSystem.removeComponentReferences(handle, Shape.class);
+        }
+        return handles;
+    }
+    @Benchmark
+    public long[] removeAllShapesBuffered(){
+        CommandBuffer commands = new CommandBuffer();
+        for(long handle : handles){
+            commands.removeAll(handle, Shape.class);
+        }
+        commands.playback();
+        return handles;
+    }
+}
@@ -0,0 +1,42 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Link0;
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Link6;
+import org.euph.engine.entityComponentSystem.BenchmarkComponents.Link7;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Measures {@link Entity#putComponent(Component)} with Chains of required Components of different Depth.
+ * Each Operation creates an Entity, puts the Component on it and destroys it again.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequiredComponentsBenchmark {
+
+    @Benchmark
+    public Entity putWithoutRequirements(){
+        Entity entity = new Entity().putComponent(new Link7());
+        entity.destroy();
+        return entity;
+    }
+    @Benchmark
+    public Entity putChainOfTwo(){
+        Entity entity = new Entity().putComponent(new Link6());
+        entity.destroy();
+        return entity;
+    }
+    @Benchmark
+    public Entity putChainOfEight(){
+        Entity entity = new Entity().putComponent(new Link0());
+        entity.destroy();
+        return entity;
+    }
+}
@@ -0,0 +1,75 @@
+package org.euph.engine.renderSystem;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Measures sorting the Commands of a Frame with the Radix Sort of the {@link RenderCommandQueue},
+ * against {@link Arrays#sort(long[])} of the bare Keys, which keeps neither the Commands nor a stable Order.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderCommandQueueBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int count;
+    private long[] keys;
+    private long[] scratch;
+    private RenderCommandQueue queue;
+    private RecordingRenderBackend backend;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        //A typical Frame: few Layers and Shaders, more Materials and a Depth for every Draw
+        Random random = new Random(42);
+        keys = new long[count];
+        for(int i = 0; i < count; i++){
+            int layer = random.nextInt(4) == 0 ? SortKey.LAYER_EFFECTS : SortKey.LAYER_WORLD;
+            keys[i] = SortKey.pack(layer, random.nextInt(2), random.nextInt(32), random.nextInt(1024), random.nextInt(SortKey.MAX_DEPTH + 1));
+        }
+        scratch = new long[count];
+        queue = new RenderCommandQueue();
+        backend = new RecordingRenderBackend();
+        fill();
+    }
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        queue.free();
+    }
+
+    @Benchmark
+    public long radixSort(){
+        //Submitting marks the Queue as unsorted, so every Call sorts again
+        fill();
+        queue.sort();
+        return queue.getSortedKey(0);
+    }
+    @Benchmark
+    public int sortAndFlush(){
+        fill();
+        queue.flush(backend);
+        return backend.getStateChanges();
+    }
+    @Benchmark
+    public long arraysSort(){
+        System.arraycopy(keys, 0, scratch, 0, count);
+        Arrays.sort(scratch);
+        return scratch[0];
+    }
+
+    private void fill(){
+        queue.clear();
+        for(int i = 0; i < count; i++){
+            queue.submit(keys[i], i & 255, i);
+        }
+    }
+}
@@ -1,16 +1,96 @@
 package org.euph;
 
+import org.euph.engine.entityComponentSystem.SystemScheduler;
 import org.euph.engine.entityComponentSystem.systems.display.DisplayManager;
 import org.euph.engine.entityComponentSystem.systems.display.Window;
+import org.euph.engine.metrics.CsvMetricsSink;
+import org.euph.engine.metrics.EngineMetrics;
+import org.euph.engine.metrics.JsonMetricsSink;
+import org.euph.engine.metrics.MetricsSink;
+import org.euph.engine.metrics.RemoterySink;
+import org.euph.engine.profiling.ChromeTraceWriter;
+import org.euph.engine.profiling.Profiler;
+import org.euph.engine.profiling.RemoteryProfilerSink;
+import org.euph.engine.runtime.EngineLoop;
+import org.euph.engine.runtime.HeadlessRuntime;
+import org.euph.engine.runtime.LoopHandler;
 import org.lwjgl.PointerBuffer;
 import org.lwjgl.util.remotery.Remotery;
 import org.lwjgl.util.remotery.RemoteryGL;
 
+import java.nio.file.Path;
+
 import static org.lwjgl.glfw.GLFW.*;
 
 public class Main {
+
+    //The Simulation Steps per Second.
+    private static final int TICK_RATE = 60;
+
     public static void main(String[] args) {
+        boolean headless = false;
+        boolean paced = true;
+        int tickRate = TICK_RATE;
+        long ticks = 0;
+        String metrics = null;
+        String trace = null;
+        for(String arg : args){
+            if(arg.equals("--headless")) headless = true;
+            else if(arg.equals("--unpaced")) paced = false;
+            else if(arg.startsWith("--tick-rate=")) tickRate = Integer.parseInt(arg.substring("--tick-rate=".length()));
+            else if(arg.startsWith("--ticks=")) ticks = Long.parseLong(arg.substring("--ticks=".length()));
+            else if(arg.startsWith("--metrics=")) metrics = arg.substring("--metrics=".length());
+            else if(arg.startsWith("--trace=")) trace = arg.substring("--trace=".length());
+            else throw new IllegalArgumentException("Unknown Argument " + arg + ", supported are --headless, --unpaced, --tick-rate=<n>, --ticks=<n>, --metrics=<file.csv|file.json> and --trace=<file.json>");
+        }
+        //Capture a Trace of every Frame, for Chrome Tracing or Perfetto
+        if(trace != null) Profiler.startCapture(new ChromeTraceWriter(Path.of(trace)));
+        try{
+            if(headless) runHeadless(tickRate, ticks, paced, metrics);
+            else runWindowed(tickRate);
+        }finally{
+            Profiler.stopCapture();
+        }
+    }
 
+    /** Runs the Simulation without any Window, GLFW or GL, for Servers and CI. It ends after the given Ticks or on Shutdown of the Process.
+     *
+     * @param tickRate the Simulation Steps per Second.
+     * @param ticks the Amount of Steps to run, 0 to run until the Process gets shut down.
+     * @param paced whether the Steps are run in real Time, or as fast as possible.
+     * @param metricsFile the File the Metrics get dumped to every Second, as JSON Lines if it ends with .json, else as CSV, or null.
+     *
+     * @author snoweuph
+     */
+    private static void runHeadless(int tickRate, long ticks, boolean paced, String metricsFile) {
+        HeadlessRuntime runtime = new HeadlessRuntime(tickRate).setMaxTicks(ticks).setPaced(paced);
+        EngineMetrics metrics = null;
+        if(metricsFile != null){
+            Path path = Path.of(metricsFile);
+            MetricsSink sink = metricsFile.endsWith(".json") ? new JsonMetricsSink(path) : new CsvMetricsSink(path);
+            metrics = new EngineMetrics(runtime.getScheduler(), tickRate * 10).addSink(sink).setDumpInterval(EngineLoop.NANOS_PER_SECOND);
+            runtime.setMetrics(metrics);
+        }
+        //Finish the current Step on Shutdown, for example on SIGTERM
+        Thread mainThread = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            runtime.stop();
+            try{
+                mainThread.join(5000);
+            }catch (InterruptedException ignored){
+            }
+        }));
+        runtime.run();
+        if(metrics != null) metrics.close();
+    }
+
+    /** Opens the Main Window and runs the Simulation and the Rendering until the Window gets closed.
+     *
+     * @param tickRate the Simulation Steps per Second.
+     *
+     * @author snoweuph
+     */
+    private static void runWindowed(int tickRate) {
         //Initialize the Window Manager
         DisplayManager.init();
 
@@ -18,6 +98,10 @@ public class Main {
         PointerBuffer rmt_pointer = PointerBuffer.allocateDirect(1);
         Remotery.rmt_CreateGlobalInstance(rmt_pointer);
         RemoteryGL.rmt_BindOpenGL();
+        //Send every Frame, System and Render Stage to Remotery
+        RemoteryProfilerSink remotery = new RemoteryProfilerSink();
+        Profiler.addSink(remotery);
+        Profiler.setEnabled(true);
 
         //Create the Window
         Window win = DisplayManager.createWindow(1280, 720, 0, "Hello World", true, false, true, true);
@@ -25,28 +109,44 @@ public class Main {
         //Show the Window
         win.show(true);
 
-        //run the Main Loop
-        while (!win.shouldClose()){
-            //Start Sampling for Profiler
-            Remotery.rmt_BeginCPUSample("CPU Sampling", Remotery.RMTSF_Aggregate, null);
-            //Run Main Loop
-            mainLoop(win);
-
-            //Log Delta Time to Profiler
-            Remotery.rmt_LogText("Main Window Delta Time is:" + win.getDelta());
-            //End Sampling
-            Remotery.rmt_EndCPUSample();
-        }
+        //The Systems of the Simulation
+        SystemScheduler scheduler = new SystemScheduler();
+        EngineMetrics metrics = new EngineMetrics(scheduler).addSink(new RemoterySink());
+
+        //run the Main Loop, the Frame Rate is limited by VSync
+        EngineLoop loop = new EngineLoop(tickRate);
+        loop.run(new LoopHandler() {
+            private long lastFrame = System.nanoTime();
+            @Override
+            public void input(float delta) {
+                //Update Inputs, Events and Callbacks
+                glfwPollEvents();
+            }
+            @Override
+            public void simulate(float step) {
+                scheduler.run(step);
+                metrics.step();
+            }
+            @Override
+            public void render(float alpha) {
+                //Update the Window
+                win.update();
+                //Record the Frame, the Metrics get logged to the Profiler periodically
+                long now = System.nanoTime();
+                metrics.frame(now - lastFrame);
+                lastFrame = now;
+            }
+            @Override
+            public boolean isRunning() {
+                return !win.shouldClose();
+            }
+        });
 
         //Cleanup everything after closing
+        metrics.close();
         DisplayManager.cleanUp();
+        Profiler.removeSink(remotery);
+        remotery.free();
         Remotery.rmt_DestroyGlobalInstance(rmt_pointer.get(0));
     }
-
-    public static void mainLoop(Window win) {
-        //Update Inputs, Events and Callbacks
-        glfwPollEvents();
-        //Update the Window
-        win.update();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,391 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** An Archetype groups all {@link Entity Entities} that have exactly the same Set of {@link Component} types (the Signature).
+ * The Entities of an Archetype are stored densely in {@link ArchetypeChunk Chunks}, one Row per Entity and one Column per Signature Slot.
+ * Adding or removing a {@link Component} moves the {@link Entity} to another Archetype, the Transitions for single types are cached as Edges.
+ * The Edge for adding a type leads to the Archetype that also has all its missing {@link RequiredComponents required types}.
+ *
+ * @implNote Chunks with {@link Packed} Columns hold Off-Heap Memory. An emptied Chunk is kept as the spare Chunk and frees the previous spare one,
+ * all other Chunks are only freed by {@link #free()}, when the {@link World} gets {@link World#close() closed}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class Archetype {
+
+    static final int CHUNK_SHIFT = 10;
+    static final int CHUNK_CAPACITY = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_CAPACITY - 1;
+
+    //The sorted Component types of this Archetype, one per Column.
+    private final Signature signature;
+    //The Layout of each Column, null if the Column doesn't hold a Packed type.
+    private final PackedLayout[] layouts;
+    //The Pool of each Column, null if the Column doesn't hold a Pooled type.
+    private final ComponentPool<?>[] pools;
+    //The World this Archetype belongs to and its Table that keeps track of where each Entity is located.
+    private final World world;
+    private final EntityTable entities;
+    private final ArrayList<ArchetypeChunk> chunks = new ArrayList<>();
+    //An empty Chunk that is kept around, so that Entities moving across a Chunk border don't allocate a new Chunk each time.
+    private ArchetypeChunk spareChunk;
+    private int size;
+    //Cached Transitions to other Archetypes, indexed by type ID.
+    private Archetype[] addEdges = new Archetype[0];
+    private Archetype[] removeEdges = new Archetype[0];
+    //The Archetype the last Entity moved to while playing back a CommandBuffer.
+    private Archetype playbackEdge;
+
+    /** Creates a new empty Archetype.
+     *
+     * @param signature the {@link Signature} of the {@link Component} types this Archetype stores.
+     * @param world the {@link World} this Archetype belongs to, its {@link EntityTable} gets updated whenever an {@link Entity} is placed or moved.
+     *
+     * @author snoweuph
+     */
+    Archetype(Signature signature, World world){
+        this.signature = signature;
+        this.world = world;
+        this.entities = world.getEntityTable();
+        layouts = new PackedLayout[signature.size()];
+        pools = new ComponentPool<?>[signature.size()];
+        for(int column = 0; column < layouts.length; column++){
+            layouts[column] = PackedLayout.get(ComponentTypeRegistry.getType(signature.get(column)));
+            pools[column] = ComponentPool.get(ComponentTypeRegistry.getType(signature.get(column)));
+        }
+    }
+
+    /** Reserves a new Row at the end of this Archetype and places the {@link Entity} in it.
+     * The Columns of the new Row are empty and need to be filled with {@link #set(int, int, Component, long)}.
+     *
+     * @param entity the Handle of the {@link Entity} to place.
+     * @return the Index of the new Row.
+     *
+     * @author snoweuph
+     */
+    int allocate(long entity){
+        int index = size;
+        int chunkIndex = index >> CHUNK_SHIFT;
+        //Get a new Chunk if all existing Chunks are full
+        if(chunkIndex == chunks.size()){
+            ArchetypeChunk chunk = spareChunk != null ? spareChunk : new ArchetypeChunk(world, layouts);
+            if(chunk == spareChunk) chunk.resetTicks();
+            spareChunk = null;
+            chunks.add(chunk);
+        }
+        ArchetypeChunk chunk = chunks.get(chunkIndex);
+        chunk.entities[index & CHUNK_MASK] = entity;
+        chunk.size++;
+        size++;
+        //Update the Location of the Entity
+        entities.setLocation(EntityTable.index(entity), this, index);
+        return index;
+    }
+
+    /** Makes sure that the List of Chunks can take the next Rows without growing in between.
+     *
+     * @param count the amount of Rows that will be allocated.
+     *
+     * @author snoweuph
+     */
+    void reserve(int count){
+        chunks.ensureCapacity((size + count + CHUNK_MASK) >> CHUNK_SHIFT);
+    }
+
+    /** Returns the {@link Component Components} of a Row to their {@link ComponentPool Pools}, before the Row gets removed because its {@link Entity} is destroyed.
+     *
+     * @param index the Index of the Row.
+     *
+     * @author snoweuph
+     */
+    void release(int index){
+        for(int column = 0; column < pools.length; column++){
+            if(pools[column] != null) pools[column].release(get(index, column));
+        }
+    }
+    /** Returns the {@link Component} of a single Column of a Row to its {@link ComponentPool Pool}, if it has one.
+     *
+     * @param index the Index of the Row.
+     * @param column the Column inside the Signature.
+     *
+     * @author snoweuph
+     */
+    void release(int index, int column){
+        if(pools[column] != null) pools[column].release(get(index, column));
+    }
+    /** Removes a Row by moving the last Row of this Archetype into its place.
+     * This keeps the Chunks dense and doesn't need to shift any other Rows.
+     *
+     * @param index the Index of the Row to remove.
+     *
+     * @author snoweuph
+     */
+    void remove(int index){
+        int last = size - 1;
+        ArchetypeChunk lastChunk = chunks.get(last >> CHUNK_SHIFT);
+        int lastRow = last & CHUNK_MASK;
+        //Swap the last Row into the free Slot
+        if(index != last){
+            ArchetypeChunk chunk = chunks.get(index >> CHUNK_SHIFT);
+            int row = index & CHUNK_MASK;
+            long moved = lastChunk.entities[lastRow];
+            chunk.entities[row] = moved;
+            for(int column = 0; column < signature.size(); column++){
+                lastChunk.copy(column, lastRow, chunk, column, row);
+            }
+            entities.setRow(EntityTable.index(moved), index);
+        }
+        //Clear the last Row
+        lastChunk.clearRow(lastRow);
+        lastChunk.size--;
+        size--;
+        //Release the last Chunk if it is empty, only one spare Chunk is kept
+        if(lastChunk.size == 0){
+            chunks.remove(chunks.size() - 1);
+            if(spareChunk != null) spareChunk.free();
+            spareChunk = lastChunk;
+        }
+    }
+
+    /** Frees the Off-Heap Memory of all Chunks, including the spare one, and forgets all Rows.
+     * The {@link Component Components} aren't returned to their {@link ComponentPool Pools}, this Archetype can't be used afterwards.
+     *
+     * @author snoweuph
+     */
+    void free(){
+        for(int chunk = 0; chunk < chunks.size(); chunk++){
+            chunks.get(chunk).free();
+        }
+        chunks.clear();
+        if(spareChunk != null) spareChunk.free();
+        spareChunk = null;
+        size = 0;
+    }
+
+    /** Sets a single newly added {@link Component} of a Row. The {@link Component} remembers its {@link World} and Column, so that it can be found without searching the Row.
+     *
+     * @param index the Index of the Row.
+     * @param column the Column inside the Signature.
+     * @param component the {@link Component} to store.
+     * @param tick the Tick the {@link Component} got added at.
+     *
+     * @author snoweuph
+     */
+    void set(int index, int column, Component component, long tick){
+        ArchetypeChunk chunk = chunks.get(index >> CHUNK_SHIFT);
+        chunk.set(column, index & CHUNK_MASK, component);
+        chunk.markAdded(column, index & CHUNK_MASK, tick);
+        if(component != null && layouts[column] == null){
+            component.setWorld(world);
+            component.setColumn(column);
+        }
+    }
+    /** Copies a single {@link Component} of a Row into the Row of another Archetype, {@link Packed} Components are copied without creating any Objects.
+     * The added and changed Ticks are kept, because moving an {@link Entity} doesn't change its {@link Component Components}.
+     *
+     * @param index the Index of the Row.
+     * @param column the Column inside the Signature.
+     * @param target the Archetype to copy to.
+     * @param targetIndex the Index of the Row inside the target.
+     * @param targetColumn the Column inside the Signature of the target.
+     *
+     * @author snoweuph
+     */
+    void copy(int index, int column, Archetype target, int targetIndex, int targetColumn){
+        ArchetypeChunk targetChunk = target.chunks.get(targetIndex >> CHUNK_SHIFT);
+        chunks.get(index >> CHUNK_SHIFT).copy(column, index & CHUNK_MASK, targetChunk, targetColumn, targetIndex & CHUNK_MASK);
+        if(layouts[column] == null) targetChunk.columns[targetColumn][targetIndex & CHUNK_MASK].setColumn(targetColumn);
+    }
+
+    /** Marks a single {@link Component} of a Row as changed.
+     *
+     * @param index the Index of the Row.
+     * @param column the Column inside the Signature.
+     * @param tick the Tick of the Change.
+     *
+     * @author snoweuph
+     */
+    void markChanged(int index, int column, long tick){
+        chunks.get(index >> CHUNK_SHIFT).markChanged(column, index & CHUNK_MASK, tick);
+    }
+    /** Sets the added and changed Ticks of a single {@link Component} of a Row.
+     *
+     * @param index the Index of the Row.
+     * @param column the Column inside the Signature.
+     * @param added the Tick the {@link Component} was added at.
+     * @param changed the Tick the {@link Component} was last changed at.
+     *
+     * @author snoweuph
+     */
+    void setTicks(int index, int column, long added, long changed){
+        chunks.get(index >> CHUNK_SHIFT).setTicks(column, index & CHUNK_MASK, added, changed);
+    }
+    /** @return the Tick a single {@link Component} of a Row was added at.
+     *
+     * @param index the Index of the Row.
+     * @param column the Column inside the Signature.
+     *
+     * @author snoweuph
+     */
+    long getAddedTick(int index, int column){
+        return chunks.get(index >> CHUNK_SHIFT).addedTicks[column][index & CHUNK_MASK];
+    }
+    /** @return the Tick a single {@link Component} of a Row was last changed at.
+     *
+     * @param index the Index of the Row.
+     * @param column the Column inside the Signature.
+     *
+     * @author snoweuph
+     */
+    long getChangedTick(int index, int column){
+        return chunks.get(index >> CHUNK_SHIFT).changedTicks[column][index & CHUNK_MASK];
+    }
+
+    /** @return the Handle of the {@link Entity} stored in a Row.
+     *
+     * @param index the Index of the Row.
+     *
+     * @author snoweuph
+     */
+    long getEntity(int index){
+        return chunks.get(index >> CHUNK_SHIFT).entities[index & CHUNK_MASK];
+    }
+
+    /** @return a single {@link Component} of a Row, for {@link Packed} types this is a detached Copy.
+     *
+     * @param index the Index of the Row.
+     * @param column the Column inside the Signature.
+     *
+     * @author snoweuph
+     */
+    Component get(int index, int column){
+        return chunks.get(index >> CHUNK_SHIFT).get(column, index & CHUNK_MASK);
+    }
+
+    /** @return the Column in which the {@link Component} is stored for a specific Row, or -1 if it isn't part of that Row.
+     *
+     * @param index the Index of the Row.
+     * @param component the {@link Component} to search for.
+     *
+     * @implNote This is O(1) through the Column the {@link Component} remembers, the Row is only searched if that doesn't match.
+     * {@link Packed} Components are never found, because only their Values are stored.
+     *
+     * @author snoweuph
+     */
+    int columnOf(int index, Component component){
+        ArchetypeChunk chunk = chunks.get(index >> CHUNK_SHIFT);
+        int row = index & CHUNK_MASK;
+        int remembered = component.getColumn();
+        if(remembered >= 0 && remembered < signature.size() && chunk.columns[remembered] != null && chunk.columns[remembered][row] == component) return remembered;
+        for(int column = 0; column < signature.size(); column++){
+            if(chunk.columns[column] != null && chunk.columns[column][row] == component) return column;
+        }
+        return -1;
+    }
+
+    //Edges
+    /** @return the cached Archetype an {@link Entity} moves to, if a {@link Component} of the type gets added, or null if not cached yet.
+     *
+     * @param type the ID of the added {@link Component} type.
+     *
+     * @author snoweuph
+     */
+    Archetype getAddEdge(int type){
+        return type < addEdges.length ? addEdges[type] : null;
+    }
+    /** Caches the Archetype an {@link Entity} moves to, if a {@link Component} of the type gets added.
+     *
+     * @param type the ID of the added {@link Component} type.
+     * @param target the Archetype to move to.
+     *
+     * @author snoweuph
+     */
+    void setAddEdge(int type, Archetype target){
+        if(type >= addEdges.length) addEdges = grow(addEdges, type);
+        addEdges[type] = target;
+    }
+    /** @return the cached Archetype an {@link Entity} moves to, if a single {@link Component} of the type gets removed, or null if not cached yet.
+     *
+     * @param type the ID of the removed {@link Component} type.
+     *
+     * @author snoweuph
+     */
+    Archetype getRemoveEdge(int type){
+        return type < removeEdges.length ? removeEdges[type] : null;
+    }
+    /** Caches the Archetype an {@link Entity} moves to, if a single {@link Component} of the type gets removed.
+     *
+     * @param type the ID of the removed {@link Component} type.
+     * @param target the Archetype to move to.
+     *
+     * @author snoweuph
+     */
+    void setRemoveEdge(int type, Archetype target){
+        if(type >= removeEdges.length) removeEdges = grow(removeEdges, type);
+        removeEdges[type] = target;
+    }
+    /** @return the Archetype the last {@link Entity} moved to while playing back a {@link CommandBuffer}, or null if none did yet.
+     * The following Entities often have the same Changes, but it has to be checked against their final {@link Signature}.
+     *
+     * @author snoweuph
+     */
+    Archetype getPlaybackEdge(){
+        return playbackEdge;
+    }
+    /** Caches the Archetype an {@link Entity} moved to while playing back a {@link CommandBuffer}.
+     *
+     * @param target the Archetype it moved to.
+     *
+     * @author snoweuph
+     */
+    void setPlaybackEdge(Archetype target){
+        playbackEdge = target;
+    }
+    private static Archetype[] grow(Archetype[] edges, int type){
+        Archetype[] grown = new Archetype[Math.max(type + 1, ComponentTypeRegistry.size())];
+        System.arraycopy(edges, 0, grown, 0, edges.length);
+        return grown;
+    }
+
+    //Getter
+    /** @return the {@link Signature} of the {@link Component} types this Archetype stores.
+     *
+     * @author snoweuph
+     */
+    Signature getSignature() {
+        return signature;
+    }
+    /** @return the Layout of a Column, or null if it doesn't hold a {@link Packed} type.
+     *
+     * @param column the Column inside the Signature.
+     *
+     * @author snoweuph
+     */
+    PackedLayout getLayout(int column){
+        return layouts[column];
+    }
+    /** @return the amount of Columns.
+     *
+     * @author snoweuph
+     */
+    int getWidth(){
+        return signature.size();
+    }
+    /** @return the amount of {@link Entity Entities} in this Archetype.
+     *
+     * @author snoweuph
+     */
+    int size() {
+        return size;
+    }
+    /** @return the Chunks that are currently in use, all except the last one are full.
+     *
+     * @author snoweuph
+     */
+    List<ArchetypeChunk> getChunks() {
+        return chunks;
+    }
+}
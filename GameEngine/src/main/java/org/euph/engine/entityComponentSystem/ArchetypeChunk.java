@@ -0,0 +1,177 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.Arrays;
+
+import static org.lwjgl.system.MemoryUtil.nmemFree;
+
+/** A fixed size Block of Storage inside an {@link Archetype}.
+ * Every Column holds the {@link Component Components} of one Signature Slot for all Rows of this Chunk,
+ * so iterating one {@link Component} type walks a single contiguous Array instead of chasing References through the Heap.
+ * Columns of {@link Packed} types don't hold any Objects, their Data lives Off-Heap as one packed Array per Field.
+ * For Change Detection, every Slot stores the Tick it was added at and the Tick it was last changed at,
+ * and every Column stores the highest of these Ticks, so that whole Chunks without any Changes can be skipped.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class ArchetypeChunk {
+
+    //The World this Chunk belongs to, detached Copies of packed Components are part of it.
+    final World world;
+    //The Handles of the Entities that are stored in this Chunk, indexed by Row.
+    final long[] entities;
+    //The Component Columns, indexed by [Column][Row], null for packed Columns.
+    final Component[][] columns;
+    //The Layouts and Off-Heap Addresses of the packed Columns, null and 0 for all other Columns.
+    final PackedLayout[] layouts;
+    final long[] packed;
+    //The Tick each Slot was added and last changed at, indexed by [Column][Row].
+    final long[][] addedTicks;
+    final long[][] changedTicks;
+    //The highest added and changed Tick of each Column, they are never lowered while the Chunk is in use.
+    final long[] maxAddedTicks;
+    final long[] maxChangedTicks;
+    //The amount of Rows that are currently in use.
+    int size;
+
+    /** Creates a new empty Chunk.
+     *
+     * @param world the {@link World} this Chunk belongs to.
+     * @param layouts the Layout of each Column, null if the Column isn't packed. Its length is the length of the {@link Archetype} Signature.
+     *
+     * @author snoweuph
+     */
+    ArchetypeChunk(World world, PackedLayout[] layouts){
+        this.world = world;
+        this.layouts = layouts;
+        entities = new long[Archetype.CHUNK_CAPACITY];
+        columns = new Component[layouts.length][];
+        packed = new long[layouts.length];
+        addedTicks = new long[layouts.length][Archetype.CHUNK_CAPACITY];
+        changedTicks = new long[layouts.length][Archetype.CHUNK_CAPACITY];
+        maxAddedTicks = new long[layouts.length];
+        maxChangedTicks = new long[layouts.length];
+        for(int column = 0; column < layouts.length; column++){
+            if(layouts[column] == null) columns[column] = new Component[Archetype.CHUNK_CAPACITY];
+            else packed[column] = layouts[column].allocate();
+        }
+    }
+
+    /** @return the {@link Component} of a Row, for packed Columns this is a detached Copy.
+     *
+     * @param column the Column inside the Signature.
+     * @param row the Row inside this Chunk.
+     *
+     * @author snoweuph
+     */
+    Component get(int column, int row){
+        if(layouts[column] == null) return columns[column][row];
+        Component copy = layouts[column].read(packed[column], row);
+        copy.setWorld(world);
+        copy.setEntityHandle(entities[row]);
+        copy.setColumn(column);
+        return copy;
+    }
+    /** Stores a {@link Component} in a Row, for packed Columns only its Values get copied.
+     *
+     * @param column the Column inside the Signature.
+     * @param row the Row inside this Chunk.
+     * @param component the {@link Component} to store.
+     *
+     * @author snoweuph
+     */
+    void set(int column, int row, Component component){
+        if(layouts[column] == null) columns[column][row] = component;
+        else if(component != null) layouts[column].write(component, packed[column], row);
+    }
+    /** Marks a Slot as changed.
+     *
+     * @param column the Column inside the Signature.
+     * @param row the Row inside this Chunk.
+     * @param tick the Tick of the Change.
+     *
+     * @author snoweuph
+     */
+    void markChanged(int column, int row, long tick){
+        changedTicks[column][row] = tick;
+        if(tick > maxChangedTicks[column]) maxChangedTicks[column] = tick;
+    }
+    /** Marks a Slot as newly added, which also counts as changed.
+     *
+     * @param column the Column inside the Signature.
+     * @param row the Row inside this Chunk.
+     * @param tick the Tick of the Addition.
+     *
+     * @author snoweuph
+     */
+    void markAdded(int column, int row, long tick){
+        addedTicks[column][row] = tick;
+        if(tick > maxAddedTicks[column]) maxAddedTicks[column] = tick;
+        markChanged(column, row, tick);
+    }
+    /** Sets the Ticks of a Slot.
+     *
+     * @param column the Column inside the Signature.
+     * @param row the Row inside this Chunk.
+     * @param added the Tick the Slot was added at.
+     * @param changed the Tick the Slot was last changed at.
+     *
+     * @author snoweuph
+     */
+    void setTicks(int column, int row, long added, long changed){
+        addedTicks[column][row] = added;
+        if(added > maxAddedTicks[column]) maxAddedTicks[column] = added;
+        markChanged(column, row, changed);
+    }
+    /** Resets the highest Ticks of all Columns, when the Chunk gets reused.
+     *
+     * @author snoweuph
+     */
+    void resetTicks(){
+        Arrays.fill(maxAddedTicks, 0);
+        Arrays.fill(maxChangedTicks, 0);
+    }
+
+    /** Copies a Row of this Chunk into the Row of another Chunk, packed Columns are copied without creating any Objects.
+     * The Ticks of the Slot are kept.
+     *
+     * @param column the Column inside this Chunk.
+     * @param row the Row inside this Chunk.
+     * @param target the Chunk to copy to.
+     * @param targetColumn the Column inside the target Chunk.
+     * @param targetRow the Row inside the target Chunk.
+     *
+     * @author snoweuph
+     */
+    void copy(int column, int row, ArchetypeChunk target, int targetColumn, int targetRow){
+        if(layouts[column] != null && target.layouts[targetColumn] == layouts[column]){
+            layouts[column].copy(packed[column], row, target.packed[targetColumn], targetRow);
+        }else{
+            target.set(targetColumn, targetRow, get(column, row));
+        }
+        target.setTicks(targetColumn, targetRow, addedTicks[column][row], changedTicks[column][row]);
+    }
+
+    /** Clears a Row, so that the Chunk doesn't hold any References that would prevent Garbage Collection.
+     *
+     * @param row the Row to clear.
+     *
+     * @author snoweuph
+     */
+    void clearRow(int row){
+        entities[row] = Entity.NULL;
+        for (Component[] column : columns){
+            if(column != null) column[row] = null;
+        }
+    }
+    /** Frees the Off-Heap Memory of all packed Columns, the Chunk can't be used afterwards.
+     *
+     * @author snoweuph
+     */
+    void free(){
+        for(int column = 0; column < packed.length; column++){
+            if(packed[column] != 0) nmemFree(packed[column]);
+            packed[column] = 0;
+        }
+    }
+}
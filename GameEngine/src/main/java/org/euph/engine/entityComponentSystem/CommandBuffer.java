@@ -0,0 +1,238 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** A Buffer that records structural Changes of the ECS, instead of applying them directly.
+ * This makes it possible to create and destroy {@link Entity Entities} or to add and remove {@link Component Components}
+ * while iterating a {@link Query} or the Instances of a type, the Changes get applied later at a defined Sync Point with {@link #playback()}.
+ * Recording is possible from many Threads at once, every Thread records into its own part of the Buffer.
+ * A Buffer belongs to one {@link World}, all Handles recorded into it must be from that {@link World}.
+ *
+ * @implNote While playing back, all Changes of an {@link Entity} are merged, so that every {@link Entity} moves to its final {@link Archetype} only once.
+ * Entities created by the Buffer are placed directly inside their final {@link Archetype}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class CommandBuffer {
+
+    //Operation Codes
+    static final int CREATE = 0;
+    static final int DESTROY = 1;
+    static final int ADD = 2;
+    static final int REMOVE = 3;
+    static final int REMOVE_ALL = 4;
+
+    //The Bit that marks a Handle as a Placeholder for an Entity that is created by this Buffer.
+    private static final long PLACEHOLDER = Long.MIN_VALUE;
+
+    //The World the Changes get applied to.
+    private final World world;
+    //The Recorders of all Threads, in the Order the Threads started recording.
+    private final List<Recorder> recorders = new ArrayList<>();
+    private final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(this::createRecorder);
+    //The real Handles of all Entities created by the last Playback, by Placeholder.
+    private final Map<Long, Long> created = new HashMap<>();
+
+    /** Creates a new empty Buffer for the {@link EntityComponentSystem#getDefaultWorld() default World}.
+     *
+     * @author snoweuph
+     */
+    public CommandBuffer(){
+        this(EntityComponentSystem.getDefaultWorld());
+    }
+    /** Creates a new empty Buffer.
+     *
+     * @param world the {@link World} the Changes get applied to.
+     *
+     * @author snoweuph
+     */
+    public CommandBuffer(World world){
+        this.world = world;
+    }
+
+    //Recording
+    /** Records the Creation of a new {@link Entity}.
+     *
+     * @return a Placeholder Handle, it can be used with all other functions of this Buffer and can be {@link #resolve(long) resolved} after the Playback.
+     *
+     * @author snoweuph
+     */
+    public long create(){
+        Recorder current = recorder.get();
+        long placeholder = PLACEHOLDER | ((long) current.id << 32) | current.createCount++;
+        current.record(CREATE, placeholder, null);
+        return placeholder;
+    }
+    /** Records the Destruction of an {@link Entity}.
+     *
+     * @param entity the Handle or Placeholder of the {@link Entity} to destroy.
+     * @return this Buffer, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public CommandBuffer destroy(long entity){
+        recorder.get().record(DESTROY, entity, null);
+        return this;
+    }
+    /** Records putting a {@link Component} onto an {@link Entity}, the required {@link Component Components} get added as well.
+     *
+     * @param entity the Handle or Placeholder of the {@link Entity}.
+     * @param component the {@link Component} to put onto it.
+     * @return this Buffer, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public CommandBuffer add(long entity, Component component){
+        recorder.get().record(ADD, entity, component);
+        return this;
+    }
+    /** Records removing a specific {@link Component} from the {@link Entity} it is on.
+     *
+     * @param component the {@link Component} to remove.
+     * @return this Buffer, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public CommandBuffer remove(Component component){
+        recorder.get().record(REMOVE, Entity.NULL, component);
+        return this;
+    }
+    /** Records removing all {@link Component Components} of a type, including inheriting types, from an {@link Entity}.
+     *
+     * @param entity the Handle or Placeholder of the {@link Entity}.
+     * @param componentClass the {@link Component} type to remove.
+     * @return this Buffer, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public CommandBuffer removeAll(long entity, Class<? extends Component> componentClass){
+        recorder.get().record(REMOVE_ALL, entity, componentClass);
+        return this;
+    }
+
+    //Playback
+    /** Applies all recorded Changes to the {@link World} of this Buffer and clears it.
+     *
+     * @implNote This must be called from a single Thread at a Sync Point, while no other Thread is recording into this Buffer
+     * and nothing is iterating the ECS.
+     *
+     * @author snoweuph
+     */
+    public void playback(){
+        created.clear();
+        //Nothing to apply, so the Structure of the World and its Version stay the same
+        if(isEmpty()) return;
+        world.playback(this);
+        for(Recorder current : recorders){
+            current.clear();
+        }
+    }
+    /** @return the real Handle of an {@link Entity} that was created by the last {@link #playback()}, or the input if it isn't a Placeholder.
+     *
+     * @param entity the Placeholder returned by {@link #create()}.
+     *
+     * @author snoweuph
+     */
+    public long resolve(long entity){
+        if(!isPlaceholder(entity)) return entity;
+        return created.getOrDefault(entity, Entity.NULL);
+    }
+    /** @return the {@link World} the Changes get applied to.
+     *
+     * @author snoweuph
+     */
+    public World getWorld(){
+        return world;
+    }
+    /** @return whether nothing is recorded.
+     *
+     * @author snoweuph
+     */
+    public boolean isEmpty(){
+        synchronized (recorders){
+            for(Recorder current : recorders){
+                if(current.count > 0) return false;
+            }
+        }
+        return true;
+    }
+
+    //Internal Access for the Playback
+    /** @return whether the Handle is a Placeholder for an {@link Entity} that gets created by a Buffer.
+     *
+     * @param entity the Handle to test.
+     *
+     * @author snoweuph
+     */
+    static boolean isPlaceholder(long entity){
+        return (entity & PLACEHOLDER) != 0;
+    }
+    /** Stores the real Handle of an {@link Entity} created by the Playback.
+     *
+     * @param placeholder the Placeholder of the Entity.
+     * @param entity the real Handle.
+     *
+     * @author snoweuph
+     */
+    void setCreated(long placeholder, long entity){
+        created.put(placeholder, entity);
+    }
+    /** @return the Recorders of all Threads, in the Order the Threads started recording.
+     *
+     * @author snoweuph
+     */
+    List<Recorder> getRecorders(){
+        return recorders;
+    }
+
+    private Recorder createRecorder(){
+        synchronized (recorders){
+            Recorder created = new Recorder(recorders.size());
+            recorders.add(created);
+            return created;
+        }
+    }
+
+    /** The part of a {@link CommandBuffer} a single Thread records into.
+     * The Commands are stored as parallel Arrays of Operation, Entity and Payload, the Payload is a {@link Component} or a {@link Component} type.
+     *
+     * @author snoweuph
+     * @version 1.0
+     */
+    static final class Recorder {
+
+        final int id;
+        int[] operations = new int[64];
+        long[] entities = new long[64];
+        Object[] payloads = new Object[64];
+        int count = 0;
+        int createCount = 0;
+
+        Recorder(int id){
+            this.id = id;
+        }
+
+        void record(int operation, long entity, Object payload){
+            if(count == operations.length){
+                operations = Arrays.copyOf(operations, count * 2);
+                entities = Arrays.copyOf(entities, count * 2);
+                payloads = Arrays.copyOf(payloads, count * 2);
+            }
+            operations[count] = operation;
+            entities[count] = entity;
+            payloads[count] = payload;
+            count++;
+        }
+
+        void clear(){
+            Arrays.fill(payloads, 0, count, null);
+            count = 0;
+            createCount = 0;
+        }
+    }
+}
@@ -5,29 +5,72 @@ import java.util.List;
 /** This class contains the basic abstraction for a Component that will be used for an ECS.
  *
  * @implNote Classes extending this, should only store Data and don't have any functionality themselves.
+ * A Handle of another {@link Entity} stored in a {@code long} Field must be marked as {@link EntityReference},
+ * otherwise a loaded {@link Snapshot} keeps the old Handle, which points to a wrong or dead {@link Entity}.
  *
  * @author snoweuph
  * @version 1.0
  */
 public abstract class Component {
 
-    //The Entity the Component is on.
-    private Entity entity;
+    //The World and the Handle of the Entity the Component is on.
+    private World world;
+    private long entity = Entity.NULL;
+    //The Column the Component is stored in inside the Archetype of its Entity, the Row is tracked per Entity.
+    private int column = -1;
 
-    /** @return a list of new Instances of required Components.
+    /** @return a list of new Instances of required Components. The missing ones are added to the {@link Entity} as they are returned,
+     * so they can be configured, like {@code new Health(100)}. Only {@link Pooled} types are taken from their {@link ComponentPool} instead, in their reset State.
+     * The required types must be the same for all Instances of a type, they are only read once per type.
      *
      * @author snoweuph
      */
     protected abstract List<Component> getRequiredComponents();
+    /** Marks this Component as changed, so that {@link Query Queries} filtering with {@link Query#changed(Class[]) changed} find it.
+     * Changes through {@link QueryIterator#getMut(int)} are marked automatically.
+     *
+     * @author snoweuph
+     */
+    public void markChanged(){
+        if(world != null) world.markChanged(this);
+    }
+    /** Restores the Values of a new Instance, it gets called when an Instance of a {@link Pooled} type is returned to its {@link ComponentPool}.
+     * Pooled types should override it, the default does nothing.
+     *
+     * @author snoweuph
+     */
+    protected void reset(){
+    }
 
     //Getter
-    /** @return the Entity this Component is on.
+    /** @return the Entity this Component is on, or null if that Entity is destroyed.
      *
      * @author snoweuph
      */
     public Entity getEntity() {
+        return world == null ? null : world.getEntity(entity);
+    }
+    /** @return the Handle of the Entity this Component is on.
+     *
+     * @author snoweuph
+     */
+    public long getEntityHandle() {
         return entity;
     }
+    /** @return the {@link World} of the Entity this Component is on, or null if it never was on one.
+     *
+     * @author snoweuph
+     */
+    public World getWorld() {
+        return world;
+    }
+    /** @return the Column this Component was last stored in inside the {@link Archetype} of its Entity.
+     *
+     * @author snoweuph
+     */
+    int getColumn() {
+        return column;
+    }
 
     //Setter
     /** Sets the Entity this Component is on.
@@ -37,6 +80,34 @@ public abstract class Component {
      * @author snoweuph
      */
     protected void setEntity(Entity entity) {
+        this.entity = entity == null ? Entity.NULL : entity.getHandle();
+        this.world = entity == null ? null : entity.getWorld();
+    }
+    /** Sets the Handle of the Entity this Component is on, for Entities that don't have an Entity Object.
+     *
+     * @param entity the Handle of the entity this should be set on.
+     *
+     * @author snoweuph
+     */
+    void setEntityHandle(long entity) {
         this.entity = entity;
     }
+    /** Sets the {@link World} of the Entity this Component is on, the ECS does this whenever it stores the Component.
+     *
+     * @param world the {@link World}, null if the Component left it.
+     *
+     * @author snoweuph
+     */
+    void setWorld(World world) {
+        this.world = world;
+    }
+    /** Sets the Column this Component is stored in inside the {@link Archetype} of its Entity.
+     *
+     * @param column the Column inside the Signature.
+     *
+     * @author snoweuph
+     */
+    void setColumn(int column) {
+        this.column = column;
+    }
 }
@@ -0,0 +1,49 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.io.IOException;
+
+/** Writes and reads the Fields of a {@link Component} type for a {@link Snapshot}.
+ * Types without a registered Codec use a Codec that copies all primitive, String, Enum and {@link Entity} Fields through Reflection.
+ * A Codec is registered with {@link Snapshot#registerCodec(Class, ComponentCodec)}:
+ * <pre>{@code
+ * Snapshot.registerCodec(Transform.class, new ComponentCodec<>() {
+ *     public void write(Transform transform, SnapshotOutput out) throws IOException {
+ *         out.writeFloat(transform.x);
+ *         out.writeEntity(transform.parent);
+ *     }
+ *     public Transform read(SnapshotInput in) throws IOException {
+ *         Transform transform = new Transform();
+ *         transform.x = in.readFloat();
+ *         transform.parent = in.readEntity();
+ *         return transform;
+ *     }
+ * });
+ * }</pre>
+ *
+ * @param <T> the {@link Component} type.
+ *
+ * @implNote References to Entities must be written with {@link SnapshotOutput#writeEntity(long)},
+ * because loading gives every {@link Entity} a new Handle and only these are translated.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public interface ComponentCodec<T extends Component> {
+
+    /** Writes the Fields of a {@link Component}.
+     *
+     * @param component the {@link Component} to write.
+     * @param out the Output to write to.
+     *
+     * @author snoweuph
+     */
+    void write(T component, SnapshotOutput out) throws IOException;
+    /** Reads the Fields written by {@link #write(Component, SnapshotOutput)} into a new {@link Component}.
+     *
+     * @param in the Input to read from.
+     * @return the new {@link Component}, it must not be on an {@link Entity}.
+     *
+     * @author snoweuph
+     */
+    T read(SnapshotInput in) throws IOException;
+}
@@ -0,0 +1,153 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/** A live, read only View over all Instances of one {@link Component} type and the types inheriting from it.
+ * It doesn't copy anything, but walks the Columns of all {@link Archetype Archetypes} that contain a matching type.
+ * The matching Columns get registered by its {@link World} whenever a new {@link Archetype} gets created.
+ *
+ * @implNote Like an {@link ArrayList}, the Iterator fails fast if the Structure of the ECS changes while iterating.
+ * Instances of {@link Packed} types are returned as detached Copies.
+ * In the {@link World#setConcurrent(boolean) concurrent Mode} the Iterator walks a Snapshot instead, that is taken under the shared Lock.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class ComponentInstanceList extends AbstractList<Component> {
+
+    //The World this View lists the Instances of.
+    private final World world;
+    //The ID of the type this View lists, its Mask is looked up on every Match, so that Subtypes registered later are found.
+    private final int type;
+    //The matching Archetypes and the matching Column inside each of them, an Archetype can be listed once per matching Column.
+    private final List<Archetype> archetypes = new ArrayList<>();
+    private int[] columns = new int[8];
+
+    /** Creates a new empty View.
+     *
+     * @param world the {@link World} this View lists the Instances of.
+     * @param type the ID of the {@link Component} type this View lists the Instances of.
+     *
+     * @author snoweuph
+     */
+    ComponentInstanceList(World world, int type){
+        this.world = world;
+        this.type = type;
+    }
+
+    /** Registers all Columns of an {@link Archetype} that hold this Views type or a type inheriting from it.
+     *
+     * @param archetype the {@link Archetype} to test.
+     *
+     * @author snoweuph
+     */
+    void match(Archetype archetype){
+        Signature signature = archetype.getSignature();
+        BitSet types = ComponentTypeRegistry.getDescendants(type);
+        if(!signature.getMask().intersects(types)) return;
+        for(int column = 0; column < signature.size(); column++){
+            if(!types.get(signature.get(column))) continue;
+            if(archetypes.size() == columns.length){
+                int[] grown = new int[columns.length * 2];
+                System.arraycopy(columns, 0, grown, 0, columns.length);
+                columns = grown;
+            }
+            columns[archetypes.size()] = column;
+            archetypes.add(archetype);
+        }
+    }
+
+    @Override
+    public Component get(int index) {
+        if(world.isConcurrent()) return world.readOptimistic(() -> getUnlocked(index));
+        return getUnlocked(index);
+    }
+    private Component getUnlocked(int index){
+        if(index < 0) throw new IndexOutOfBoundsException(index);
+        for(int i = 0; i < archetypes.size(); i++){
+            Archetype archetype = archetypes.get(i);
+            if(index < archetype.size()) return archetype.get(index, columns[i]);
+            index -= archetype.size();
+        }
+        throw new IndexOutOfBoundsException(index);
+    }
+
+    @Override
+    public int size() {
+        if(world.isConcurrent()) return world.readOptimistic(this::sizeUnlocked);
+        return sizeUnlocked();
+    }
+    private int sizeUnlocked(){
+        int size = 0;
+        for(Archetype archetype : archetypes){
+            size += archetype.size();
+        }
+        return size;
+    }
+
+    @Override
+    public Iterator<Component> iterator() {
+        if(world.isConcurrent()){
+            long stamp = world.lockRead();
+            try{
+                List<Component> snapshot = new ArrayList<>(sizeUnlocked());
+                liveIterator().forEachRemaining(snapshot::add);
+                return snapshot.iterator();
+            }finally{
+                world.unlockRead(stamp);
+            }
+        }
+        return liveIterator();
+    }
+    private Iterator<Component> liveIterator(){
+        return new Iterator<>() {
+            private final int expectedVersion = world.getStructureVersion();
+            private int archetype = -1;
+            private int chunk;
+            private int row;
+            private ArchetypeChunk current;
+            private Component[] column;
+            private int columnIndex;
+            private int columnSize;
+
+            @Override
+            public boolean hasNext() {
+                if(current != null && row < columnSize) return true;
+                //Advance to the next non empty Chunk
+                while (true){
+                    List<ArchetypeChunk> chunks = archetype >= 0 ? archetypes.get(archetype).getChunks() : null;
+                    if(chunks != null && chunk + 1 < chunks.size()){
+                        chunk++;
+                    }else{
+                        if(archetype + 1 >= archetypes.size()) return false;
+                        archetype++;
+                        chunk = 0;
+                        chunks = archetypes.get(archetype).getChunks();
+                        if(chunks.isEmpty()) continue;
+                    }
+                    current = chunks.get(chunk);
+                    columnIndex = columns[archetype];
+                    column = current.columns[columnIndex];
+                    columnSize = current.size;
+                    row = 0;
+                    if(columnSize > 0) return true;
+                }
+            }
+
+            @Override
+            public Component next() {
+                if(world.getStructureVersion() != expectedVersion) throw new ConcurrentModificationException();
+                if(!hasNext()) throw new NoSuchElementException();
+                //Packed Columns don't hold any Objects, so these return a Copy
+                if(column == null) return current.get(columnIndex, row++);
+                return column[row++];
+            }
+        };
+    }
+}
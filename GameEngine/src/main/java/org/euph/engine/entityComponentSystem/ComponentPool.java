@@ -0,0 +1,163 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/** The Pool of free Instances of a {@link Pooled} {@link Component} type.
+ * The ECS returns Instances to it when their {@link Entity} is destroyed and takes Instances from it for required Components,
+ * so short lived Entities like Bullets or Effects don't create Garbage once the Pool is warm.
+ * It is a Supplier, so it can be used directly as a Template of {@link Entity#spawnBatch(int, Supplier[])}.
+ *
+ * @param <T> the {@link Component} type.
+ *
+ * @implNote Instances are reset with {@link Component#reset()} when they are returned, not when they are taken.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class ComponentPool<T extends Component> implements Supplier<T> {
+
+    //The Pools of all types that were asked for, empty if the type isn't pooled.
+    private static final Map<Class<? extends Component>, Optional<ComponentPool<?>>> pools = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+    private final Constructor<T> constructor;
+    private final int capacity;
+    //The free Instances, used as a Stack.
+    private Object[] free = new Object[16];
+    private int size = 0;
+    //The Counters.
+    private long hits = 0;
+    private long misses = 0;
+    private int inUse = 0;
+    private int highWater = 0;
+
+    private ComponentPool(Class<T> type){
+        this.type = type;
+        this.capacity = type.getAnnotation(Pooled.class).capacity();
+        try{
+            constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        }catch (NoSuchMethodException e){
+            throw new IllegalArgumentException("The Pooled Component " + type.getName() + " needs a Constructor without Parameters", e);
+        }
+    }
+
+    /** @return the Pool of a {@link Pooled} {@link Component} type.
+     *
+     * @param componentClass the {@link Component} type.
+     * @param <T> the {@link Component} type.
+     *
+     * @throws IllegalArgumentException the type isn't {@link Pooled} or can't be pooled.
+     *
+     * @author snoweuph
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Component> ComponentPool<T> of(Class<T> componentClass){
+        ComponentPool<?> pool = get(componentClass);
+        if(pool == null) throw new IllegalArgumentException("The Component " + componentClass.getName() + " isn't Pooled");
+        return (ComponentPool<T>) pool;
+    }
+    /** @return the Pool of a {@link Component} type, or null if it isn't {@link Pooled}.
+     *
+     * @param componentClass the {@link Component} type.
+     *
+     * @author snoweuph
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static ComponentPool<?> get(Class<? extends Component> componentClass){
+        Optional<ComponentPool<?>> pool = pools.get(componentClass);
+        if(pool == null){
+            boolean pooled = componentClass.isAnnotationPresent(Pooled.class) && !componentClass.isAnnotationPresent(Packed.class);
+            pool = pooled ? Optional.of(new ComponentPool(componentClass)) : Optional.empty();
+            Optional<ComponentPool<?>> previous = pools.putIfAbsent(componentClass, pool);
+            if(previous != null) pool = previous;
+        }
+        return pool.orElse(null);
+    }
+
+    /** @return a free Instance, or a new one if the Pool is empty.
+     *
+     * @author snoweuph
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T obtain(){
+        if(++inUse > highWater) highWater = inUse;
+        if(size > 0){
+            hits++;
+            T component = (T) free[--size];
+            free[size] = null;
+            return component;
+        }
+        misses++;
+        try{
+            return constructor.newInstance();
+        }catch (InstantiationException | IllegalAccessException | InvocationTargetException e){
+            throw new IllegalStateException("Couldn't create the Pooled Component " + type.getName(), e);
+        }
+    }
+    /** Same as {@link #obtain()}, so that the Pool can be used as a Supplier.
+     *
+     * @return a free Instance, or a new one if the Pool is empty.
+     *
+     * @author snoweuph
+     */
+    @Override
+    public T get() {
+        return obtain();
+    }
+    /** Resets an Instance and keeps it for later, if the Pool isn't full. The ECS does this by itself.
+     *
+     * @param component the Instance, it must not be on an {@link Entity} anymore.
+     *
+     * @author snoweuph
+     */
+    synchronized void release(Component component){
+        if(inUse > 0) inUse--;
+        component.setWorld(null);
+        component.setEntityHandle(Entity.NULL);
+        component.setColumn(-1);
+        component.reset();
+        if(size == capacity) return;
+        if(size == free.length) free = Arrays.copyOf(free, Math.min(capacity, size * 2));
+        free[size++] = component;
+    }
+    /** Creates Instances until the Pool holds the given amount of free Instances, to avoid Allocations later on.
+     *
+     * @param count the amount of free Instances, it is limited to the Capacity.
+     *
+     * @author snoweuph
+     */
+    public synchronized void prefill(int count){
+        count = Math.min(count, capacity);
+        if(count > free.length) free = Arrays.copyOf(free, count);
+        try{
+            while(size < count){
+                free[size++] = constructor.newInstance();
+            }
+        }catch (InstantiationException | IllegalAccessException | InvocationTargetException e){
+            throw new IllegalStateException("Couldn't create the Pooled Component " + type.getName(), e);
+        }
+    }
+
+    //Getter
+    /** @return a Snapshot of the Counters of this Pool.
+     *
+     * @author snoweuph
+     */
+    public synchronized PoolStatistics getStatistics(){
+        return new PoolStatistics(hits, misses, size, highWater);
+    }
+    /** @return the {@link Component} type of this Pool.
+     *
+     * @author snoweuph
+     */
+    public Class<T> getType(){
+        return type;
+    }
+}
@@ -0,0 +1,159 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.euph.engine.util.ProjectIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** This Registry gives every {@link Component} type a dense Integer ID and precomputes its Inheritance as Bitmasks.
+ * The Ancestor Mask of a type holds the IDs of all types it can be assigned to, the Descendant Mask holds the IDs of all types that can be assigned to it.
+ * Both Masks contain the type itself. With these, all Inheritance aware lookups of the ECS are simple Bit Operations.
+ * It also caches the {@link RequiredComponents Closure of the required Components} of every type, so that Requirements are only walked once.
+ *
+ * @implNote All types listed in the generated {@link ProjectIndex Type Index} get registered once on Startup, ordered by Name.
+ * Types that weren't found, for example Classes defined outside the scanned Package, get registered on first use.
+ * Lookups are lock free, registering on first use is synchronized, so that Systems running in parallel can use it.
+ * The Masks are copy on write: a published Mask never changes, registering a type publishes new Arrays of Masks
+ * in which every Mask that gains the new type is a changed Copy. So a Thread that reads a Mask while another one registers
+ * always sees a complete Mask, just without the new type. Holders of a Mask look it up again instead of caching it.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+final class ComponentTypeRegistry {
+
+    private static final Map<Class<? extends Component>, Integer> ids = new ConcurrentHashMap<>();
+    private static final List<Class<? extends Component>> types = new CopyOnWriteArrayList<>();
+    //The Masks by ID, replaced as a whole by every Registration.
+    private static volatile BitSet[] ancestors = new BitSet[0];
+    private static volatile BitSet[] descendants = new BitSet[0];
+    private static final Map<Class<? extends Component>, RequiredComponents> required = new ConcurrentHashMap<>();
+
+    static {
+        //Register all known Component Types at once
+        List<Class<? extends Component>> known = new ArrayList<>(ProjectIndex.getSubTypesOf(Component.class));
+        known.sort(Comparator.comparing(Class::getName));
+        for(Class<? extends Component> type : known){
+            register(type);
+        }
+    }
+
+    private ComponentTypeRegistry(){}
+
+    /** @return the ID of a {@link Component} type, if it isn't registered yet it will be.
+     *
+     * @param componentClass the {@link Component} type.
+     *
+     * @author snoweuph
+     */
+    static int getId(Class<? extends Component> componentClass){
+        Integer id = ids.get(componentClass);
+        if(id != null) return id;
+        return register(componentClass);
+    }
+    /** @return the {@link Component} type registered with an ID.
+     *
+     * @param id the ID of the type.
+     *
+     * @author snoweuph
+     */
+    static Class<? extends Component> getType(int id){
+        return types.get(id);
+    }
+    /** @return the Mask of all types the type can be assigned to, including itself.
+     *
+     * @param id the ID of the type.
+     *
+     * @implNote The returned Mask is Shared and must not be modified. It never changes, types registered later are only in the Masks returned afterwards.
+     *
+     * @author snoweuph
+     */
+    static BitSet getAncestors(int id){
+        return ancestors[id];
+    }
+    /** @return the Mask of all types that can be assigned to the type, including itself.
+     * This is what is needed to for example find all Colliders including BoxCollider and MeshCollider.
+     *
+     * @param id the ID of the type.
+     *
+     * @implNote The returned Mask is Shared and must not be modified. It never changes, types registered later are only in the Masks returned afterwards.
+     *
+     * @author snoweuph
+     */
+    static BitSet getDescendants(int id){
+        return descendants[id];
+    }
+    /** @return the Closure of the required Components of the type of a {@link Component}.
+     * It is computed and checked for Cycles the first time an Instance of the type gets added to an {@link Entity}.
+     *
+     * @param component an Instance of the type.
+     *
+     * @throws IllegalStateException the Requirements of the type contain a Cycle.
+     *
+     * @author snoweuph
+     */
+    static RequiredComponents getRequired(Component component){
+        RequiredComponents closure = required.get(component.getClass());
+        if(closure != null) return closure;
+        //Computing it twice in a Race is harmless, both Results are equal
+        closure = RequiredComponents.of(component);
+        RequiredComponents previous = required.putIfAbsent(component.getClass(), closure);
+        return previous != null ? previous : closure;
+    }
+    /** @return the amount of registered types, which is also the next free ID.
+     *
+     * @author snoweuph
+     */
+    static int size(){
+        return types.size();
+    }
+
+    /** Registers a new type and links its Inheritance Masks with all already registered types.
+     * The Masks of the other types that change are copied, so that no published Mask gets modified.
+     *
+     * @param componentClass the {@link Component} type to register.
+     * @return the new ID.
+     *
+     * @author snoweuph
+     */
+    private static synchronized int register(Class<? extends Component> componentClass){
+        //Another Thread might have registered it in the meantime
+        Integer registered = ids.get(componentClass);
+        if(registered != null) return registered;
+        int id = types.size();
+        BitSet[] newAncestors = Arrays.copyOf(ancestors, id + 1);
+        BitSet[] newDescendants = Arrays.copyOf(descendants, id + 1);
+        BitSet ancestorMask = new BitSet();
+        BitSet descendantMask = new BitSet();
+        ancestorMask.set(id);
+        descendantMask.set(id);
+        //Link with all already registered Types
+        for(int other = 0; other < id; other++){
+            Class<? extends Component> otherClass = types.get(other);
+            if(otherClass.isAssignableFrom(componentClass)){
+                ancestorMask.set(other);
+                newDescendants[other] = (BitSet) newDescendants[other].clone();
+                newDescendants[other].set(id);
+            }
+            if(componentClass.isAssignableFrom(otherClass)){
+                descendantMask.set(other);
+                newAncestors[other] = (BitSet) newAncestors[other].clone();
+                newAncestors[other].set(id);
+            }
+        }
+        newAncestors[id] = ancestorMask;
+        newDescendants[id] = descendantMask;
+        //Publish the Masks before the type, and the ID last, so that every Thread that sees the ID also sees its Masks
+        ancestors = newAncestors;
+        descendants = newDescendants;
+        types.add(componentClass);
+        ids.put(componentClass, id);
+        return id;
+    }
+}
\ No newline at end of file
@@ -1,25 +1,171 @@
 package org.euph.engine.entityComponentSystem;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /** A Base class for all Systems of the ECS.
  * This class also is a wrapper for some protected functions of the ECS that should to
  * be accessed by these kind of systems, but should not be public fo safety.
  *
+ * Every System belongs to one {@link World}, Systems that are created without one belong to the {@link EntityComponentSystem#getDefaultWorld() default World}.
+ *
+ * @implNote Systems that run inside a {@link SystemScheduler} can run in parallel with other Systems.
+ * They need to declare which {@link Component} types they read and write and should only change the Structure of the ECS through {@link #getCommands()}.
+ *
  * @author snoweuph
  * @version 1.0
  */
 public abstract class EngineSystem {
 
-    /** Wraps the {@link EntityComponentSystem#getComponentInstances(Class) getComponentInstances(Class)} function
-     * of the {@link EntityComponentSystem ECS} that is protected, so that it's available to the Systems of the ECS that need it.
+    //The World this System works on.
+    private final World world;
+    //The Buffer for structural Changes, set by the Scheduler that runs this System.
+    private CommandBuffer commands;
+    //The Tick of the last and of the current Run, for Change Detection.
+    private long lastRunTick = 0;
+    private long currentTick = 0;
+
+    /** Creates a System of the {@link EntityComponentSystem#getDefaultWorld() default World}.
+     *
+     * @author snoweuph
+     */
+    protected EngineSystem(){
+        this(EntityComponentSystem.getDefaultWorld());
+    }
+    /** Creates a System.
+     *
+     * @param world the {@link World} this System works on.
+     *
+     * @author snoweuph
+     */
+    protected EngineSystem(World world){
+        this.world = world;
+    }
+
+    /** Runs this System once and advances its Ticks, so that Changes made during this Run are new for its next Run.
+     *
+     * @param delta the Time since the last Update in Seconds.
+     *
+     * @author snoweuph
+     */
+    public final void run(float delta){
+        currentTick = world.advanceTick();
+        update(delta);
+        lastRunTick = currentTick;
+    }
+    /** Runs this System once, it gets called by {@link #run(float)}.
+     *
+     * @param delta the Time since the last Update in Seconds.
+     *
+     * @author snoweuph
+     */
+    protected abstract void update(float delta);
+
+    /** @return a list of the {@link Component} types this System reads. Inheriting types are included automatically.
+     *
+     * @author snoweuph
+     */
+    protected List<Class<? extends Component>> getReadComponents(){
+        return new ArrayList<>();
+    }
+    /** @return a list of the {@link Component} types this System writes. Inheriting types are included automatically.
+     *
+     * @author snoweuph
+     */
+    protected List<Class<? extends Component>> getWriteComponents(){
+        return new ArrayList<>();
+    }
+    /** @return whether this System needs to run alone, because it accesses the ECS in a way that can't be declared, for example by changing its Structure directly.
+     *
+     * @author snoweuph
+     */
+    protected boolean isExclusive(){
+        return false;
+    }
+
+    /** Wraps the getComponentInstances function of the {@link World} of this System that isn't public,
+     * so that it's available to the Systems of the ECS that need it.
      *
      * @param componentClass the type of component to search for.
      * @return the list of all Instances of this type of Component.
      *
      * @author snoweuph
      */
-    protected static List<Component> getComponentInstances(Class<? extends Component> componentClass){
-        return EntityComponentSystem.getComponentInstances(componentClass);
+    protected List<Component> getComponentInstances(Class<? extends Component> componentClass){
+        return world.getComponentInstances(componentClass);
+    }
+    /** Creates a new cached {@link Query} over all {@link Entity Entities} that have a {@link Component} of each type.
+     * The Query can be refined with {@link Query#without(Class[]) without} and {@link Query#optional(Class[]) optional} Terms.
+     * It should be created once and then be iterated every Frame.
+     *
+     * @param with the types every matching {@link Entity} must have.
+     * @return the new {@link Query}.
+     *
+     * @author snoweuph
+     */
+    @SafeVarargs
+    protected final Query query(Class<? extends Component>... with){
+        return new Query(this).with(with);
+    }
+    /** Creates a new Reader of the {@link Entity Entities} a {@link Component} type was removed from since the last Run of this System.
+     * It should be created once, Removals before its Creation aren't listed.
+     *
+     * @param componentClass the {@link Component} type, inheriting types are included.
+     * @return the new {@link RemovedComponents} Reader.
+     *
+     * @author snoweuph
+     */
+    protected final RemovedComponents removed(Class<? extends Component> componentClass){
+        return new RemovedComponents(this, componentClass);
+    }
+    /** @return the {@link CommandBuffer} for structural Changes, it gets played back by the {@link SystemScheduler} at the end of the Frame.
+     * If this System isn't run by a Scheduler, a Buffer of its own is created that needs to be played back manually.
+     *
+     * @author snoweuph
+     */
+    protected CommandBuffer getCommands(){
+        if(commands == null) commands = new CommandBuffer(world);
+        return commands;
+    }
+
+    /** @return the Name of this System, as shown by Profilers and Metrics. By default it is the Name of its Class.
+     *
+     * @author snoweuph
+     */
+    public String getName(){
+        String name = getClass().getSimpleName();
+        return name.isEmpty() ? getClass().getName() : name;
+    }
+    /** @return the {@link World} this System works on.
+     *
+     * @author snoweuph
+     */
+    public World getWorld(){
+        return world;
+    }
+    /** @return the Tick of the last finished Run of this System, 0 if it never ran.
+     *
+     * @author snoweuph
+     */
+    public long getLastRunTick(){
+        return lastRunTick;
+    }
+    /** @return the Tick of the current Run of this System, Changes made through its {@link Query Queries} are recorded at this Tick.
+     *
+     * @author snoweuph
+     */
+    public long getCurrentTick(){
+        return currentTick;
+    }
+
+    //Setter
+    /** Sets the {@link CommandBuffer} this System records its structural Changes into.
+     *
+     * @param commands the {@link CommandBuffer} to use.
+     *
+     * @author snoweuph
+     */
+    void setCommands(CommandBuffer commands){
+        this.commands = commands;
     }
 }
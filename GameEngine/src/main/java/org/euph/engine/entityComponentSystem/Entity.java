@@ -1,81 +1,76 @@
 package org.euph.engine.entityComponentSystem;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /** This is the Definition of an Entity inside the ECS.
+ * Inside the ECS an Entity is only a generational Handle, this Object is a thin Facade around it and the {@link World} the Handle belongs to.
+ * Entities can also be used without this Object, through the Handle functions of their {@link World}.
+ * The static Handle functions of this Class use the {@link EntityComponentSystem#getDefaultWorld() default World}.
  *
  * @author snoweuph
  * @version 1.0
  */
 public class Entity {
 
-    private boolean destroyed = false;
+    /** The Handle that never belongs to any Entity. */
+    public static final long NULL = 0L;
+
+    private final World world;
+    private final long handle;
     //Constructor
+    /** Creates a new Entity without any Components in the {@link EntityComponentSystem#getDefaultWorld() default World}.
+     *
+     * @author snoweuph
+     */
     public Entity(){
-        EntityComponentSystem.createEntity(this);
+        this(EntityComponentSystem.getDefaultWorld());
     }
-    //Component Handling
-
-    /** Puts a Component onto this Entity.
+    /** Creates a new Entity without any Components.
      *
-     * @param component the Component to put onto this.
+     * @param world the {@link World} the Entity lives in.
      *
-     * @return returns this Entity, so that functions can be stacked.
+     * @author snoweuph
+     */
+    public Entity(World world){
+        this.world = world;
+        handle = world.createHandle();
+        world.setEntity(this);
+    }
+    /** Creates the Facade for an already existing Handle, only the ECS does this.
+     *
+     * @param world the {@link World} the Handle belongs to.
+     * @param handle the Handle of the Entity.
      *
      * @author snoweuph
      */
-    public Entity putComponent(Component component){
-        putComponent(component, new ArrayList<>());
-        return this;
+    Entity(World world, long handle){
+        this.world = world;
+        this.handle = handle;
     }
+    //Component Handling
 
-    /** The Recursive Function for Putting a Component onto an Entity and also adding all required Components.
-     * This Function is wrapped by {@link #putComponent(Component)}.
-     * parameter `List<Class<? extends Component>> componentsOnEntityList` and return value `List<Class<? extends Component>>` are Important
-     * for keeping track of what Components are on the Entity without making Lots of Calls to {@link EntityComponentSystem#getComponentsOnEntity(Entity)},
-     * while trying to add all required Components.
+    /** Puts a Component onto this Entity, together with all required Components whose type isn't on this Entity yet.
+     * If the Component is on another Entity, it gets removed from it first, even if that Entity is in another {@link World}.
      *
-     * @throws IllegalStateException This Entity is Destroyed and Waiting for GC. It shouldn't have anymore references
+     * @param component the Component to put onto this.
      *
-     * @param component The Component it should add.
-     * @param componentsOnEntityList The List of Components that are on the Entity.
+     * @return returns this Entity, so that functions can be stacked.
+     *
+     * @throws IllegalStateException This Entity is Destroyed, or the required Components of the Component contain a Cycle.
      *
-     * @return the List of the Classes of Components It added in that Cycle.
+     * @implNote The required Components are resolved once per Component type, all missing ones are added in a single Move of this Entity.
      *
      * @author snoweuph
      */
-    private List<Class<? extends Component>> putComponent(Component component, List<Class<? extends Component>> componentsOnEntityList){
+    public Entity putComponent(Component component){
         //If Already Destroyed Ignore and return
-        if(destroyed) throw new IllegalStateException("This Entity is Destroyed and Waiting for GC. It shouldn't have anymore references");
+        if(isDestroyed()) throw new IllegalStateException("This Entity is Destroyed. It shouldn't have anymore references");
         //Remove the Old References from the ECS
-        if(component.getEntity() != null) EntityComponentSystem.removeComponentReferences(component);
-        //Set the new Entity
-        component.setEntity(this);
-        //Add the References to the ECS
-        EntityComponentSystem.addComponentReferences(component, this);
-        //Create a list of Existing Components on the Entity, if not an empty one was passed
-        List<Class<? extends Component>> componentsOnEntity = componentsOnEntityList;
-        if(componentsOnEntity.size() == 0){
-            List<Class<? extends Component>> tempComponentsOnEntity = componentsOnEntity;
-            EntityComponentSystem.getComponentsOnEntity(this).forEach(c -> tempComponentsOnEntity.add(c.getClass()));
-            //Filter of Duplicate Entries.
-            componentsOnEntity = tempComponentsOnEntity.stream().distinct().collect(Collectors.toList());
-        }
-        //Create a List to store all Added Components
-        List<Class<? extends Component>> addedComponents = new ArrayList<>();
-        //Iterate over Required Components
-        for (Component requiredComponent: component.getRequiredComponents()){
-            //Continue if Required Component is on Entity
-            if(componentsOnEntity.contains(requiredComponent.getClass())) continue;
-            //Run this Function Recursive for the Required Component, add the Added Components to the list of Components on this Entity and then remove duplicates
-            componentsOnEntity.addAll(putComponent(requiredComponent, componentsOnEntity));
-            addedComponents.add(requiredComponent.getClass());
-            componentsOnEntity = componentsOnEntity.stream().distinct().collect(Collectors.toList());
-        }
-        //Return list of added Components
-        return addedComponents;
+        if(component.getEntityHandle() != NULL && component.getWorld() != null) component.getWorld().removeComponentReferences(component);
+        //Add the References to the ECS, together with all missing required Components
+        world.addComponentReferences(component, handle);
+        return this;
     }
 
     /** Removes a Specific Component from the Entity.
@@ -88,8 +83,8 @@ public class Entity {
      */
     public Entity removeComponent(Component component){
         //If Already Destroyed Ignore and return
-        if(destroyed) throw new IllegalStateException("This Entity is Destroyed and Waiting for GC. It shouldn't have anymore references");
-        EntityComponentSystem.removeComponentReferences(component);
+        if(isDestroyed()) throw new IllegalStateException("This Entity is Destroyed. It shouldn't have anymore references");
+        if(component.getWorld() != null) component.getWorld().removeComponentReferences(component);
         return this;
     }
     /** Removes all Components of a Specific Type that are on an Entity
@@ -102,21 +97,86 @@ public class Entity {
      */
     public Entity removeAllComponents(Class<?extends Component> componentClass){
         //If Already Destroyed Ignore and return
-        if(destroyed) throw new IllegalStateException("This Entity is Destroyed and Waiting for GC. It shouldn't have anymore references");
-        EntityComponentSystem.removeComponentReferences(this, componentClass);
+        if(isDestroyed()) throw new IllegalStateException("This Entity is Destroyed. It shouldn't have anymore references");
+        world.removeComponentReferences(handle, componentClass);
         return this;
     }
 
     //Entity Handling
-    /** This removes all Entries inside the ECS of this entity, so that the entity can wait for Garbage Collecting
+    /** This removes all Entries inside the ECS of this entity. Its Handle gets recycled and all Handles to it are stale afterwards.
      *
      * @implNote Remove all References to this Entity after running this.
      *
      * @author snoweuph
      */
     public void destroy(){
-        destroyed = true;
-        EntityComponentSystem.deleteEntity(this);
+        world.destroy(handle);
+    }
+
+    //Handle Handling
+    /** Creates a new Entity in the default {@link World} without creating an Entity Object for it.
+     *
+     * @return the Handle of the new Entity.
+     *
+     * @author snoweuph
+     */
+    public static long createHandle(){
+        return EntityComponentSystem.getDefaultWorld().createHandle();
+    }
+    /** Creates many Entities in the default {@link World} at once, each gets a new {@link Component} from every Supplier of the Template and all required Components.
+     * This is much cheaper than creating them one by one, because the Storage is reserved once
+     * and every Entity is placed directly inside its final {@link Archetype}.
+     * <pre>{@code
+     * long[] enemies = Entity.spawnBatch(10000, Transform::new, EnemyAI::new);
+     * long[] bullets = Entity.spawnBatch(64, ComponentPool.of(Bullet.class));
+     * }</pre>
+     * {@link Pooled} types should be taken from their {@link ComponentPool}, which is a Supplier itself.
+     *
+     * @param count the amount of Entities to create.
+     * @param template one Supplier per {@link Component} every Entity should get.
+     * @return the Handles of the new Entities.
+     *
+     * @author snoweuph
+     */
+    @SafeVarargs
+    public static long[] spawnBatch(int count, Supplier<? extends Component>... template){
+        return EntityComponentSystem.getDefaultWorld().spawnBatch(count, template);
+    }
+    /** Destroys the Entity of a Handle of the default {@link World}, stale Handles are ignored.
+     *
+     * @param handle the Handle of the Entity to destroy.
+     *
+     * @author snoweuph
+     */
+    public static void destroy(long handle){
+        EntityComponentSystem.getDefaultWorld().destroy(handle);
+    }
+    /** Destroys the Entities of many Handles of the default {@link World} at once, stale Handles are ignored.
+     *
+     * @param handles the Handles of the Entities to destroy.
+     *
+     * @author snoweuph
+     */
+    public static void destroyBatch(long... handles){
+        EntityComponentSystem.getDefaultWorld().destroyBatch(handles);
+    }
+    /** @return whether the Handle belongs to an Entity of the default {@link World} that isn't destroyed yet.
+     *
+     * @param handle the Handle to test.
+     *
+     * @author snoweuph
+     */
+    public static boolean isAlive(long handle){
+        return EntityComponentSystem.getDefaultWorld().isAlive(handle);
+    }
+    /** @return the Entity Object of a Handle of the default {@link World}, or null if the Handle is stale.
+     *
+     * @param handle the Handle of the Entity.
+     *
+     * @author snoweuph
+     */
+    public static Entity of(long handle){
+        return EntityComponentSystem.getDefaultWorld().getEntity(handle);
     }
 
     //Getter
@@ -127,7 +187,21 @@ public class Entity {
      * @author snoweuph
      */
     public boolean isDestroyed() {
-        return destroyed;
+        return !world.isAlive(handle);
+    }
+    /** @return the {@link World} this Entity lives in.
+     *
+     * @author snoweuph
+     */
+    public World getWorld() {
+        return world;
+    }
+    /** @return the generational Handle of this Entity, it is cheap to store and to serialize.
+     *
+     * @author snoweuph
+     */
+    public long getHandle() {
+        return handle;
     }
 
     /** @return a list of all Components that are on this Entity
@@ -135,6 +209,18 @@ public class Entity {
      * @author snoweuph
      */
     public List<Component> getComponents(){
-        return EntityComponentSystem.getComponentsOnEntity(this);
+        return world.getComponentsOnEntity(handle);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof Entity)) return false;
+        return handle == ((Entity) o).handle && world == ((Entity) o).world;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(handle);
     }
 }
@@ -1,196 +1,203 @@
 package org.euph.engine.entityComponentSystem;
 
-import org.euph.engine.util.ProjectReflection;
-
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Supplier;
 
-/** The ECS itself. It Stores all needed references and is responsible to keep track of these and that they don't get corrupted.
- * Because of its responsibility it has an extremely tight Security and only expose what is really needed to be exposed.
+/** The Facade over the default {@link World}. Everything that isn't given a {@link World} explicitly, like {@link Entity#Entity() new Entity()},
+ * the static Handle functions of {@link Entity} or Systems created without a {@link World}, lives in the default {@link World}.
+ * A Process that only runs a single Simulation never needs to create a {@link World} itself.
+ *
+ * @implNote The default {@link World} is created on first use and lives as long as the Process.
+ * All State lives inside the {@link World Worlds}, this Class only forwards to the default one.
  *
  * @author snoweuph
  * @version 1.0
  */
 public class EntityComponentSystem {
 
-    /** This Map Keeps track of all Instances of all {@link Component } Types.
-     * The Systems of the ECS will use it to get all instances of specific {@link Component} to do their operation on the data these components hold.
-     */
-    private static final Map<Class<? extends Component>, List<Component>> componentInstancesMap = new HashMap<>();
-    /** This Map Keeps track of all the Instances of {@link Component Components} that are on an {@link Entity}.
-     * This is needed to ensure that each {@link Entity} has all the {@link Component Components}, the {@link Component Components} on it require.
-     * an example would be that a MeshRenderer requires a Mesh component to work.
-     * Keeping track and exposing some functionality of it through {@link Entity Entities} is also important to get some basic functionality working.
+    /** The {@link World} that is used by everything that isn't given one. */
+    private static final World defaultWorld = new World();
+
+    /** @return the default {@link World}.
+     *
+     * @author snoweuph
      */
-    private static final Map<Entity, List<Component>> entityComponentMap = new HashMap<>();
+    public static World getDefaultWorld(){
+        return defaultWorld;
+    }
 
-    /** This will register a newly created {@link Entity} from inside its Constructor.
+    /** This will create a new {@link Entity} without any {@link Component Components} in the default {@link World}.
+     *
+     * @return the Handle of the new {@link Entity}.
+     *
+     * @author snoweuph
+     */
+    protected static long createEntity(){
+        return defaultWorld.createHandle();
+    }
+    /** This will do the unregistering for an {@link Entity} of the default {@link World} that is currently getting deleted.
+     *
+     * @param entity the Handle of the {@link Entity} to unregister.
+     *
+     * @author snoweuph
+     */
+    protected static void deleteEntity(long entity){
+        defaultWorld.destroy(entity);
+    }
+    /** This will create many {@link Entity Entities} in the default {@link World} at once.
      *
-     * @param entity the {@link Entity} that is currently created.
+     * @param count the amount of Entities to create.
+     * @param template one Supplier per {@link Component} every {@link Entity} gets.
+     * @return the Handles of the new Entities.
      *
      * @author snoweuph
      */
-    protected static void createEntity(Entity entity){
-        //Test if this instance already has a references, if yes return.
-        if(entityComponentMap.containsKey(entity)) return;
-        //Create new Entry for this Entity.
-        entityComponentMap.put(entity, new ArrayList<>());
+    protected static long[] createEntities(int count, Supplier<? extends Component>[] template){
+        return defaultWorld.spawnBatch(count, template);
     }
-    /** This will do the unregistering for an {@link Entity} that is currently getting deleted.
-     * after this the {@link Entity#destroyed destroyed status} should be set to true to ensure that no more operations will be done on that {@link Entity}.
+    /** This will delete many {@link Entity Entities} of the default {@link World} at once, stale Handles are ignored.
      *
-     * @param entity the {@link Entity} to unregister.
+     * @param handles the Handles of the Entities to delete.
      *
      * @author snoweuph
      */
-    protected static void deleteEntity(Entity entity){
-        //Test if this instance already has a references, if no return.
-        if(!entityComponentMap.containsKey(entity)) return;
-        //Remove the References for all Components on the Entity
-        for (Component component : entityComponentMap.get(entity)){
-            removeComponentReferences(component);
-        }
-        //Remove it from the Entity-Component Map
-        entityComponentMap.remove(entity);
+    protected static void deleteEntities(long[] handles){
+        defaultWorld.destroyBatch(handles);
     }
-    /** This will register a {@link Component} to an {@link Entity}.
+    /** This will register a {@link Component} to an {@link Entity} of the default {@link World}, together with all its missing required Components.
      *
      * @param component the {@link Component} to register.
-     * @param entity the {@link Entity} to register to.
+     * @param entity the Handle of the {@link Entity} to register to.
+     *
+     * @throws IllegalStateException the Requirements of the {@link Component} type contain a Cycle.
      *
      * @author snoweuph
      */
-    protected static void addComponentReferences(Component component, Entity entity){
-        //References to the Components Class
-        Class<? extends Component> componentClass = component.getClass();
-        List<Class<? extends Component>> targets = getComponentInheritanceList(componentClass);
-        targets.add(componentClass);
-        //Test if an Arraylist for the targeted Components already exists, if not, create one.
-        for(Class<? extends Component> target : targets){
-            if(!componentInstancesMap.containsKey(target)){
-                componentInstancesMap.put(target, new ArrayList<>());
-            }
-
-        }
-        //Add the Entry to the Entity-Component Map
-        List<Component> entityComponentsList = entityComponentMap.get(entity);
-        entityComponentsList.add(component);
-        entityComponentMap.put(entity, entityComponentsList);
-        //Append the Component Instance to the appropriate ArrayLists inside the Map;
-        for(Class<? extends Component> target : targets){
-            List<Component> instanceList = componentInstancesMap.get(target);
-            instanceList.add(component);
-            componentInstancesMap.put(target, instanceList);
-        }
-    }
-    /** This will unregister a {@link Component} from an {@link Entity}.
-     * This will also mean that this {@link Component} won't be recognized by the Systems anymore to ensure safety.
+    protected static void addComponentReferences(Component component, long entity){
+        defaultWorld.addComponentReferences(component, entity);
+    }
+    /** This will unregister a {@link Component} from its {@link Entity}, in whatever {@link World} it is.
      *
      * @param component the {@link Component} to unregister.
      *
      * @author snoweuph
      */
     protected static void removeComponentReferences(Component component){
-        //References to the Components Class
-        Class<? extends Component> componentClass = component.getClass();
-        List<Class<? extends Component>> targets = getComponentInheritanceList(componentClass);
-        targets.add(componentClass);
-        //Test if this Component has Any Entries, if not return
-        if(!componentInstancesMap.containsKey(componentClass)) return;
-        //Remove References from instances Map, remove Entry if empty
-        for(Class<? extends Component> target : targets){
-            List<Component> instanceList = componentInstancesMap.get(target);
-            instanceList.remove(component);
-            if(instanceList.size() == 0){
-                componentInstancesMap.remove(target);
-            }else {
-                componentInstancesMap.put(target, instanceList);
-            }
-        }
-        //Remove References from the Entity-Component Map
-        Entity entity = component.getEntity();
-        List<Component> entityComponentsList = entityComponentMap.get(entity);
-        entityComponentsList.remove(component);
-        entityComponentMap.put(entity, entityComponentsList);
-    }
-    /** This will remove all {@link Component Components} of a specific type from an {@link Entity}.
-     *
-     * @param entity the {@link Entity} from what to remove.
+        World world = component.getWorld();
+        if(world != null) world.removeComponentReferences(component);
+    }
+    /** This will remove all {@link Component Components} of a specific type from an {@link Entity} of the default {@link World}.
+     *
+     * @param entity the Handle of the {@link Entity} from what to remove.
      * @param componentClass the {@link Component} type to remove.
      *
      * @author snoweuph
      */
-    protected static void removeComponentReferences(Entity entity, Class<? extends Component> componentClass){
-        //Test if Entity has any of these Components
-        List<Component> entityComponents = entityComponentMap.get(entity);
-        List<Class<? extends Component>> targets = getComponentInheritanceList(componentClass);
-        targets.add(componentClass);
-        //Create HasMap to Temporarily store what needs to be Removed
-        Map<Class<? extends Component>, List<Component>> componentsToRemove = new HashMap<>();
-        for (Component component : entityComponents){
-            if(!targets.contains(component.getClass()))continue;
-            if(!componentsToRemove.containsKey(component.getClass())){
-                componentsToRemove.put(component.getClass(), new ArrayList<>());
-            }
-            List<Component> removeList = componentsToRemove.get(component.getClass());
-            removeList.add(component);
-            componentsToRemove.put(component.getClass(), removeList);
-        }
-        if(componentsToRemove.size() == 0)return;
-        //Remove Component Instance References
-        for(Class<? extends Component> key : componentsToRemove.keySet()){
-            List<Component> instanceList = componentInstancesMap.get(key);
-            for(Component component : componentsToRemove.get(key)){
-                instanceList.remove(component);
-            }
-            if(instanceList.size() == 0){
-                componentInstancesMap.remove(key);
-            }else {
-                componentInstancesMap.put(key, instanceList);
-            }
-        }
-        //Remove References from the Entity Component
-        List<Component> entityComponentsList = entityComponentMap.get(entity);
-        for(Class<? extends Component> key : componentsToRemove.keySet()){
-            for (Component component : componentsToRemove.get(key)){
-                entityComponentsList.remove(component);
-            }
-            entityComponentMap.put(entity, entityComponentsList);
-
-        }
+    protected static void removeComponentReferences(long entity, Class<? extends Component> componentClass){
+        defaultWorld.removeComponentReferences(entity, componentClass);
     }
-    /** This will get all Components that are on an {@link Entity}.
+    /** This will get all Components that are on an {@link Entity} of the default {@link World}.
      *
-     * @param entity the {@link Entity} of which we want to know all {@link Component Components} from.
-     * @return the list of all {@link Component Components} on this Entity.
+     * @param entity the Handle of the {@link Entity}.
+     * @return the list of all {@link Component Components} on this Entity, or null if the Handle is stale.
      *
      * @author snoweuph
      */
-    protected static List<Component> getComponentsOnEntity(Entity entity){
-        return entityComponentMap.get(entity);
+    protected static List<Component> getComponentsOnEntity(long entity){
+        return defaultWorld.getComponentsOnEntity(entity);
     }
-    /** This will list all instance of a specific {@link Component} type.
+    /** This will list all instance of a specific {@link Component} type in the default {@link World}.
      *
      * @param componentClass  the {@link Component} type of which we want to know all instances.
-     * @return the list of all instances.
+     * @return a live list of all instances, including the instances of inheriting types.
      *
      * @author snoweuph
      */
     protected static List<Component> getComponentInstances(Class<? extends  Component> componentClass){
-        return componentInstancesMap.get(componentClass);
+        return defaultWorld.getComponentInstances(componentClass);
+    }
+    /** This will apply all Changes recorded in a {@link CommandBuffer} to the {@link World} of the Buffer.
+     *
+     * @param buffer the {@link CommandBuffer} to apply.
+     *
+     * @author snoweuph
+     */
+    protected static void playback(CommandBuffer buffer){
+        buffer.playback();
+    }
+
+    //Handles
+    /** @return whether the Handle belongs to a living {@link Entity} of the default {@link World}.
+     *
+     * @param entity the Handle to test.
+     *
+     * @author snoweuph
+     */
+    protected static boolean isAlive(long entity){
+        return defaultWorld.isAlive(entity);
+    }
+    /** This will get the {@link Entity} Object of a Handle of the default {@link World}.
+     *
+     * @param entity the Handle of the {@link Entity}.
+     * @return the {@link Entity} Object, or null if the Handle is stale.
+     *
+     * @author snoweuph
+     */
+    protected static Entity getEntity(long entity){
+        return defaultWorld.getEntity(entity);
+    }
+    /** @return a Snapshot of the Counters of the recycled {@link Entity} Handles of the default {@link World}.
+     *
+     * @see World#getEntityStatistics()
+     *
+     * @author snoweuph
+     */
+    public static PoolStatistics getEntityStatistics(){
+        return defaultWorld.getEntityStatistics();
+    }
+    /** @return the current Version of the Structure of the default {@link World}.
+     *
+     * @author snoweuph
+     */
+    protected static int getStructureVersion(){
+        return defaultWorld.getStructureVersion();
     }
-    /** This is used at multiple places inside the ECS to work with the Inheritance of Components.
-     * Without this it wouldn't be possible that if we try to remove all components of Type Collider from an {@link Entity},
-     * that not Only all Colliders but also all inherited {@link Component} Types like BoxCollider or MeshCollider get deleted.
+
+    //Change Detection
+    /** @return the current Tick of the default {@link World}.
+     *
+     * @author snoweuph
+     */
+    protected static long getTick(){
+        return defaultWorld.getTick();
+    }
+    /** This will mark a {@link Component} as changed, in whatever {@link World} it is.
+     *
+     * @param component the {@link Component} that got changed.
+     *
+     * @author snoweuph
+     */
+    protected static void markChanged(Component component){
+        component.markChanged();
+    }
+
+    //Concurrent Mode
+    /** Switches the concurrent Mode of the default {@link World} on or off.
+     *
+     * @param enabled whether the concurrent Mode should be used.
      *
-     * @param componentClass the {@link Component} type of which we want to gather classes that inherit from it.
-     * @return the list of {@link Component} types that inherit from the input type.
+     * @see World#setConcurrent(boolean)
+     *
+     * @author snoweuph
+     */
+    public static void setConcurrent(boolean enabled){
+        defaultWorld.setConcurrent(enabled);
+    }
+    /** @return whether the default {@link World} uses the concurrent Mode.
      *
      * @author snoweuph
      */
-    private static List<Class<? extends Component>> getComponentInheritanceList(Class<?extends Component> componentClass){
-        return new ArrayList<>(ProjectReflection.DATA.getSubTypesOf(componentClass));
+    public static boolean isConcurrent(){
+        return defaultWorld.isConcurrent();
     }
 }
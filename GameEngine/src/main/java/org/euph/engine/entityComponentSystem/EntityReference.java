@@ -0,0 +1,28 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Marks a {@code long} Field of a {@link Component} that holds the Handle of an {@link Entity}.
+ * When a {@link Snapshot} gets loaded, the Entities get new Handles, so marked Fields are translated to them like {@link Entity} Fields are.
+ * <pre>{@code
+ * @Packed
+ * public class Target extends Component {
+ *     @EntityReference
+ *     public long entity = Entity.NULL;
+ * }
+ * }</pre>
+ *
+ * @implNote Unmarked {@code long} Fields are stored as they are, a Handle in them points to a wrong or dead {@link Entity} after loading.
+ * This works for {@link Packed} types and for types stored with the default Codec, a registered {@link ComponentCodec} has to use
+ * {@link SnapshotOutput#writeEntity(long)} and {@link SnapshotInput#readEntity()} itself.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface EntityReference {
+}
@@ -0,0 +1,219 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.Arrays;
+
+/** This Table allocates the generational Handles of all {@link Entity Entities} and stores where each of them is located.
+ * A Handle is a 64bit value, the lower 32bit are the Index into this Table and the upper 32bit are the Generation of that Index.
+ * Indices of destroyed Entities are recycled through a Free-List and their Generation gets increased,
+ * so a stale Handle is detected by a Generation mismatch instead of having to wait for the Garbage Collector.
+ *
+ * @implNote Generations start at 1 and stay positive, so the Handle 0 is never valid and can be used as {@link Entity#NULL}
+ * and the Sign Bit is free to mark the Placeholders of a {@link CommandBuffer}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+final class EntityTable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    //The current Generation of each Index.
+    private int[] generations = new int[INITIAL_CAPACITY];
+    //The Location of each living Entity.
+    private Archetype[] archetypes = new Archetype[INITIAL_CAPACITY];
+    private int[] rows = new int[INITIAL_CAPACITY];
+    //The optional Entity Objects, they only get created if someone needs them.
+    private Entity[] facades = new Entity[INITIAL_CAPACITY];
+    //The Free-List of recycled Indices.
+    private int[] free = new int[INITIAL_CAPACITY];
+    private int freeCount = 0;
+    //The amount of Indices that were ever used.
+    private int size = 0;
+    private int alive = 0;
+    //The Counters of the Index Recycling.
+    private long recycled = 0;
+    private int highWater = 0;
+
+    /** Allocates a new Handle, recycling the Index of a destroyed {@link Entity} if possible.
+     *
+     * @return the new Handle.
+     *
+     * @author snoweuph
+     */
+    long create(){
+        int index;
+        if(freeCount > 0){
+            index = free[--freeCount];
+            recycled++;
+        }else{
+            if(size == generations.length) grow(size * 2);
+            index = size++;
+            generations[index] = 1;
+        }
+        if(++alive > highWater) highWater = alive;
+        return handle(index, generations[index]);
+    }
+    /** Makes sure that the next Handles can be allocated without growing the Table in between.
+     *
+     * @param count the amount of Handles that will be allocated.
+     *
+     * @author snoweuph
+     */
+    void reserve(int count){
+        int needed = size + Math.max(0, count - freeCount);
+        if(needed <= generations.length) return;
+        int capacity = generations.length;
+        while(capacity < needed) capacity *= 2;
+        grow(capacity);
+    }
+    /** Frees the Handle, so its Index can be recycled. All Handles to it are stale afterwards.
+     *
+     * @param handle the Handle to free.
+     *
+     * @author snoweuph
+     */
+    void destroy(long handle){
+        int index = index(handle);
+        //Increase the Generation and wrap around to 1 on Overflow, to keep the Null Handle invalid and the Sign Bit free
+        int generation = generations[index] + 1;
+        generations[index] = generation <= 0 ? 1 : generation;
+        archetypes[index] = null;
+        facades[index] = null;
+        free[freeCount++] = index;
+        alive--;
+    }
+    /** @return whether the Handle belongs to a living {@link Entity}.
+     *
+     * @param handle the Handle to test.
+     *
+     * @author snoweuph
+     */
+    boolean isAlive(long handle){
+        int index = index(handle);
+        return index >= 0 && index < size && generations[index] == generation(handle) && archetypes[index] != null;
+    }
+
+    //Location
+    /** Updates where an {@link Entity} is stored.
+     *
+     * @param index the Index of the Entity.
+     * @param archetype the {@link Archetype} the Entity is stored in.
+     * @param row the Row inside the {@link Archetype}.
+     *
+     * @author snoweuph
+     */
+    void setLocation(int index, Archetype archetype, int row){
+        archetypes[index] = archetype;
+        rows[index] = row;
+    }
+    /** Updates the Row of an {@link Entity} that got moved inside its {@link Archetype}.
+     *
+     * @param index the Index of the Entity.
+     * @param row the new Row inside the {@link Archetype}.
+     *
+     * @author snoweuph
+     */
+    void setRow(int index, int row){
+        rows[index] = row;
+    }
+    /** @return the {@link Archetype} an {@link Entity} is stored in.
+     *
+     * @param index the Index of the Entity.
+     *
+     * @author snoweuph
+     */
+    Archetype getArchetype(int index){
+        return archetypes[index];
+    }
+    /** @return the Row inside the {@link Archetype} an {@link Entity} is stored in.
+     *
+     * @param index the Index of the Entity.
+     *
+     * @author snoweuph
+     */
+    int getRow(int index){
+        return rows[index];
+    }
+
+    //Facades
+    /** @return the {@link Entity} Object of a Handle or null if none got created yet.
+     *
+     * @param index the Index of the Entity.
+     *
+     * @author snoweuph
+     */
+    Entity getFacade(int index){
+        return facades[index];
+    }
+    /** Stores the {@link Entity} Object of a Handle.
+     *
+     * @param index the Index of the Entity.
+     * @param entity the Entity Object.
+     *
+     * @author snoweuph
+     */
+    void setFacade(int index, Entity entity){
+        facades[index] = entity;
+    }
+
+    //Getter
+    /** @return the amount of living {@link Entity Entities}.
+     *
+     * @author snoweuph
+     */
+    int getAlive(){
+        return alive;
+    }
+    /** @return the amount of Indices that were ever used, every Handle has a smaller Index.
+     *
+     * @author snoweuph
+     */
+    int size(){
+        return size;
+    }
+    /** @return a Snapshot of the Counters of the Index Recycling. A Hit is a recycled Index, a Miss is a new one.
+     *
+     * @author snoweuph
+     */
+    PoolStatistics getStatistics(){
+        return new PoolStatistics(recycled, size, freeCount, highWater);
+    }
+
+    //Handle Encoding
+    /** @return the Index part of a Handle.
+     *
+     * @param handle the Handle.
+     *
+     * @author snoweuph
+     */
+    static int index(long handle){
+        return (int) handle;
+    }
+    /** @return the Generation part of a Handle.
+     *
+     * @param handle the Handle.
+     *
+     * @author snoweuph
+     */
+    static int generation(long handle){
+        return (int) (handle >>> 32);
+    }
+    /** @return the Handle for an Index and Generation.
+     *
+     * @param index the Index.
+     * @param generation the Generation.
+     *
+     * @author snoweuph
+     */
+    static long handle(int index, int generation){
+        return ((long) generation << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    private void grow(int capacity){
+        generations = Arrays.copyOf(generations, capacity);
+        archetypes = Arrays.copyOf(archetypes, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+        facades = Arrays.copyOf(facades, capacity);
+        free = Arrays.copyOf(free, capacity);
+    }
+}
@@ -0,0 +1,201 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.joml.Quaternionf;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/** The default {@link ComponentCodec}, it writes all Fields of a {@link Component} type through Reflection, in the Order they are declared.
+ * Supported are primitive, String, Enum and {@link Entity} Fields, and the JOML Vectors and Quaternions the Engine uses. Static and transient Fields are skipped.
+ * Vectors and Quaternions are read into the existing Instance of the Field, so they can be final.
+ * {@code long} Fields marked as {@link EntityReference} are translated to the new Handles, all other {@code long} Fields are stored as they are.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+final class FieldCodec implements ComponentCodec<Component> {
+
+    private final Class<? extends Component> type;
+    private final Constructor<? extends Component> constructor;
+    private final ComponentPool<?> pool;
+    private final Field[] fields;
+    //If a Field is marked as {@link EntityReference}.
+    private final boolean[] references;
+
+    /** Creates the Codec of a type.
+     *
+     * @param type the {@link Component} type.
+     *
+     * @throws IllegalArgumentException the type has a Field that isn't supported or no Constructor without Parameters.
+     *
+     * @author snoweuph
+     */
+    FieldCodec(Class<? extends Component> type){
+        this.type = type;
+        //Collect the Fields from the top of the Hierarchy down, without the ones of Component itself
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for(Class<?> current = type; current != Component.class; current = current.getSuperclass()){
+            hierarchy.add(0, current);
+        }
+        List<Field> collected = new ArrayList<>();
+        for(Class<?> current : hierarchy){
+            for(Field field : current.getDeclaredFields()){
+                if(Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) continue;
+                Class<?> fieldType = field.getType();
+                if(!fieldType.isPrimitive() && fieldType != String.class && !fieldType.isEnum() && fieldType != Entity.class && !isVector(fieldType)){
+                    throw new IllegalArgumentException("The Component " + type.getName() + " has the Field " + field.getName() + " of an unsupported type, register a ComponentCodec for it");
+                }
+                if(field.isAnnotationPresent(EntityReference.class) && fieldType != long.class){
+                    throw new IllegalArgumentException("The Field " + field.getName() + " of " + type.getName() + " is an EntityReference, but isn't a long");
+                }
+                field.setAccessible(true);
+                collected.add(field);
+            }
+        }
+        fields = collected.toArray(new Field[0]);
+        references = new boolean[fields.length];
+        for(int field = 0; field < fields.length; field++){
+            references[field] = fields[field].isAnnotationPresent(EntityReference.class);
+        }
+        pool = ComponentPool.get(type);
+        try{
+            constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        }catch (NoSuchMethodException e){
+            throw new IllegalArgumentException("The Component " + type.getName() + " needs a Constructor without Parameters or a registered ComponentCodec", e);
+        }
+    }
+
+    @Override
+    public void write(Component component, SnapshotOutput out) throws IOException {
+        try{
+            for(int index = 0; index < fields.length; index++){
+                Field field = fields[index];
+                Class<?> fieldType = field.getType();
+                if(references[index]) out.writeEntity(field.getLong(component));
+                else if(fieldType == float.class) out.writeFloat(field.getFloat(component));
+                else if(fieldType == int.class) out.writeInt(field.getInt(component));
+                else if(fieldType == double.class) out.writeDouble(field.getDouble(component));
+                else if(fieldType == long.class) out.writeLong(field.getLong(component));
+                else if(fieldType == boolean.class) out.writeBoolean(field.getBoolean(component));
+                else if(fieldType == short.class) out.writeShort(field.getShort(component));
+                else if(fieldType == byte.class) out.writeByte(field.getByte(component));
+                else if(fieldType == char.class) out.writeChar(field.getChar(component));
+                else if(fieldType == String.class) out.writeNullableString((String) field.get(component));
+                else if(fieldType == Entity.class){
+                    Entity entity = (Entity) field.get(component);
+                    out.writeEntity(entity == null ? Entity.NULL : entity.getHandle());
+                }else if(isVector(fieldType)) writeVector(field.get(component), out);
+                else{
+                    Enum<?> value = (Enum<?>) field.get(component);
+                    out.writeInt(value == null ? -1 : value.ordinal());
+                }
+            }
+        }catch (IllegalAccessException e){
+            throw new IllegalStateException("Couldn't read the Fields of " + type.getName(), e);
+        }
+    }
+
+    @Override
+    public Component read(SnapshotInput in) throws IOException {
+        Component component = create();
+        try{
+            for(int index = 0; index < fields.length; index++){
+                Field field = fields[index];
+                Class<?> fieldType = field.getType();
+                if(references[index]) field.setLong(component, in.readEntity());
+                else if(fieldType == float.class) field.setFloat(component, in.readFloat());
+                else if(fieldType == int.class) field.setInt(component, in.readInt());
+                else if(fieldType == double.class) field.setDouble(component, in.readDouble());
+                else if(fieldType == long.class) field.setLong(component, in.readLong());
+                else if(fieldType == boolean.class) field.setBoolean(component, in.readBoolean());
+                else if(fieldType == short.class) field.setShort(component, in.readShort());
+                else if(fieldType == byte.class) field.setByte(component, in.readByte());
+                else if(fieldType == char.class) field.setChar(component, in.readChar());
+                else if(fieldType == String.class) field.set(component, in.readNullableString());
+                else if(fieldType == Entity.class) field.set(component, in.readEntityObject());
+                else if(isVector(fieldType)) readVector(field, component, in);
+                else{
+                    int ordinal = in.readInt();
+                    field.set(component, ordinal < 0 ? null : fieldType.getEnumConstants()[ordinal]);
+                }
+            }
+        }catch (IllegalAccessException e){
+            throw new IllegalStateException("Couldn't write the Fields of " + type.getName(), e);
+        }
+        return component;
+    }
+
+    //Vectors
+    private static boolean isVector(Class<?> fieldType){
+        return fieldType == Vector3f.class || fieldType == Quaternionf.class || fieldType == Vector2f.class || fieldType == Vector4f.class;
+    }
+    private static void writeVector(Object value, SnapshotOutput out) throws IOException {
+        out.writeBoolean(value != null);
+        if(value instanceof Vector3f){
+            Vector3f vector = (Vector3f) value;
+            out.writeFloat(vector.x);
+            out.writeFloat(vector.y);
+            out.writeFloat(vector.z);
+        }else if(value instanceof Quaternionf){
+            Quaternionf quaternion = (Quaternionf) value;
+            out.writeFloat(quaternion.x);
+            out.writeFloat(quaternion.y);
+            out.writeFloat(quaternion.z);
+            out.writeFloat(quaternion.w);
+        }else if(value instanceof Vector2f){
+            Vector2f vector = (Vector2f) value;
+            out.writeFloat(vector.x);
+            out.writeFloat(vector.y);
+        }else if(value instanceof Vector4f){
+            Vector4f vector = (Vector4f) value;
+            out.writeFloat(vector.x);
+            out.writeFloat(vector.y);
+            out.writeFloat(vector.z);
+            out.writeFloat(vector.w);
+        }
+    }
+    private static void readVector(Field field, Component component, SnapshotInput in) throws IOException, IllegalAccessException {
+        Class<?> fieldType = field.getType();
+        if(!in.readBoolean()){
+            field.set(component, null);
+            return;
+        }
+        //Read into the existing Instance, Components usually hold their Vectors in final Fields
+        Object value = field.get(component);
+        if(fieldType == Vector3f.class){
+            Vector3f vector = value != null ? (Vector3f) value : new Vector3f();
+            vector.set(in.readFloat(), in.readFloat(), in.readFloat());
+            value = vector;
+        }else if(fieldType == Quaternionf.class){
+            Quaternionf quaternion = value != null ? (Quaternionf) value : new Quaternionf();
+            quaternion.set(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat());
+            value = quaternion;
+        }else if(fieldType == Vector2f.class){
+            Vector2f vector = value != null ? (Vector2f) value : new Vector2f();
+            vector.set(in.readFloat(), in.readFloat());
+            value = vector;
+        }else{
+            Vector4f vector = value != null ? (Vector4f) value : new Vector4f();
+            vector.set(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat());
+            value = vector;
+        }
+        if(field.get(component) != value) field.set(component, value);
+    }
+    private Component create(){
+        if(pool != null) return pool.obtain();
+        try{
+            return constructor.newInstance();
+        }catch (InstantiationException | IllegalAccessException | InvocationTargetException e){
+            throw new IllegalStateException("Couldn't create the Component " + type.getName(), e);
+        }
+    }
+}
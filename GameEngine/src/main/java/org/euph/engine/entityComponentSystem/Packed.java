@@ -0,0 +1,26 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Marks a {@link Component} type whose Data should be stored Off-Heap, as one packed Array per Field (Struct of Arrays).
+ * The type must only have primitive Fields and a Constructor without Parameters.
+ * <pre>{@code
+ * @Packed
+ * public class Velocity extends Component {
+ *     public float x, y, z;
+ * }
+ * }</pre>
+ *
+ * @implNote A packed {@link Component} put onto an {@link Entity} only acts as a Template, its Values are copied and the Object itself isn't stored.
+ * Reading it through the ECS returns a detached Copy, so packed Components are removed by type and changed through a {@link PackedColumn}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Packed {
+}
@@ -0,0 +1,250 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.system.MemoryUtil.*;
+
+/** A reusable Flyweight over the Off-Heap Column of a {@link Packed} {@link Component} type inside one Chunk.
+ * It gets positioned by a {@link QueryIterator} and gives direct Access to the packed Array of every Field,
+ * so Math Loops can run over contiguous Memory without any Objects:
+ * <pre>{@code
+ * int x = PackedLayout.of(Velocity.class).field("x");
+ * QueryIterator it = moving.iterator();
+ * while(it.nextChunk()){
+ *     PackedColumn velocity = it.getPacked(0);
+ *     for(int row = 0; row < velocity.size(); row++) velocity.setFloat(x, row, velocity.getFloat(x, row) * damping);
+ * }
+ * }</pre>
+ *
+ * @implNote It is only valid until the {@link QueryIterator} moves to the next Chunk.
+ * The Accessors check neither the Row nor the type of the Field, it must be the one of the Accessor.
+ * Writing doesn't mark anything as changed, Columns that get written should come from {@link QueryIterator#getPackedMut(int)}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class PackedColumn {
+
+    private PackedLayout layout;
+    private long base;
+    private int size;
+
+    PackedColumn(){}
+
+    /** Positions this Flyweight on a Chunk Column.
+     *
+     * @param layout the Layout of the Column.
+     * @param base the Address of the Column.
+     * @param size the amount of used Rows.
+     *
+     * @author snoweuph
+     */
+    void set(PackedLayout layout, long base, int size){
+        this.layout = layout;
+        this.base = base;
+        this.size = size;
+    }
+
+    /** @return the Layout of the {@link Packed} {@link Component} type.
+     *
+     * @author snoweuph
+     */
+    public PackedLayout getLayout(){
+        return layout;
+    }
+    /** @return the amount of Rows in this Chunk.
+     *
+     * @author snoweuph
+     */
+    public int size(){
+        return size;
+    }
+    /** @return the Address of the packed Array of a Field, it holds one Value per Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     *
+     * @author snoweuph
+     */
+    public long address(int field){
+        return layout.address(base, field, 0);
+    }
+    /** @return a Buffer over the packed Array of a float Field, for Bulk Operations.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     *
+     * @author snoweuph
+     */
+    public FloatBuffer floats(int field){
+        return memFloatBuffer(address(field), size);
+    }
+
+    //Access
+    /** @return the Value of a float Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     *
+     * @author snoweuph
+     */
+    public float getFloat(int field, int row){
+        return memGetFloat(layout.address(base, field, row));
+    }
+    /** Sets the Value of a float Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     * @param value the new Value.
+     *
+     * @author snoweuph
+     */
+    public void setFloat(int field, int row, float value){
+        memPutFloat(layout.address(base, field, row), value);
+    }
+    /** @return the Value of an int Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     *
+     * @author snoweuph
+     */
+    public int getInt(int field, int row){
+        return memGetInt(layout.address(base, field, row));
+    }
+    /** Sets the Value of an int Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     * @param value the new Value.
+     *
+     * @author snoweuph
+     */
+    public void setInt(int field, int row, int value){
+        memPutInt(layout.address(base, field, row), value);
+    }
+    /** @return the Value of a double Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     *
+     * @author snoweuph
+     */
+    public double getDouble(int field, int row){
+        return memGetDouble(layout.address(base, field, row));
+    }
+    /** Sets the Value of a double Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     * @param value the new Value.
+     *
+     * @author snoweuph
+     */
+    public void setDouble(int field, int row, double value){
+        memPutDouble(layout.address(base, field, row), value);
+    }
+    /** @return the Value of a long Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     *
+     * @author snoweuph
+     */
+    public long getLong(int field, int row){
+        return memGetLong(layout.address(base, field, row));
+    }
+    /** Sets the Value of a long Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     * @param value the new Value.
+     *
+     * @author snoweuph
+     */
+    public void setLong(int field, int row, long value){
+        memPutLong(layout.address(base, field, row), value);
+    }
+    /** @return the Value of a short Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     *
+     * @author snoweuph
+     */
+    public short getShort(int field, int row){
+        return memGetShort(layout.address(base, field, row));
+    }
+    /** Sets the Value of a short Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     * @param value the new Value.
+     *
+     * @author snoweuph
+     */
+    public void setShort(int field, int row, short value){
+        memPutShort(layout.address(base, field, row), value);
+    }
+    /** @return the Value of a char Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     *
+     * @author snoweuph
+     */
+    public char getChar(int field, int row){
+        return (char) memGetShort(layout.address(base, field, row));
+    }
+    /** Sets the Value of a char Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     * @param value the new Value.
+     *
+     * @author snoweuph
+     */
+    public void setChar(int field, int row, char value){
+        memPutShort(layout.address(base, field, row), (short) value);
+    }
+    /** @return the Value of a byte Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     *
+     * @author snoweuph
+     */
+    public byte getByte(int field, int row){
+        return memGetByte(layout.address(base, field, row));
+    }
+    /** Sets the Value of a byte Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     * @param value the new Value.
+     *
+     * @author snoweuph
+     */
+    public void setByte(int field, int row, byte value){
+        memPutByte(layout.address(base, field, row), value);
+    }
+    /** @return the Value of a boolean Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     *
+     * @author snoweuph
+     */
+    public boolean getBoolean(int field, int row){
+        return memGetByte(layout.address(base, field, row)) != 0;
+    }
+    /** Sets the Value of a boolean Field in a Row.
+     *
+     * @param field the index of the Field, see {@link PackedLayout#field(String)}.
+     * @param row the Row inside this Chunk, from 0 to below {@link #size()}.
+     * @param value the new Value.
+     *
+     * @author snoweuph
+     */
+    public void setBoolean(int field, int row, boolean value){
+        memPutByte(layout.address(base, field, row), (byte) (value ? 1 : 0));
+    }
+}
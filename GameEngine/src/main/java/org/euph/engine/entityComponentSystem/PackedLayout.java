@@ -0,0 +1,270 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.lwjgl.system.MemoryUtil.*;
+
+/** The Off-Heap Layout of a {@link Packed} {@link Component} type inside an {@link ArchetypeChunk}.
+ * Every Field gets its own packed Array with one Entry per Row, so a Chunk Column of a packed type is a Struct of Arrays:
+ * first all Values of the first Field, then all Values of the second Field and so on.
+ *
+ * @implNote Copying Values between a {@link Component} Object and the Off-Heap Memory uses Reflection,
+ * this only happens when a {@link Component} gets put onto an {@link Entity} or read as a detached Copy. Bulk Access goes through a {@link PackedColumn}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class PackedLayout {
+
+    //The Layouts of all types that were asked for, empty if the type isn't packed.
+    private static final Map<Class<? extends Component>, Optional<PackedLayout>> layouts = new ConcurrentHashMap<>();
+
+    private final Class<? extends Component> type;
+    private final Constructor<? extends Component> constructor;
+    private final Field[] fields;
+    //If a Field is marked as {@link EntityReference}.
+    private final boolean[] references;
+    //The Size of one Value of each Field in Bytes.
+    private final int[] sizes;
+    //The Offset of the Array of each Field inside a Chunk Column in Bytes.
+    private final long[] offsets;
+    //The Size of all Fields of one Row together in Bytes.
+    private final int size;
+
+    private PackedLayout(Class<? extends Component> type){
+        this.type = type;
+        //Collect the Fields from the top of the Hierarchy down, without the ones of Component itself
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for(Class<?> current = type; current != Component.class; current = current.getSuperclass()){
+            hierarchy.add(0, current);
+        }
+        List<Field> collected = new ArrayList<>();
+        for(Class<?> current : hierarchy){
+            for(Field field : current.getDeclaredFields()){
+                if(Modifier.isStatic(field.getModifiers())) continue;
+                if(!field.getType().isPrimitive()) throw new IllegalArgumentException("The Packed Component " + type.getName() + " has the non primitive Field " + field.getName());
+                field.setAccessible(true);
+                collected.add(field);
+            }
+        }
+        fields = collected.toArray(new Field[0]);
+        references = new boolean[fields.length];
+        for(int field = 0; field < fields.length; field++){
+            if(!fields[field].isAnnotationPresent(EntityReference.class)) continue;
+            if(fields[field].getType() != long.class) throw new IllegalArgumentException("The Field " + fields[field].getName() + " of " + type.getName() + " is an EntityReference, but isn't a long");
+            references[field] = true;
+        }
+        sizes = new int[fields.length];
+        offsets = new long[fields.length];
+        int rowSize = 0;
+        for(int field = 0; field < fields.length; field++){
+            sizes[field] = sizeOf(fields[field].getType());
+            offsets[field] = (long) rowSize * Archetype.CHUNK_CAPACITY;
+            rowSize += sizes[field];
+        }
+        size = rowSize;
+        try{
+            constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+        }catch (NoSuchMethodException e){
+            throw new IllegalArgumentException("The Packed Component " + type.getName() + " needs a Constructor without Parameters", e);
+        }
+    }
+
+    /** @return the Layout of a {@link Packed} {@link Component} type.
+     *
+     * @param componentClass the {@link Component} type.
+     *
+     * @throws IllegalArgumentException the type isn't {@link Packed} or can't be packed.
+     *
+     * @author snoweuph
+     */
+    public static PackedLayout of(Class<? extends Component> componentClass){
+        PackedLayout layout = get(componentClass);
+        if(layout == null) throw new IllegalArgumentException("The Component " + componentClass.getName() + " isn't Packed");
+        return layout;
+    }
+    /** @return the Layout of a {@link Component} type, or null if it isn't {@link Packed}.
+     *
+     * @param componentClass the {@link Component} type.
+     *
+     * @author snoweuph
+     */
+    static PackedLayout get(Class<? extends Component> componentClass){
+        Optional<PackedLayout> layout = layouts.get(componentClass);
+        if(layout == null){
+            layout = componentClass.isAnnotationPresent(Packed.class) ? Optional.of(new PackedLayout(componentClass)) : Optional.empty();
+            layouts.putIfAbsent(componentClass, layout);
+        }
+        return layout.orElse(null);
+    }
+
+    //Fields
+    /** @return the index of a Field, to be used with a {@link PackedColumn}.
+     *
+     * @param name the Name of the Field.
+     *
+     * @throws IllegalArgumentException the type has no Field with that Name.
+     *
+     * @author snoweuph
+     */
+    public int field(String name){
+        for(int field = 0; field < fields.length; field++){
+            if(fields[field].getName().equals(name)) return field;
+        }
+        throw new IllegalArgumentException("The Packed Component " + type.getName() + " has no Field " + name);
+    }
+    /** @return the amount of Fields.
+     *
+     * @author snoweuph
+     */
+    public int getFieldCount(){
+        return fields.length;
+    }
+    /** @return the primitive type of a Field.
+     *
+     * @param field the index of the Field.
+     *
+     * @author snoweuph
+     */
+    public Class<?> getFieldType(int field){
+        return fields[field].getType();
+    }
+    /** @return if a Field holds an {@link Entity} Handle, because it is marked as {@link EntityReference}.
+     *
+     * @param field the index of the Field.
+     *
+     * @author snoweuph
+     */
+    public boolean isEntityReference(int field){
+        return references[field];
+    }
+    /** @return the Size of one Value of a Field in Bytes.
+     *
+     * @param field the index of the Field.
+     *
+     * @author snoweuph
+     */
+    public int getFieldSize(int field){
+        return sizes[field];
+    }
+    /** @return the {@link Component} type of this Layout.
+     *
+     * @author snoweuph
+     */
+    public Class<? extends Component> getType(){
+        return type;
+    }
+    /** @return the Size of all Fields of one Row together in Bytes.
+     *
+     * @author snoweuph
+     */
+    public int getSize(){
+        return size;
+    }
+
+    //Memory
+    /** @return the Address of a Value inside a Chunk Column.
+     *
+     * @param base the Address of the Chunk Column.
+     * @param field the index of the Field.
+     * @param row the Row inside the Chunk.
+     *
+     * @author snoweuph
+     */
+    long address(long base, int field, int row){
+        return base + offsets[field] + (long) row * sizes[field];
+    }
+    /** Allocates the zeroed Memory of one Chunk Column.
+     *
+     * @return the Address of the Chunk Column.
+     *
+     * @author snoweuph
+     */
+    long allocate(){
+        return nmemCallocChecked(Archetype.CHUNK_CAPACITY, size);
+    }
+    /** Copies all Values of a Row to another Row, both can be in different Chunks.
+     *
+     * @param source the Address of the source Chunk Column.
+     * @param sourceRow the source Row.
+     * @param target the Address of the target Chunk Column.
+     * @param targetRow the target Row.
+     *
+     * @author snoweuph
+     */
+    void copy(long source, int sourceRow, long target, int targetRow){
+        for(int field = 0; field < fields.length; field++){
+            memCopy(address(source, field, sourceRow), address(target, field, targetRow), sizes[field]);
+        }
+    }
+    /** Copies the Values of a {@link Component} into a Row.
+     *
+     * @param component the {@link Component} to copy the Values from.
+     * @param base the Address of the Chunk Column.
+     * @param row the Row inside the Chunk.
+     *
+     * @author snoweuph
+     */
+    void write(Component component, long base, int row){
+        try{
+            for(int field = 0; field < fields.length; field++){
+                long address = address(base, field, row);
+                Field current = fields[field];
+                Class<?> fieldType = current.getType();
+                if(fieldType == float.class) memPutFloat(address, current.getFloat(component));
+                else if(fieldType == int.class) memPutInt(address, current.getInt(component));
+                else if(fieldType == double.class) memPutDouble(address, current.getDouble(component));
+                else if(fieldType == long.class) memPutLong(address, current.getLong(component));
+                else if(fieldType == short.class) memPutShort(address, current.getShort(component));
+                else if(fieldType == char.class) memPutShort(address, (short) current.getChar(component));
+                else if(fieldType == byte.class) memPutByte(address, current.getByte(component));
+                else memPutByte(address, (byte) (current.getBoolean(component) ? 1 : 0));
+            }
+        }catch (IllegalAccessException e){
+            throw new IllegalStateException("Couldn't read the Fields of " + type.getName(), e);
+        }
+    }
+    /** @return a new detached {@link Component} with the Values of a Row.
+     *
+     * @param base the Address of the Chunk Column.
+     * @param row the Row inside the Chunk.
+     *
+     * @author snoweuph
+     */
+    Component read(long base, int row){
+        try{
+            Component component = constructor.newInstance();
+            for(int field = 0; field < fields.length; field++){
+                long address = address(base, field, row);
+                Field current = fields[field];
+                Class<?> fieldType = current.getType();
+                if(fieldType == float.class) current.setFloat(component, memGetFloat(address));
+                else if(fieldType == int.class) current.setInt(component, memGetInt(address));
+                else if(fieldType == double.class) current.setDouble(component, memGetDouble(address));
+                else if(fieldType == long.class) current.setLong(component, memGetLong(address));
+                else if(fieldType == short.class) current.setShort(component, memGetShort(address));
+                else if(fieldType == char.class) current.setChar(component, (char) memGetShort(address));
+                else if(fieldType == byte.class) current.setByte(component, memGetByte(address));
+                else current.setBoolean(component, memGetByte(address) != 0);
+            }
+            return component;
+        }catch (ReflectiveOperationException e){
+            throw new IllegalStateException("Couldn't create a Copy of " + type.getName(), e);
+        }
+    }
+
+    private static int sizeOf(Class<?> primitive){
+        if(primitive == long.class || primitive == double.class) return 8;
+        if(primitive == int.class || primitive == float.class) return 4;
+        if(primitive == short.class || primitive == char.class) return 2;
+        return 1;
+    }
+}
@@ -0,0 +1,73 @@
+package org.euph.engine.entityComponentSystem;
+
+/** A Snapshot of the Counters of a Pool, like a {@link ComponentPool} or the recycled Handles of the {@link Entity Entities}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class PoolStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final int size;
+    private final int highWater;
+
+    /** Creates a new Snapshot.
+     *
+     * @param hits the amount of Requests that got a recycled Instance.
+     * @param misses the amount of Requests that needed a new Instance.
+     * @param size the amount of free Instances right now.
+     * @param highWater the highest amount of Instances that were in use at once.
+     *
+     * @author snoweuph
+     */
+    PoolStatistics(long hits, long misses, int size, int highWater){
+        this.hits = hits;
+        this.misses = misses;
+        this.size = size;
+        this.highWater = highWater;
+    }
+
+    //Getter
+    /** @return the amount of Requests that got a recycled Instance.
+     *
+     * @author snoweuph
+     */
+    public long getHits(){
+        return hits;
+    }
+    /** @return the amount of Requests that needed a new Instance.
+     *
+     * @author snoweuph
+     */
+    public long getMisses(){
+        return misses;
+    }
+    /** @return the Share of Requests that got a recycled Instance, between 0 and 1.
+     *
+     * @author snoweuph
+     */
+    public double getHitRate(){
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+    /** @return the amount of free Instances right now.
+     *
+     * @author snoweuph
+     */
+    public int getSize(){
+        return size;
+    }
+    /** @return the highest amount of Instances that were in use at once, a good Capacity for the Pool.
+     *
+     * @author snoweuph
+     */
+    public int getHighWater(){
+        return highWater;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits + ", misses=" + misses + ", size=" + size + ", highWater=" + highWater;
+    }
+}
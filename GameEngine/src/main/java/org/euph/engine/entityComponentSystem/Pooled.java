@@ -0,0 +1,35 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Marks a {@link Component} type whose Instances are recycled through a {@link ComponentPool}.
+ * The type must have a Constructor without Parameters and should override {@link Component#reset()}.
+ * <pre>{@code
+ * @Pooled(capacity = 4096)
+ * public class Bullet extends Component {
+ *     public float damage = 10;
+ *     @Override
+ *     protected void reset() {
+ *         damage = 10;
+ *     }
+ * }
+ * long bullet = Entity.spawnBatch(1, ComponentPool.of(Bullet.class))[0];
+ * }</pre>
+ *
+ * @implNote Instances get returned to the Pool when their {@link Entity} is destroyed or when they are removed by type,
+ * so no References to them may be kept afterwards. Removing a single Instance doesn't return it, because the Caller still holds it.
+ * {@link Packed} types aren't pooled, their Instances are never stored.
+ * When a pooled type is required by another type, the added Instance comes from the Pool too, not from {@link Component#getRequiredComponents()}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Pooled {
+    /** @return the maximum amount of free Instances the Pool keeps, further returned Instances are left to the Garbage Collector. */
+    int capacity() default 1024;
+}
@@ -0,0 +1,333 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/** A cached Query over all {@link Entity Entities} that have a Set of {@link Component Components}.
+ * It is made up of three kinds of Terms: the Entity must have a {@link Component} of every With Term, must not have one of any Without Term
+ * and may have one of every Optional Term. Each Term also matches the types inheriting from it.
+ * Queries get created by the {@link EngineSystem Systems} with {@link EngineSystem#query(Class[])}, or with {@link World#query(Class[])} outside of Systems, and configured by stacking functions:
+ * <pre>{@code
+ * Query movable = query(Transform.class, MeshRenderer.class).without(Hidden.class);
+ * Query moved = query(Transform.class).changed(Transform.class);
+ * }</pre>
+ * With {@link #changed(Class[]) changed} and {@link #added(Class[]) added} Filters only the {@link Entity Entities} whose {@link Component Components}
+ * changed since the last Run of the {@link EngineSystem} that created the Query are matched, Queries without a System compare against their last Iteration.
+ *
+ * @implNote The Result is cached as the list of matching {@link Archetype Archetypes}. It gets updated by its {@link World}
+ * whenever a new {@link Archetype} is created, Entities moving between Archetypes are reflected without any work.
+ * So iterating costs O(matches) and doesn't need to join any lists. Filtered Queries skip whole Chunks that have no Changes in the filtered Columns.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class Query {
+
+    //The Type IDs of the Terms, in Term Order: first all With Terms, then all Optional Terms.
+    private final List<Integer> terms = new ArrayList<>();
+    private final List<Class<? extends Component>> termClasses = new ArrayList<>();
+    private int withCount = 0;
+    //The Mask of all types that must not be on a matching Entity.
+    private final BitSet without = new BitSet();
+    //The matching Archetypes and per Archetype the Column of each Term, -1 if an Optional Term is missing.
+    private final List<Archetype> archetypes = new ArrayList<>();
+    private final List<int[]> columns = new ArrayList<>();
+    //The reusable Iterator, so that iterating doesn't allocate.
+    private final QueryIterator iterator = new QueryIterator(this);
+    private boolean registered = false;
+    //The types of the Change Filters and, once registered, the index of their Terms.
+    private final List<Class<? extends Component>> changedClasses = new ArrayList<>();
+    private final List<Class<? extends Component>> addedClasses = new ArrayList<>();
+    private int[] changedTerms = new int[0];
+    private int[] addedTerms = new int[0];
+    //The World this Query matches in, and the System it belongs to, null if it tracks its own Iterations.
+    private final World world;
+    private final EngineSystem system;
+    //The Tick of the last Iteration, only used without a System.
+    private long lastIterationTick = 0;
+    //The Ticks of the current Iteration: Changes after since are new, Changes through the Iterator are recorded at writeTick.
+    private long since = 0;
+    private long writeTick = 0;
+
+    /** Creates a new Query, use {@link EngineSystem#query(Class[])} to get one.
+     *
+     * @param system the System this Query belongs to, it matches in the {@link World} of the System.
+     *
+     * @author snoweuph
+     */
+    Query(EngineSystem system){
+        this(system.getWorld(), system);
+    }
+    /** Creates a new Query that doesn't belong to a System, use {@link World#query(Class[])} to get one.
+     *
+     * @param world the {@link World} this Query matches in.
+     *
+     * @author snoweuph
+     */
+    Query(World world){
+        this(world, null);
+    }
+    /** Creates a new Query of the {@link EntityComponentSystem#getDefaultWorld() default World} that doesn't belong to a System.
+     *
+     * @author snoweuph
+     */
+    Query(){
+        this(EntityComponentSystem.getDefaultWorld());
+    }
+    private Query(World world, EngineSystem system){
+        this.world = world;
+        this.system = system;
+    }
+
+    //Configuration
+    /** Adds With Terms, every matching {@link Entity} must have a {@link Component} of each of these types.
+     *
+     * @param componentClasses the required {@link Component} types.
+     * @return this Query, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    @SafeVarargs
+    public final Query with(Class<? extends Component>... componentClasses){
+        ensureConfigurable();
+        for(Class<? extends Component> componentClass : componentClasses){
+            termClasses.add(withCount, componentClass);
+            terms.add(withCount, ComponentTypeRegistry.getId(componentClass));
+            withCount++;
+        }
+        return this;
+    }
+    /** Adds Without Terms, no matching {@link Entity} has a {@link Component} of any of these types.
+     *
+     * @param componentClasses the excluded {@link Component} types.
+     * @return this Query, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    @SafeVarargs
+    public final Query without(Class<? extends Component>... componentClasses){
+        ensureConfigurable();
+        for(Class<? extends Component> componentClass : componentClasses){
+            without.or(ComponentTypeRegistry.getDescendants(ComponentTypeRegistry.getId(componentClass)));
+        }
+        return this;
+    }
+    /** Adds Optional Terms, they don't change what matches but their {@link Component Components} are returned if present.
+     *
+     * @param componentClasses the optional {@link Component} types.
+     * @return this Query, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    @SafeVarargs
+    public final Query optional(Class<? extends Component>... componentClasses){
+        ensureConfigurable();
+        for(Class<? extends Component> componentClass : componentClasses){
+            termClasses.add(componentClass);
+            terms.add(ComponentTypeRegistry.getId(componentClass));
+        }
+        return this;
+    }
+
+    /** Adds Changed Filters, only {@link Entity Entities} where a {@link Component} of one of these types was added or changed since the last Run are matched.
+     * Types without a Term get added as With Terms.
+     *
+     * @param componentClasses the filtered {@link Component} types.
+     * @return this Query, so that functions can be stacked.
+     *
+     * @implNote Changes are tracked per Slot, they are marked by {@link QueryIterator#getMut(int)} or {@link Component#markChanged()}.
+     * If there is more than one Filter, an {@link Entity} matches if any of them matches.
+     *
+     * @author snoweuph
+     */
+    @SafeVarargs
+    public final Query changed(Class<? extends Component>... componentClasses){
+        ensureConfigurable();
+        for(Class<? extends Component> componentClass : componentClasses){
+            if(!termClasses.contains(componentClass)) with(componentClass);
+            changedClasses.add(componentClass);
+        }
+        return this;
+    }
+    /** Adds Added Filters, only {@link Entity Entities} that got a {@link Component} of one of these types since the last Run are matched.
+     * Types without a Term get added as With Terms.
+     *
+     * @param componentClasses the filtered {@link Component} types.
+     * @return this Query, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    @SafeVarargs
+    public final Query added(Class<? extends Component>... componentClasses){
+        ensureConfigurable();
+        for(Class<? extends Component> componentClass : componentClasses){
+            if(!termClasses.contains(componentClass)) with(componentClass);
+            addedClasses.add(componentClass);
+        }
+        return this;
+    }
+
+    //Iteration
+    /** Resets and returns the Iterator of this Query. The first call registers the Query to the ECS, after that it can't be configured anymore.
+     *
+     * @return the reusable Iterator of this Query.
+     *
+     * @implNote There is only one Iterator per Query, so the same Query can't be iterated nested.
+     * In concurrent Mode the Iterator holds the shared Lock of the ECS, see {@link QueryIterator#close()}.
+     *
+     * @author snoweuph
+     */
+    public QueryIterator iterator(){
+        register();
+        if(system != null){
+            since = system.getLastRunTick();
+            writeTick = system.getCurrentTick();
+        }else{
+            since = lastIterationTick;
+            lastIterationTick = world.advanceTick();
+            writeTick = lastIterationTick;
+        }
+        iterator.reset();
+        return iterator;
+    }
+    /** @return the amount of {@link Entity Entities} that currently match this Query.
+     *
+     * @author snoweuph
+     */
+    public int size(){
+        register();
+        long stamp = world.lockRead();
+        try{
+            int size = 0;
+            for(Archetype archetype : archetypes){
+                size += archetype.size();
+            }
+            return size;
+        }finally{
+            world.unlockRead(stamp);
+        }
+    }
+    /** Unregisters this Query from its {@link World}, so that it doesn't get updated anymore. Only needed for Queries that are dropped before their {@link World}.
+     *
+     * @author snoweuph
+     */
+    public void dispose(){
+        if(!registered) return;
+        world.unregisterQuery(this);
+        archetypes.clear();
+        columns.clear();
+        registered = false;
+    }
+
+    //Matching
+    /** Tests an {@link Archetype} against this Query and adds it to the Result if it matches.
+     *
+     * @param archetype the {@link Archetype} to test.
+     *
+     * @author snoweuph
+     */
+    void match(Archetype archetype){
+        Signature signature = archetype.getSignature();
+        if(signature.getMask().intersects(without)) return;
+        int[] termColumns = new int[terms.size()];
+        for(int term = 0; term < terms.size(); term++){
+            termColumns[term] = findColumn(signature, ComponentTypeRegistry.getDescendants(terms.get(term)));
+            //All With Terms must be present
+            if(termColumns[term] < 0 && term < withCount) return;
+        }
+        archetypes.add(archetype);
+        columns.add(termColumns);
+    }
+    private static int findColumn(Signature signature, BitSet types){
+        if(!signature.getMask().intersects(types)) return -1;
+        for(int column = 0; column < signature.size(); column++){
+            if(types.get(signature.get(column))) return column;
+        }
+        return -1;
+    }
+    private void register(){
+        if(registered) return;
+        registered = true;
+        changedTerms = changedClasses.stream().mapToInt(termClasses::indexOf).toArray();
+        addedTerms = addedClasses.stream().mapToInt(termClasses::indexOf).toArray();
+        world.registerQuery(this);
+    }
+    private void ensureConfigurable(){
+        if(registered) throw new IllegalStateException("This Query is already in use and can't be configured anymore");
+    }
+
+    //Getter
+    /** @return the index of the first Term of the type, or -1 if there is none.
+     *
+     * @param componentClass the {@link Component} type of the Term.
+     *
+     * @author snoweuph
+     */
+    public int getTerm(Class<? extends Component> componentClass){
+        return termClasses.indexOf(componentClass);
+    }
+    /** @return the amount of Terms that return {@link Component Components}, With and Optional Terms.
+     *
+     * @author snoweuph
+     */
+    public int getTermCount(){
+        return terms.size();
+    }
+    /** @return the {@link World} this Query matches in.
+     *
+     * @author snoweuph
+     */
+    public World getWorld(){
+        return world;
+    }
+    /** @return the matching {@link Archetype Archetypes}.
+     *
+     * @author snoweuph
+     */
+    List<Archetype> getArchetypes(){
+        return archetypes;
+    }
+    /** @return per matching {@link Archetype} the Column of each Term, -1 if an Optional Term is missing.
+     *
+     * @author snoweuph
+     */
+    List<int[]> getColumns(){
+        return columns;
+    }
+    /** @return whether this Query has any Changed or Added Filters.
+     *
+     * @author snoweuph
+     */
+    boolean isFiltered(){
+        return changedTerms.length > 0 || addedTerms.length > 0;
+    }
+    /** @return the indices of the Terms with a Changed Filter.
+     *
+     * @author snoweuph
+     */
+    int[] getChangedTerms(){
+        return changedTerms;
+    }
+    /** @return the indices of the Terms with an Added Filter.
+     *
+     * @author snoweuph
+     */
+    int[] getAddedTerms(){
+        return addedTerms;
+    }
+    /** @return the Tick after which Changes are new for the current Iteration.
+     *
+     * @author snoweuph
+     */
+    long getSince(){
+        return since;
+    }
+    /** @return the Tick Changes through the current Iteration are recorded at.
+     *
+     * @author snoweuph
+     */
+    long getWriteTick(){
+        return writeTick;
+    }
+}
@@ -0,0 +1,302 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+/** The reusable Iterator of a {@link Query}. It walks the Chunks of all matching {@link Archetype Archetypes}
+ * and returns the {@link Component Components} of all Terms of the current {@link Entity} together.
+ * <pre>{@code
+ * QueryIterator it = movable.iterator();
+ * while(it.next()){
+ *     Transform transform = it.get(0);
+ *     MeshRenderer renderer = it.get(1);
+ * }
+ * }</pre>
+ *
+ * Terms of {@link Packed} types can also be walked Chunk by Chunk with {@link #nextChunk()} and {@link #getPacked(int)}.
+ * {@link Component Components} that get changed should be fetched with {@link #getMut(int)}, so that the Change is tracked.
+ *
+ * @implNote Iterating doesn't allocate anything. It fails fast if the Structure of the ECS changes while iterating.
+ * In the {@link World#setConcurrent(boolean) concurrent Mode} the Iterator holds the shared Lock of its {@link World} until {@link #next()} returns false,
+ * so an Iteration that is stopped early must be {@link #close() closed}, best with a try-with-resources Block, on the Thread that iterated.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class QueryIterator implements AutoCloseable {
+
+    private final Query query;
+    private int expectedVersion;
+    //The Position of the Iterator.
+    private int archetype;
+    private int chunk;
+    private int row;
+    private ArchetypeChunk current;
+    //The Columns of the current Chunk, one per Term, null if an Optional Term is missing or the Term is Packed.
+    private Component[][] termColumns = new Component[0][];
+    //The Column of each Term inside the current Archetype, -1 if an Optional Term is missing.
+    private int[] currentColumns;
+    //The reusable Flyweights of the Packed Terms.
+    private PackedColumn[] packedColumns = new PackedColumn[0];
+    //The Token of the shared Lock while iterating in concurrent Mode, 0 otherwise.
+    private long stamp = 0;
+
+    /** Creates the Iterator of a {@link Query}.
+     *
+     * @param query the {@link Query} to iterate.
+     *
+     * @author snoweuph
+     */
+    QueryIterator(Query query){
+        this.query = query;
+    }
+
+    /** Moves the Iterator to the Start of the {@link Query}.
+     *
+     * @author snoweuph
+     */
+    void reset(){
+        //The Terms can't change anymore once the Query is in use, so this only allocates on the first use
+        if(termColumns.length != query.getTermCount()){
+            termColumns = new Component[query.getTermCount()][];
+            packedColumns = new PackedColumn[query.getTermCount()];
+            for(int term = 0; term < packedColumns.length; term++){
+                packedColumns[term] = new PackedColumn();
+            }
+        }
+        //Release the Lock of an Iteration that wasn't finished, before locking again
+        close();
+        stamp = query.getWorld().lockRead();
+        expectedVersion = query.getWorld().getStructureVersion();
+        archetype = 0;
+        chunk = -1;
+        row = 0;
+        current = null;
+    }
+
+    /** Moves to the next matching {@link Entity}.
+     *
+     * @return whether there is a next matching {@link Entity}, if false the Iteration is over.
+     *
+     * @throws ConcurrentModificationException an {@link Entity} or {@link Component} was added or removed while iterating.
+     *
+     * @author snoweuph
+     */
+    public boolean next(){
+        if(query.getWorld().getStructureVersion() != expectedVersion) throw new ConcurrentModificationException();
+        if(current != null){
+            while(++row < current.size){
+                if(matchesRow()) return true;
+            }
+        }
+        return advanceChunk();
+    }
+    /** Moves to the next non empty Chunk, to process all its Rows at once through {@link #getPacked(int)}.
+     * Calling {@link #next()} afterwards continues with the Chunk after it.
+     * With Change Filters only Chunks with a Change are returned, but the Rows inside them aren't filtered.
+     *
+     * @return whether there is a next Chunk, if false the Iteration is over.
+     *
+     * @throws ConcurrentModificationException an {@link Entity} or {@link Component} was added or removed while iterating.
+     *
+     * @author snoweuph
+     */
+    public boolean nextChunk(){
+        if(query.getWorld().getStructureVersion() != expectedVersion) throw new ConcurrentModificationException();
+        if(!advanceChunk()) return false;
+        row = current.size - 1;
+        return true;
+    }
+    private boolean advanceChunk(){
+        List<Archetype> archetypes = query.getArchetypes();
+        while(archetype < archetypes.size()){
+            List<ArchetypeChunk> chunks = archetypes.get(archetype).getChunks();
+            if(++chunk < chunks.size()){
+                current = chunks.get(chunk);
+                row = 0;
+                //Cache the Columns of all Terms for this Chunk
+                currentColumns = query.getColumns().get(archetype);
+                for(int term = 0; term < currentColumns.length; term++){
+                    termColumns[term] = currentColumns[term] < 0 ? null : current.columns[currentColumns[term]];
+                }
+                if(current.size > 0 && matchesChunk() && seekRow()) return true;
+                continue;
+            }
+            archetype++;
+            chunk = -1;
+        }
+        current = null;
+        close();
+        return false;
+    }
+
+    /** @return whether the current Chunk has any Change in the filtered Columns, based on their highest Ticks.
+     *
+     * @author snoweuph
+     */
+    private boolean matchesChunk(){
+        if(!query.isFiltered()) return true;
+        long since = query.getSince();
+        //Filters on missing Optional Terms never match
+        for(int term : query.getChangedTerms()){
+            int column = currentColumns[term];
+            if(column >= 0 && current.maxChangedTicks[column] > since) return true;
+        }
+        for(int term : query.getAddedTerms()){
+            int column = currentColumns[term];
+            if(column >= 0 && current.maxAddedTicks[column] > since) return true;
+        }
+        return false;
+    }
+    /** @return whether the current Row has any Change in the filtered Columns.
+     *
+     * @author snoweuph
+     */
+    private boolean matchesRow(){
+        if(!query.isFiltered()) return true;
+        long since = query.getSince();
+        for(int term : query.getChangedTerms()){
+            int column = currentColumns[term];
+            if(column >= 0 && current.changedTicks[column][row] > since) return true;
+        }
+        for(int term : query.getAddedTerms()){
+            int column = currentColumns[term];
+            if(column >= 0 && current.addedTicks[column][row] > since) return true;
+        }
+        return false;
+    }
+    /** Moves to the first matching Row of the current Chunk, starting at the current Row.
+     *
+     * @return whether the Chunk has a matching Row.
+     *
+     * @author snoweuph
+     */
+    private boolean seekRow(){
+        for(; row < current.size; row++){
+            if(matchesRow()) return true;
+        }
+        return false;
+    }
+
+    /** Ends the Iteration early and releases the shared Lock of the {@link World}, if it holds it.
+     * This is done automatically once {@link #next()} returns false.
+     *
+     * @author snoweuph
+     */
+    @Override
+    public void close(){
+        query.getWorld().unlockRead(stamp);
+        stamp = 0;
+    }
+
+    /** @return the {@link Component} of a Term for the current {@link Entity}, null if it is a missing Optional Term.
+     * For {@link Packed} Terms this is a detached Copy, use {@link #getPacked(int)} to change them.
+     *
+     * @param term the index of the Term, With Terms come first and then Optional Terms, in the order they were added.
+     * @param <T> the {@link Component} type of the Term.
+     *
+     * @author snoweuph
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Component> T get(int term){
+        Component[] column = termColumns[term];
+        if(column != null) return (T) column[row];
+        return currentColumns[term] < 0 ? null : (T) current.get(currentColumns[term], row);
+    }
+    /** @return the {@link Component} of a Term for the current {@link Entity} and marks it as changed, null if it is a missing Optional Term.
+     * Packed Terms should use {@link #getPackedMut(int)} instead, because only a detached Copy is returned.
+     *
+     * @param term the index of the Term, With Terms come first and then Optional Terms, in the order they were added.
+     * @param <T> the {@link Component} type of the Term.
+     *
+     * @author snoweuph
+     */
+    public <T extends Component> T getMut(int term){
+        markChanged(term);
+        return get(term);
+    }
+    /** @return the {@link Component} of the first Term of a type for the current {@link Entity} and marks it as changed, null if it is a missing Optional Term.
+     *
+     * @param componentClass the {@link Component} type of the Term.
+     * @param <T> the {@link Component} type of the Term.
+     *
+     * @author snoweuph
+     */
+    public <T extends Component> T getMut(Class<T> componentClass){
+        return getMut(query.getTerm(componentClass));
+    }
+    /** Marks the {@link Component} of a Term for the current {@link Entity} as changed.
+     *
+     * @param term the index of the Term, With Terms come first and then Optional Terms, in the order they were added.
+     *
+     * @author snoweuph
+     */
+    public void markChanged(int term){
+        int column = currentColumns[term];
+        if(column >= 0) current.markChanged(column, row, query.getWriteTick());
+    }
+    /** @return the Off-Heap Column of a {@link Packed} Term for the current Chunk and marks all its Rows as changed, or null if it is a missing Optional Term.
+     *
+     * @param term the index of the Term, With Terms come first and then Optional Terms, in the order they were added.
+     *
+     * @throws IllegalArgumentException the Term isn't {@link Packed}.
+     *
+     * @author snoweuph
+     */
+    public PackedColumn getPackedMut(int term){
+        PackedColumn column = getPacked(term);
+        if(column == null) return null;
+        long tick = query.getWriteTick();
+        for(int chunkRow = 0; chunkRow < current.size; chunkRow++){
+            current.markChanged(currentColumns[term], chunkRow, tick);
+        }
+        return column;
+    }
+    /** @return the Off-Heap Column of a {@link Packed} Term for the current Chunk, or null if it is a missing Optional Term.
+     *
+     * @param term the index of the Term, With Terms come first and then Optional Terms, in the order they were added.
+     *
+     * @throws IllegalArgumentException the Term isn't {@link Packed}.
+     *
+     * @author snoweuph
+     */
+    public PackedColumn getPacked(int term){
+        int column = currentColumns[term];
+        if(column < 0) return null;
+        PackedLayout layout = current.layouts[column];
+        if(layout == null) throw new IllegalArgumentException("The Term " + term + " isn't Packed");
+        packedColumns[term].set(layout, current.packed[column], current.size);
+        return packedColumns[term];
+    }
+    /** @return the Row of the current {@link Entity} inside the current Chunk, to be used with a {@link PackedColumn}.
+     *
+     * @author snoweuph
+     */
+    public int getRow(){
+        return row;
+    }
+    /** @return the amount of Rows in the current Chunk.
+     *
+     * @author snoweuph
+     */
+    public int getChunkSize(){
+        return current.size;
+    }
+    /** @return the {@link Component} of the first Term of a type for the current {@link Entity}, null if it is a missing Optional Term.
+     *
+     * @param componentClass the {@link Component} type of the Term.
+     * @param <T> the {@link Component} type of the Term.
+     *
+     * @author snoweuph
+     */
+    public <T extends Component> T get(Class<T> componentClass){
+        return get(query.getTerm(componentClass));
+    }
+    /** @return the Handle of the current {@link Entity}.
+     *
+     * @author snoweuph
+     */
+    public long getEntity(){
+        return current.entities[row];
+    }
+}
@@ -0,0 +1,83 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.BitSet;
+import java.util.function.LongConsumer;
+
+/** Lists the {@link Entity Entities} a {@link Component} type, including inheriting types, was removed from since the last Run of a System.
+ * Destroying an {@link Entity} counts as removing all its {@link Component Components}.
+ * It gets created by the {@link EngineSystem Systems} with {@link EngineSystem#removed(Class)}:
+ * <pre>{@code
+ * RemovedComponents removedBodies = removed(RigidBody.class);
+ * removedBodies.forEach(entity -> physicsWorld.remove(entity));
+ * }</pre>
+ *
+ * @implNote Removals only get recorded for types that have a Reader, starting when the Reader gets created.
+ * The recorded Removals are dropped once every Reader has seen them.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class RemovedComponents {
+
+    //The World the Removals are recorded in, and the System this Reader belongs to, null if it tracks its own Reads.
+    private final World world;
+    private final EngineSystem system;
+    //The ID of the listed type, its Mask is looked up on every Use, so that Subtypes registered later are listed.
+    private final int type;
+    //The Tick of the last Read, only used without a System.
+    private long lastRead;
+    private boolean registered = true;
+
+    /** Creates a new Reader and starts recording the Removals of the type.
+     *
+     * @param system the System this Reader belongs to, or null. It lists the Removals in the {@link World} of the System, or in the default {@link World}.
+     * @param componentClass the {@link Component} type.
+     *
+     * @author snoweuph
+     */
+    RemovedComponents(EngineSystem system, Class<? extends Component> componentClass){
+        this.world = system != null ? system.getWorld() : EntityComponentSystem.getDefaultWorld();
+        this.system = system;
+        this.type = ComponentTypeRegistry.getId(componentClass);
+        this.lastRead = world.getTick();
+        world.registerRemoved(this);
+    }
+
+    /** Calls the Action with the Handle of every {@link Entity} the type was removed from since the last Run of the System.
+     * An {@link Entity} can be listed more than once, if it lost more than one {@link Component} of the type.
+     *
+     * @param action the Action to call with the Handle, the Handle is usually stale.
+     *
+     * @author snoweuph
+     */
+    public void forEach(LongConsumer action){
+        long since = getSince();
+        if(system == null) lastRead = world.advanceTick();
+        world.forEachRemoved(getTypes(), since, action);
+    }
+    /** Stops recording the Removals for this Reader. Only needed for Readers that are dropped before their {@link World}.
+     *
+     * @author snoweuph
+     */
+    public void dispose(){
+        if(!registered) return;
+        world.unregisterRemoved(this);
+        registered = false;
+    }
+
+    //Getter
+    /** @return the Tick after which Removals are new for this Reader.
+     *
+     * @author snoweuph
+     */
+    long getSince(){
+        return system != null ? system.getLastRunTick() : lastRead;
+    }
+    /** @return the Mask of all type IDs that are listed.
+     *
+     * @author snoweuph
+     */
+    BitSet getTypes(){
+        return ComponentTypeRegistry.getDescendants(type);
+    }
+}
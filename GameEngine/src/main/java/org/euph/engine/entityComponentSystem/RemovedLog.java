@@ -0,0 +1,143 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/** The Log of removed {@link Component Components} that backs all {@link RemovedComponents} Readers.
+ * Every Entry is the Handle of the {@link Entity}, the removed type ID and the Tick of the Removal, stored as parallel Arrays.
+ *
+ * @implNote Only types some Reader asks for get recorded. When the Log is full, all Entries every Reader has already seen get dropped first,
+ * so it only grows if the Readers fall behind.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+final class RemovedLog {
+
+    private final List<RemovedComponents> readers = new ArrayList<>();
+    //The Mask of all type IDs that have a Reader, and the Amount of registered types when it was built, to add Subtypes registered later.
+    private final BitSet tracked = new BitSet();
+    private int trackedTypes = 0;
+    private long[] entities = new long[256];
+    private int[] types = new int[256];
+    private long[] ticks = new long[256];
+    private int count = 0;
+
+    /** Starts recording the types of a Reader.
+     *
+     * @param reader the Reader.
+     *
+     * @author snoweuph
+     */
+    void register(RemovedComponents reader){
+        readers.add(reader);
+        rebuild();
+    }
+    /** Stops recording the types of a Reader, if no other Reader needs them.
+     *
+     * @param reader the Reader.
+     *
+     * @author snoweuph
+     */
+    void unregister(RemovedComponents reader){
+        readers.remove(reader);
+        rebuild();
+    }
+    /** @return whether any Reader tracks a type of the Signature, so that the Caller can skip recording if not.
+     *
+     * @param signature the {@link Signature} to test.
+     *
+     * @author snoweuph
+     */
+    boolean tracks(Signature signature){
+        if(trackedTypes != ComponentTypeRegistry.size()) rebuild();
+        return signature.getMask().intersects(tracked);
+    }
+
+    /** Records the Removal of a single {@link Component}.
+     *
+     * @param entity the Handle of the {@link Entity} it was removed from.
+     * @param type the ID of its type.
+     * @param tick the Tick of the Removal.
+     *
+     * @author snoweuph
+     */
+    void record(long entity, int type, long tick){
+        if(trackedTypes != ComponentTypeRegistry.size()) rebuild();
+        if(!tracked.get(type)) return;
+        if(count == entities.length){
+            compact();
+            if(count == entities.length){
+                entities = Arrays.copyOf(entities, count * 2);
+                types = Arrays.copyOf(types, count * 2);
+                ticks = Arrays.copyOf(ticks, count * 2);
+            }
+        }
+        entities[count] = entity;
+        types[count] = type;
+        ticks[count] = tick;
+        count++;
+    }
+    /** Records the Removal of all {@link Component Components} of a Signature, when an {@link Entity} gets destroyed.
+     *
+     * @param entity the Handle of the {@link Entity}.
+     * @param signature the {@link Signature} of the {@link Entity}.
+     * @param tick the Tick of the Removal.
+     *
+     * @author snoweuph
+     */
+    void record(long entity, Signature signature, long tick){
+        if(!tracks(signature)) return;
+        for(int column = 0; column < signature.size(); column++){
+            record(entity, signature.get(column), tick);
+        }
+    }
+
+    /** Calls the Action for every Entry of one of the types that is newer than a Tick.
+     *
+     * @param mask the Mask of the type IDs.
+     * @param since the Tick after which Entries are new.
+     * @param action the Action to call with the Handle of the {@link Entity}.
+     *
+     * @author snoweuph
+     */
+    void forEach(BitSet mask, long since, LongConsumer action){
+        for(int i = 0; i < count; i++){
+            if(ticks[i] > since && mask.get(types[i])) action.accept(entities[i]);
+        }
+    }
+
+    /** Builds the Mask of all tracked type IDs again, from the current Masks of the Readers.
+     *
+     * @author snoweuph
+     */
+    private void rebuild(){
+        trackedTypes = ComponentTypeRegistry.size();
+        tracked.clear();
+        for(RemovedComponents reader : readers){
+            tracked.or(reader.getTypes());
+        }
+    }
+    /** Drops all Entries that every Reader has seen already.
+     *
+     * @author snoweuph
+     */
+    private void compact(){
+        long oldest = Long.MAX_VALUE;
+        for(RemovedComponents reader : readers){
+            oldest = Math.min(oldest, reader.getSince());
+        }
+        int kept = 0;
+        for(int i = 0; i < count; i++){
+            if(ticks[i] <= oldest) continue;
+            entities[kept] = entities[i];
+            types[kept] = types[i];
+            ticks[kept] = ticks[i];
+            kept++;
+        }
+        count = kept;
+    }
+}
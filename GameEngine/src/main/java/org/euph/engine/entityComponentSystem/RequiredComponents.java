@@ -0,0 +1,208 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/** The transitive Closure of the {@link Component#getRequiredComponents() required Components} of a {@link Component} type.
+ * It is computed once per type by the {@link ComponentTypeRegistry} and lists every required type once, in the Order the Requirements are declared.
+ * With it, adding a {@link Component} can add all missing required Components in a single Move, instead of walking the Requirements again for every Instance.
+ *
+ * @implNote The Requirements are read from an Instance once, so the required types must be the same for all Instances of a type.
+ * The added Instances are the ones {@link Component#getRequiredComponents()} returns, so a Requirement can be configured, like {@code new Health(100)}.
+ * Only {@link Pooled} types opt out of that, they are taken from their {@link ComponentPool} in their reset State.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+final class RequiredComponents {
+
+    //The IDs and Classes of all required types, without the type itself.
+    private final int[] types;
+    private final Class<? extends Component>[] classes;
+    //The Mask of all required types.
+    private final BitSet mask = new BitSet();
+    //The Pool of each required type, null if it isn't Pooled.
+    private final ComponentPool<?>[] pools;
+    //For each required type, the Entry that requires it, -1 for the type itself, and its Position in the List of that Entry.
+    private final int[] requirers;
+    private final int[] positions;
+
+    @SuppressWarnings("unchecked")
+    private RequiredComponents(List<Entry> entries){
+        int size = entries.size();
+        types = new int[size];
+        classes = (Class<? extends Component>[]) new Class<?>[size];
+        pools = new ComponentPool<?>[size];
+        requirers = new int[size];
+        positions = new int[size];
+        for(int i = 0; i < size; i++){
+            Entry entry = entries.get(i);
+            types[i] = ComponentTypeRegistry.getId(entry.type);
+            classes[i] = entry.type;
+            pools[i] = ComponentPool.get(entry.type);
+            requirers[i] = entry.requirer;
+            positions[i] = entry.position;
+            mask.set(types[i]);
+        }
+    }
+
+    /** Computes the Closure of the type of a {@link Component}.
+     *
+     * @param component an Instance of the type.
+     * @return the Closure of its type.
+     *
+     * @throws IllegalStateException the Requirements contain a Cycle.
+     *
+     * @author snoweuph
+     */
+    static RequiredComponents of(Component component){
+        List<Entry> entries = new ArrayList<>();
+        List<Class<? extends Component>> path = new ArrayList<>();
+        path.add(component.getClass());
+        collect(component, -1, path, entries);
+        return new RequiredComponents(entries);
+    }
+    /** Walks the Requirements depth first and adds every type that isn't listed yet.
+     *
+     * @param component the Instance whose Requirements are walked.
+     * @param requirer the Entry of the Instance, -1 for the type itself.
+     * @param path the types from the type itself down to the Instance, to detect Cycles.
+     * @param entries the Entries found so far.
+     *
+     * @author snoweuph
+     */
+    private static void collect(Component component, int requirer, List<Class<? extends Component>> path, List<Entry> entries){
+        List<Component> required = component.getRequiredComponents();
+        for(int position = 0; position < required.size(); position++){
+            Component requiredComponent = required.get(position);
+            Class<? extends Component> type = requiredComponent.getClass();
+            if(path.contains(type)){
+                StringBuilder cycle = new StringBuilder();
+                for(Class<? extends Component> step : path.subList(path.indexOf(type), path.size())){
+                    cycle.append(step.getName()).append(" -> ");
+                }
+                throw new IllegalStateException("The required Components contain a Cycle: " + cycle + type.getName());
+            }
+            //Every type that was listed already had all its Requirements walked
+            if(indexOf(entries, type) >= 0) continue;
+            entries.add(new Entry(type, requirer, position));
+            path.add(type);
+            collect(requiredComponent, entries.size() - 1, path, entries);
+            path.remove(path.size() - 1);
+        }
+    }
+    private static int indexOf(List<Entry> entries, Class<? extends Component> type){
+        for(int i = 0; i < entries.size(); i++){
+            if(entries.get(i).type == type) return i;
+        }
+        return -1;
+    }
+
+    /** Creates the Instances of all required types that are missing. Every Instance is taken from the {@link Component#getRequiredComponents() required Components}
+     * of the Instance that requires it, only {@link Pooled} types are taken from their {@link ComponentPool}.
+     *
+     * @param component the {@link Component} whose Closure this is.
+     * @param present the Mask of the type IDs that are already there and don't need an Instance, can be null.
+     * @return the new Instances by the index of their required type, null for the types that are present.
+     *
+     * @author snoweuph
+     */
+    Component[] create(Component component, BitSet present){
+        Component[] created = new Component[types.length];
+        //The Requirements of each Requirer, asked once, index 0 is the Component itself
+        List<?>[] requirements = new List<?>[types.length + 1];
+        for(int entry = 0; entry < types.length; entry++){
+            if(present != null && present.get(types[entry])) continue;
+            created[entry] = instance(entry, component, created, requirements);
+        }
+        //Instances that were only needed to ask them for their Requirements don't belong to the Result
+        if(present != null){
+            for(int entry = 0; entry < types.length; entry++){
+                if(present.get(types[entry])) created[entry] = null;
+            }
+        }
+        return created;
+    }
+    private Component instance(int entry, Component component, Component[] created, List<?>[] requirements){
+        if(created[entry] != null) return created[entry];
+        if(pools[entry] != null){
+            created[entry] = pools[entry].obtain();
+            return created[entry];
+        }
+        int requirer = requirers[entry];
+        if(requirements[requirer + 1] == null){
+            //A Requirer always comes before the types it requires
+            Component owner = requirer < 0 ? component : instance(requirer, component, created, requirements);
+            requirements[requirer + 1] = owner.getRequiredComponents();
+        }
+        created[entry] = (Component) requirements[requirer + 1].get(positions[entry]);
+        return created[entry];
+    }
+    /** @return the index of a required type, or -1 if it isn't required.
+     *
+     * @param type the type ID.
+     *
+     * @author snoweuph
+     */
+    int indexOf(int type){
+        if(!mask.get(type)) return -1;
+        for(int i = 0; i < types.length; i++){
+            if(types[i] == type) return i;
+        }
+        return -1;
+    }
+
+    //Getter
+    /** @return the amount of required types.
+     *
+     * @author snoweuph
+     */
+    int size(){
+        return types.length;
+    }
+    /** @return the ID of a required type.
+     *
+     * @param entry the index of the required type.
+     *
+     * @author snoweuph
+     */
+    int getType(int entry){
+        return types[entry];
+    }
+    /** @return the Class of a required type.
+     *
+     * @param entry the index of the required type.
+     *
+     * @author snoweuph
+     */
+    Class<? extends Component> getComponentClass(int entry){
+        return classes[entry];
+    }
+    /** @return the Mask of all required types.
+     *
+     * @implNote The returned Mask is Shared and must not be modified.
+     *
+     * @author snoweuph
+     */
+    BitSet getMask(){
+        return mask;
+    }
+
+    /** A required type while the Closure is computed.
+     *
+     * @author snoweuph
+     */
+    private static final class Entry {
+        final Class<? extends Component> type;
+        //The Entry that requires it, -1 for the type itself, and its Position in the Requirements of that Entry.
+        final int requirer;
+        final int position;
+
+        Entry(Class<? extends Component> type, int requirer, int position){
+            this.type = type;
+            this.requirer = requirer;
+            this.position = position;
+        }
+    }
+}
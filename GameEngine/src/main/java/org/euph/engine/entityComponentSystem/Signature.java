@@ -0,0 +1,158 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/** The immutable Signature of an {@link Archetype}. It is the sorted list of {@link ComponentTypeRegistry type IDs}, one per Column.
+ * A type can be listed multiple times, because an {@link Entity} can hold multiple {@link Component Components} of one type.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+final class Signature {
+
+    static final Signature EMPTY = new Signature(new int[0]);
+
+    private final int[] types;
+    //All types that are part of the Signature, without Duplicates.
+    private final BitSet mask = new BitSet();
+    private final int hash;
+
+    /** Creates a new Signature.
+     *
+     * @param types the sorted type IDs, the Array is taken over and must not be modified afterwards.
+     *
+     * @author snoweuph
+     */
+    Signature(int[] types){
+        this.types = types;
+        for(int type : types){
+            mask.set(type);
+        }
+        hash = Arrays.hashCode(types);
+    }
+
+    /** @return the Column a new {@link Component} of the type would be inserted at, behind all Columns of the same type.
+     *
+     * @param type the type ID.
+     *
+     * @author snoweuph
+     */
+    int insertionColumn(int type){
+        int column = 0;
+        while(column < types.length && types[column] <= type){
+            column++;
+        }
+        return column;
+    }
+    /** @return a new Signature with one more Column of the type.
+     *
+     * @param type the type ID to add.
+     *
+     * @author snoweuph
+     */
+    Signature with(int type){
+        int insert = insertionColumn(type);
+        int[] result = new int[types.length + 1];
+        System.arraycopy(types, 0, result, 0, insert);
+        result[insert] = type;
+        System.arraycopy(types, insert, result, insert + 1, types.length - insert);
+        return new Signature(result);
+    }
+    /** @return a new Signature with one more Column of the type and one Column of every type in the Mask.
+     *
+     * @param type the type ID to add.
+     * @param added the Mask of further type IDs to add once each.
+     *
+     * @author snoweuph
+     */
+    Signature with(int type, BitSet added){
+        int[] result = Arrays.copyOf(types, types.length + 1 + added.cardinality());
+        int i = types.length;
+        result[i++] = type;
+        for(int other = added.nextSetBit(0); other >= 0; other = added.nextSetBit(other + 1)){
+            result[i++] = other;
+        }
+        Arrays.sort(result);
+        return new Signature(result);
+    }
+    /** @return a new Signature without the Column.
+     *
+     * @param column the Column to remove.
+     *
+     * @author snoweuph
+     */
+    Signature without(int column){
+        int[] result = new int[types.length - 1];
+        System.arraycopy(types, 0, result, 0, column);
+        System.arraycopy(types, column + 1, result, column, types.length - column - 1);
+        return new Signature(result);
+    }
+    /** @return a new Signature without all Columns whose type is part of the Mask.
+     *
+     * @param removed the Mask of type IDs to remove.
+     *
+     * @author snoweuph
+     */
+    Signature without(BitSet removed){
+        int count = 0;
+        for(int type : types){
+            if(!removed.get(type)) count++;
+        }
+        int[] result = new int[count];
+        int i = 0;
+        for(int type : types){
+            if(!removed.get(type)) result[i++] = type;
+        }
+        return new Signature(result);
+    }
+
+    /** @return whether this Signature consists of exactly these type IDs.
+     *
+     * @param types the sorted type IDs.
+     *
+     * @author snoweuph
+     */
+    boolean matches(int[] types){
+        return Arrays.equals(this.types, types);
+    }
+
+    //Getter
+    /** @return the amount of Columns.
+     *
+     * @author snoweuph
+     */
+    int size(){
+        return types.length;
+    }
+    /** @return the type ID of a Column.
+     *
+     * @param column the Column.
+     *
+     * @author snoweuph
+     */
+    int get(int column){
+        return types[column];
+    }
+    /** @return the Mask of all types in this Signature.
+     *
+     * @implNote The returned Mask is Shared and must not be modified.
+     *
+     * @author snoweuph
+     */
+    BitSet getMask(){
+        return mask;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof Signature)) return false;
+        return Arrays.equals(types, ((Signature) o).types);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,423 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.euph.engine.util.ZstdInputStream;
+import org.euph.engine.util.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.lwjgl.system.MemoryUtil.*;
+
+/** Saves and loads all {@link Entity Entities} of a {@link World} with their {@link Component Components} in a compact binary Format.
+ * Both directions are streamed, Archetype by Archetype, so apart from one Handle per {@link Entity} nothing is buffered.
+ * The same Format is used for Quick-Saves, for moving a World to another Server and for Test Fixtures:
+ * <pre>{@code
+ * Snapshot.save(Path.of("quick.snapshot"));
+ * long[] loaded = Snapshot.load(Path.of("quick.snapshot"));
+ * long[] preview = Snapshot.load(new World(), Path.of("quick.snapshot"));
+ * }</pre>
+ *
+ * The Format is a Header, the Names of all stored {@link Component} types, the Handles of all Entities and then one Block per {@link Archetype}.
+ * A Block holds its Columns one after another: {@link Packed} Columns as their raw Field Arrays in native Byte Order, all other Columns through their {@link ComponentCodec}.
+ * Required Components need no Links of their own, every {@link Entity} is restored with exactly the {@link Component Components} it had.
+ *
+ * The functions without a {@link World} use the {@link EntityComponentSystem#getDefaultWorld() default World}.
+ *
+ * @implNote Loading adds the Entities next to the existing ones and gives each of them a new Handle,
+ * References between them are translated through {@link SnapshotInput#readEntity()}, {@link Entity} Fields and {@code long} Fields marked as {@link EntityReference}.
+ * Handles in unmarked {@code long} Fields are stored as they are and don't point to the loaded Entities. The {@link Entity} Objects aren't stored.
+ * A Load that fails removes everything it already added, the {@link World} stays as it was.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class Snapshot {
+
+    /** The first four Bytes of every Snapshot, "EUPH". */
+    public static final int MAGIC = 0x45555048;
+    /** The Version of the Format, Snapshots of other Versions can't be loaded. */
+    public static final int VERSION = 1;
+
+    private static final Map<Class<? extends Component>, ComponentCodec<?>> codecs = new ConcurrentHashMap<>();
+
+    private Snapshot(){}
+
+    /** Registers the Codec of a {@link Component} type, instead of the default one that uses Reflection.
+     *
+     * @param componentClass the {@link Component} type.
+     * @param codec the Codec to use.
+     * @param <T> the {@link Component} type.
+     *
+     * @author snoweuph
+     */
+    public static <T extends Component> void registerCodec(Class<T> componentClass, ComponentCodec<T> codec){
+        codecs.put(componentClass, codec);
+    }
+    @SuppressWarnings("unchecked")
+    private static ComponentCodec<Component> getCodec(Class<? extends Component> componentClass){
+        return (ComponentCodec<Component>) codecs.computeIfAbsent(componentClass, FieldCodec::new);
+    }
+
+    //Files
+    /** Saves the default {@link World} into a File, compressed with Zstandard.
+     *
+     * @param file the File to write, it gets replaced if it exists.
+     *
+     * @author snoweuph
+     */
+    public static void save(Path file) throws IOException {
+        save(EntityComponentSystem.getDefaultWorld(), file);
+    }
+    /** Saves a {@link World} into a File, compressed with Zstandard.
+     *
+     * @param world the {@link World} to save.
+     * @param file the File to write, it gets replaced if it exists.
+     *
+     * @author snoweuph
+     */
+    public static void save(World world, Path file) throws IOException {
+        try(OutputStream out = new ZstdOutputStream(Files.newOutputStream(file))){
+            save(world, out);
+        }
+    }
+    /** Loads a File written by {@link #save(Path)} into the default {@link World}.
+     *
+     * @param file the File to read.
+     * @return the new Handles of the loaded Entities, in the Order they were saved.
+     *
+     * @author snoweuph
+     */
+    public static long[] load(Path file) throws IOException {
+        return load(EntityComponentSystem.getDefaultWorld(), file);
+    }
+    /** Loads a File written by {@link #save(World, Path)} into a {@link World}.
+     *
+     * @param world the {@link World} to load into.
+     * @param file the File to read.
+     * @return the new Handles of the loaded Entities, in the Order they were saved.
+     *
+     * @author snoweuph
+     */
+    public static long[] load(World world, Path file) throws IOException {
+        try(InputStream in = new ZstdInputStream(Files.newInputStream(file))){
+            return load(world, in);
+        }
+    }
+
+    //Streams
+    /** Saves the default {@link World} into a Stream, uncompressed. Wrap the Stream into a {@link ZstdOutputStream} to compress it.
+     *
+     * @param stream the Stream to write to, it is flushed but not closed.
+     *
+     * @author snoweuph
+     */
+    public static void save(OutputStream stream) throws IOException {
+        save(EntityComponentSystem.getDefaultWorld(), stream);
+    }
+    /** Saves a {@link World} into a Stream, uncompressed. Wrap the Stream into a {@link ZstdOutputStream} to compress it.
+     *
+     * @param world the {@link World} to save.
+     * @param stream the Stream to write to, it is flushed but not closed.
+     *
+     * @author snoweuph
+     */
+    public static void save(World world, OutputStream stream) throws IOException {
+        SnapshotOutput out = new SnapshotOutput(stream);
+        long stamp = world.lockRead();
+        try{
+            EntityTable entities = world.getEntityTable();
+            List<Archetype> archetypes = new ArrayList<>();
+            for(Archetype archetype : world.getArchetypes()){
+                if(archetype.size() > 0) archetypes.add(archetype);
+            }
+            //Header
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entities.size());
+            //The Names of all stored types, the Blocks refer to them by their Position in this List
+            Map<Integer, Integer> types = new HashMap<>();
+            List<Class<? extends Component>> classes = new ArrayList<>();
+            for(Archetype archetype : archetypes){
+                Signature signature = archetype.getSignature();
+                for(int column = 0; column < signature.size(); column++){
+                    if(types.containsKey(signature.get(column))) continue;
+                    types.put(signature.get(column), classes.size());
+                    classes.add(ComponentTypeRegistry.getType(signature.get(column)));
+                }
+            }
+            out.writeInt(classes.size());
+            for(Class<? extends Component> componentClass : classes){
+                out.writeUTF(componentClass.getName());
+            }
+            //The Handles of all Entities, so that References can be translated before any Component is read
+            int count = 0;
+            for(Archetype archetype : archetypes){
+                count += archetype.size();
+            }
+            out.writeInt(count);
+            for(Archetype archetype : archetypes){
+                for(ArchetypeChunk chunk : archetype.getChunks()){
+                    for(int row = 0; row < chunk.size; row++){
+                        out.writeLong(chunk.entities[row]);
+                    }
+                }
+            }
+            //The Blocks
+            out.writeInt(archetypes.size());
+            byte[] transfer = new byte[Archetype.CHUNK_CAPACITY * Long.BYTES];
+            for(Archetype archetype : archetypes){
+                Signature signature = archetype.getSignature();
+                out.writeInt(signature.size());
+                for(int column = 0; column < signature.size(); column++){
+                    out.writeInt(types.get(signature.get(column)));
+                }
+                out.writeInt(archetype.size());
+                for(int column = 0; column < signature.size(); column++){
+                    PackedLayout layout = archetype.getLayout(column);
+                    out.writeBoolean(layout != null);
+                    if(layout != null){
+                        //The raw Field Arrays of every Chunk
+                        for(ArchetypeChunk chunk : archetype.getChunks()){
+                            for(int field = 0; field < layout.getFieldCount(); field++){
+                                int length = chunk.size * layout.getFieldSize(field);
+                                memByteBuffer(layout.address(chunk.packed[column], field, 0), length).get(transfer, 0, length);
+                                out.write(transfer, 0, length);
+                            }
+                        }
+                    }else{
+                        ComponentCodec<Component> codec = getCodec(ComponentTypeRegistry.getType(signature.get(column)));
+                        for(ArchetypeChunk chunk : archetype.getChunks()){
+                            Component[] components = chunk.columns[column];
+                            for(int row = 0; row < chunk.size; row++){
+                                codec.write(components[row], out);
+                            }
+                        }
+                    }
+                }
+            }
+        }finally{
+            world.unlockRead(stamp);
+        }
+        out.flush();
+    }
+    /** Loads a Snapshot written by {@link #save(OutputStream)} from a Stream into the default {@link World}.
+     *
+     * @param stream the Stream to read from, it isn't closed.
+     * @return the new Handles of the loaded Entities, in the Order they were saved.
+     *
+     * @throws IOException the Stream isn't a Snapshot of this Version, or a stored type doesn't exist or changed its Storage.
+     *
+     * @author snoweuph
+     */
+    public static long[] load(InputStream stream) throws IOException {
+        return load(EntityComponentSystem.getDefaultWorld(), stream);
+    }
+    /** Loads a Snapshot written by {@link #save(World, OutputStream)} from a Stream into a {@link World}.
+     *
+     * @param world the {@link World} to load into.
+     * @param stream the Stream to read from, it isn't closed.
+     * @return the new Handles of the loaded Entities, in the Order they were saved.
+     *
+     * @throws IOException the Stream isn't a Snapshot of this Version, or a stored type doesn't exist or changed its Storage.
+     *
+     * @author snoweuph
+     */
+    @SuppressWarnings("unchecked")
+    public static long[] load(World world, InputStream stream) throws IOException {
+        SnapshotInput in = new SnapshotInput(world, stream);
+        //Header
+        if(in.readInt() != MAGIC) throw new IOException("The Stream isn't a Snapshot");
+        int version = in.readInt();
+        if(version != VERSION) throw new IOException("The Snapshot has the Version " + version + ", only " + VERSION + " is supported");
+        int savedSize = in.readInt();
+        //The stored types
+        int[] types = new int[in.readInt()];
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if(loader == null) loader = Snapshot.class.getClassLoader();
+        for(int type = 0; type < types.length; type++){
+            String name = in.readUTF();
+            try{
+                Class<?> componentClass = Class.forName(name, true, loader);
+                if(!Component.class.isAssignableFrom(componentClass)) throw new IOException("The stored type " + name + " isn't a Component");
+                types[type] = ComponentTypeRegistry.getId((Class<? extends Component>) componentClass);
+            }catch (ClassNotFoundException e){
+                throw new IOException("The stored Component type " + name + " doesn't exist", e);
+            }
+        }
+        long stamp = world.lockWrite();
+        EntityTable entities = world.getEntityTable();
+        //Everything created so far, so that a failed Load can be undone
+        long[] handles = new long[0];
+        int created = 0;
+        List<Archetype> targets = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        try{
+            //Allocate a new Handle for every stored Entity, they get placed Block by Block
+            int count = in.readInt();
+            if(count < 0 || count > savedSize) throw new IOException("The Snapshot is corrupted, it has " + count + " Entities");
+            handles = new long[count];
+            long[] savedHandles = new long[savedSize];
+            long[] loadedHandles = new long[savedSize];
+            entities.reserve(count);
+            for(int i = 0; i < count; i++){
+                long saved = in.readLong();
+                int index = EntityTable.index(saved);
+                if(index < 0 || index >= savedSize) throw new IOException("The Snapshot is corrupted, the Handle " + saved + " is out of Range");
+                handles[i] = entities.create();
+                created++;
+                savedHandles[index] = saved;
+                loadedHandles[index] = handles[i];
+            }
+            in.setHandles(savedHandles, loadedHandles);
+            //The Blocks
+            long added = world.changeTick();
+            int placed = 0;
+            int blocks = in.readInt();
+            for(int block = 0; block < blocks; block++){
+                //The type IDs can be in another Order than when saving, so every stored Column gets mapped to its Column in the Signature
+                int columns = in.readInt();
+                int[] stored = new int[columns];
+                for(int column = 0; column < columns; column++){
+                    stored[column] = types[in.readInt()];
+                }
+                int[] mapping = sortedColumns(stored);
+                int[] sorted = new int[columns];
+                for(int column = 0; column < columns; column++){
+                    sorted[mapping[column]] = stored[column];
+                }
+                Archetype target = world.getArchetype(new Signature(sorted));
+                int size = in.readInt();
+                if(size < 0 || placed + size > count) throw new IOException("The Snapshot is corrupted, it has more Rows than Entities");
+                target.reserve(size);
+                int start = target.size();
+                targets.add(target);
+                starts.add(start);
+                for(int row = 0; row < size; row++){
+                    target.allocate(handles[placed + row]);
+                }
+                for(int column = 0; column < columns; column++){
+                    int targetColumn = mapping[column];
+                    PackedLayout layout = target.getLayout(targetColumn);
+                    boolean packed = in.readBoolean();
+                    if(packed != (layout != null)) throw new IOException("The Storage of " + ComponentTypeRegistry.getType(stored[column]).getName() + " changed since the Snapshot was saved");
+                    if(packed) readPacked(in, layout, target, targetColumn, start, size, added);
+                    else{
+                        ComponentCodec<Component> codec = getCodec(ComponentTypeRegistry.getType(stored[column]));
+                        for(int row = 0; row < size; row++){
+                            Component component = codec.read(in);
+                            component.setEntityHandle(handles[placed + row]);
+                            target.set(start + row, targetColumn, component, added);
+                        }
+                    }
+                }
+                placed += size;
+            }
+            if(placed != count) throw new IOException("The Snapshot is corrupted, it has less Rows than Entities");
+            world.structureChanged();
+            return handles;
+        }catch (IOException | RuntimeException e){
+            rollback(entities, handles, created, targets, starts);
+            throw e;
+        }finally{
+            world.unlockWrite(stamp);
+        }
+    }
+
+    /** Undoes a failed Load, so that the {@link World} looks like before it. Nobody else could see the loaded Entities, because the Load holds the exclusive Lock.
+     * The Rows are removed from the last one on, so every removed Row is the last of its {@link Archetype} and no other Row moves.
+     *
+     * @param entities the Entity Table of the {@link World}.
+     * @param handles the Handles of the loaded Entities.
+     * @param created the amount of Handles that were already created.
+     * @param targets the {@link Archetype} of every Block that got Rows.
+     * @param starts the first Row of every Block inside its {@link Archetype}.
+     *
+     * @author snoweuph
+     */
+    private static void rollback(EntityTable entities, long[] handles, int created, List<Archetype> targets, List<Integer> starts){
+        for(int block = targets.size() - 1; block >= 0; block--){
+            Archetype target = targets.get(block);
+            for(int row = target.size() - 1; row >= starts.get(block); row--){
+                //Columns that weren't read yet are still empty
+                for(int column = 0; column < target.getWidth(); column++){
+                    if(target.getLayout(column) == null && target.get(row, column) != null) target.release(row, column);
+                }
+                target.remove(row);
+            }
+        }
+        for(int i = created - 1; i >= 0; i--){
+            entities.destroy(handles[i]);
+        }
+    }
+
+    /** Reads the raw Field Arrays of a {@link Packed} Column. They were written per saved Chunk, which can cross the Chunks of the target.
+     *
+     * @author snoweuph
+     */
+    private static void readPacked(SnapshotInput in, PackedLayout layout, Archetype target, int column, int start, int size, long added) throws IOException {
+        ByteBuffer staging = memAlloc(Archetype.CHUNK_CAPACITY * Long.BYTES);
+        byte[] transfer = new byte[staging.capacity()];
+        try{
+            for(int offset = 0; offset < size; offset += Archetype.CHUNK_CAPACITY){
+                int rows = Math.min(Archetype.CHUNK_CAPACITY, size - offset);
+                for(int field = 0; field < layout.getFieldCount(); field++){
+                    int fieldSize = layout.getFieldSize(field);
+                    in.readFully(transfer, 0, rows * fieldSize);
+                    staging.put(0, transfer, 0, rows * fieldSize);
+                    //Copy the Values in Runs that stay inside one target Chunk
+                    int row = 0;
+                    while(row < rows){
+                        int index = start + offset + row;
+                        int chunkRow = index & Archetype.CHUNK_MASK;
+                        int run = Math.min(rows - row, Archetype.CHUNK_CAPACITY - chunkRow);
+                        ArchetypeChunk chunk = target.getChunks().get(index >> Archetype.CHUNK_SHIFT);
+                        memCopy(memAddress(staging) + (long) row * fieldSize, layout.address(chunk.packed[column], field, chunkRow), (long) run * fieldSize);
+                        row += run;
+                    }
+                }
+            }
+        }finally{
+            memFree(staging);
+        }
+        //Translate the Fields that hold Entity Handles
+        for(int field = 0; field < layout.getFieldCount(); field++){
+            if(!layout.isEntityReference(field)) continue;
+            for(int row = start; row < start + size; row++){
+                long address = layout.address(target.getChunks().get(row >> Archetype.CHUNK_SHIFT).packed[column], field, row & Archetype.CHUNK_MASK);
+                memPutLong(address, in.translate(memGetLong(address)));
+            }
+        }
+        for(int row = 0; row < size; row++){
+            target.setTicks(start + row, column, added, added);
+        }
+    }
+    /** @return for every stored Column its Column in the sorted {@link Signature}, Columns of the same type keep their Order.
+     *
+     * @param stored the type ID of every stored Column.
+     *
+     * @author snoweuph
+     */
+    private static int[] sortedColumns(int[] stored){
+        Integer[] order = new Integer[stored.length];
+        for(int column = 0; column < stored.length; column++){
+            order[column] = column;
+        }
+        //The Sort of Objects is stable
+        Arrays.sort(order, (a, b) -> Integer.compare(stored[a], stored[b]));
+        int[] mapping = new int[stored.length];
+        for(int column = 0; column < order.length; column++){
+            mapping[order[column]] = column;
+        }
+        return mapping;
+    }
+}
@@ -0,0 +1,87 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/** The Input a {@link Snapshot} is read from. Next to everything a DataInputStream can read,
+ * it translates the saved {@link Entity} References to the new Handles of the loaded Entities.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class SnapshotInput extends DataInputStream {
+
+    //The World the Entities are loaded into.
+    private final World world;
+    //The saved Handle and the new Handle of every loaded Entity, indexed by the saved Index.
+    private long[] savedHandles = new long[0];
+    private long[] loadedHandles = new long[0];
+
+    /** Creates a new buffered Input.
+     *
+     * @param world the {@link World} the Entities are loaded into.
+     * @param in the Stream to read from.
+     *
+     * @author snoweuph
+     */
+    SnapshotInput(World world, InputStream in){
+        super(new BufferedInputStream(in, 1 << 16));
+        this.world = world;
+    }
+
+    /** Reads the Handle of an {@link Entity} written by {@link SnapshotOutput#writeEntity(long)}.
+     *
+     * @return the new Handle of the {@link Entity}, or {@link Entity#NULL} if it wasn't part of the {@link Snapshot}.
+     *
+     * @author snoweuph
+     */
+    public long readEntity() throws IOException {
+        return translate(readLong());
+    }
+    /** @return the new Handle of an {@link Entity}, or {@link Entity#NULL} if it wasn't part of the {@link Snapshot}.
+     *
+     * @param saved the Handle the {@link Entity} had when the {@link Snapshot} was saved.
+     *
+     * @author snoweuph
+     */
+    long translate(long saved){
+        int index = EntityTable.index(saved);
+        if(saved == Entity.NULL || index < 0 || index >= savedHandles.length || savedHandles[index] != saved) return Entity.NULL;
+        return loadedHandles[index];
+    }
+    /** Reads a String written by {@link SnapshotOutput#writeNullableString(String)}.
+     *
+     * @return the String, can be null.
+     *
+     * @author snoweuph
+     */
+    public String readNullableString() throws IOException {
+        return readBoolean() ? readUTF() : null;
+    }
+    /** Reads an {@link Entity} Reference as {@link Entity} Object.
+     *
+     * @return the {@link Entity} Object, or null if it wasn't part of the {@link Snapshot}.
+     *
+     * @implNote Loading holds the exclusive Lock of the World, so the one {@link Entity} Object of the Handle is taken without locking again.
+     *
+     * @author snoweuph
+     */
+    Entity readEntityObject() throws IOException {
+        long entity = readEntity();
+        return entity == Entity.NULL ? null : world.getLockedEntity(entity);
+    }
+
+    /** Sets the Translation from saved to new Handles.
+     *
+     * @param savedHandles the saved Handle of every loaded Entity, indexed by the saved Index.
+     * @param loadedHandles the new Handle of every loaded Entity, indexed by the saved Index.
+     *
+     * @author snoweuph
+     */
+    void setHandles(long[] savedHandles, long[] loadedHandles){
+        this.savedHandles = savedHandles;
+        this.loadedHandles = loadedHandles;
+    }
+}
@@ -0,0 +1,45 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/** The Output a {@link Snapshot} is written to. Next to everything a DataOutputStream can write,
+ * it writes {@link Entity} References in a way that they can be translated when loading.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class SnapshotOutput extends DataOutputStream {
+
+    /** Creates a new buffered Output.
+     *
+     * @param out the Stream to write to.
+     *
+     * @author snoweuph
+     */
+    SnapshotOutput(OutputStream out){
+        super(new BufferedOutputStream(out, 1 << 16));
+    }
+
+    /** Writes the Handle of an {@link Entity}, on loading it is translated to the new Handle of that {@link Entity}.
+     *
+     * @param entity the Handle, can be {@link Entity#NULL}.
+     *
+     * @author snoweuph
+     */
+    public void writeEntity(long entity) throws IOException {
+        writeLong(entity);
+    }
+    /** Writes a String that can be null.
+     *
+     * @param value the String, can be null.
+     *
+     * @author snoweuph
+     */
+    public void writeNullableString(String value) throws IOException {
+        writeBoolean(value != null);
+        if(value != null) writeUTF(value);
+    }
+}
@@ -0,0 +1,384 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.euph.engine.profiling.ProfileScope;
+import org.euph.engine.profiling.Profiler;
+import org.euph.engine.util.ParallelWork;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** Runs a Set of {@link EngineSystem Systems} once per Frame and runs Systems that don't conflict concurrently on a {@link ForkJoinPool}.
+ * Two Systems conflict if one of them writes a {@link Component} type the other one reads or writes, or if one of them {@link EngineSystem#isExclusive() is exclusive}.
+ * Conflicting Systems run in the Order they were added, so the Result is the same as running all Systems one after another.
+ * At the End of each Frame, the shared {@link CommandBuffer} of all Systems gets played back.
+ * A Scheduler runs the Systems of one {@link World}, the Schedulers of different Worlds can run at the same time on different Threads.
+ *
+ * @implNote The Dependency Graph is rebuilt whenever Systems or {@link Component} types were added, otherwise the cached one is reused.
+ * After each Frame the Critical Path, the longest chain of dependent Systems measured by their Execution Time, is available.
+ * Every System runs inside a {@link ProfileScope} named after it, and the Playback inside one of its own, so they show up in the {@link Profiler}.
+ * A System gets claimed once it doesn't wait for any Predecessor anymore, by a Task on the Pool or by the Thread that runs the Frame,
+ * which runs ready Systems itself and only parks while all ready ones already run. So running a Frame from a Worker of the same Pool can't dead lock,
+ * and no Latch gets allocated per Frame.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class SystemScheduler {
+
+    //The Scopes around the whole Run and the Playback.
+    private static final ProfileScope RUN_SCOPE = Profiler.scope("SystemScheduler");
+    private static final ProfileScope PLAYBACK_SCOPE = Profiler.scope("SystemScheduler.playback");
+
+    private final World world;
+    private final ForkJoinPool pool;
+    private final List<EngineSystem> systems = new ArrayList<>();
+    private final CommandBuffer commands;
+
+    //The Dependency Graph, rebuilt when it got invalid.
+    private boolean dirty = true;
+    private int registeredTypes = -1;
+    private int[][] predecessors = new int[0][];
+    private int[][] successors = new int[0][];
+    private Runnable[] tasks = new Runnable[0];
+    private ProfileScope[] scopes = new ProfileScope[0];
+
+    //The State of the current Frame.
+    private float delta;
+    //The Predecessors every System still waits for, -1 once it got claimed.
+    private AtomicIntegerArray remaining = new AtomicIntegerArray(0);
+    private final ParallelWork work = new ParallelWork();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    //The Timings of the last Frame.
+    private long[] durations = new long[0];
+    //The Scratch Space of the Critical Path, so that measuring doesn't allocate every Frame.
+    private long[] finish = new long[0];
+    private int[] previous = new int[0];
+    private final List<EngineSystem> criticalPath = new ArrayList<>();
+    private long criticalPathTime = 0;
+    private long frameTime = 0;
+
+    /** Creates a new Scheduler for the {@link EntityComponentSystem#getDefaultWorld() default World} that runs on the common {@link ForkJoinPool}.
+     *
+     * @author snoweuph
+     */
+    public SystemScheduler(){
+        this(ForkJoinPool.commonPool());
+    }
+    /** Creates a new Scheduler for the {@link EntityComponentSystem#getDefaultWorld() default World}.
+     *
+     * @param pool the {@link ForkJoinPool} the Systems are run on.
+     *
+     * @author snoweuph
+     */
+    public SystemScheduler(ForkJoinPool pool){
+        this(EntityComponentSystem.getDefaultWorld(), pool);
+    }
+    /** Creates a new Scheduler that runs on the common {@link ForkJoinPool}.
+     *
+     * @param world the {@link World} the Systems work on.
+     *
+     * @author snoweuph
+     */
+    public SystemScheduler(World world){
+        this(world, ForkJoinPool.commonPool());
+    }
+    /** Creates a new Scheduler.
+     *
+     * @param world the {@link World} the Systems work on.
+     * @param pool the {@link ForkJoinPool} the Systems are run on.
+     *
+     * @author snoweuph
+     */
+    public SystemScheduler(World world, ForkJoinPool pool){
+        this.world = world;
+        this.pool = pool;
+        this.commands = new CommandBuffer(world);
+    }
+
+    //System Handling
+    /** Adds a System to the end of this Scheduler.
+     *
+     * @param system the System to add.
+     * @return this Scheduler, so that functions can be stacked.
+     *
+     * @throws IllegalArgumentException the System works on another {@link World}.
+     *
+     * @author snoweuph
+     */
+    public SystemScheduler addSystem(EngineSystem system){
+        if(system.getWorld() != world) throw new IllegalArgumentException("The System " + system.getClass().getName() + " works on another World");
+        systems.add(system);
+        system.setCommands(commands);
+        dirty = true;
+        return this;
+    }
+    /** Removes a System from this Scheduler.
+     *
+     * @param system the System to remove.
+     * @return this Scheduler, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public SystemScheduler removeSystem(EngineSystem system){
+        if(systems.remove(system)){
+            system.setCommands(null);
+            dirty = true;
+        }
+        return this;
+    }
+
+    //Running
+    /** Runs all Systems once and plays back their structural Changes afterwards.
+     *
+     * @param delta the Time since the last Frame in Seconds.
+     *
+     * @throws RuntimeException if a System failed, the first Failure is rethrown after all other Systems finished.
+     *
+     * @author snoweuph
+     */
+    public void run(float delta){
+        if(dirty || registeredTypes != ComponentTypeRegistry.size()) build();
+        Profiler.begin(RUN_SCOPE);
+        long start = System.nanoTime();
+        int count = systems.size();
+        if(count > 0){
+            this.delta = delta;
+            failure.set(null);
+            work.start(count);
+            for(int system = 0; system < count; system++){
+                remaining.set(system, predecessors[system].length);
+            }
+            //Start all Systems without Dependencies, the others get started by their last Predecessor
+            for(int system = 0; system < count; system++){
+                if(predecessors[system].length == 0) pool.execute(tasks[system]);
+            }
+            //Help with the ready Systems, the Tasks on the Pool may not run before this Frame ended
+            while(!work.isDone()){
+                if(!runReadySystem()) work.park();
+            }
+            work.await();
+        }
+        //Sync Point, apply all structural Changes
+        Profiler.begin(PLAYBACK_SCOPE);
+        commands.playback();
+        Profiler.end(PLAYBACK_SCOPE);
+        frameTime = System.nanoTime() - start;
+        Profiler.end(RUN_SCOPE);
+        updateCriticalPath();
+        Throwable cause = failure.get();
+        if(cause != null) throw new RuntimeException("A System failed while running", cause);
+    }
+    /** Claims and runs one System that doesn't wait for any Predecessor anymore.
+     *
+     * @return whether a System was run.
+     *
+     * @author snoweuph
+     */
+    private boolean runReadySystem(){
+        for(int system = 0; system < remaining.length(); system++){
+            if(remaining.get(system) == 0 && remaining.compareAndSet(system, 0, -1)){
+                runSystem(system);
+                return true;
+            }
+        }
+        return false;
+    }
+    private void runSystem(int system){
+        Profiler.begin(scopes[system]);
+        long start = System.nanoTime();
+        try{
+            systems.get(system).run(delta);
+        }catch (Throwable t){
+            failure.compareAndSet(null, t);
+        }
+        durations[system] = System.nanoTime() - start;
+        Profiler.end(scopes[system]);
+        //Start all Successors that don't wait for anything else anymore, and wake the Thread that runs the Frame to help with them
+        boolean started = false;
+        for(int successor : successors[system]){
+            if(remaining.decrementAndGet(successor) == 0){
+                pool.execute(tasks[successor]);
+                started = true;
+            }
+        }
+        if(work.finish()) work.release();
+        else if(started) work.signal();
+    }
+
+    //Graph
+    /** Rebuilds the Dependency Graph from the declared Read and Write Sets of all Systems.
+     *
+     * @author snoweuph
+     */
+    private void build(){
+        int count = systems.size();
+        registeredTypes = ComponentTypeRegistry.size();
+        BitSet[] reads = new BitSet[count];
+        BitSet[] writes = new BitSet[count];
+        boolean[] exclusive = new boolean[count];
+        for(int system = 0; system < count; system++){
+            reads[system] = toMask(systems.get(system).getReadComponents());
+            writes[system] = toMask(systems.get(system).getWriteComponents());
+            exclusive[system] = systems.get(system).isExclusive();
+        }
+        //Every System depends on all earlier Systems it conflicts with
+        List<List<Integer>> predecessorLists = new ArrayList<>();
+        List<List<Integer>> successorLists = new ArrayList<>();
+        for(int system = 0; system < count; system++){
+            predecessorLists.add(new ArrayList<>());
+            successorLists.add(new ArrayList<>());
+            for(int earlier = 0; earlier < system; earlier++){
+                boolean conflict = exclusive[system] || exclusive[earlier]
+                        || writes[earlier].intersects(reads[system]) || writes[earlier].intersects(writes[system])
+                        || reads[earlier].intersects(writes[system]);
+                if(!conflict) continue;
+                predecessorLists.get(system).add(earlier);
+                successorLists.get(earlier).add(system);
+            }
+        }
+        predecessors = new int[count][];
+        successors = new int[count][];
+        tasks = new Runnable[count];
+        scopes = new ProfileScope[count];
+        for(int system = 0; system < count; system++){
+            scopes[system] = Profiler.scope(systems.get(system).getName());
+            predecessors[system] = predecessorLists.get(system).stream().mapToInt(Integer::intValue).toArray();
+            successors[system] = successorLists.get(system).stream().mapToInt(Integer::intValue).toArray();
+            int index = system;
+            //The Thread that runs the Frame may have claimed the System already
+            tasks[system] = () -> {
+                if(remaining.compareAndSet(index, 0, -1)) runSystem(index);
+            };
+        }
+        //All Systems count as claimed until the next Frame starts, so that late Tasks of the last Frame can't run them
+        remaining = new AtomicIntegerArray(count);
+        for(int system = 0; system < count; system++){
+            remaining.set(system, -1);
+        }
+        durations = new long[count];
+        finish = new long[count];
+        previous = new int[count];
+        dirty = false;
+    }
+    /** @return the Mask of all type IDs the {@link Component} types and the types inheriting from them have.
+     *
+     * @param componentClasses the {@link Component} types.
+     *
+     * @author snoweuph
+     */
+    private static BitSet toMask(List<Class<? extends Component>> componentClasses){
+        BitSet mask = new BitSet();
+        for(Class<? extends Component> componentClass : componentClasses){
+            mask.or(ComponentTypeRegistry.getDescendants(ComponentTypeRegistry.getId(componentClass)));
+        }
+        return mask;
+    }
+    /** Calculates the longest Chain of dependent Systems of the last Frame, measured by their Execution Time.
+     * Systems only depend on earlier Systems, so the Order they were added in is a topological Order.
+     *
+     * @author snoweuph
+     */
+    private void updateCriticalPath(){
+        int count = systems.size();
+        int last = -1;
+        for(int system = 0; system < count; system++){
+            previous[system] = -1;
+            for(int predecessor : predecessors[system]){
+                if(previous[system] < 0 || finish[predecessor] > finish[previous[system]]) previous[system] = predecessor;
+            }
+            finish[system] = durations[system] + (previous[system] < 0 ? 0 : finish[previous[system]]);
+            if(last < 0 || finish[system] > finish[last]) last = system;
+        }
+        criticalPath.clear();
+        criticalPathTime = last < 0 ? 0 : finish[last];
+        for(int system = last; system >= 0; system = previous[system]){
+            criticalPath.add(0, systems.get(system));
+        }
+    }
+
+    //Getter
+    /** @return all Systems in the Order they were added.
+     *
+     * @author snoweuph
+     */
+    public List<EngineSystem> getSystems(){
+        return Collections.unmodifiableList(systems);
+    }
+    /** @return the {@link World} the Systems of this Scheduler work on.
+     *
+     * @author snoweuph
+     */
+    public World getWorld(){
+        return world;
+    }
+    /** @return the {@link CommandBuffer} that is shared by all Systems of this Scheduler.
+     *
+     * @author snoweuph
+     */
+    public CommandBuffer getCommands(){
+        return commands;
+    }
+    /** @return the Systems on the Critical Path of the last Frame, in the Order they ran.
+     * The Frame can't be faster than this Chain, no matter how many Cores there are.
+     *
+     * @author snoweuph
+     */
+    public List<EngineSystem> getCriticalPath(){
+        return Collections.unmodifiableList(criticalPath);
+    }
+    /** @return the summed Execution Time of the Critical Path of the last Frame in Nanoseconds.
+     *
+     * @author snoweuph
+     */
+    public long getCriticalPathTime(){
+        return criticalPathTime;
+    }
+    /** @return the Execution Time of a System in the last Frame in Nanoseconds.
+     *
+     * @param system the System.
+     *
+     * @author snoweuph
+     */
+    public long getSystemTime(EngineSystem system){
+        int index = systems.indexOf(system);
+        return index < 0 || index >= durations.length ? 0 : durations[index];
+    }
+    /** @return the amount of Systems.
+     *
+     * @author snoweuph
+     */
+    public int getSystemCount(){
+        return systems.size();
+    }
+    /** @return a System by its Index, in the Order they were added.
+     *
+     * @param index the Index of the System.
+     *
+     * @author snoweuph
+     */
+    public EngineSystem getSystem(int index){
+        return systems.get(index);
+    }
+    /** @return the Execution Time of a System in the last Frame in Nanoseconds, 0 if it didn't run yet.
+     *
+     * @param index the Index of the System, in the Order they were added.
+     *
+     * @author snoweuph
+     */
+    public long getSystemTime(int index){
+        return index < durations.length ? durations[index] : 0;
+    }
+    /** @return the Time the last Frame took in Nanoseconds, including the Playback of the structural Changes.
+     *
+     * @author snoweuph
+     */
+    public long getFrameTime(){
+        return frameTime;
+    }
+}
@@ -0,0 +1,1180 @@
+package org.euph.engine.entityComponentSystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/** A World is one independent ECS. It owns all {@link Entity Entities}, their {@link Component Components}, the Change Ticks and the Lock,
+ * nothing is shared with other Worlds. So one Process can host many isolated Simulations, for example the Matches of a Server,
+ * an Editor Preview next to the Game or a Background Simulation, and each of them can be ticked on its own Thread.
+ * The {@link EntityComponentSystem} is the Facade over the {@link EntityComponentSystem#getDefaultWorld() default World}, that is used by everything that isn't given a World.
+ * <pre>{@code
+ * World match = new World();
+ * Entity player = new Entity(match).putComponent(new Transform());
+ * SystemScheduler scheduler = new SystemScheduler(match).addSystem(new MovementSystem(match));
+ * //when the Match is over
+ * match.close();
+ * }</pre>
+ * A World holds Off-Heap Memory for its {@link Packed} Components, so a World that isn't needed anymore must be {@link #close() closed}.
+ *
+ * @implNote The {@link Component Components} are stored in {@link Archetype Archetypes}. All {@link Entity Entities} with the same
+ * Set of {@link Component} types live together in dense Chunks, adding or removing a {@link Component} moves the {@link Entity} to another {@link Archetype}.
+ * Entities are identified by generational Handles that are allocated by the {@link EntityTable}, a Handle is only valid inside the World that created it.
+ * The {@link Component} type IDs, {@link ComponentPool Pools} and {@link PackedLayout Layouts} are shared by all Worlds, they are safe to use from many Threads.
+ * <p>
+ * For Change Detection every World has its own Tick, every {@link EngineSystem} Run advances it. Every {@link Component} Slot remembers the Tick it was added
+ * and last changed at, so that {@link Query Queries} can filter for what changed since the last Run of their System.
+ * <p>
+ * By default a World must only be changed from one Thread at a time. With {@link #setConcurrent(boolean)} it can be switched into a concurrent Mode,
+ * where every structural Change takes an exclusive Lock and point Reads like {@link #isAlive(long)} are optimistic: they don't take a Lock
+ * and don't block while no Write happens, but they are not wait free, if a Write happened at the same time they wait for it under the shared Lock.
+ * Iterating a {@link Query} holds the shared Lock until it is done, so Writers wait for the Iteration.
+ * The shared Lock is reentrant per Thread, so Reads inside an Iteration never wait. A structural Change from a Thread that holds the shared Lock
+ * would wait for itself, it fails with an {@link IllegalStateException} instead, such Changes belong into a {@link CommandBuffer}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class World implements AutoCloseable {
+
+    /** This Table allocates the Handles of all {@link Entity Entities} and keeps track of where they are stored. */
+    private final EntityTable entities = new EntityTable();
+    /** This Map Keeps track of all {@link Archetype Archetypes} by their Signature.
+     * Every {@link Entity} lives in exactly one of them, Entities without any {@link Component} live in the {@link #emptyArchetype}.
+     */
+    private final Map<Signature, Archetype> archetypes = new HashMap<>();
+    //The same Archetypes in the Order they were created, so that they can be walked without an Iterator.
+    private final List<Archetype> archetypeList = new ArrayList<>();
+    /** This Map Keeps track of all Instances of all {@link Component } Types.
+     * The Systems of the ECS will use it to get all instances of specific {@link Component} to do their operation on the data these components hold.
+     * The Lists are live Views over the {@link Archetype Archetypes} and get created on first use.
+     */
+    private final Map<Class<? extends Component>, ComponentInstanceList> componentInstancesMap = new ConcurrentHashMap<>();
+    /** This List Keeps track of all {@link Query Queries} that are in use, so that they can be updated when a new {@link Archetype} gets created.
+     * Queries get registered on first use, which can happen from Systems running in parallel.
+     */
+    private final List<Query> queries = new CopyOnWriteArrayList<>();
+    private final Archetype emptyArchetype = getArchetype(Signature.EMPTY);
+    //Gets increased on every structural change, so that Iterators can detect Modifications.
+    private int structureVersion = 0;
+    //The Tick for Change Detection, it starts above 0 so that everything counts as changed for a System that never ran.
+    private final AtomicLong tick = new AtomicLong(1);
+    /** This Log keeps track of removed {@link Component Components} for all {@link RemovedComponents} Readers. */
+    private final RemovedLog removedLog = new RemovedLog();
+    //The merged Changes of the current Playback, and the Position + 1 of each in that List by the Index of its Entity, 0 if it has none.
+    private final List<PendingEntity> pendingEntities = new ArrayList<>();
+    private int[] pendingSlots = new int[0];
+    //The Lock of the concurrent Mode, Writes are exclusive and Reads are optimistic.
+    private final StampedLock lock = new StampedLock();
+    private volatile boolean concurrent = false;
+    //Whether the World was closed, it can't be used afterwards.
+    private volatile boolean closed = false;
+    //How often each Thread holds the shared Lock, so that it can be taken again without waiting behind a queued Writer.
+    private final ThreadLocal<ReadHold> readHolds = ThreadLocal.withInitial(ReadHold::new);
+
+    /** Creates a new {@link Entity} without any {@link Component Components} and without an {@link Entity} Object.
+     *
+     * @return the Handle of the new {@link Entity}.
+     *
+     * @author snoweuph
+     */
+    public long createHandle(){
+        long stamp = lockWrite();
+        try{
+            long entity = entities.create();
+            //Place the Entity inside the Archetype without Components.
+            emptyArchetype.allocate(entity);
+            structureVersion++;
+            return entity;
+        }finally{
+            unlockWrite(stamp);
+        }
+    }
+    /** Destroys the {@link Entity} of a Handle, stale Handles are ignored.
+     * After this the Handle is stale, so that no more operations will be done on that {@link Entity}.
+     *
+     * @param entity the Handle of the {@link Entity} to destroy.
+     *
+     * @author snoweuph
+     */
+    public void destroy(long entity){
+        long stamp = lockWrite();
+        try{
+            //Test if this Handle is still alive, if no return.
+            if(!entities.isAlive(entity)) return;
+            //Remove the Row of the Entity, this also removes the References for all Components on the Entity
+            int index = EntityTable.index(entity);
+            removedLog.record(entity, entities.getArchetype(index).getSignature(), changeTick());
+            entities.getArchetype(index).release(entities.getRow(index));
+            entities.getArchetype(index).remove(entities.getRow(index));
+            entities.destroy(entity);
+            structureVersion++;
+        }finally{
+            unlockWrite(stamp);
+        }
+    }
+    /** Creates many {@link Entity Entities} at once, each with a new {@link Component} from every Supplier and all required Components.
+     * The Storage is reserved once and every {@link Entity} is placed directly inside its final {@link Archetype}, without moving through the Archetypes in between.
+     *
+     * @param count the amount of Entities to create.
+     * @param template one Supplier per {@link Component} every {@link Entity} gets.
+     * @return the Handles of the new Entities.
+     *
+     * @see Entity#spawnBatch(int, Supplier[])
+     *
+     * @author snoweuph
+     */
+    @SafeVarargs
+    public final long[] spawnBatch(int count, Supplier<? extends Component>... template){
+        long stamp = lockWrite();
+        try{
+            long[] handles = new long[count];
+            long added = changeTick();
+            entities.reserve(count);
+            Archetype target = null;
+            //One Pending Entity is reused for all Entities, so that only the Components themselves get allocated
+            PendingEntity entity = new PendingEntity(Entity.NULL, null, new ArrayList<>());
+            for(int i = 0; i < count; i++){
+                //Build the Components of this Entity, with the same rules as a CommandBuffer
+                entity.components.clear();
+                for(Supplier<? extends Component> supplier : template){
+                    entity.addWithRequired(supplier.get());
+                }
+                Signature signature = entity.sort(target == null ? null : target.getSignature());
+                //Normally all Entities of a Batch share the same Archetype, so the lookup and the Reservation only happen once
+                if(target == null || !target.getSignature().equals(signature)){
+                    target = getArchetype(signature);
+                    target.reserve(count - i);
+                }
+                long handle = entities.create();
+                int row = target.allocate(handle);
+                for(int column = 0; column < entity.row.length; column++){
+                    target.set(row, column, entity.row[column], added);
+                    entity.row[column].setEntityHandle(handle);
+                }
+                handles[i] = handle;
+            }
+            structureVersion++;
+            return handles;
+        }finally{
+            unlockWrite(stamp);
+        }
+    }
+    /** Destroys the {@link Entity Entities} of many Handles at once, stale Handles are ignored.
+     *
+     * @param handles the Handles of the Entities to destroy.
+     *
+     * @author snoweuph
+     */
+    public void destroyBatch(long... handles){
+        long stamp = lockWrite();
+        try{
+            for(long entity : handles){
+                if(!entities.isAlive(entity)) continue;
+                int index = EntityTable.index(entity);
+                removedLog.record(entity, entities.getArchetype(index).getSignature(), changeTick());
+                entities.getArchetype(index).release(entities.getRow(index));
+                entities.getArchetype(index).remove(entities.getRow(index));
+                entities.destroy(entity);
+            }
+            structureVersion++;
+        }finally{
+            unlockWrite(stamp);
+        }
+    }
+    /** This will register a {@link Component} to an {@link Entity}, together with new Instances of all its
+     * {@link Component#getRequiredComponents() required Components} whose type isn't on the {@link Entity} yet.
+     * The {@link Entity} is moved only once, directly into the {@link Archetype} with all of them.
+     *
+     * @param component the {@link Component} to register.
+     * @param entity the Handle of the {@link Entity} to register to.
+     *
+     * @throws IllegalStateException the Requirements of the {@link Component} type contain a Cycle.
+     *
+     * @author snoweuph
+     */
+    void addComponentReferences(Component component, long entity){
+        RequiredComponents required = ComponentTypeRegistry.getRequired(component);
+        long stamp = lockWrite();
+        try{
+            //The Entity might have been destroyed by another Thread in the meantime
+            if(!entities.isAlive(entity)) return;
+            component.setEntityHandle(entity);
+            //References to the Components Type
+            int type = ComponentTypeRegistry.getId(component.getClass());
+            int index = EntityTable.index(entity);
+            Archetype source = entities.getArchetype(index);
+            Signature signature = source.getSignature();
+            //Get the Archetype to move to, if it isn't cached yet, look it up. The missing required types only depend on the Signature, so the Edge covers them too.
+            Archetype target = source.getAddEdge(type);
+            if(target == null){
+                BitSet missing = (BitSet) required.getMask().clone();
+                missing.andNot(signature.getMask());
+                target = getArchetype(signature.with(type, missing));
+                source.setAddEdge(type, target);
+            }
+            //Move the Entity with all its Components and insert the new ones, the existing Columns keep their Order and the new Column of the type goes behind them
+            Signature targetSignature = target.getSignature();
+            long added = changeTick();
+            int sourceIndex = entities.getRow(index);
+            int targetIndex = target.allocate(entity);
+            int sourceColumn = 0;
+            Component[] created = null;
+            for(int column = 0; column < targetSignature.size(); column++){
+                int columnType = targetSignature.get(column);
+                if(sourceColumn < signature.size() && signature.get(sourceColumn) == columnType){
+                    source.copy(sourceIndex, sourceColumn++, target, targetIndex, column);
+                }else if(columnType == type){
+                    target.set(targetIndex, column, component, added);
+                }else{
+                    if(created == null) created = required.create(component, signature.getMask());
+                    Component requiredComponent = created[required.indexOf(columnType)];
+                    requiredComponent.setEntityHandle(entity);
+                    target.set(targetIndex, column, requiredComponent, added);
+                }
+            }
+            source.remove(sourceIndex);
+            structureVersion++;
+        }finally{
+            unlockWrite(stamp);
+        }
+    }
+    /** This will unregister a {@link Component} from an {@link Entity}.
+     * This will also mean that this {@link Component} won't be recognized by the Systems anymore to ensure safety.
+     *
+     * @param component the {@link Component} to unregister.
+     *
+     * @author snoweuph
+     */
+    void removeComponentReferences(Component component){
+        long stamp = lockWrite();
+        try{
+            //Test if this Component is on a living Entity, if not return
+            long entity = component.getEntityHandle();
+            if(!entities.isAlive(entity)) return;
+            int index = EntityTable.index(entity);
+            Archetype source = entities.getArchetype(index);
+            int sourceIndex = entities.getRow(index);
+            int removeColumn = source.columnOf(sourceIndex, component);
+            if(removeColumn < 0) return;
+            //Get the Archetype to move to, if it isn't cached yet, look it up.
+            int type = source.getSignature().get(removeColumn);
+            Archetype target = source.getRemoveEdge(type);
+            if(target == null){
+                target = getArchetype(source.getSignature().without(removeColumn));
+                source.setRemoveEdge(type, target);
+            }
+            removedLog.record(entity, type, changeTick());
+            //Move the Entity with all its other Components
+            int targetIndex = target.allocate(entity);
+            for(int column = 0; column < source.getWidth(); column++){
+                if(column == removeColumn) continue;
+                source.copy(sourceIndex, column, target, targetIndex, column < removeColumn ? column : column - 1);
+            }
+            source.remove(sourceIndex);
+            structureVersion++;
+        }finally{
+            unlockWrite(stamp);
+        }
+    }
+    /** This will remove all {@link Component Components} of a specific type from an {@link Entity}.
+     *
+     * @param entity the Handle of the {@link Entity} from what to remove.
+     * @param componentClass the {@link Component} type to remove.
+     *
+     * @author snoweuph
+     */
+    void removeComponentReferences(long entity, Class<? extends Component> componentClass){
+        long stamp = lockWrite();
+        try{
+            if(!entities.isAlive(entity)) return;
+            int index = EntityTable.index(entity);
+            Archetype source = entities.getArchetype(index);
+            int sourceIndex = entities.getRow(index);
+            //The Type and all Types inheriting from it
+            BitSet targets = ComponentTypeRegistry.getDescendants(ComponentTypeRegistry.getId(componentClass));
+            //Test if Entity has any of these Components
+            Signature signature = source.getSignature();
+            if(!signature.getMask().intersects(targets)) return;
+            //Move the Entity with all its remaining Components
+            Archetype target = getArchetype(signature.without(targets));
+            int targetIndex = target.allocate(entity);
+            int targetColumn = 0;
+            for(int column = 0; column < signature.size(); column++){
+                if(targets.get(signature.get(column))){
+                    removedLog.record(entity, signature.get(column), changeTick());
+                    source.release(sourceIndex, column);
+                    continue;
+                }
+                source.copy(sourceIndex, column, target, targetIndex, targetColumn++);
+            }
+            source.remove(sourceIndex);
+            structureVersion++;
+        }finally{
+            unlockWrite(stamp);
+        }
+    }
+    /** This will get all Components that are on an {@link Entity}.
+     *
+     * @param entity the Handle of the {@link Entity} of which we want to know all {@link Component Components} from.
+     * @return the list of all {@link Component Components} on this Entity, or null if the Handle is stale.
+     *
+     * @author snoweuph
+     */
+    List<Component> getComponentsOnEntity(long entity){
+        if(!concurrent) return componentsOnEntity(entity);
+        return readOptimistic(() -> componentsOnEntity(entity));
+    }
+    private List<Component> componentsOnEntity(long entity){
+        if(!entities.isAlive(entity)) return null;
+        int index = EntityTable.index(entity);
+        Archetype archetype = entities.getArchetype(index);
+        int row = entities.getRow(index);
+        List<Component> components = new ArrayList<>(archetype.getWidth());
+        for(int column = 0; column < archetype.getWidth(); column++){
+            components.add(archetype.get(row, column));
+        }
+        return components;
+    }
+    /** This will list all instance of a specific {@link Component} type.
+     *
+     * @param componentClass  the {@link Component} type of which we want to know all instances.
+     * @return a live list of all instances, including the instances of inheriting types.
+     *
+     * @author snoweuph
+     */
+    List<Component> getComponentInstances(Class<? extends  Component> componentClass){
+        ComponentInstanceList instances = componentInstancesMap.get(componentClass);
+        if(instances != null) return instances;
+        //Create the View and register all existing Archetypes to it, only once even if Systems running in parallel ask for it
+        long stamp = lockRead();
+        try{
+            return componentInstancesMap.computeIfAbsent(componentClass, key -> {
+                ComponentInstanceList created = new ComponentInstanceList(this, ComponentTypeRegistry.getId(key));
+                for(Archetype archetype : archetypes.values()){
+                    created.match(archetype);
+                }
+                return created;
+            });
+        }finally{
+            unlockRead(stamp);
+        }
+    }
+
+    /** This will apply all Changes recorded in a {@link CommandBuffer}.
+     * All Changes of an {@link Entity} get merged first, then every {@link Entity} gets moved to its final {@link Archetype} once.
+     * Entities that got created by the Buffer are placed directly into their final {@link Archetype}.
+     *
+     * @param buffer the {@link CommandBuffer} to apply.
+     *
+     * @implNote The merged Changes are found by the Index of their {@link Entity}, and only {@link Component Components} the Buffer adds
+     * are tracked in a Map, the others are found through the {@link Entity} they are on. Every source {@link Archetype} caches the
+     * {@link Archetype} its last Entity moved to, like the Edges of single types, so Entities with the same Changes skip the Lookup of their {@link Signature}.
+     *
+     * @author snoweuph
+     */
+    void playback(CommandBuffer buffer){
+        long stamp = lockWrite();
+        try{
+            Map<Component, PendingEntity> added = new IdentityHashMap<>();
+            //Allocate the Handles of all created Entities first, so that every Thread can use the Placeholders of every other Thread
+            for(CommandBuffer.Recorder recorder : buffer.getRecorders()){
+                for(int i = 0; i < recorder.count; i++){
+                    if(recorder.operations[i] != CommandBuffer.CREATE) continue;
+                    long entity = entities.create();
+                    buffer.setCreated(recorder.entities[i], entity);
+                    putPending(new PendingEntity(entity, null, new ArrayList<>()));
+                }
+            }
+            //Merge all other Commands per Entity, in the Order they got recorded
+            for(CommandBuffer.Recorder recorder : buffer.getRecorders()){
+                for(int i = 0; i < recorder.count; i++){
+                    Object payload = recorder.payloads[i];
+                    switch (recorder.operations[i]) {
+                        case CommandBuffer.DESTROY -> {
+                            PendingEntity entity = getPending(buffer.resolve(recorder.entities[i]));
+                            if(entity != null) entity.destroyed = true;
+                        }
+                        case CommandBuffer.ADD -> {
+                            PendingEntity entity = getPending(buffer.resolve(recorder.entities[i]));
+                            if(entity == null || entity.destroyed) continue;
+                            //Remove the Component from the Entity it was on before, Components of other Worlds are removed from there right away
+                            Component component = (Component) payload;
+                            if(component.getWorld() != null && component.getWorld() != this) component.getWorld().removeComponentReferences(component);
+                            PendingEntity previous = getOwner(added, component);
+                            if(previous != null) previous.remove(component);
+                            entity.addWithRequired(component);
+                            added.put(component, entity);
+                        }
+                        case CommandBuffer.REMOVE -> {
+                            Component component = (Component) payload;
+                            PendingEntity entity = getOwner(added, component);
+                            if(entity == null || entity.destroyed) continue;
+                            entity.remove(component);
+                            added.remove(component);
+                        }
+                        case CommandBuffer.REMOVE_ALL -> {
+                            PendingEntity entity = getPending(buffer.resolve(recorder.entities[i]));
+                            if(entity == null || entity.destroyed) continue;
+                            @SuppressWarnings("unchecked")
+                            Class<? extends Component> componentClass = (Class<? extends Component>) payload;
+                            entity.removeAll(ComponentTypeRegistry.getDescendants(ComponentTypeRegistry.getId(componentClass)), added);
+                        }
+                    }
+                }
+            }
+            //Destroy Entities and move the others into their final Archetype
+            long changed = changeTick();
+            Archetype lastCreated = null;
+            for(int i = 0; i < pendingEntities.size(); i++){
+                PendingEntity entity = pendingEntities.get(i);
+                int index = EntityTable.index(entity.handle);
+                if(entity.destroyed){
+                    for(Component component : entity.components){
+                        if(component != null) release(component);
+                    }
+                    if(entity.source != null){
+                        removedLog.record(entity.handle, entity.source.getSignature(), changed);
+                        entities.getArchetype(index).remove(entities.getRow(index));
+                    }
+                    entities.destroy(entity.handle);
+                    continue;
+                }
+                if(!entity.changed) continue;
+                entity.recordRemoved(changed);
+                entity.sortRow();
+                //Entities with the same Changes share the Target, so the Signature is only looked up once
+                Archetype target = entity.source == null ? lastCreated : entity.source.getPlaybackEdge();
+                if(target == null || !target.getSignature().matches(entity.types)){
+                    if(entity.source != null && entity.source.getSignature().matches(entity.types)) target = entity.source;
+                    else target = getArchetype(new Signature(entity.types.clone()));
+                    if(entity.source == null) lastCreated = target;
+                    else entity.source.setPlaybackEdge(target);
+                }
+                int sourceRow = entity.source == null ? -1 : entities.getRow(index);
+                int targetRow = target.allocate(entity.handle);
+                for(int column = 0; column < entity.row.length; column++){
+                    Component component = entity.row[column];
+                    int sourceColumn = entity.sourceColumnOf(component);
+                    target.set(targetRow, column, component, changed);
+                    component.setEntityHandle(entity.handle);
+                    //Components that stay on the Entity keep their Ticks
+                    if(sourceColumn >= 0) target.setTicks(targetRow, column, entity.source.getAddedTick(sourceRow, sourceColumn), entity.source.getChangedTick(sourceRow, sourceColumn));
+                }
+                if(entity.source != null) entity.source.remove(sourceRow);
+            }
+            structureVersion++;
+        }finally{
+            //Forget the merged Changes, the Slots are reused by the next Playback
+            for(int i = 0; i < pendingEntities.size(); i++){
+                pendingSlots[EntityTable.index(pendingEntities.get(i).handle)] = 0;
+            }
+            pendingEntities.clear();
+            unlockWrite(stamp);
+        }
+    }
+    /** Returns a {@link Component} to its {@link ComponentPool Pool}, if its type is {@link Pooled}.
+     *
+     * @param component the {@link Component} that left the ECS.
+     *
+     * @author snoweuph
+     */
+    private void release(Component component){
+        ComponentPool<?> pool = ComponentPool.get(component.getClass());
+        if(pool != null) pool.release(component);
+    }
+    private void putPending(PendingEntity entity){
+        int index = EntityTable.index(entity.handle);
+        if(index >= pendingSlots.length) pendingSlots = Arrays.copyOf(pendingSlots, Math.max(index + 1, pendingSlots.length * 2));
+        pendingEntities.add(entity);
+        pendingSlots[index] = pendingEntities.size();
+    }
+    private PendingEntity getPending(long entity){
+        int index = EntityTable.index(entity);
+        if(index < pendingSlots.length && pendingSlots[index] != 0){
+            PendingEntity result = pendingEntities.get(pendingSlots[index] - 1);
+            return result.handle == entity ? result : null;
+        }
+        if(!entities.isAlive(entity)) return null;
+        //Take a Snapshot of the Components the Entity currently has
+        PendingEntity result = new PendingEntity(entity, entities.getArchetype(index), componentsOnEntity(entity));
+        putPending(result);
+        return result;
+    }
+    private PendingEntity getOwner(Map<Component, PendingEntity> added, Component component){
+        PendingEntity owner = added.get(component);
+        if(owner != null || component.getWorld() != this) return owner;
+        //The Component was on its Entity before the Playback, unless the Buffer removed it from there
+        owner = getPending(component.getEntityHandle());
+        return owner != null && owner.contains(component) ? owner : null;
+    }
+
+    /** Creates a new cached {@link Query} over all {@link Entity Entities} of this World that have a {@link Component} of each type.
+     * Its Change Filters compare against its last Iteration, Systems should use {@link EngineSystem#query(Class[])} instead.
+     *
+     * @param with the types every matching {@link Entity} must have.
+     * @return the new {@link Query}.
+     *
+     * @author snoweuph
+     */
+    @SafeVarargs
+    public final Query query(Class<? extends Component>... with){
+        return new Query(this).with(with);
+    }
+    /** This will register a {@link Query}, so that its cached Result gets updated whenever a new {@link Archetype} gets created.
+     *
+     * @param query the {@link Query} to register.
+     *
+     * @author snoweuph
+     */
+    synchronized void registerQuery(Query query){
+        long stamp = lockWrite();
+        try{
+            //Match all existing Archetypes once
+            for(Archetype archetype : archetypes.values()){
+                query.match(archetype);
+            }
+            queries.add(query);
+        }finally{
+            unlockWrite(stamp);
+        }
+    }
+    /** This will unregister a {@link Query}, so that it doesn't get updated anymore.
+     *
+     * @param query the {@link Query} to unregister.
+     *
+     * @author snoweuph
+     */
+    synchronized void unregisterQuery(Query query){
+        long stamp = lockWrite();
+        try{
+            queries.remove(query);
+        }finally{
+            unlockWrite(stamp);
+        }
+    }
+
+    //Handles
+    /** @return whether the Handle belongs to a living {@link Entity}.
+     *
+     * @param entity the Handle to test.
+     *
+     * @author snoweuph
+     */
+    public boolean isAlive(long entity){
+        if(!concurrent) return entities.isAlive(entity);
+        long stamp = lock.tryOptimisticRead();
+        boolean alive = entities.isAlive(entity);
+        if(lock.validate(stamp)) return alive;
+        //A Write happened while reading, read again under the shared Lock
+        stamp = lockRead();
+        try{
+            return entities.isAlive(entity);
+        }finally{
+            unlockRead(stamp);
+        }
+    }
+    /** This will get the {@link Entity} Object of a Handle. It only gets created the first time it is needed,
+     * Entities that are only used through their Handle never allocate one.
+     *
+     * @param entity the Handle of the {@link Entity}.
+     * @return the {@link Entity} Object, or null if the Handle is stale.
+     *
+     * @author snoweuph
+     */
+    public Entity getEntity(long entity){
+        if(closed) return null;
+        if(concurrent){
+            //Most of the time the Object already exists, so try to only read it first
+            Entity facade = readOptimistic(() -> entities.isAlive(entity) ? entities.getFacade(EntityTable.index(entity)) : null);
+            if(facade != null) return facade;
+        }
+        //Creating the Object doesn't change the Structure, so the shared Lock is enough and this works inside an Iteration
+        long stamp = lockRead();
+        try{
+            return getLockedEntity(entity);
+        }finally{
+            unlockRead(stamp);
+        }
+    }
+    /** This will get the {@link Entity} Object of a Handle, like {@link #getEntity(long)}, for Callers that already hold the Lock of the World.
+     *
+     * @param entity the Handle of the Entity.
+     * @return the {@link Entity} Object, or null if the Handle is stale.
+     *
+     * @author snoweuph
+     */
+    Entity getLockedEntity(long entity){
+        if(!entities.isAlive(entity)) return null;
+        int index = EntityTable.index(entity);
+        synchronized (entities){
+            Entity facade = entities.getFacade(index);
+            if(facade == null){
+                facade = new Entity(this, entity);
+                entities.setFacade(index, facade);
+            }
+            return facade;
+        }
+    }
+    /** This will register the {@link Entity} Object of a Handle, that got created from outside the ECS.
+     *
+     * @param entity the {@link Entity} Object.
+     *
+     * @author snoweuph
+     */
+    void setEntity(Entity entity){
+        long stamp = lockRead();
+        try{
+            if(!entities.isAlive(entity.getHandle())) return;
+            synchronized (entities){
+                entities.setFacade(EntityTable.index(entity.getHandle()), entity);
+            }
+        }finally{
+            unlockRead(stamp);
+        }
+    }
+
+    /** @return a Snapshot of the Counters of the recycled {@link Entity} Handles. A Hit is a recycled Index, a Miss is a new one
+     * and the High-Water Mark is the highest amount of living Entities.
+     *
+     * @author snoweuph
+     */
+    public PoolStatistics getEntityStatistics(){
+        long stamp = lockRead();
+        try{
+            return entities.getStatistics();
+        }finally{
+            unlockRead(stamp);
+        }
+    }
+
+    /** @return the amount of living {@link Entity Entities}.
+     *
+     * @author snoweuph
+     */
+    public int getEntityCount(){
+        long stamp = lockRead();
+        try{
+            return entities.getAlive();
+        }finally{
+            unlockRead(stamp);
+        }
+    }
+    /** @return the amount of {@link Component Components} on all living {@link Entity Entities}.
+     *
+     * @author snoweuph
+     */
+    public int getComponentCount(){
+        long stamp = lockRead();
+        try{
+            int count = 0;
+            for(int i = 0; i < archetypeList.size(); i++){
+                Archetype archetype = archetypeList.get(i);
+                count += archetype.size() * archetype.getSignature().size();
+            }
+            return count;
+        }finally{
+            unlockRead(stamp);
+        }
+    }
+    /** @return the amount of structural Changes so far, every created or destroyed {@link Entity} and every added or removed {@link Component} counts,
+     * but Batches and the Playback of a {@link CommandBuffer} only count once. It wraps around on Overflow, only the Difference between two Calls has a Meaning.
+     *
+     * @author snoweuph
+     */
+    public int getStructuralChangeCount(){
+        return structureVersion;
+    }
+
+    /** @return all {@link Archetype Archetypes}, they must only be used while holding the Lock.
+     *
+     * @author snoweuph
+     */
+    Collection<Archetype> getArchetypes(){
+        return archetypes.values();
+    }
+    /** @return the {@link EntityTable}, it must only be used while holding the Lock.
+     *
+     * @author snoweuph
+     */
+    EntityTable getEntityTable(){
+        return entities;
+    }
+    /** Tells the World that its Structure was changed from outside, while holding the exclusive Lock.
+     *
+     * @author snoweuph
+     */
+    void structureChanged(){
+        structureVersion++;
+    }
+
+    /** @return the current Version of the Structure of this World, it changes whenever an {@link Entity} or {@link Component} gets added or removed.
+     *
+     * @author snoweuph
+     */
+    int getStructureVersion(){
+        return structureVersion;
+    }
+
+    //Change Detection
+    /** @return the current Tick of this World.
+     *
+     * @author snoweuph
+     */
+    long getTick(){
+        return tick.get();
+    }
+    /** Advances the Tick of this World, this happens once per {@link EngineSystem} Run.
+     *
+     * @return the new Tick.
+     *
+     * @author snoweuph
+     */
+    long advanceTick(){
+        return tick.incrementAndGet();
+    }
+    /** @return the Tick Changes outside of a System Run are recorded at. It is newer than the Tick of every System that started already,
+     * so every System sees these Changes in its next Run.
+     *
+     * @author snoweuph
+     */
+    long changeTick(){
+        return tick.get() + 1;
+    }
+    /** This will mark a {@link Component} as changed, so that {@link Query Queries} filtering for Changes find it.
+     *
+     * @param component the {@link Component} that got changed.
+     *
+     * @implNote {@link Packed} Components are marked through {@link QueryIterator#getPackedMut(int)} instead.
+     *
+     * @author snoweuph
+     */
+    void markChanged(Component component){
+        long stamp = lockRead();
+        try{
+            long entity = component.getEntityHandle();
+            if(!entities.isAlive(entity)) return;
+            int index = EntityTable.index(entity);
+            Archetype archetype = entities.getArchetype(index);
+            int row = entities.getRow(index);
+            int column = archetype.columnOf(row, component);
+            if(column >= 0) archetype.markChanged(row, column, changeTick());
+        }finally{
+            unlockRead(stamp);
+        }
+    }
+    /** This will register a {@link RemovedComponents} Reader, from then on the Removals of its types get recorded.
+     *
+     * @param reader the Reader to register.
+     *
+     * @author snoweuph
+     */
+    void registerRemoved(RemovedComponents reader){
+        long stamp = lockWrite();
+        try{
+            synchronized (removedLog){
+                removedLog.register(reader);
+            }
+        }finally{
+            unlockWrite(stamp);
+        }
+    }
+    /** This will unregister a {@link RemovedComponents} Reader.
+     *
+     * @param reader the Reader to unregister.
+     *
+     * @author snoweuph
+     */
+    void unregisterRemoved(RemovedComponents reader){
+        long stamp = lockWrite();
+        try{
+            synchronized (removedLog){
+                removedLog.unregister(reader);
+            }
+        }finally{
+            unlockWrite(stamp);
+        }
+    }
+    /** This will call an Action for every {@link Entity} one of the types was removed from after a Tick.
+     *
+     * @param types the Mask of the type IDs.
+     * @param since the Tick after which Removals are new.
+     * @param action the Action to call with the Handle of the {@link Entity}.
+     *
+     * @author snoweuph
+     */
+    void forEachRemoved(BitSet types, long since, LongConsumer action){
+        long stamp = lockRead();
+        try{
+            removedLog.forEach(types, since, action);
+        }finally{
+            unlockRead(stamp);
+        }
+    }
+
+    /** Closes this World: all {@link Entity Entities} get destroyed without recording their Removals, the Components of {@link Pooled} types
+     * are returned to their Pools and the Off-Heap Memory of all {@link Packed} Columns is freed. Closing it again does nothing.
+     *
+     * @throws IllegalStateException if this is the {@link EntityComponentSystem#getDefaultWorld() default World}, it lives as long as the Process,
+     * or if the calling Thread is iterating this World.
+     *
+     * @implNote Afterwards {@link #isAlive(long)} and {@link #getEntity(long)} treat every Handle as stale,
+     * everything else that reads or changes this World fails with an {@link IllegalStateException}.
+     *
+     * @author snoweuph
+     */
+    @Override
+    public void close(){
+        if(this == EntityComponentSystem.getDefaultWorld()) throw new IllegalStateException("The default World can't be closed");
+        if(closed) return;
+        if(concurrent && readHolds.get().count > 0) throw new IllegalStateException("The World can't be closed while this Thread iterates it");
+        long stamp = concurrent ? lock.writeLock() : 0;
+        try{
+            if(closed) return;
+            for(int i = 0; i < archetypeList.size(); i++){
+                Archetype archetype = archetypeList.get(i);
+                for(int row = 0; row < archetype.size(); row++){
+                    archetype.release(row);
+                    entities.destroy(archetype.getEntity(row));
+                }
+                archetype.free();
+            }
+            structureVersion++;
+            closed = true;
+        }finally{
+            if(stamp != 0) lock.unlockWrite(stamp);
+        }
+    }
+    /** @return whether this World was {@link #close() closed}.
+     *
+     * @author snoweuph
+     */
+    public boolean isClosed(){
+        return closed;
+    }
+
+    //Concurrent Mode
+    /** Switches the concurrent Mode on or off. In concurrent Mode this World can be changed from many Threads at once,
+     * for example from a Loader Thread while the Systems are running.
+     *
+     * @param enabled whether the concurrent Mode should be used.
+     *
+     * @implNote This must be called while no other Thread uses this World, best right at the Start.
+     * While iterating a {@link Query} in concurrent Mode, the Iterating Thread must not change the Structure itself, it should use a {@link CommandBuffer} instead.
+     *
+     * @author snoweuph
+     */
+    public void setConcurrent(boolean enabled){
+        concurrent = enabled;
+    }
+    /** @return whether the concurrent Mode is used.
+     *
+     * @author snoweuph
+     */
+    public boolean isConcurrent(){
+        return concurrent;
+    }
+    /** @return the Stamp of the exclusive Lock, or 0 if the concurrent Mode isn't used.
+     *
+     * @throws IllegalStateException if the Thread holds the shared Lock, for example while iterating a {@link Query}, it would wait for itself forever,
+     * or if the World was closed.
+     *
+     * @author snoweuph
+     */
+    long lockWrite(){
+        if(!concurrent){
+            ensureOpen();
+            return 0;
+        }
+        if(readHolds.get().count > 0) throw new IllegalStateException("The Structure of the World can't be changed while this Thread iterates it, use a CommandBuffer instead");
+        long stamp = lock.writeLock();
+        if(closed){
+            lock.unlockWrite(stamp);
+            ensureOpen();
+        }
+        return stamp;
+    }
+    /** Releases the exclusive Lock.
+     *
+     * @param stamp the Stamp returned by {@link #lockWrite()}.
+     *
+     * @author snoweuph
+     */
+    void unlockWrite(long stamp){
+        if(stamp != 0) lock.unlockWrite(stamp);
+    }
+    /** Takes the shared Lock, a Thread that already holds it only counts up, so that it doesn't wait behind a queued Writer for itself.
+     *
+     * @return a Token for {@link #unlockRead(long)}, or 0 if the concurrent Mode isn't used.
+     *
+     * @throws IllegalStateException if the World was closed.
+     *
+     * @author snoweuph
+     */
+    long lockRead(){
+        if(!concurrent){
+            ensureOpen();
+            return 0;
+        }
+        ReadHold hold = readHolds.get();
+        if(hold.count == 0){
+            long stamp = lock.readLock();
+            if(closed){
+                lock.unlockRead(stamp);
+                ensureOpen();
+            }
+            hold.stamp = stamp;
+        }
+        hold.count++;
+        return 1;
+    }
+    /** Releases the shared Lock, once the Thread released it as often as it took it.
+     *
+     * @param token the Token returned by {@link #lockRead()}.
+     *
+     * @author snoweuph
+     */
+    void unlockRead(long token){
+        if(token == 0) return;
+        ReadHold hold = readHolds.get();
+        if(--hold.count == 0) lock.unlockRead(hold.stamp);
+    }
+    private void ensureOpen(){
+        if(closed) throw new IllegalStateException("The World was closed");
+    }
+    /** Reads without taking a Lock and only reads again under the shared Lock, if a Write happened at the same Time.
+     * A Read that overlaps with a Write can see a broken State and even fail, so its Result and Exceptions only count if the Read was valid.
+     *
+     * @param read the Read to do.
+     * @param <T> the type of the Result.
+     * @return the Result of the Read.
+     *
+     * @author snoweuph
+     */
+    <T> T readOptimistic(Supplier<T> read){
+        long stamp = lock.tryOptimisticRead();
+        if(stamp != 0){
+            try{
+                T result = read.get();
+                if(lock.validate(stamp)) return result;
+            }catch (RuntimeException e){
+                if(lock.validate(stamp)) throw e;
+            }
+        }
+        stamp = lockRead();
+        try{
+            return read.get();
+        }finally{
+            unlockRead(stamp);
+        }
+    }
+    /** This will get the {@link Archetype} for a Signature, if it doesn't exist yet it will be created
+     * and registered to all existing Instance Lists and {@link Query Queries}.
+     *
+     * @param signature the {@link Signature} of {@link Component} types.
+     * @return the {@link Archetype} for that Signature.
+     *
+     * @author snoweuph
+     */
+    Archetype getArchetype(Signature signature){
+        Archetype archetype = archetypes.get(signature);
+        if(archetype != null) return archetype;
+        //Create the new Archetype
+        archetype = new Archetype(signature, this);
+        archetypes.put(signature, archetype);
+        archetypeList.add(archetype);
+        for(ComponentInstanceList instances : componentInstancesMap.values()){
+            instances.match(archetype);
+        }
+        for(Query query : queries){
+            query.match(archetype);
+        }
+        return archetype;
+    }
+
+    /** The merged Changes of a single {@link Entity} while playing back a {@link CommandBuffer}.
+     *
+     * @author snoweuph
+     * @version 1.0
+     */
+    private final class PendingEntity {
+
+        final long handle;
+        //The Archetype the Entity is currently in, null if it gets created by the Buffer.
+        final Archetype source;
+        //The Components the Entity will have after the Playback. The ones it had before keep their Column as Index and leave a null behind when removed.
+        final List<Component> components;
+        //The Amount of Components the Entity had before the Playback.
+        private final int originalCount;
+        boolean destroyed = false;
+        boolean changed = false;
+        //The final Components sorted by their Signature, and their type IDs.
+        Component[] row;
+        private int[] types;
+
+        PendingEntity(long handle, Archetype source, List<Component> components){
+            this.handle = handle;
+            this.source = source;
+            this.components = components;
+            this.originalCount = source == null ? 0 : components.size();
+            this.changed = source == null;
+        }
+
+        /** @return the Column of a {@link Component} in the source {@link Archetype}, or -1 if it wasn't on the Entity before.
+         *
+         * @param component the {@link Component}.
+         *
+         * @author snoweuph
+         */
+        int sourceColumnOf(Component component){
+            int column = component.getColumn();
+            return column >= 0 && column < originalCount && components.get(column) == component ? column : -1;
+        }
+        /** Records all {@link Component Components} the Entity had before the Playback, but won't have afterwards, as removed.
+         *
+         * @param tick the Tick of the Removal.
+         *
+         * @author snoweuph
+         */
+        void recordRemoved(long tick){
+            if(source == null || !removedLog.tracks(source.getSignature())) return;
+            for(int column = 0; column < originalCount; column++){
+                if(components.get(column) == null) removedLog.record(handle, source.getSignature().get(column), tick);
+            }
+        }
+        /** @return whether the Entity will have the {@link Component} after the Playback.
+         *
+         * @param component the {@link Component}.
+         *
+         * @author snoweuph
+         */
+        boolean contains(Component component){
+            return indexOf(component) >= 0;
+        }
+        private int indexOf(Component component){
+            for(int i = 0; i < components.size(); i++){
+                if(components.get(i) == component) return i;
+            }
+            return -1;
+        }
+
+        /** Adds a {@link Component} and all {@link Component#getRequiredComponents() required Components} whose type isn't on the Entity yet.
+         *
+         * @param component the {@link Component} to add.
+         *
+         * @author snoweuph
+         */
+        void addWithRequired(Component component){
+            RequiredComponents required = ComponentTypeRegistry.getRequired(component);
+            add(component);
+            if(required.size() == 0) return;
+            BitSet present = new BitSet();
+            for(Component other : components){
+                if(other != null) present.set(ComponentTypeRegistry.getId(other.getClass()));
+            }
+            Component[] created = required.create(component, present);
+            for(Component requiredComponent : created){
+                if(requiredComponent != null) add(requiredComponent);
+            }
+        }
+        private void add(Component component){
+            changed = true;
+            //A Component that goes back onto the Entity it was on takes its old Place, so that it keeps its Ticks
+            int column = component.getColumn();
+            if(column >= 0 && column < originalCount && components.get(column) == null && component.getWorld() == World.this
+                    && component.getEntityHandle() == handle && source.get(entities.getRow(EntityTable.index(handle)), column) == component){
+                components.set(column, component);
+                return;
+            }
+            components.add(component);
+        }
+        void remove(Component component){
+            int i = indexOf(component);
+            if(i < 0) return;
+            if(i < originalCount) components.set(i, null);
+            else components.remove(i);
+            changed = true;
+        }
+        /** Removes all {@link Component Components} whose type is one of the types and returns them to their {@link ComponentPool Pools}.
+         *
+         * @param targets the type IDs to remove.
+         * @param added the Map of the {@link Component Components} the Buffer added, they get forgotten.
+         *
+         * @author snoweuph
+         */
+        void removeAll(BitSet targets, Map<Component, PendingEntity> added){
+            for(int i = components.size() - 1; i >= 0; i--){
+                Component component = components.get(i);
+                if(component == null || !targets.get(ComponentTypeRegistry.getId(component.getClass()))) continue;
+                if(i < originalCount) components.set(i, null);
+                else components.remove(i);
+                added.remove(component);
+                release(component);
+            }
+            changed = true;
+        }
+
+        /** Sorts the final {@link Component Components} by their type ID into the {@link #row} and their IDs into the {@link #types},
+         * reusing the Arrays of the last Sort if they fit.
+         *
+         * @author snoweuph
+         */
+        void sortRow(){
+            int count = 0;
+            for(Component component : components){
+                if(component != null) count++;
+            }
+            if(row == null || row.length != count){
+                row = new Component[count];
+                types = new int[count];
+            }
+            //Insertion Sort, it is stable and Entities only have a few Components
+            int i = 0;
+            for(Component component : components){
+                if(component == null) continue;
+                int type = ComponentTypeRegistry.getId(component.getClass());
+                int j = i++;
+                while(j > 0 && types[j - 1] > type){
+                    types[j] = types[j - 1];
+                    row[j] = row[j - 1];
+                    j--;
+                }
+                types[j] = type;
+                row[j] = component;
+            }
+        }
+        /** Sorts the final {@link Component Components} by their type ID into the {@link #row}, reusing the Arrays of the last Sort if they fit.
+         *
+         * @param expected the {@link Signature} that is returned if it matches, to avoid creating a new one, can be null.
+         * @return the {@link Signature} of the final {@link Component Components}.
+         *
+         * @author snoweuph
+         */
+        Signature sort(Signature expected){
+            sortRow();
+            if(expected != null && expected.matches(types)) return expected;
+            return new Signature(types.clone());
+        }
+    }
+
+    /** How often a Thread holds the shared Lock of a World, and the Stamp of its real Hold.
+     *
+     * @author snoweuph
+     * @version 1.0
+     */
+    private static final class ReadHold {
+        private int count = 0;
+        private long stamp;
+    }
+}
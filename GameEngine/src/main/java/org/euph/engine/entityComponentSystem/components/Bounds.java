@@ -0,0 +1,26 @@
+package org.euph.engine.entityComponentSystem.components;
+
+import org.euph.engine.entityComponentSystem.Component;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The axis aligned Box around an Entity in its local Space, the {@link Transform} of the Entity moves, rotates and scales it into World Space.
+ * Entities without Bounds are treated as a Point at their Position.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class Bounds extends Component {
+
+    public final Vector3f min = new Vector3f(-0.5f);
+    public final Vector3f max = new Vector3f(0.5f);
+
+    @Override
+    protected List<Component> getRequiredComponents() {
+        List<Component> required = new ArrayList<>();
+        required.add(new Transform());
+        return required;
+    }
+}
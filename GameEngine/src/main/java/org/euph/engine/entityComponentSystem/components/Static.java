@@ -0,0 +1,23 @@
+package org.euph.engine.entityComponentSystem.components;
+
+import org.euph.engine.entityComponentSystem.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Marks an Entity that rarely or never moves, like Level Geometry.
+ * Systems can keep it in Structures that are expensive to change but fast to query, like the static Index of the
+ * {@link org.euph.engine.entityComponentSystem.systems.spatial.SpatialSystem SpatialSystem}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class Static extends Component {
+
+    @Override
+    protected List<Component> getRequiredComponents() {
+        List<Component> required = new ArrayList<>();
+        required.add(new Transform());
+        return required;
+    }
+}
@@ -0,0 +1,39 @@
+package org.euph.engine.entityComponentSystem.components;
+
+import org.euph.engine.entityComponentSystem.Component;
+import org.joml.Matrix4f;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** The Position, Rotation and Scale of an Entity in its World.
+ * Systems that change it should fetch it with {@link org.euph.engine.entityComponentSystem.QueryIterator#getMut(int) getMut} or call {@link #markChanged()},
+ * so that Systems tracking Changes, like the {@link org.euph.engine.entityComponentSystem.systems.spatial.SpatialSystem SpatialSystem}, see the new Values.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class Transform extends Component {
+
+    public final Vector3f position = new Vector3f();
+    public final Quaternionf rotation = new Quaternionf();
+    public final Vector3f scale = new Vector3f(1);
+
+    @Override
+    protected List<Component> getRequiredComponents() {
+        return new ArrayList<>();
+    }
+
+    /** Writes the Matrix that transforms from the local Space of the Entity into World Space.
+     *
+     * @param dest the Matrix to write to.
+     * @return dest.
+     *
+     * @author snoweuph
+     */
+    public Matrix4f getMatrix(Matrix4f dest){
+        return dest.translationRotateScale(position, rotation, scale);
+    }
+}
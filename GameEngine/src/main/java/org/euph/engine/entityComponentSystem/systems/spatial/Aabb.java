@@ -0,0 +1,86 @@
+package org.euph.engine.entityComponentSystem.systems.spatial;
+
+import org.joml.Vector3fc;
+
+/** The Tests of the axis aligned Boxes that the {@link SpatialIndex Indices} store in flat Arrays, 6 Floats per Box: first the lower and then the upper Corner.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+final class Aabb {
+
+    private Aabb(){}
+
+    /** @return whether a stored Box overlaps a Box.
+     *
+     * @param bounds the stored Boxes.
+     * @param offset the Offset of the Box inside the Array.
+     * @param min the lower Corner of the other Box.
+     * @param max the upper Corner of the other Box.
+     *
+     * @author snoweuph
+     */
+    static boolean overlaps(float[] bounds, int offset, Vector3fc min, Vector3fc max){
+        return bounds[offset] <= max.x() && bounds[offset + 3] >= min.x()
+                && bounds[offset + 1] <= max.y() && bounds[offset + 4] >= min.y()
+                && bounds[offset + 2] <= max.z() && bounds[offset + 5] >= min.z();
+    }
+    /** @return the squared Distance from a Point to a stored Box, 0 if the Point is inside of it.
+     *
+     * @param bounds the stored Boxes.
+     * @param offset the Offset of the Box inside the Array.
+     * @param point the Point.
+     *
+     * @author snoweuph
+     */
+    static float distanceSquared(float[] bounds, int offset, Vector3fc point){
+        float dx = Math.max(0, Math.max(bounds[offset] - point.x(), point.x() - bounds[offset + 3]));
+        float dy = Math.max(0, Math.max(bounds[offset + 1] - point.y(), point.y() - bounds[offset + 4]));
+        float dz = Math.max(0, Math.max(bounds[offset + 2] - point.z(), point.z() - bounds[offset + 5]));
+        return dx * dx + dy * dy + dz * dz;
+    }
+    /** @return the Distance at which a Ray enters a stored Box, 0 if it starts inside of it, or infinite if it misses the Box.
+     *
+     * @param bounds the stored Boxes.
+     * @param offset the Offset of the Box inside the Array.
+     * @param ray the Ray: Origin, Direction and the Inverse of the Direction, 9 Floats.
+     *
+     * @implNote The Slab Test is done by hand instead of through JOML, because flat Boxes, like a Floor, must still be hit.
+     *
+     * @author snoweuph
+     */
+    static float rayEntry(float[] bounds, int offset, float[] ray){
+        float near = 0;
+        float far = Float.POSITIVE_INFINITY;
+        for(int axis = 0; axis < 3; axis++){
+            float origin = ray[axis];
+            float min = bounds[offset + axis];
+            float max = bounds[offset + 3 + axis];
+            if(ray[3 + axis] == 0){
+                //Parallel to the Slab, so the Origin must be inside of it
+                if(origin < min || origin > max) return Float.POSITIVE_INFINITY;
+                continue;
+            }
+            float t0 = (min - origin) * ray[6 + axis];
+            float t1 = (max - origin) * ray[6 + axis];
+            near = Math.max(near, Math.min(t0, t1));
+            far = Math.min(far, Math.max(t0, t1));
+            if(near > far) return Float.POSITIVE_INFINITY;
+        }
+        return near;
+    }
+    /** @return a Ray in the Layout of {@link #rayEntry(float[], int, float[])}.
+     *
+     * @param origin the Start of the Ray.
+     * @param direction the Direction of the Ray.
+     *
+     * @author snoweuph
+     */
+    static float[] ray(Vector3fc origin, Vector3fc direction){
+        return new float[]{
+                origin.x(), origin.y(), origin.z(),
+                direction.x(), direction.y(), direction.z(),
+                1 / direction.x(), 1 / direction.y(), 1 / direction.z()
+        };
+    }
+}
@@ -0,0 +1,457 @@
+package org.euph.engine.entityComponentSystem.systems.spatial;
+
+import org.euph.engine.entityComponentSystem.Entity;
+import org.joml.Vector3fc;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/** A {@link SpatialIndex} for {@link Entity Entities} that rarely or never move, like Level Geometry.
+ * It is a Tree of Boxes, every Node holds the Box around everything below it, so Queries skip whole Branches at once.
+ * Building it is expensive, but Queries are faster than in a {@link SpatialHashGrid} and Boxes of any Size work equally well.
+ *
+ * @implNote Inserting or removing an {@link Entity} only marks the Tree as outdated, it gets rebuilt on the next {@link #update()} or Query,
+ * so many Changes in one Frame cost a single Rebuild. Moving an {@link Entity} that is already in the Tree only refits the Boxes on the Path
+ * to its Leaf, until the refitted Boxes got as many as the Tree has Entries, because refitting makes the Tree worse over Time.
+ * The Nodes are stored in flat Arrays, the two Children of a Node are next to each other.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class BoundingVolumeHierarchy implements SpatialIndex {
+
+    //The maximum amount of Entries in a Leaf.
+    private static final int LEAF_SIZE = 4;
+
+    //The Slot of every Entity.
+    private final HandleMap slots = new HandleMap();
+    //The Entries, in parallel Arrays indexed by Slot. Bounds holds 6 Floats per Slot.
+    private long[] entities = new long[64];
+    private float[] bounds = new float[64 * 6];
+    private int[] leafOf = new int[64];
+    private int slotCount = 0;
+    //The Free-List of Slots.
+    private int[] free = new int[64];
+    private int freeCount = 0;
+    private int size = 0;
+    //The Slots in Leaf Order, every Leaf owns a Range of them.
+    private int[] items = new int[0];
+    //The Nodes: their Boxes, 6 Floats per Node, their Parent, and either the first Child or the first Item for Leaves.
+    private float[] nodeBounds = new float[0];
+    private int[] nodeParent = new int[0];
+    private int[] nodeFirst = new int[0];
+    //The amount of Items of a Leaf, 0 for inner Nodes.
+    private int[] nodeItems = new int[0];
+    private int nodeCount = 0;
+    //Whether the Tree is outdated, and how many Refits it had since it got built.
+    private boolean dirty = false;
+    private int refits = 0;
+
+    @Override
+    public void put(long entity, Vector3fc min, Vector3fc max){
+        int slot = slots.get(entity);
+        boolean inserted = slot < 0;
+        if(inserted){
+            slot = allocate(entity);
+            slots.put(entity, slot);
+            size++;
+        }
+        int offset = slot * 6;
+        bounds[offset] = min.x();
+        bounds[offset + 1] = min.y();
+        bounds[offset + 2] = min.z();
+        bounds[offset + 3] = max.x();
+        bounds[offset + 4] = max.y();
+        bounds[offset + 5] = max.z();
+        if(inserted || dirty) dirty = true;
+        else if(++refits > size) dirty = true;
+        else refit(leafOf[slot]);
+    }
+    @Override
+    public boolean remove(long entity){
+        int slot = slots.remove(entity);
+        if(slot < 0) return false;
+        entities[slot] = Entity.NULL;
+        free[freeCount++] = slot;
+        size--;
+        dirty = true;
+        return true;
+    }
+    @Override
+    public boolean contains(long entity){
+        return slots.get(entity) >= 0;
+    }
+    @Override
+    public int size(){
+        return size;
+    }
+    @Override
+    public void clear(){
+        slots.clear();
+        slotCount = 0;
+        freeCount = 0;
+        size = 0;
+        nodeCount = 0;
+        dirty = false;
+        refits = 0;
+    }
+    /** Rebuilds the Tree, if it is outdated. Queries do this on their own, but then they aren't safe to run in parallel,
+     * so whoever changes the Tree should call this before parallel Queries can happen.
+     *
+     * @author snoweuph
+     */
+    public void update(){
+        if(dirty) rebuild();
+    }
+
+    //Queries
+    @Override
+    public void queryBox(Vector3fc min, Vector3fc max, LongConsumer action){
+        update();
+        if(nodeCount == 0) return;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while(top > 0){
+            int node = stack[--top];
+            if(!Aabb.overlaps(nodeBounds, node * 6, min, max)) continue;
+            if(nodeItems[node] > 0){
+                for(int item = nodeFirst[node], end = item + nodeItems[node]; item < end; item++){
+                    int slot = items[item];
+                    if(Aabb.overlaps(bounds, slot * 6, min, max)) action.accept(entities[slot]);
+                }
+                continue;
+            }
+            if(top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[top++] = nodeFirst[node];
+            stack[top++] = nodeFirst[node] + 1;
+        }
+    }
+    @Override
+    public void queryRadius(Vector3fc center, float radius, LongConsumer action){
+        update();
+        if(nodeCount == 0) return;
+        float radiusSquared = radius * radius;
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while(top > 0){
+            int node = stack[--top];
+            if(Aabb.distanceSquared(nodeBounds, node * 6, center) > radiusSquared) continue;
+            if(nodeItems[node] > 0){
+                for(int item = nodeFirst[node], end = item + nodeItems[node]; item < end; item++){
+                    int slot = items[item];
+                    if(Aabb.distanceSquared(bounds, slot * 6, center) <= radiusSquared) action.accept(entities[slot]);
+                }
+                continue;
+            }
+            if(top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[top++] = nodeFirst[node];
+            stack[top++] = nodeFirst[node] + 1;
+        }
+    }
+    /** {@inheritDoc}
+     *
+     * @implNote The nearer Child is visited first, and Nodes the Ray enters after the closest Hit so far are skipped.
+     *
+     * @author snoweuph
+     */
+    @Override
+    public boolean raycast(Vector3fc origin, Vector3fc direction, RayHit hit){
+        update();
+        if(nodeCount == 0) return false;
+        float[] ray = Aabb.ray(origin, direction);
+        boolean found = false;
+        //The Stack holds the Nodes together with the Distance the Ray enters them at
+        int[] stack = new int[64];
+        float[] entries = new float[64];
+        int top = 0;
+        float rootEntry = Aabb.rayEntry(nodeBounds, 0, ray);
+        if(rootEntry >= hit.getDistance()) return false;
+        stack[top] = 0;
+        entries[top++] = rootEntry;
+        while(top > 0){
+            int node = stack[--top];
+            if(entries[top] >= hit.getDistance()) continue;
+            if(nodeItems[node] > 0){
+                for(int item = nodeFirst[node], end = item + nodeItems[node]; item < end; item++){
+                    int slot = items[item];
+                    found |= hit.offer(entities[slot], Aabb.rayEntry(bounds, slot * 6, ray));
+                }
+                continue;
+            }
+            int near = nodeFirst[node];
+            int far = near + 1;
+            float nearEntry = Aabb.rayEntry(nodeBounds, near * 6, ray);
+            float farEntry = Aabb.rayEntry(nodeBounds, far * 6, ray);
+            if(farEntry < nearEntry){
+                int swap = near;
+                near = far;
+                far = swap;
+                float swapEntry = nearEntry;
+                nearEntry = farEntry;
+                farEntry = swapEntry;
+            }
+            if(top + 2 > stack.length){
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            //Push the farther Child first, so that the nearer one gets visited first
+            if(farEntry < hit.getDistance()){
+                stack[top] = far;
+                entries[top++] = farEntry;
+            }
+            if(nearEntry < hit.getDistance()){
+                stack[top] = near;
+                entries[top++] = nearEntry;
+            }
+        }
+        return found;
+    }
+    /** {@inheritDoc}
+     *
+     * @implNote The nearer Child is visited first, and Nodes that are farther away than the farthest Entity of the Result are skipped.
+     *
+     * @author snoweuph
+     */
+    @Override
+    public void nearest(Vector3fc point, NearestNeighbors result){
+        update();
+        if(nodeCount == 0) return;
+        //The Stack holds the Nodes together with their squared Distance to the Point
+        int[] stack = new int[64];
+        float[] distances = new float[64];
+        int top = 0;
+        stack[top] = 0;
+        distances[top++] = Aabb.distanceSquared(nodeBounds, 0, point);
+        while(top > 0){
+            int node = stack[--top];
+            float bound = result.bound();
+            if(distances[top] > bound * bound) continue;
+            if(nodeItems[node] > 0){
+                for(int item = nodeFirst[node], end = item + nodeItems[node]; item < end; item++){
+                    int slot = items[item];
+                    float distanceSquared = Aabb.distanceSquared(bounds, slot * 6, point);
+                    bound = result.bound();
+                    if(distanceSquared <= bound * bound) result.offer(entities[slot], (float) Math.sqrt(distanceSquared));
+                }
+                continue;
+            }
+            int near = nodeFirst[node];
+            int far = near + 1;
+            float nearDistance = Aabb.distanceSquared(nodeBounds, near * 6, point);
+            float farDistance = Aabb.distanceSquared(nodeBounds, far * 6, point);
+            if(farDistance < nearDistance){
+                int swap = near;
+                near = far;
+                far = swap;
+                float swapDistance = nearDistance;
+                nearDistance = farDistance;
+                farDistance = swapDistance;
+            }
+            if(top + 2 > stack.length){
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                distances = Arrays.copyOf(distances, distances.length * 2);
+            }
+            stack[top] = far;
+            distances[top++] = farDistance;
+            stack[top] = near;
+            distances[top++] = nearDistance;
+        }
+    }
+
+    //Building
+    /** Builds the Tree from scratch, top down. Every Node is split in the Middle of the longest Axis of the Centers of its Entries,
+     * or at the Median if all Centers end up on one Side.
+     *
+     * @author snoweuph
+     */
+    private void rebuild(){
+        dirty = false;
+        refits = 0;
+        nodeCount = 0;
+        if(size == 0) return;
+        if(items.length < size) items = new int[slotCount];
+        int count = 0;
+        for(int slot = 0; slot < slotCount; slot++){
+            if(entities[slot] != Entity.NULL) items[count++] = slot;
+        }
+        //Every Leaf has at least one Item and a Tree with n Leaves has 2n - 1 Nodes
+        int capacity = 2 * size;
+        if(nodeParent.length < capacity){
+            nodeBounds = new float[capacity * 6];
+            nodeParent = new int[capacity];
+            nodeFirst = new int[capacity];
+            nodeItems = new int[capacity];
+        }
+        //The Work List of Nodes to split, with the Range of Items each one covers
+        int[] pending = new int[64 * 3];
+        float[] centers = new float[6];
+        int top = 0;
+        int root = createNode(-1);
+        pending[top++] = root;
+        pending[top++] = 0;
+        pending[top++] = size;
+        while(top > 0){
+            int end = pending[--top];
+            int start = pending[--top];
+            int node = pending[--top];
+            //The Box of the Node and of the Centers of its Items
+            float[] box = nodeBounds;
+            int offset = node * 6;
+            box[offset] = box[offset + 1] = box[offset + 2] = Float.POSITIVE_INFINITY;
+            box[offset + 3] = box[offset + 4] = box[offset + 5] = Float.NEGATIVE_INFINITY;
+            Arrays.fill(centers, 0, 3, Float.POSITIVE_INFINITY);
+            Arrays.fill(centers, 3, 6, Float.NEGATIVE_INFINITY);
+            for(int item = start; item < end; item++){
+                int slot = items[item];
+                for(int axis = 0; axis < 3; axis++){
+                    float min = bounds[slot * 6 + axis];
+                    float max = bounds[slot * 6 + 3 + axis];
+                    float center = (min + max) * 0.5f;
+                    box[offset + axis] = Math.min(box[offset + axis], min);
+                    box[offset + 3 + axis] = Math.max(box[offset + 3 + axis], max);
+                    centers[axis] = Math.min(centers[axis], center);
+                    centers[3 + axis] = Math.max(centers[3 + axis], center);
+                }
+            }
+            if(end - start <= LEAF_SIZE){
+                nodeFirst[node] = start;
+                nodeItems[node] = end - start;
+                for(int item = start; item < end; item++){
+                    leafOf[items[item]] = node;
+                }
+                continue;
+            }
+            int axis = 0;
+            for(int candidate = 1; candidate < 3; candidate++){
+                if(centers[3 + candidate] - centers[candidate] > centers[3 + axis] - centers[axis]) axis = candidate;
+            }
+            int middle = partition(start, end, axis, (centers[axis] + centers[3 + axis]) * 0.5f);
+            if(middle == start || middle == end){
+                middle = (start + end) >>> 1;
+                select(start, end, middle, axis);
+            }
+            int left = createNode(node);
+            createNode(node);
+            nodeFirst[node] = left;
+            nodeItems[node] = 0;
+            if(top + 6 > pending.length) pending = Arrays.copyOf(pending, pending.length * 2);
+            pending[top++] = left;
+            pending[top++] = start;
+            pending[top++] = middle;
+            pending[top++] = left + 1;
+            pending[top++] = middle;
+            pending[top++] = end;
+        }
+    }
+    private int createNode(int parent){
+        int node = nodeCount++;
+        nodeParent[node] = parent;
+        return node;
+    }
+    /** Moves the Items with a Center below the Split in front of the others.
+     *
+     * @return the first Item with a Center at or above the Split.
+     *
+     * @author snoweuph
+     */
+    private int partition(int start, int end, int axis, float split){
+        int low = start;
+        int high = end - 1;
+        while(low <= high){
+            if(center(items[low], axis) < split) low++;
+            else swapItems(low, high--);
+        }
+        return low;
+    }
+    /** Reorders the Items, so that the k-th smallest Center is at k, with smaller ones before and bigger ones after it.
+     *
+     * @author snoweuph
+     */
+    private void select(int start, int end, int k, int axis){
+        int low = start;
+        int high = end - 1;
+        while(low < high){
+            float pivot = center(items[(low + high) >>> 1], axis);
+            int i = low;
+            int j = high;
+            while(i <= j){
+                while(center(items[i], axis) < pivot) i++;
+                while(center(items[j], axis) > pivot) j--;
+                if(i <= j) swapItems(i++, j--);
+            }
+            if(k <= j) high = j;
+            else if(k >= i) low = i;
+            else return;
+        }
+    }
+    private float center(int slot, int axis){
+        return (bounds[slot * 6 + axis] + bounds[slot * 6 + 3 + axis]) * 0.5f;
+    }
+    private void swapItems(int a, int b){
+        int swap = items[a];
+        items[a] = items[b];
+        items[b] = swap;
+    }
+    /** Updates the Boxes of a Leaf and all Nodes above it, after the Box of one of its Entries changed.
+     *
+     * @author snoweuph
+     */
+    private void refit(int leaf){
+        int offset = leaf * 6;
+        Arrays.fill(nodeBounds, offset, offset + 3, Float.POSITIVE_INFINITY);
+        Arrays.fill(nodeBounds, offset + 3, offset + 6, Float.NEGATIVE_INFINITY);
+        for(int item = nodeFirst[leaf], end = item + nodeItems[leaf]; item < end; item++){
+            int slot = items[item] * 6;
+            for(int axis = 0; axis < 3; axis++){
+                nodeBounds[offset + axis] = Math.min(nodeBounds[offset + axis], bounds[slot + axis]);
+                nodeBounds[offset + 3 + axis] = Math.max(nodeBounds[offset + 3 + axis], bounds[slot + 3 + axis]);
+            }
+        }
+        for(int node = nodeParent[leaf]; node >= 0; node = nodeParent[node]){
+            int parent = node * 6;
+            int left = nodeFirst[node] * 6;
+            int right = left + 6;
+            for(int axis = 0; axis < 3; axis++){
+                nodeBounds[parent + axis] = Math.min(nodeBounds[left + axis], nodeBounds[right + axis]);
+                nodeBounds[parent + 3 + axis] = Math.max(nodeBounds[left + 3 + axis], nodeBounds[right + 3 + axis]);
+            }
+        }
+    }
+
+    //Slots
+    private int allocate(long entity){
+        int slot;
+        if(freeCount > 0){
+            slot = free[--freeCount];
+        }else{
+            if(slotCount == entities.length) grow(slotCount * 2);
+            slot = slotCount++;
+        }
+        entities[slot] = entity;
+        return slot;
+    }
+    private void grow(int capacity){
+        entities = Arrays.copyOf(entities, capacity);
+        bounds = Arrays.copyOf(bounds, capacity * 6);
+        leafOf = Arrays.copyOf(leafOf, capacity);
+        free = Arrays.copyOf(free, capacity);
+    }
+
+    //Getter
+    /** @return the amount of Nodes in the Tree, as of its last Build.
+     *
+     * @author snoweuph
+     */
+    public int getNodeCount(){
+        return nodeCount;
+    }
+    /** @return whether the Tree is outdated and gets rebuilt on the next {@link #update()} or Query.
+     *
+     * @author snoweuph
+     */
+    public boolean isDirty(){
+        return dirty;
+    }
+}
@@ -0,0 +1,105 @@
+package org.euph.engine.entityComponentSystem.systems.spatial;
+
+import org.euph.engine.entityComponentSystem.Entity;
+
+import java.util.Arrays;
+
+/** A Map from {@link Entity} Handles to the Slots of a {@link SpatialIndex}, without boxing.
+ * It uses open Addressing with linear Probing, {@link Entity#NULL} marks a free Bucket, so it can't be used as a Key.
+ *
+ * @implNote Removing shifts the following Entries of the Probe Sequence back, so there are no Tombstones and Lookups stay short.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+final class HandleMap {
+
+    private long[] keys = new long[16];
+    private int[] values = new int[16];
+    private int size = 0;
+
+    /** @return the Slot of a Handle, or -1 if it isn't in this Map.
+     *
+     * @param handle the Handle.
+     *
+     * @author snoweuph
+     */
+    int get(long handle){
+        int mask = keys.length - 1;
+        for(int bucket = hash(handle) & mask; keys[bucket] != Entity.NULL; bucket = (bucket + 1) & mask){
+            if(keys[bucket] == handle) return values[bucket];
+        }
+        return -1;
+    }
+    /** Sets the Slot of a Handle.
+     *
+     * @param handle the Handle, it must not be {@link Entity#NULL}.
+     * @param slot the Slot.
+     *
+     * @author snoweuph
+     */
+    void put(long handle, int slot){
+        if(handle == Entity.NULL) throw new IllegalArgumentException("The Null Handle can't be indexed");
+        if((size + 1) * 2 > keys.length) rehash(keys.length * 2);
+        int mask = keys.length - 1;
+        int bucket = hash(handle) & mask;
+        while(keys[bucket] != Entity.NULL && keys[bucket] != handle){
+            bucket = (bucket + 1) & mask;
+        }
+        if(keys[bucket] == Entity.NULL) size++;
+        keys[bucket] = handle;
+        values[bucket] = slot;
+    }
+    /** Removes a Handle.
+     *
+     * @param handle the Handle.
+     * @return the Slot it had, or -1 if it wasn't in this Map.
+     *
+     * @author snoweuph
+     */
+    int remove(long handle){
+        int mask = keys.length - 1;
+        int bucket = hash(handle) & mask;
+        while(keys[bucket] != handle){
+            if(keys[bucket] == Entity.NULL) return -1;
+            bucket = (bucket + 1) & mask;
+        }
+        int slot = values[bucket];
+        size--;
+        //Move every following Entry of the Probe Sequence back, that would be unreachable otherwise
+        int free = bucket;
+        for(int next = (free + 1) & mask; keys[next] != Entity.NULL; next = (next + 1) & mask){
+            int home = hash(keys[next]) & mask;
+            if(((next - home) & mask) >= ((next - free) & mask)){
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        keys[free] = Entity.NULL;
+        return slot;
+    }
+    /** Removes all Handles.
+     *
+     * @author snoweuph
+     */
+    void clear(){
+        Arrays.fill(keys, Entity.NULL);
+        size = 0;
+    }
+
+    private void rehash(int capacity){
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        size = 0;
+        for(int bucket = 0; bucket < oldKeys.length; bucket++){
+            if(oldKeys[bucket] != Entity.NULL) put(oldKeys[bucket], oldValues[bucket]);
+        }
+    }
+    private static int hash(long handle){
+        long mixed = handle * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
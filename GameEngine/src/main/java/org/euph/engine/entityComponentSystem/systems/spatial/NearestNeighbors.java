@@ -0,0 +1,108 @@
+package org.euph.engine.entityComponentSystem.systems.spatial;
+
+/** The reusable Result of a k-nearest Query through a {@link SpatialIndex}, the closest Entities sorted by their Distance.
+ * Like {@link RayHit}, the same Result can be passed through many Indices, so that it holds the closest Entities of all of them.
+ * <pre>{@code
+ * NearestNeighbors nearest = new NearestNeighbors(8);
+ * spatial.nearest(listener, nearest.reset(50));
+ * for(int i = 0; i < nearest.size(); i++) mix(nearest.getEntity(i), nearest.getDistance(i));
+ * }</pre>
+ *
+ * @implNote The Entries are kept sorted with Insertion Sort, which is the fastest for the small Counts this is meant for.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class NearestNeighbors {
+
+    private final long[] entities;
+    private final float[] distances;
+    private int size = 0;
+    private float maxDistance = Float.POSITIVE_INFINITY;
+
+    /** Creates a new empty Result.
+     *
+     * @param count the amount of Entities to find.
+     *
+     * @author snoweuph
+     */
+    public NearestNeighbors(int count){
+        if(count <= 0) throw new IllegalArgumentException("At least one Entity must be searched");
+        entities = new long[count];
+        distances = new float[count];
+    }
+
+    /** Clears the Result, so that it can be used for the next Query.
+     *
+     * @param maxDistance the longest Distance an Entity is accepted at.
+     * @return this Result, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public NearestNeighbors reset(float maxDistance){
+        size = 0;
+        this.maxDistance = maxDistance;
+        return this;
+    }
+    /** Accepts an Entity, if it is closer than the farthest one so far or the Result isn't full yet.
+     *
+     * @param entity the Handle of the Entity.
+     * @param distance the Distance to the Entity.
+     *
+     * @author snoweuph
+     */
+    void offer(long entity, float distance){
+        if(distance > bound()) return;
+        int i = size < entities.length ? size++ : size - 1;
+        while(i > 0 && distances[i - 1] > distance){
+            entities[i] = entities[i - 1];
+            distances[i] = distances[i - 1];
+            i--;
+        }
+        entities[i] = entity;
+        distances[i] = distance;
+    }
+    /** @return the longest Distance an Entity can still be accepted at.
+     *
+     * @author snoweuph
+     */
+    float bound(){
+        return size < entities.length ? maxDistance : distances[size - 1];
+    }
+
+    //Getter
+    /** @return the amount of Entities found.
+     *
+     * @author snoweuph
+     */
+    public int size(){
+        return size;
+    }
+    /** @return the amount of Entities that are searched.
+     *
+     * @author snoweuph
+     */
+    public int capacity(){
+        return entities.length;
+    }
+    /** @return the Handle of a found Entity, the closest one comes first.
+     *
+     * @param index the Index, less than {@link #size()}.
+     *
+     * @author snoweuph
+     */
+    public long getEntity(int index){
+        if(index >= size) throw new IndexOutOfBoundsException(index);
+        return entities[index];
+    }
+    /** @return the Distance to a found Entity, the Distance to its Box, which is 0 if the Point is inside of it.
+     *
+     * @param index the Index, less than {@link #size()}.
+     *
+     * @author snoweuph
+     */
+    public float getDistance(int index){
+        if(index >= size) throw new IndexOutOfBoundsException(index);
+        return distances[index];
+    }
+}
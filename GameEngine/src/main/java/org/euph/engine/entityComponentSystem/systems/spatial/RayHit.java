@@ -0,0 +1,69 @@
+package org.euph.engine.entityComponentSystem.systems.spatial;
+
+import org.euph.engine.entityComponentSystem.Entity;
+
+/** The reusable Result of a Raycast through a {@link SpatialIndex}, the closest Entity the Ray hit and the Distance to it.
+ * A Raycast only accepts Hits that are closer than the current Distance, so the same Result can be passed through many Indices to find the closest Hit of all of them.
+ * <pre>{@code
+ * RayHit hit = new RayHit().reset(100);
+ * if(spatial.raycast(eye, forward, hit)) target = hit.getEntity();
+ * }</pre>
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class RayHit {
+
+    private long entity = Entity.NULL;
+    private float distance = Float.POSITIVE_INFINITY;
+
+    /** Clears the Hit, so that the Result can be used for the next Raycast.
+     *
+     * @param maxDistance the longest Distance a Hit is accepted at.
+     * @return this Result, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public RayHit reset(float maxDistance){
+        entity = Entity.NULL;
+        distance = maxDistance;
+        return this;
+    }
+    /** Accepts a Hit, if it is closer than the current one.
+     *
+     * @param entity the Handle of the Entity that was hit.
+     * @param distance the Distance along the Ray.
+     * @return whether the Hit was accepted.
+     *
+     * @author snoweuph
+     */
+    boolean offer(long entity, float distance){
+        if(distance >= this.distance) return false;
+        this.entity = entity;
+        this.distance = distance;
+        return true;
+    }
+
+    //Getter
+    /** @return whether anything was hit.
+     *
+     * @author snoweuph
+     */
+    public boolean hasHit(){
+        return entity != Entity.NULL;
+    }
+    /** @return the Handle of the closest Entity that was hit, or {@link Entity#NULL} if nothing was hit.
+     *
+     * @author snoweuph
+     */
+    public long getEntity(){
+        return entity;
+    }
+    /** @return the Distance to the closest Hit in Multiples of the Length of the Ray Direction, or the longest accepted Distance if nothing was hit.
+     *
+     * @author snoweuph
+     */
+    public float getDistance(){
+        return distance;
+    }
+}
@@ -0,0 +1,477 @@
+package org.euph.engine.entityComponentSystem.systems.spatial;
+
+import org.euph.engine.entityComponentSystem.Entity;
+import org.joml.Vector3fc;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/** A {@link SpatialIndex} for {@link Entity Entities} that move often. It divides the Space into Cubes of the same Size, the Cells,
+ * and only stores the Cells that have Entities in a Hash Table, so the Space has no Bounds and empty Space costs nothing.
+ * Moving an {@link Entity} costs O(1), Queries only look at the Cells around the queried Region.
+ *
+ * @implNote The Grid is loose: every {@link Entity} is only stored in the Cell of the Center of its Box, so it never has to be stored more than once.
+ * Its Box may reach half a Cell into the Neighbors, so Queries look half a Cell further. Boxes that are bigger than a Cell
+ * are kept in a separate List that every Query tests, they should be rare, so the Cell Size should be about the Size of the common Entity.
+ * The Entries are stored in parallel Arrays and every Cell is a doubly linked List through them, so moving doesn't allocate.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class SpatialHashGrid implements SpatialIndex {
+
+    //Cell Coordinates are packed into 21bit each, offset so that they stay positive.
+    private static final int COORDINATE_BITS = 21;
+    private static final int COORDINATE_OFFSET = 1 << (COORDINATE_BITS - 1);
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+    //Marks a free Bucket of the Cell Table.
+    private static final long EMPTY = -1;
+    //Marks an Entry that is in the List of large Entries, or in no List yet, instead of a Cell.
+    private static final int LARGE = -1;
+    private static final int UNLINKED = -2;
+
+    private final float cellSize;
+    private final float inverseCellSize;
+    //The Slot of every Entity.
+    private final HandleMap slots = new HandleMap();
+    //The Entries, in parallel Arrays indexed by Slot. Bounds holds 6 Floats per Slot.
+    private long[] entities = new long[64];
+    private float[] bounds = new float[64 * 6];
+    private int[] cellOf = new int[64];
+    private int[] next = new int[64];
+    private int[] previous = new int[64];
+    private int slotCount = 0;
+    //The Free-List of Slots, linked through next.
+    private int freeSlot = -1;
+    private int size = 0;
+    //The first Slot of the List of large Entries.
+    private int largeHead = LARGE;
+    //The Cell Table, open Addressing with linear Probing. Empty Cells stay until the next Rehash.
+    private long[] cellKeys = new long[64];
+    private int[] cellHeads = new int[64];
+    private int cellCount = 0;
+    //The Range of the Cells in the Table, so that Queries don't search where nothing is.
+    private int minX, minY, minZ, maxX, maxY, maxZ;
+
+    /** Creates a new empty Grid.
+     *
+     * @param cellSize the Edge Length of a Cell, it should be about the Size of the common {@link Entity}.
+     *
+     * @author snoweuph
+     */
+    public SpatialHashGrid(float cellSize){
+        if(!(cellSize > 0) || Float.isInfinite(cellSize)) throw new IllegalArgumentException("The Cell Size must be positive, but was " + cellSize);
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1 / cellSize;
+        Arrays.fill(cellKeys, EMPTY);
+        resetRange();
+    }
+
+    @Override
+    public void put(long entity, Vector3fc min, Vector3fc max){
+        int slot = slots.get(entity);
+        if(slot < 0){
+            slot = allocate(entity);
+            slots.put(entity, slot);
+            size++;
+        }
+        int offset = slot * 6;
+        bounds[offset] = min.x();
+        bounds[offset + 1] = min.y();
+        bounds[offset + 2] = min.z();
+        bounds[offset + 3] = max.x();
+        bounds[offset + 4] = max.y();
+        bounds[offset + 5] = max.z();
+        int current = cellOf[slot];
+        if(max.x() - min.x() <= cellSize && max.y() - min.y() <= cellSize && max.z() - min.z() <= cellSize){
+            long key = key(coordinate((min.x() + max.x()) * 0.5f), coordinate((min.y() + max.y()) * 0.5f), coordinate((min.z() + max.z()) * 0.5f));
+            //Small Moves stay inside the Cell and only need the new Box
+            if(current >= 0 && cellKeys[current] == key) return;
+            //Unlink first, because creating a Cell can rehash the Table
+            unlink(slot);
+            link(slot, findOrCreateCell(key));
+        }else{
+            if(current == LARGE) return;
+            unlink(slot);
+            link(slot, LARGE);
+        }
+    }
+    @Override
+    public boolean remove(long entity){
+        int slot = slots.remove(entity);
+        if(slot < 0) return false;
+        unlink(slot);
+        entities[slot] = Entity.NULL;
+        next[slot] = freeSlot;
+        freeSlot = slot;
+        size--;
+        return true;
+    }
+    @Override
+    public boolean contains(long entity){
+        return slots.get(entity) >= 0;
+    }
+    @Override
+    public int size(){
+        return size;
+    }
+    @Override
+    public void clear(){
+        slots.clear();
+        slotCount = 0;
+        freeSlot = -1;
+        size = 0;
+        largeHead = LARGE;
+        Arrays.fill(cellKeys, EMPTY);
+        cellCount = 0;
+        resetRange();
+    }
+
+    //Queries
+    @Override
+    public void queryBox(Vector3fc min, Vector3fc max, LongConsumer action){
+        forEachCandidate(min.x(), min.y(), min.z(), max.x(), max.y(), max.z(), slot -> {
+            if(Aabb.overlaps(bounds, slot * 6, min, max)) action.accept(entities[slot]);
+        });
+    }
+    @Override
+    public void queryRadius(Vector3fc center, float radius, LongConsumer action){
+        float radiusSquared = radius * radius;
+        forEachCandidate(center.x() - radius, center.y() - radius, center.z() - radius, center.x() + radius, center.y() + radius, center.z() + radius, slot -> {
+            if(Aabb.distanceSquared(bounds, slot * 6, center) <= radiusSquared) action.accept(entities[slot]);
+        });
+    }
+    /** {@inheritDoc}
+     *
+     * @implNote The Ray walks through the Cells with a 3D DDA, starting where it enters the Region of the Table. The Entries of a Cell can reach into
+     * the neighboring Cells, so the 27 Cells around the first Cell are tested and then, with every Step, the 9 Cells that are new in the Step Direction.
+     * That way no Cell is tested twice, and the Walk ends as soon as the closest Hit is before the Exit of the current Cell.
+     *
+     * @author snoweuph
+     */
+    @Override
+    public boolean raycast(Vector3fc origin, Vector3fc direction, RayHit hit){
+        float[] ray = Aabb.ray(origin, direction);
+        boolean found = false;
+        for(int slot = largeHead; slot >= 0; slot = next[slot]){
+            found |= hit.offer(entities[slot], Aabb.rayEntry(bounds, slot * 6, ray));
+        }
+        if(cellCount == 0) return found;
+        //Clip the Ray to the Region the Entries of the Table can reach
+        float half = cellSize * 0.5f;
+        float[] region = {
+                minX * cellSize - half, minY * cellSize - half, minZ * cellSize - half,
+                (maxX + 1) * cellSize + half, (maxY + 1) * cellSize + half, (maxZ + 1) * cellSize + half
+        };
+        float start = Aabb.rayEntry(region, 0, ray);
+        if(start >= hit.getDistance()) return found;
+        int x = coordinate(ray[0] + ray[3] * start);
+        int y = coordinate(ray[1] + ray[4] * start);
+        int z = coordinate(ray[2] + ray[5] * start);
+        int stepX = (int) Math.signum(ray[3]);
+        int stepY = (int) Math.signum(ray[4]);
+        int stepZ = (int) Math.signum(ray[5]);
+        //The Distance at which the Ray crosses the next Cell Border on each Axis, and the Distance between two Borders
+        float borderX = stepX == 0 ? Float.POSITIVE_INFINITY : ((x + (stepX > 0 ? 1 : 0)) * cellSize - ray[0]) * ray[6];
+        float borderY = stepY == 0 ? Float.POSITIVE_INFINITY : ((y + (stepY > 0 ? 1 : 0)) * cellSize - ray[1]) * ray[7];
+        float borderZ = stepZ == 0 ? Float.POSITIVE_INFINITY : ((z + (stepZ > 0 ? 1 : 0)) * cellSize - ray[2]) * ray[8];
+        float deltaX = Math.abs(cellSize * ray[6]);
+        float deltaY = Math.abs(cellSize * ray[7]);
+        float deltaZ = Math.abs(cellSize * ray[8]);
+        for(int a = -1; a <= 1; a++){
+            for(int b = -1; b <= 1; b++){
+                for(int c = -1; c <= 1; c++){
+                    found |= raycastCell(x + a, y + b, z + c, ray, hit);
+                }
+            }
+        }
+        while(true){
+            float exit = Math.min(borderX, Math.min(borderY, borderZ));
+            if(exit == Float.POSITIVE_INFINITY || hit.getDistance() <= exit) break;
+            if(exit == borderX){
+                x += stepX;
+                borderX += deltaX;
+                for(int a = -1; a <= 1; a++){
+                    for(int b = -1; b <= 1; b++){
+                        found |= raycastCell(x + stepX, y + a, z + b, ray, hit);
+                    }
+                }
+            }else if(exit == borderY){
+                y += stepY;
+                borderY += deltaY;
+                for(int a = -1; a <= 1; a++){
+                    for(int b = -1; b <= 1; b++){
+                        found |= raycastCell(x + a, y + stepY, z + b, ray, hit);
+                    }
+                }
+            }else{
+                z += stepZ;
+                borderZ += deltaZ;
+                for(int a = -1; a <= 1; a++){
+                    for(int b = -1; b <= 1; b++){
+                        found |= raycastCell(x + a, y + b, z + stepZ, ray, hit);
+                    }
+                }
+            }
+            //Once the Neighborhood of the current Cell left the Region, it never comes back
+            if(x - 1 > maxX || x + 1 < minX || y - 1 > maxY || y + 1 < minY || z - 1 > maxZ || z + 1 < minZ) break;
+        }
+        return found;
+    }
+    /** {@inheritDoc}
+     *
+     * @implNote The Cells are searched in growing Rings around the Cell of the Point. An {@link Entity} in a Ring is at least
+     * 1.5 Cells less than the Ring Distance away, so the Search ends once that is farther than the farthest Entity of the Result.
+     *
+     * @author snoweuph
+     */
+    @Override
+    public void nearest(Vector3fc point, NearestNeighbors result){
+        for(int slot = largeHead; slot >= 0; slot = next[slot]){
+            result.offer(entities[slot], (float) Math.sqrt(Aabb.distanceSquared(bounds, slot * 6, point)));
+        }
+        if(cellCount == 0) return;
+        int x = coordinate(point.x());
+        int y = coordinate(point.y());
+        int z = coordinate(point.z());
+        int lastRing = Math.max(Math.max(Math.max(x - minX, maxX - x), Math.max(y - minY, maxY - y)), Math.max(z - minZ, maxZ - z));
+        for(int ring = 0; ring <= lastRing; ring++){
+            if((ring - 1.5f) * cellSize > result.bound()) return;
+            long side = 2L * ring + 1;
+            if(side * side * side > cellKeys.length){
+                //The Ring has more Cells than the Table, so search the rest of the Table directly
+                for(int bucket = 0; bucket < cellKeys.length; bucket++){
+                    long key = cellKeys[bucket];
+                    if(key == EMPTY || cellHeads[bucket] < 0) continue;
+                    int distance = Math.max(Math.abs(keyX(key) - x), Math.max(Math.abs(keyY(key) - y), Math.abs(keyZ(key) - z)));
+                    if(distance >= ring) nearestInCell(cellHeads[bucket], point, result);
+                }
+                return;
+            }
+            for(int a = -ring; a <= ring; a++){
+                for(int b = -ring; b <= ring; b++){
+                    //Inside the Ring only the two Cells on its Surface are new
+                    boolean surface = Math.abs(a) == ring || Math.abs(b) == ring;
+                    for(int c = -ring; c <= ring; c += surface ? 1 : 2 * ring){
+                        int bucket = findCell(x + a, y + b, z + c);
+                        if(bucket >= 0) nearestInCell(cellHeads[bucket], point, result);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Calls the Action with every Slot whose Box can overlap a Region: the Slots in the Cells around the Region and all large ones.
+     *
+     * @author snoweuph
+     */
+    private void forEachCandidate(float fromX, float fromY, float fromZ, float toX, float toY, float toZ, IntConsumer action){
+        for(int slot = largeHead; slot >= 0; slot = next[slot]){
+            action.accept(slot);
+        }
+        if(cellCount == 0) return;
+        //The Boxes reach half a Cell out of their Cell
+        float half = cellSize * 0.5f;
+        int lowX = Math.max(minX, coordinate(fromX - half));
+        int lowY = Math.max(minY, coordinate(fromY - half));
+        int lowZ = Math.max(minZ, coordinate(fromZ - half));
+        int highX = Math.min(maxX, coordinate(toX + half));
+        int highY = Math.min(maxY, coordinate(toY + half));
+        int highZ = Math.min(maxZ, coordinate(toZ + half));
+        if(lowX > highX || lowY > highY || lowZ > highZ) return;
+        long cells = (long) (highX - lowX + 1) * (highY - lowY + 1) * (highZ - lowZ + 1);
+        if(cells > cellKeys.length){
+            //The Region has more Cells than the Table, so walk the Table instead
+            for(int bucket = 0; bucket < cellKeys.length; bucket++){
+                long key = cellKeys[bucket];
+                if(key == EMPTY) continue;
+                int x = keyX(key);
+                int y = keyY(key);
+                int z = keyZ(key);
+                if(x < lowX || x > highX || y < lowY || y > highY || z < lowZ || z > highZ) continue;
+                for(int slot = cellHeads[bucket]; slot >= 0; slot = next[slot]){
+                    action.accept(slot);
+                }
+            }
+            return;
+        }
+        for(int x = lowX; x <= highX; x++){
+            for(int y = lowY; y <= highY; y++){
+                for(int z = lowZ; z <= highZ; z++){
+                    int bucket = findCell(x, y, z);
+                    if(bucket < 0) continue;
+                    for(int slot = cellHeads[bucket]; slot >= 0; slot = next[slot]){
+                        action.accept(slot);
+                    }
+                }
+            }
+        }
+    }
+    private boolean raycastCell(int x, int y, int z, float[] ray, RayHit hit){
+        int bucket = findCell(x, y, z);
+        if(bucket < 0) return false;
+        boolean found = false;
+        for(int slot = cellHeads[bucket]; slot >= 0; slot = next[slot]){
+            found |= hit.offer(entities[slot], Aabb.rayEntry(bounds, slot * 6, ray));
+        }
+        return found;
+    }
+    private void nearestInCell(int head, Vector3fc point, NearestNeighbors result){
+        for(int slot = head; slot >= 0; slot = next[slot]){
+            float distanceSquared = Aabb.distanceSquared(bounds, slot * 6, point);
+            float bound = result.bound();
+            if(distanceSquared <= bound * bound) result.offer(entities[slot], (float) Math.sqrt(distanceSquared));
+        }
+    }
+
+    //Slots
+    private int allocate(long entity){
+        int slot;
+        if(freeSlot >= 0){
+            slot = freeSlot;
+            freeSlot = next[slot];
+        }else{
+            if(slotCount == entities.length) grow(slotCount * 2);
+            slot = slotCount++;
+        }
+        entities[slot] = entity;
+        cellOf[slot] = UNLINKED;
+        return slot;
+    }
+    private void link(int slot, int cell){
+        int head = cell == LARGE ? largeHead : cellHeads[cell];
+        next[slot] = head;
+        previous[slot] = -1;
+        if(head >= 0) previous[head] = slot;
+        if(cell == LARGE) largeHead = slot;
+        else cellHeads[cell] = slot;
+        cellOf[slot] = cell;
+    }
+    private void unlink(int slot){
+        int cell = cellOf[slot];
+        if(cell == UNLINKED) return;
+        int before = previous[slot];
+        int after = next[slot];
+        if(before >= 0) next[before] = after;
+        else if(cell == LARGE) largeHead = after;
+        else cellHeads[cell] = after;
+        if(after >= 0) previous[after] = before;
+        cellOf[slot] = UNLINKED;
+    }
+    private void grow(int capacity){
+        entities = Arrays.copyOf(entities, capacity);
+        bounds = Arrays.copyOf(bounds, capacity * 6);
+        cellOf = Arrays.copyOf(cellOf, capacity);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+    }
+
+    //Cells
+    private int findCell(int x, int y, int z){
+        //Cells outside of the Range aren't in the Table, and their Key could overflow
+        if(x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) return -1;
+        return findCell(key(x, y, z));
+    }
+    private int findCell(long key){
+        int mask = cellKeys.length - 1;
+        for(int bucket = hash(key) & mask; cellKeys[bucket] != EMPTY; bucket = (bucket + 1) & mask){
+            if(cellKeys[bucket] == key) return bucket;
+        }
+        return -1;
+    }
+    private int findOrCreateCell(long key){
+        int bucket = findCell(key);
+        if(bucket >= 0) return bucket;
+        if((cellCount + 1) * 2 > cellKeys.length) rehash();
+        bucket = insertCell(key, -1);
+        cellCount++;
+        return bucket;
+    }
+    private int insertCell(long key, int head){
+        int mask = cellKeys.length - 1;
+        int bucket = hash(key) & mask;
+        while(cellKeys[bucket] != EMPTY){
+            bucket = (bucket + 1) & mask;
+        }
+        cellKeys[bucket] = key;
+        cellHeads[bucket] = head;
+        minX = Math.min(minX, keyX(key));
+        minY = Math.min(minY, keyY(key));
+        minZ = Math.min(minZ, keyZ(key));
+        maxX = Math.max(maxX, keyX(key));
+        maxY = Math.max(maxY, keyY(key));
+        maxZ = Math.max(maxZ, keyZ(key));
+        return bucket;
+    }
+    /** Rebuilds the Cell Table with only the Cells that still have Entries, sized so that it stays at most a quarter full.
+     * This also shrinks the Range of the Table to the Cells in use.
+     *
+     * @author snoweuph
+     */
+    private void rehash(){
+        long[] oldKeys = cellKeys;
+        int[] oldHeads = cellHeads;
+        int used = 0;
+        for(int bucket = 0; bucket < oldKeys.length; bucket++){
+            if(oldKeys[bucket] != EMPTY && oldHeads[bucket] >= 0) used++;
+        }
+        int capacity = 64;
+        while(capacity < (used + 1) * 4) capacity *= 2;
+        cellKeys = new long[capacity];
+        cellHeads = new int[capacity];
+        Arrays.fill(cellKeys, EMPTY);
+        resetRange();
+        for(int bucket = 0; bucket < oldKeys.length; bucket++){
+            if(oldKeys[bucket] == EMPTY || oldHeads[bucket] < 0) continue;
+            int cell = insertCell(oldKeys[bucket], oldHeads[bucket]);
+            for(int slot = oldHeads[bucket]; slot >= 0; slot = next[slot]){
+                cellOf[slot] = cell;
+            }
+        }
+        cellCount = used;
+    }
+    private void resetRange(){
+        minX = minY = minZ = Integer.MAX_VALUE;
+        maxX = maxY = maxZ = Integer.MIN_VALUE;
+    }
+
+    //Cell Coordinates
+    private int coordinate(float value){
+        float cell = (float) Math.floor(value * inverseCellSize);
+        //Everything outside of the Coordinate Range is put into the Border Cells
+        return (int) Math.max(-COORDINATE_OFFSET, Math.min(COORDINATE_OFFSET - 1, cell));
+    }
+    private static long key(int x, int y, int z){
+        return ((long) (x + COORDINATE_OFFSET) << (2 * COORDINATE_BITS)) | ((long) (y + COORDINATE_OFFSET) << COORDINATE_BITS) | (z + COORDINATE_OFFSET);
+    }
+    private static int keyX(long key){
+        return (int) (key >>> (2 * COORDINATE_BITS)) - COORDINATE_OFFSET;
+    }
+    private static int keyY(long key){
+        return (int) ((key >>> COORDINATE_BITS) & COORDINATE_MASK) - COORDINATE_OFFSET;
+    }
+    private static int keyZ(long key){
+        return (int) (key & COORDINATE_MASK) - COORDINATE_OFFSET;
+    }
+    private static int hash(long key){
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 29));
+    }
+
+    //Getter
+    /** @return the Edge Length of a Cell.
+     *
+     * @author snoweuph
+     */
+    public float getCellSize(){
+        return cellSize;
+    }
+    /** @return the amount of Cells in the Table, including Cells that got empty since the last Rehash.
+     *
+     * @author snoweuph
+     */
+    public int getCellCount(){
+        return cellCount;
+    }
+}
@@ -0,0 +1,94 @@
+package org.euph.engine.entityComponentSystem.systems.spatial;
+
+import org.euph.engine.entityComponentSystem.Entity;
+import org.joml.Vector3fc;
+
+import java.util.function.LongConsumer;
+
+/** An Index over the axis aligned World Space Boxes of {@link Entity Entities}, that answers where Entities are without looking at all of them.
+ * Entities are stored by their Handle and updated incrementally, so only the Entities that moved need to be put again.
+ * Points are stored as Boxes without Size.
+ *
+ * @implNote Queries only read the Index, so they can run in parallel as long as nothing changes it.
+ * They don't share any Scratch State, the Results are passed in by the Caller instead.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public interface SpatialIndex {
+
+    /** Inserts an {@link Entity}, or updates its Box if it is already in this Index.
+     *
+     * @param entity the Handle of the {@link Entity}, it must not be {@link Entity#NULL}.
+     * @param min the lower Corner of the Box in World Space.
+     * @param max the upper Corner of the Box in World Space.
+     *
+     * @author snoweuph
+     */
+    void put(long entity, Vector3fc min, Vector3fc max);
+    /** Removes an {@link Entity}.
+     *
+     * @param entity the Handle of the {@link Entity}.
+     * @return whether the {@link Entity} was in this Index.
+     *
+     * @author snoweuph
+     */
+    boolean remove(long entity);
+    /** @return whether an {@link Entity} is in this Index.
+     *
+     * @param entity the Handle of the {@link Entity}.
+     *
+     * @author snoweuph
+     */
+    boolean contains(long entity);
+    /** @return the amount of {@link Entity Entities} in this Index.
+     *
+     * @author snoweuph
+     */
+    int size();
+    /** Removes all {@link Entity Entities}.
+     *
+     * @author snoweuph
+     */
+    void clear();
+
+    //Queries
+    /** Calls the Action with every {@link Entity} whose Box overlaps a Box, touching counts as overlapping.
+     *
+     * @param min the lower Corner of the Box.
+     * @param max the upper Corner of the Box.
+     * @param action the Action to call with the Handle of each {@link Entity}.
+     *
+     * @author snoweuph
+     */
+    void queryBox(Vector3fc min, Vector3fc max, LongConsumer action);
+    /** Calls the Action with every {@link Entity} whose Box is within a Distance of a Point.
+     *
+     * @param center the Point.
+     * @param radius the Distance.
+     * @param action the Action to call with the Handle of each {@link Entity}.
+     *
+     * @author snoweuph
+     */
+    void queryRadius(Vector3fc center, float radius, LongConsumer action);
+    /** Finds the closest {@link Entity} whose Box is hit by a Ray, if it is closer than the current Hit.
+     * A Ray that starts inside of a Box hits it at the Distance 0.
+     *
+     * @param origin the Start of the Ray.
+     * @param direction the Direction of the Ray, the Distances are measured in Multiples of its Length.
+     * @param hit the Result, only Hits closer than its current Distance are accepted.
+     * @return whether a closer Hit was found.
+     *
+     * @author snoweuph
+     */
+    boolean raycast(Vector3fc origin, Vector3fc direction, RayHit hit);
+    /** Finds the closest {@link Entity Entities} to a Point, measured to their Boxes.
+     * Entities already in the Result are only replaced by closer ones.
+     *
+     * @param point the Point.
+     * @param result the Result, it holds at most {@link NearestNeighbors#capacity()} Entities.
+     *
+     * @author snoweuph
+     */
+    void nearest(Vector3fc point, NearestNeighbors result);
+}
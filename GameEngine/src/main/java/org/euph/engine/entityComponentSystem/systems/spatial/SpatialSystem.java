@@ -0,0 +1,246 @@
+package org.euph.engine.entityComponentSystem.systems.spatial;
+
+import org.euph.engine.entityComponentSystem.Component;
+import org.euph.engine.entityComponentSystem.EngineSystem;
+import org.euph.engine.entityComponentSystem.Entity;
+import org.euph.engine.entityComponentSystem.EntityComponentSystem;
+import org.euph.engine.entityComponentSystem.Query;
+import org.euph.engine.entityComponentSystem.QueryIterator;
+import org.euph.engine.entityComponentSystem.RemovedComponents;
+import org.euph.engine.entityComponentSystem.World;
+import org.euph.engine.entityComponentSystem.components.Bounds;
+import org.euph.engine.entityComponentSystem.components.Static;
+import org.euph.engine.entityComponentSystem.components.Transform;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/** Keeps the World Space Boxes of all {@link Entity Entities} with a {@link Transform} in a {@link SpatialIndex}, so that other Systems
+ * can ask what is near a Point, inside a Box or hit by a Ray without looking at every {@link Entity}.
+ * Entities marked {@link Static} are kept in a {@link BoundingVolumeHierarchy}, all others in a {@link SpatialHashGrid}.
+ * The Box of an {@link Entity} is its {@link Bounds} moved into World Space by its {@link Transform}, or a Point at its Position if it has no {@link Bounds}.
+ * <pre>{@code
+ * SpatialSystem spatial = new SpatialSystem(2);
+ * scheduler.addSystem(spatial);
+ * spatial.queryRadius(explosion, 5, entity -> damage(entity));
+ * }</pre>
+ *
+ * @implNote The Indices are updated incrementally: only Entities whose {@link Transform}, {@link Bounds} or {@link Static} Marker changed since the last Run
+ * get put again, so Systems that move Entities must fetch the {@link Transform} with {@link QueryIterator#getMut(int) getMut} or call {@link Component#markChanged()}.
+ * This System runs exclusively, so Systems after it in the same Frame see the updated Indices, and its Queries are safe to run in parallel from any other System.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class SpatialSystem extends EngineSystem {
+
+    //The default Edge Length of the Cells of the dynamic Index.
+    private static final float DEFAULT_CELL_SIZE = 4;
+
+    private final SpatialHashGrid dynamicIndex;
+    private final BoundingVolumeHierarchy staticIndex = new BoundingVolumeHierarchy();
+    //Every Entity whose Box may have changed, including Entities that just got a Bounds or Static Component.
+    private final Query changed;
+    private final int boundsTerm;
+    private final int staticTerm;
+    //The Entities that lost a Component that decides where and how they are indexed.
+    private final RemovedComponents removedTransforms;
+    private final RemovedComponents removedBounds;
+    private final RemovedComponents removedStatics;
+    private long[] removed = new long[64];
+    private int removedCount = 0;
+    //The Scratch Space of an Update.
+    private final Matrix4f matrix = new Matrix4f();
+    private final Vector3f min = new Vector3f();
+    private final Vector3f max = new Vector3f();
+
+    /** Creates a new System of the {@link EntityComponentSystem#getDefaultWorld() default World}, with the default Cell Size.
+     *
+     * @author snoweuph
+     */
+    public SpatialSystem(){
+        this(DEFAULT_CELL_SIZE);
+    }
+    /** Creates a new System of the {@link EntityComponentSystem#getDefaultWorld() default World}.
+     *
+     * @param cellSize the Edge Length of the Cells of the dynamic Index, see {@link SpatialHashGrid#SpatialHashGrid(float)}.
+     *
+     * @author snoweuph
+     */
+    public SpatialSystem(float cellSize){
+        this(EntityComponentSystem.getDefaultWorld(), cellSize);
+    }
+    /** Creates a new System.
+     *
+     * @param world the {@link World} whose Entities get indexed.
+     * @param cellSize the Edge Length of the Cells of the dynamic Index, see {@link SpatialHashGrid#SpatialHashGrid(float)}.
+     *
+     * @author snoweuph
+     */
+    public SpatialSystem(World world, float cellSize){
+        super(world);
+        dynamicIndex = new SpatialHashGrid(cellSize);
+        changed = query(Transform.class).optional(Bounds.class, Static.class).changed(Transform.class, Bounds.class, Static.class);
+        boundsTerm = changed.getTerm(Bounds.class);
+        staticTerm = changed.getTerm(Static.class);
+        removedTransforms = removed(Transform.class);
+        removedBounds = removed(Bounds.class);
+        removedStatics = removed(Static.class);
+    }
+
+    @Override
+    protected void update(float delta){
+        //Removals first, an Entity can lose a Component and change in the same Frame.
+        //They are collected before looking at the Entities, because the Readers hold the Lock of the World
+        removedCount = 0;
+        removedTransforms.forEach(this::collectRemoved);
+        removedBounds.forEach(this::collectRemoved);
+        removedStatics.forEach(this::collectRemoved);
+        for(int i = 0; i < removedCount; i++){
+            refresh(removed[i]);
+        }
+        QueryIterator it = changed.iterator();
+        while(it.next()){
+            Transform transform = it.get(0);
+            index(it.getEntity(), transform, it.get(boundsTerm), it.get(staticTerm) != null);
+        }
+        //Build the static Index now, so that Queries of other Systems only read
+        staticIndex.update();
+    }
+    @Override
+    protected List<Class<? extends Component>> getReadComponents(){
+        List<Class<? extends Component>> read = new ArrayList<>();
+        read.add(Transform.class);
+        read.add(Bounds.class);
+        read.add(Static.class);
+        return read;
+    }
+    @Override
+    protected boolean isExclusive(){
+        return true;
+    }
+
+    private void collectRemoved(long entity){
+        if(removedCount == removed.length) removed = Arrays.copyOf(removed, removedCount * 2);
+        removed[removedCount++] = entity;
+    }
+    /** Indexes an {@link Entity} again after it lost a {@link Component}, or drops it if it is gone or has no {@link Transform} anymore.
+     *
+     * @param entity the Handle of the {@link Entity}.
+     *
+     * @author snoweuph
+     */
+    private void refresh(long entity){
+        Transform transform = null;
+        Bounds bounds = null;
+        boolean isStatic = false;
+        if(getWorld().isAlive(entity)){
+            for(Component component : getWorld().getEntity(entity).getComponents()){
+                if(transform == null && component instanceof Transform) transform = (Transform) component;
+                else if(bounds == null && component instanceof Bounds) bounds = (Bounds) component;
+                else if(component instanceof Static) isStatic = true;
+            }
+        }
+        if(transform != null){
+            index(entity, transform, bounds, isStatic);
+        }else{
+            dynamicIndex.remove(entity);
+            staticIndex.remove(entity);
+        }
+    }
+    private void index(long entity, Transform transform, Bounds bounds, boolean isStatic){
+        if(bounds != null){
+            transform.getMatrix(matrix).transformAab(bounds.min, bounds.max, min, max);
+        }else{
+            min.set(transform.position);
+            max.set(transform.position);
+        }
+        if(isStatic){
+            dynamicIndex.remove(entity);
+            staticIndex.put(entity, min, max);
+        }else{
+            staticIndex.remove(entity);
+            dynamicIndex.put(entity, min, max);
+        }
+    }
+
+    //Queries
+    /** Calls the Action with every {@link Entity} whose Box overlaps a Box.
+     *
+     * @param min the lower Corner of the Box.
+     * @param max the upper Corner of the Box.
+     * @param action the Action to call with the Handle of each {@link Entity}.
+     *
+     * @see SpatialIndex#queryBox(Vector3fc, Vector3fc, LongConsumer)
+     *
+     * @author snoweuph
+     */
+    public void queryBox(Vector3fc min, Vector3fc max, LongConsumer action){
+        staticIndex.queryBox(min, max, action);
+        dynamicIndex.queryBox(min, max, action);
+    }
+    /** Calls the Action with every {@link Entity} whose Box is within a Distance of a Point.
+     *
+     * @param center the Point.
+     * @param radius the Distance.
+     * @param action the Action to call with the Handle of each {@link Entity}.
+     *
+     * @see SpatialIndex#queryRadius(Vector3fc, float, LongConsumer)
+     *
+     * @author snoweuph
+     */
+    public void queryRadius(Vector3fc center, float radius, LongConsumer action){
+        staticIndex.queryRadius(center, radius, action);
+        dynamicIndex.queryRadius(center, radius, action);
+    }
+    /** Finds the closest {@link Entity} whose Box is hit by a Ray, if it is closer than the current Hit.
+     *
+     * @param origin the Start of the Ray.
+     * @param direction the Direction of the Ray, the Distances are measured in Multiples of its Length.
+     * @param hit the Result, only Hits closer than its current Distance are accepted.
+     * @return whether a closer Hit was found.
+     *
+     * @see SpatialIndex#raycast(Vector3fc, Vector3fc, RayHit)
+     *
+     * @author snoweuph
+     */
+    public boolean raycast(Vector3fc origin, Vector3fc direction, RayHit hit){
+        //The static Index usually holds the big Occluders, so it shortens the Ray for the Grid
+        boolean found = staticIndex.raycast(origin, direction, hit);
+        return dynamicIndex.raycast(origin, direction, hit) || found;
+    }
+    /** Finds the closest {@link Entity Entities} to a Point, measured to their Boxes.
+     *
+     * @param point the Point.
+     * @param result the Result.
+     *
+     * @see SpatialIndex#nearest(Vector3fc, NearestNeighbors)
+     *
+     * @author snoweuph
+     */
+    public void nearest(Vector3fc point, NearestNeighbors result){
+        staticIndex.nearest(point, result);
+        dynamicIndex.nearest(point, result);
+    }
+
+    //Getter
+    /** @return the Index of all Entities that aren't {@link Static}.
+     *
+     * @author snoweuph
+     */
+    public SpatialHashGrid getDynamicIndex(){
+        return dynamicIndex;
+    }
+    /** @return the Index of all {@link Static} Entities.
+     *
+     * @author snoweuph
+     */
+    public BoundingVolumeHierarchy getStaticIndex(){
+        return staticIndex;
+    }
+}
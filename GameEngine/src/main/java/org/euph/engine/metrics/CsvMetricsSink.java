@@ -0,0 +1,52 @@
+package org.euph.engine.metrics;
+
+import java.io.Writer;
+import java.nio.file.Path;
+
+/** Writes the {@link EngineMetrics} as CSV, one Row per {@link Metric} and Dump, so that Soak Tests and CI can be plotted or checked against Budgets.
+ * The Columns are the summed Frame Time of the Dump in Nanoseconds, the Name and Unit of the Metric, the Amount of Samples in the Window,
+ * the 50th and 99th Percentile, the Maximum and the Mean.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class CsvMetricsSink extends TextMetricsSink {
+
+    /** Creates a new Sink that writes into a File, the File gets replaced.
+     *
+     * @param path the Path of the File.
+     *
+     * @author snoweuph
+     */
+    public CsvMetricsSink(Path path){
+        super(path);
+    }
+    /** Creates a new Sink.
+     *
+     * @param writer where the CSV gets written to, it gets closed with the Sink.
+     *
+     * @author snoweuph
+     */
+    public CsvMetricsSink(Writer writer){
+        super(writer);
+    }
+
+    @Override
+    protected void header(StringBuilder text){
+        text.append("elapsed,metric,unit,samples,p50,p99,max,mean\n");
+    }
+    @Override
+    protected void format(EngineMetrics metrics, StringBuilder text){
+        for(int i = 0; i < metrics.getMetricCount(); i++){
+            Metric metric = metrics.getMetric(i);
+            text.append(metrics.getElapsed()).append(',')
+                    .append(metric.getName()).append(',')
+                    .append(metric.getUnit().getSymbol()).append(',')
+                    .append(metric.getSize()).append(',')
+                    .append(metric.getPercentile(50)).append(',')
+                    .append(metric.getPercentile(99)).append(',')
+                    .append(metric.getMax()).append(',')
+                    .append(metric.getMean()).append('\n');
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package org.euph.engine.metrics;
+
+import org.euph.engine.entityComponentSystem.Entity;
+import org.euph.engine.entityComponentSystem.EngineSystem;
+import org.euph.engine.entityComponentSystem.SystemScheduler;
+import org.euph.engine.entityComponentSystem.World;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Collects the {@link Metric Metrics} of a running Engine: the Frame Time, the Time of each Simulation Step and of each {@link EngineSystem},
+ * the Amount of {@link Entity Entities} and Components and the structural Changes per Frame.
+ * The Statistics are taken over a sliding Window of the last Frames, they can be read at any Time and get dumped to all {@link MetricsSink Sinks} periodically.
+ * <pre>{@code
+ * EngineMetrics metrics = new EngineMetrics(scheduler, 600).addSink(new CsvMetricsSink(Path.of("metrics.csv")));
+ * //after every Step
+ * metrics.step();
+ * //after every Frame
+ * metrics.frame(frameNanos);
+ * }</pre>
+ *
+ * @implNote Recording allocates nothing, all Windows are allocated up front.
+ * Only when Systems get added to or removed from the {@link SystemScheduler}, the Metrics of the Systems get created again, and the dumps format Text.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class EngineMetrics {
+
+    //The Window and the Dump Interval if none are given, 10 Seconds at 60 Frames per Second.
+    public static final int DEFAULT_WINDOW = 600;
+    public static final long DEFAULT_DUMP_INTERVAL = 10_000_000_000L;
+    //The Amount of Metrics before the ones of the Systems.
+    private static final int FIXED_METRICS = 5;
+
+    private final SystemScheduler scheduler;
+    private final World world;
+    private final int window;
+    private final Metric frameTime;
+    private final Metric stepTime;
+    private final Metric entities;
+    private final Metric components;
+    private final Metric structuralChanges;
+    //The Metrics of the Systems, at the same Index as their System in the Scheduler.
+    private EngineSystem[] systems = new EngineSystem[0];
+    private Metric[] systemTimes = new Metric[0];
+    //All Metrics, the fixed ones first.
+    private Metric[] metrics;
+    private final List<MetricsSink> sinks = new ArrayList<>();
+    //The Structure of the World at the last Frame, to count the Changes in between.
+    private int lastStructure;
+    //The summed Frame Time, and when the Metrics were dumped the last Time.
+    private long elapsed = 0;
+    private long lastDump = 0;
+    private long dumpInterval = DEFAULT_DUMP_INTERVAL;
+
+    /** Creates new Metrics with the default Window.
+     *
+     * @param scheduler the Scheduler whose Systems and {@link World} get measured.
+     *
+     * @author snoweuph
+     */
+    public EngineMetrics(SystemScheduler scheduler){
+        this(scheduler, DEFAULT_WINDOW);
+    }
+    /** Creates new Metrics.
+     *
+     * @param scheduler the Scheduler whose Systems and {@link World} get measured.
+     * @param window the Amount of Samples the Statistics are taken over, one Sample per Frame or Step.
+     *
+     * @author snoweuph
+     */
+    public EngineMetrics(SystemScheduler scheduler, int window){
+        this.scheduler = scheduler;
+        this.world = scheduler.getWorld();
+        this.window = window;
+        frameTime = new Metric("frame", Metric.Unit.NANOSECONDS, window);
+        stepTime = new Metric("step", Metric.Unit.NANOSECONDS, window);
+        entities = new Metric("entities", Metric.Unit.COUNT, window);
+        components = new Metric("components", Metric.Unit.COUNT, window);
+        structuralChanges = new Metric("structuralChanges", Metric.Unit.COUNT, window);
+        metrics = new Metric[]{frameTime, stepTime, entities, components, structuralChanges};
+        lastStructure = world.getStructuralChangeCount();
+    }
+
+    //Recording
+    /** Records the Times of the last Run of the {@link SystemScheduler}, call it after every Simulation Step.
+     *
+     * @author snoweuph
+     */
+    public void step(){
+        int count = scheduler.getSystemCount();
+        if(!matchesSystems(count)) rebuildSystems(count);
+        stepTime.record(scheduler.getFrameTime());
+        for(int i = 0; i < count; i++){
+            systemTimes[i].record(scheduler.getSystemTime(i));
+        }
+    }
+    /** Records a Frame and the State of the {@link World} at its End, and dumps the Metrics to all Sinks if the Dump Interval passed.
+     *
+     * @param frameNanos the Time the Frame took in Nanoseconds.
+     *
+     * @author snoweuph
+     */
+    public void frame(long frameNanos){
+        frameTime.record(frameNanos);
+        entities.record(world.getEntityCount());
+        components.record(world.getComponentCount());
+        int structure = world.getStructuralChangeCount();
+        structuralChanges.record(structure - lastStructure);
+        lastStructure = structure;
+        elapsed += frameNanos;
+        if(dumpInterval > 0 && elapsed - lastDump >= dumpInterval) dump();
+    }
+    /** Dumps the Metrics to all Sinks now.
+     *
+     * @author snoweuph
+     */
+    public void dump(){
+        lastDump = elapsed;
+        for(int i = 0; i < sinks.size(); i++){
+            sinks.get(i).dump(this);
+        }
+    }
+    /** Dumps the Metrics a last Time and closes all Sinks.
+     *
+     * @author snoweuph
+     */
+    public void close(){
+        dump();
+        for(int i = 0; i < sinks.size(); i++){
+            sinks.get(i).close();
+        }
+    }
+
+    private boolean matchesSystems(int count){
+        if(count != systems.length) return false;
+        for(int i = 0; i < count; i++){
+            if(systems[i] != scheduler.getSystem(i)) return false;
+        }
+        return true;
+    }
+    /** Creates the Metrics of the Systems again after the Systems of the Scheduler changed, Systems that stayed keep their Metric.
+     *
+     * @param count the Amount of Systems.
+     *
+     * @author snoweuph
+     */
+    private void rebuildSystems(int count){
+        EngineSystem[] newSystems = new EngineSystem[count];
+        Metric[] newTimes = new Metric[count];
+        for(int i = 0; i < count; i++){
+            newSystems[i] = scheduler.getSystem(i);
+            for(int old = 0; old < systems.length; old++){
+                if(systems[old] == newSystems[i]) newTimes[i] = systemTimes[old];
+            }
+            if(newTimes[i] == null) newTimes[i] = new Metric(nameOf(newSystems[i], i, newTimes), Metric.Unit.NANOSECONDS, window);
+        }
+        systems = newSystems;
+        systemTimes = newTimes;
+        Metric[] all = new Metric[FIXED_METRICS + count];
+        System.arraycopy(metrics, 0, all, 0, FIXED_METRICS);
+        System.arraycopy(newTimes, 0, all, FIXED_METRICS, count);
+        metrics = all;
+    }
+    /** @return the Name of the Metric of a System, with its Index if an earlier System already has that Name.
+     *
+     * @param system the System.
+     * @param index the Index of the System.
+     * @param times the Metrics of the earlier Systems.
+     *
+     * @author snoweuph
+     */
+    private static String nameOf(EngineSystem system, int index, Metric[] times){
+        String name = "system." + system.getName();
+        for(int i = 0; i < index; i++){
+            if(times[i].getName().equals(name)) return name + "#" + index;
+        }
+        return name;
+    }
+
+    //Setter
+    /** Adds a Sink the Metrics get dumped to.
+     *
+     * @param sink the Sink.
+     * @return these Metrics, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public EngineMetrics addSink(MetricsSink sink){
+        sinks.add(sink);
+        return this;
+    }
+    /** Removes a Sink, without closing it.
+     *
+     * @param sink the Sink.
+     * @return these Metrics, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public EngineMetrics removeSink(MetricsSink sink){
+        sinks.remove(sink);
+        return this;
+    }
+    /** Sets how often the Metrics get dumped to the Sinks, measured in summed Frame Time.
+     *
+     * @param dumpInterval the Interval in Nanoseconds, 0 to only dump on {@link #dump()} and {@link #close()}.
+     * @return these Metrics, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public EngineMetrics setDumpInterval(long dumpInterval){
+        if(dumpInterval < 0) throw new IllegalArgumentException("The Dump Interval can't be negative");
+        this.dumpInterval = dumpInterval;
+        return this;
+    }
+
+    //Getter
+    /** @return the Amount of Metrics, the Metrics of the Systems only exist after the first {@link #step()}.
+     *
+     * @author snoweuph
+     */
+    public int getMetricCount(){
+        return metrics.length;
+    }
+    /** @return a Metric by its Index, first the Frame Time, the Step Time, the Entities, the Components and the structural Changes, then one per System.
+     *
+     * @param index the Index of the Metric.
+     *
+     * @author snoweuph
+     */
+    public Metric getMetric(int index){
+        return metrics[index];
+    }
+    /** @return the Time of the whole Frames.
+     *
+     * @author snoweuph
+     */
+    public Metric getFrameTime(){
+        return frameTime;
+    }
+    /** @return the Time of the Simulation Steps, including the Playback of the structural Changes.
+     *
+     * @author snoweuph
+     */
+    public Metric getStepTime(){
+        return stepTime;
+    }
+    /** @return the Amount of living {@link Entity Entities} at the End of each Frame.
+     *
+     * @author snoweuph
+     */
+    public Metric getEntities(){
+        return entities;
+    }
+    /** @return the Amount of Components at the End of each Frame.
+     *
+     * @author snoweuph
+     */
+    public Metric getComponents(){
+        return components;
+    }
+    /** @return the Amount of structural Changes during each Frame, see {@link World#getStructuralChangeCount()}.
+     *
+     * @author snoweuph
+     */
+    public Metric getStructuralChanges(){
+        return structuralChanges;
+    }
+    /** @return the Execution Time of a System in each Step, or null if it isn't part of the Scheduler or didn't run yet.
+     *
+     * @param system the System.
+     *
+     * @author snoweuph
+     */
+    public Metric getSystemTime(EngineSystem system){
+        for(int i = 0; i < systems.length; i++){
+            if(systems[i] == system) return systemTimes[i];
+        }
+        return null;
+    }
+    /** @return the summed Time of all recorded Frames in Nanoseconds.
+     *
+     * @author snoweuph
+     */
+    public long getElapsed(){
+        return elapsed;
+    }
+    /** @return the Scheduler whose Systems get measured.
+     *
+     * @author snoweuph
+     */
+    public SystemScheduler getScheduler(){
+        return scheduler;
+    }
+}
@@ -0,0 +1,56 @@
+package org.euph.engine.metrics;
+
+import org.euph.engine.util.Json;
+
+import java.io.Writer;
+import java.nio.file.Path;
+
+/** Writes the {@link EngineMetrics} as JSON Lines, one Object per Dump, so that every Line can be parsed on its own while the Engine still runs.
+ * <pre>{@code
+ * {"elapsed":10000000000,"metrics":[{"name":"frame","unit":"ns","samples":600,"p50":16646143,"p99":17301503,"max":17012345,"mean":16666666}, ...]}
+ * }</pre>
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class JsonMetricsSink extends TextMetricsSink {
+
+    /** Creates a new Sink that writes into a File, the File gets replaced.
+     *
+     * @param path the Path of the File.
+     *
+     * @author snoweuph
+     */
+    public JsonMetricsSink(Path path){
+        super(path);
+    }
+    /** Creates a new Sink.
+     *
+     * @param writer where the JSON gets written to, it gets closed with the Sink.
+     *
+     * @author snoweuph
+     */
+    public JsonMetricsSink(Writer writer){
+        super(writer);
+    }
+
+    @Override
+    protected void format(EngineMetrics metrics, StringBuilder text){
+        text.append("{\"elapsed\":").append(metrics.getElapsed()).append(",\"metrics\":[");
+        for(int i = 0; i < metrics.getMetricCount(); i++){
+            Metric metric = metrics.getMetric(i);
+            if(i > 0) text.append(',');
+            text.append("{\"name\":");
+            Json.appendString(text, metric.getName());
+            text.append(",\"unit\":");
+            Json.appendString(text, metric.getUnit().getSymbol());
+            text.append(",\"samples\":").append(metric.getSize())
+                    .append(",\"p50\":").append(metric.getPercentile(50))
+                    .append(",\"p99\":").append(metric.getPercentile(99))
+                    .append(",\"max\":").append(metric.getMax())
+                    .append(",\"mean\":").append(metric.getMean())
+                    .append('}');
+        }
+        text.append("]}\n");
+    }
+}
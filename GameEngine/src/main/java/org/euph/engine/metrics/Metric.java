@@ -0,0 +1,168 @@
+package org.euph.engine.metrics;
+
+/** One measured Value of the Engine, like the Frame Time or the Amount of Entities, over a sliding Window of the last Frames.
+ * Every Frame one Sample gets recorded, and the Percentiles, the Maximum and the Mean of the Window can be read at any Time.
+ *
+ * @implNote The Samples of the Window are kept in a Ring Buffer and counted in a {@link MetricHistogram}.
+ * When the Ring Buffer is full, the oldest Sample gets removed from the Histogram again, so recording never allocates.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class Metric {
+
+    /** What the Samples of a {@link Metric} measure.
+     *
+     * @author snoweuph
+     * @version 1.0
+     */
+    public enum Unit {
+        NANOSECONDS("ns"),
+        COUNT("count");
+
+        private final String symbol;
+
+        Unit(String symbol){
+            this.symbol = symbol;
+        }
+
+        /** @return the short Name of the Unit, as written by the {@link MetricsSink Sinks}.
+         *
+         * @author snoweuph
+         */
+        public String getSymbol(){
+            return symbol;
+        }
+    }
+
+    private final String name;
+    private final Unit unit;
+    //The Ring Buffer of the Window, next is where the next Sample goes.
+    private final long[] window;
+    private int next = 0;
+    private int size = 0;
+    private long sum = 0;
+    private final MetricHistogram histogram = new MetricHistogram();
+    //The Amount of Samples ever recorded.
+    private long total = 0;
+
+    /** Creates a new Metric.
+     *
+     * @param name the Name of the Metric.
+     * @param unit what the Samples measure.
+     * @param window the Amount of Samples the Statistics are taken over.
+     *
+     * @author snoweuph
+     */
+    public Metric(String name, Unit unit, int window){
+        if(window <= 0) throw new IllegalArgumentException("The Window must hold at least one Sample, but was " + window);
+        this.name = name;
+        this.unit = unit;
+        this.window = new long[window];
+    }
+
+    /** Records a Sample, if the Window is full the oldest Sample leaves it.
+     *
+     * @param value the Sample.
+     *
+     * @author snoweuph
+     */
+    public void record(long value){
+        if(size == window.length){
+            histogram.remove(window[next]);
+            sum -= window[next];
+        }else{
+            size++;
+        }
+        window[next] = value;
+        next = next + 1 == window.length ? 0 : next + 1;
+        histogram.record(value);
+        sum += value;
+        total++;
+    }
+    /** Removes all Samples.
+     *
+     * @author snoweuph
+     */
+    public void reset(){
+        histogram.reset();
+        next = 0;
+        size = 0;
+        sum = 0;
+        total = 0;
+    }
+
+    //Getter
+    /** @return the Name of the Metric.
+     *
+     * @author snoweuph
+     */
+    public String getName(){
+        return name;
+    }
+    /** @return what the Samples measure.
+     *
+     * @author snoweuph
+     */
+    public Unit getUnit(){
+        return unit;
+    }
+    /** @return the Sample below or at which a Percentage of the Samples in the Window are, see {@link MetricHistogram#getPercentile(double)}.
+     * It is never higher than the {@link #getMax() Maximum}.
+     *
+     * @param percentile the Percentage, from 0 to 100.
+     *
+     * @author snoweuph
+     */
+    public long getPercentile(double percentile){
+        //The Histogram rounds up to the End of a Bucket
+        return Math.min(histogram.getPercentile(percentile), getMax());
+    }
+    /** @return the exact highest Sample in the Window, or 0 if there is none.
+     *
+     * @author snoweuph
+     */
+    public long getMax(){
+        if(size == 0) return 0;
+        long max = Long.MIN_VALUE;
+        for(int i = 0; i < size; i++){
+            max = Math.max(max, window[i]);
+        }
+        return max;
+    }
+    /** @return the Mean of the Samples in the Window, rounded down, or 0 if there is none.
+     *
+     * @author snoweuph
+     */
+    public long getMean(){
+        return size == 0 ? 0 : sum / size;
+    }
+    /** @return the latest Sample, or 0 if there is none.
+     *
+     * @author snoweuph
+     */
+    public long getLast(){
+        return size == 0 ? 0 : window[next == 0 ? window.length - 1 : next - 1];
+    }
+    /** @return the Amount of Samples in the Window.
+     *
+     * @author snoweuph
+     */
+    public int getSize(){
+        return size;
+    }
+    /** @return the Amount of Samples the Window can hold.
+     *
+     * @author snoweuph
+     */
+    public int getWindow(){
+        return window.length;
+    }
+    /** @return the Amount of Samples ever recorded, since the Creation or the last {@link #reset()}.
+     *
+     * @author snoweuph
+     */
+    public long getTotal(){
+        return total;
+    }
+}
@@ -0,0 +1,95 @@
+package org.euph.engine.metrics;
+
+import java.util.Arrays;
+
+/** Counts how often Values were recorded in logarithmic Buckets, so that Percentiles of any Range of Values can be read with a bounded relative Error.
+ * Values below 128 get a Bucket each, above that every Power of Two is split into 64 Buckets, so a Percentile is at most about 1.6% too high.
+ * Values can also be removed again, which lets a {@link Metric} keep the Histogram of a sliding Window.
+ *
+ * @implNote All Buckets are allocated up front, so recording and removing never allocate and take constant Time, like in an HDR Histogram.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class MetricHistogram {
+
+    //The Values below this get a Bucket each, every Power of Two above gets half as many.
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS >> 1;
+    //Enough Buckets for every positive long.
+    private static final int BUCKETS = (63 - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS + SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+
+    /** Records a Value.
+     *
+     * @param value the Value, negative Values are counted as 0.
+     *
+     * @author snoweuph
+     */
+    public void record(long value){
+        counts[indexOf(value)]++;
+        count++;
+    }
+    /** Removes a Value that was recorded before.
+     *
+     * @param value the Value.
+     *
+     * @author snoweuph
+     */
+    public void remove(long value){
+        int index = indexOf(value);
+        if(counts[index] == 0) throw new IllegalStateException("The Value " + value + " was never recorded");
+        counts[index]--;
+        count--;
+    }
+    /** Removes all Values.
+     *
+     * @author snoweuph
+     */
+    public void reset(){
+        Arrays.fill(counts, 0);
+        count = 0;
+    }
+
+    /** @return the Value below or at which a Percentage of the recorded Values are, rounded up to the highest Value of its Bucket, or 0 if there are no Values.
+     *
+     * @param percentile the Percentage, from 0 to 100.
+     *
+     * @author snoweuph
+     */
+    public long getPercentile(double percentile){
+        if(percentile < 0 || percentile > 100) throw new IllegalArgumentException("The Percentile must be between 0 and 100, but was " + percentile);
+        if(count == 0) return 0;
+        //The Rank of the Value, counted from 1
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for(int index = 0; index < BUCKETS; index++){
+            seen += counts[index];
+            if(seen >= rank) return highestValueOf(index);
+        }
+        return highestValueOf(BUCKETS - 1);
+    }
+    /** @return the Amount of recorded Values.
+     *
+     * @author snoweuph
+     */
+    public long getCount(){
+        return count;
+    }
+
+    private static int indexOf(long value){
+        if(value < SUB_BUCKETS) return value <= 0 ? 0 : (int) value;
+        //Keep the highest Bits of the Value, the Shift tells the Power of Two
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+    private static long highestValueOf(int index){
+        if(index < SUB_BUCKETS) return index;
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long sub = index - (long) shift * HALF_SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
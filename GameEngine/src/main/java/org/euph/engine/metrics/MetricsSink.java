@@ -0,0 +1,23 @@
+package org.euph.engine.metrics;
+
+/** Somewhere the {@link EngineMetrics} get reported to, like a File or a Profiler.
+ * The Metrics get dumped to all Sinks periodically, not every Frame, so a Sink is allowed to format and write Text.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public interface MetricsSink {
+
+    /** Reports the current Statistics of all Metrics.
+     *
+     * @param metrics the Metrics, read them with {@link EngineMetrics#getMetricCount()} and {@link EngineMetrics#getMetric(int)}.
+     *
+     * @author snoweuph
+     */
+    void dump(EngineMetrics metrics);
+    /** Releases everything the Sink holds, like open Files. It gets called once, when the {@link EngineMetrics} get closed.
+     *
+     * @author snoweuph
+     */
+    default void close(){}
+}
@@ -0,0 +1,29 @@
+package org.euph.engine.metrics;
+
+import org.lwjgl.util.remotery.Remotery;
+
+/** Sends the {@link EngineMetrics} to the Log of Remotery, so that they show up next to the CPU and GPU Samples in its Viewer.
+ * Remotery must have a global Instance while the Metrics get dumped.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class RemoterySink implements MetricsSink {
+
+    //The reused Space a Line gets formatted in.
+    private final StringBuilder text = new StringBuilder(256);
+
+    @Override
+    public void dump(EngineMetrics metrics){
+        for(int i = 0; i < metrics.getMetricCount(); i++){
+            Metric metric = metrics.getMetric(i);
+            text.setLength(0);
+            text.append(metric.getName())
+                    .append(" p50=").append(metric.getPercentile(50))
+                    .append(" p99=").append(metric.getPercentile(99))
+                    .append(" max=").append(metric.getMax())
+                    .append(' ').append(metric.getUnit().getSymbol());
+            Remotery.rmt_LogText(text);
+        }
+    }
+}
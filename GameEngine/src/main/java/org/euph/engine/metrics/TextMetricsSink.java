@@ -0,0 +1,97 @@
+package org.euph.engine.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** A {@link MetricsSink} that writes every Dump as Text, for Files that are read by Tools after or while the Engine runs.
+ * It works without any Window or Display, so it is the Sink of headless Runs.
+ *
+ * @implNote A Dump gets formatted into a reused Builder and written in one go, and the Writer gets flushed after every Dump, so the File can be followed live.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public abstract class TextMetricsSink implements MetricsSink {
+
+    private final Writer writer;
+    //The reused Space a Dump gets formatted in.
+    private final StringBuilder text = new StringBuilder(4096);
+    private char[] chars = new char[4096];
+    private boolean started = false;
+
+    /** Creates a new Sink that writes into a File, the File gets replaced.
+     *
+     * @param path the Path of the File.
+     *
+     * @throws UncheckedIOException if the File can't be opened.
+     *
+     * @author snoweuph
+     */
+    protected TextMetricsSink(Path path){
+        this(open(path));
+    }
+    /** Creates a new Sink.
+     *
+     * @param writer where the Text gets written to, it gets closed with the Sink.
+     *
+     * @author snoweuph
+     */
+    protected TextMetricsSink(Writer writer){
+        this.writer = writer;
+    }
+
+    @Override
+    public void dump(EngineMetrics metrics){
+        text.setLength(0);
+        if(!started){
+            header(text);
+            started = true;
+        }
+        format(metrics, text);
+        int length = text.length();
+        if(chars.length < length) chars = new char[Math.max(length, chars.length * 2)];
+        text.getChars(0, length, chars, 0);
+        try{
+            writer.write(chars, 0, length);
+            writer.flush();
+        }catch (IOException e){
+            throw new UncheckedIOException("Couldn't write the Metrics", e);
+        }
+    }
+    @Override
+    public void close(){
+        try{
+            writer.close();
+        }catch (IOException e){
+            throw new UncheckedIOException("Couldn't close the Metrics", e);
+        }
+    }
+
+    /** Formats what comes once before the first Dump.
+     *
+     * @param text where the Text gets appended to.
+     *
+     * @author snoweuph
+     */
+    protected void header(StringBuilder text){}
+    /** Formats one Dump.
+     *
+     * @param metrics the Metrics.
+     * @param text where the Text gets appended to.
+     *
+     * @author snoweuph
+     */
+    protected abstract void format(EngineMetrics metrics, StringBuilder text);
+
+    private static Writer open(Path path){
+        try{
+            return Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        }catch (IOException e){
+            throw new UncheckedIOException("Couldn't open " + path + " for the Metrics", e);
+        }
+    }
+}
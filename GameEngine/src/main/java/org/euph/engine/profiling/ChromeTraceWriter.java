@@ -0,0 +1,217 @@
+package org.euph.engine.profiling;
+
+import org.euph.engine.util.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/** Writes the {@link ProfileScope Scopes} of a Capture as a Trace in the Chrome Trace Event Format,
+ * that can be opened offline in {@code chrome://tracing}, Perfetto or Speedscope.
+ * <pre>{@code
+ * Profiler.startCapture(new ChromeTraceWriter(Path.of("trace.json")));
+ * //every Frame
+ * Profiler.frame();
+ * //at the End
+ * Profiler.stopCapture();
+ * }</pre>
+ *
+ * @implNote Every finished Scope is one complete Event with its Thread, Start and Duration in Microseconds since the Capture started.
+ * The Trace is a JSON Array that is written as the Capture runs, the Viewers also open it if the Process died before it got closed.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class ChromeTraceWriter {
+
+    private final Writer writer;
+    //The Clock Time the Timestamps are relative to.
+    private final long origin = System.nanoTime();
+    //The reused Space the Events get formatted in.
+    private final StringBuilder text = new StringBuilder(1 << 16);
+    private char[] chars = new char[1 << 16];
+    //The escaped Names of the Scopes, by their ID.
+    private String[] names = new String[0];
+    //The IDs of the Threads whose Name was written already.
+    private long[] namedThreads = new long[0];
+    private boolean first = true;
+    private boolean closed = false;
+    private long events = 0;
+
+    /** Creates a new Trace that gets written into a File, the File gets replaced.
+     *
+     * @param path the Path of the File.
+     *
+     * @throws UncheckedIOException if the File can't be opened.
+     *
+     * @author snoweuph
+     */
+    public ChromeTraceWriter(Path path){
+        this(open(path));
+    }
+    /** Creates a new Trace.
+     *
+     * @param writer where the Trace gets written to, it gets closed with the Trace.
+     *
+     * @author snoweuph
+     */
+    public ChromeTraceWriter(Writer writer){
+        this.writer = writer;
+        text.append('[');
+    }
+
+    /** Writes all Scopes that finished since the last Call, {@link Profiler#frame()} does this for the running Capture.
+     * Threads that died are forgotten by the {@link Profiler} once their last Scopes are written.
+     *
+     * @throws UncheckedIOException if the Trace can't be written.
+     *
+     * @author snoweuph
+     */
+    public synchronized void collect(){
+        if(closed) return;
+        for(ProfileThread thread : Profiler.getThreads()){
+            //Checked before reading the Ring, a dead Thread can't finish any more Scopes
+            boolean dead = !thread.owner.isAlive();
+            long read = thread.read.get();
+            long written = thread.written.get();
+            ProfileThread.Ring ring = thread.ring;
+            if(read != written && ring != null){
+                if(!isNamed(thread.id)) appendThreadName(thread);
+                for(long slot = read; slot < written; slot++){
+                    int index = (int) (slot % ring.scopes.length);
+                    appendEvent(ring.scopes[index], thread.id, ring.begins[index], ring.ends[index]);
+                    ring.scopes[index] = null;
+                }
+                flushText(false);
+            }
+            thread.read.set(written);
+            if(dead) Profiler.retire(thread);
+        }
+        flushText(true);
+    }
+    /** Ends the Trace and closes the Writer.
+     *
+     * @throws UncheckedIOException if the Trace can't be written.
+     *
+     * @author snoweuph
+     */
+    public synchronized void close(){
+        if(closed) return;
+        text.append("\n]\n");
+        flushText(true);
+        closed = true;
+        try{
+            writer.close();
+        }catch (IOException e){
+            throw new UncheckedIOException("Couldn't close the Trace", e);
+        }
+    }
+
+    private void appendThreadName(ProfileThread thread){
+        separate();
+        text.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(thread.id).append(",\"args\":{\"name\":");
+        Json.appendString(text, thread.name);
+        text.append("}}");
+        namedThreads = Arrays.copyOf(namedThreads, namedThreads.length + 1);
+        namedThreads[namedThreads.length - 1] = thread.id;
+    }
+    private void appendEvent(ProfileScope scope, long thread, long begin, long end){
+        separate();
+        text.append("{\"name\":").append(nameOf(scope)).append(",\"ph\":\"X\",\"pid\":1,\"tid\":").append(thread).append(",\"ts\":");
+        appendMicros(begin - origin);
+        text.append(",\"dur\":");
+        appendMicros(end - begin);
+        text.append('}');
+        events++;
+    }
+    private void separate(){
+        if(!first) text.append(',');
+        text.append('\n');
+        first = false;
+    }
+    /** Appends Nanoseconds as Microseconds with three Decimals, without going through a double.
+     *
+     * @param nanos the Nanoseconds.
+     *
+     * @author snoweuph
+     */
+    private void appendMicros(long nanos){
+        if(nanos < 0){
+            text.append('-');
+            nanos = -nanos;
+        }
+        long fraction = nanos % 1000;
+        text.append(nanos / 1000).append('.');
+        if(fraction < 100) text.append('0');
+        if(fraction < 10) text.append('0');
+        text.append(fraction);
+    }
+    private String nameOf(ProfileScope scope){
+        int id = scope.getId();
+        if(id >= names.length) names = Arrays.copyOf(names, Math.max(id + 1, names.length * 2));
+        if(names[id] == null){
+            int start = text.length();
+            Json.appendString(text, scope.getName());
+            names[id] = text.substring(start);
+            text.setLength(start);
+        }
+        return names[id];
+    }
+    private boolean isNamed(long thread){
+        for(long named : namedThreads){
+            if(named == thread) return true;
+        }
+        return false;
+    }
+    /** Writes the formatted Text, if there is enough of it or if forced.
+     *
+     * @param force whether to write and flush any Text.
+     *
+     * @author snoweuph
+     */
+    private void flushText(boolean force){
+        int length = text.length();
+        if(length == 0 || (!force && length < (1 << 15))) return;
+        if(chars.length < length) chars = new char[Math.max(length, chars.length * 2)];
+        text.getChars(0, length, chars, 0);
+        text.setLength(0);
+        try{
+            writer.write(chars, 0, length);
+            if(force) writer.flush();
+        }catch (IOException e){
+            throw new UncheckedIOException("Couldn't write the Trace", e);
+        }
+    }
+
+    private static Writer open(Path path){
+        try{
+            return Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+        }catch (IOException e){
+            throw new UncheckedIOException("Couldn't open " + path + " for the Trace", e);
+        }
+    }
+
+    //Getter
+    /** @return the Amount of Events written so far.
+     *
+     * @author snoweuph
+     */
+    public synchronized long getEventCount(){
+        return events;
+    }
+    /** @return the Amount of Scopes that got lost so far, because a Thread finished more Scopes between two Collections than it can hold.
+     *
+     * @author snoweuph
+     */
+    public long getDroppedCount(){
+        long dropped = Profiler.getRetiredDropped();
+        for(ProfileThread thread : Profiler.getThreads()){
+            dropped += thread.dropped.get();
+        }
+        return dropped;
+    }
+}
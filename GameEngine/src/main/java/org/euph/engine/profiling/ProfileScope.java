@@ -0,0 +1,39 @@
+package org.euph.engine.profiling;
+
+/** A named Section of Code that can be measured by the {@link Profiler}, see {@link Profiler#scope(String)}.
+ * Scopes are created once and kept, so measuring a Section never touches its Name.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class ProfileScope {
+
+    private final int id;
+    private final String name;
+
+    ProfileScope(int id, String name){
+        this.id = id;
+        this.name = name;
+    }
+
+    //Getter
+    /** @return the dense Index of this Scope, the Scopes are numbered from 0 in the Order they were created.
+     *
+     * @author snoweuph
+     */
+    public int getId(){
+        return id;
+    }
+    /** @return the Name of this Scope.
+     *
+     * @author snoweuph
+     */
+    public String getName(){
+        return name;
+    }
+
+    @Override
+    public String toString(){
+        return name;
+    }
+}
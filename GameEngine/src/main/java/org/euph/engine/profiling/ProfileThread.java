@@ -0,0 +1,131 @@
+package org.euph.engine.profiling;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** The Profiling State of one Thread: the Stack of the open {@link ProfileScope Scopes} and a Ring of the finished ones that waits to be captured.
+ *
+ * @implNote The Ring has one Writer, the Thread itself, and one Reader, the {@link ChromeTraceWriter} that collects it, so it needs no Lock.
+ * The Writer publishes a Slot by advancing {@link #written} after filling it, the Reader frees it by advancing {@link #read}.
+ * When the Reader falls behind and the Ring is full, new Events get dropped and counted instead of blocking the Thread.
+ * The Ring only exists while a Capture runs: the Thread allocates it with its first captured Scope and {@link Profiler#stopCapture()} lets go of it,
+ * so Threads that are only measured live don't hold any.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+final class ProfileThread {
+
+    //How deep Scopes can be nested, deeper Scopes are ignored.
+    private static final int MAX_DEPTH = 64;
+
+    final Thread owner;
+    final long id;
+    final String name;
+    //The open Scopes and when they began.
+    private final ProfileScope[] stack = new ProfileScope[MAX_DEPTH];
+    private final long[] starts = new long[MAX_DEPTH];
+    private int depth = 0;
+    //How many Scopes are open beyond the maximum Depth.
+    private int overflow = 0;
+    //The Ring of finished Scopes, null while nothing is captured.
+    private final int capacity;
+    volatile Ring ring;
+    final AtomicLong written = new AtomicLong();
+    final AtomicLong read = new AtomicLong();
+    final AtomicLong dropped = new AtomicLong();
+
+    ProfileThread(Thread thread, int capacity){
+        this.owner = thread;
+        this.id = thread.getId();
+        this.name = thread.getName();
+        this.capacity = capacity;
+    }
+
+    /** Opens a Scope.
+     *
+     * @param scope the Scope.
+     * @param time when it began.
+     * @return whether the Scope was opened, false if the maximum Depth is reached.
+     *
+     * @author snoweuph
+     */
+    boolean begin(ProfileScope scope, long time){
+        if(depth == MAX_DEPTH){
+            overflow++;
+            return false;
+        }
+        stack[depth] = scope;
+        starts[depth] = time;
+        depth++;
+        return true;
+    }
+    /** @return whether ending a Scope has to close any open Scope, false if it wasn't opened because it began deeper than the maximum Depth
+     * or while the {@link Profiler} was disabled.
+     *
+     * @param scope the Scope.
+     *
+     * @author snoweuph
+     */
+    boolean prepareEnd(ProfileScope scope){
+        if(overflow > 0){
+            overflow--;
+            return false;
+        }
+        for(int open = depth - 1; open >= 0; open--){
+            if(stack[open] == scope) return true;
+        }
+        return false;
+    }
+    /** Closes the innermost Scope.
+     *
+     * @param time when it ended.
+     * @param capture whether the finished Scope goes into the Ring.
+     * @return the closed Scope.
+     *
+     * @author snoweuph
+     */
+    ProfileScope end(long time, boolean capture){
+        depth--;
+        ProfileScope scope = stack[depth];
+        stack[depth] = null;
+        if(capture){
+            Ring ring = this.ring;
+            if(ring == null){
+                //The Capture could have stopped since the Scope ended
+                if(!Profiler.isCapturing()) return scope;
+                this.ring = ring = new Ring(capacity);
+            }
+            long slot = written.get();
+            if(slot - read.get() >= capacity){
+                dropped.incrementAndGet();
+            }else{
+                int index = (int) (slot % capacity);
+                ring.scopes[index] = scope;
+                ring.begins[index] = starts[depth];
+                ring.ends[index] = time;
+                ring.depths[index] = (byte) depth;
+                written.lazySet(slot + 1);
+            }
+        }
+        return scope;
+    }
+
+    /** The Slots of finished Scopes, as one Array per Value.
+     *
+     * @author snoweuph
+     * @version 1.0
+     */
+    static final class Ring {
+        final ProfileScope[] scopes;
+        final long[] begins;
+        final long[] ends;
+        final byte[] depths;
+
+        private Ring(int capacity){
+            scopes = new ProfileScope[capacity];
+            begins = new long[capacity];
+            ends = new long[capacity];
+            depths = new byte[capacity];
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.euph.engine.profiling;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Measures named, nested Sections of Code on any Thread. The Engine wraps every {@link org.euph.engine.entityComponentSystem.EngineSystem System}
+ * run by a {@link org.euph.engine.entityComponentSystem.SystemScheduler Scheduler} and every Stage of a {@link org.euph.engine.renderSystem.RenderPipeline RenderPipeline}
+ * in a Scope on its own, so Spikes can be found without touching any Code. The Scopes go live to all {@link ProfilerSink Sinks},
+ * like Remotery, and while a {@link ChromeTraceWriter Capture} runs, they get recorded into a Trace File.
+ * <pre>{@code
+ * private static final ProfileScope PHYSICS = Profiler.scope("Physics");
+ *
+ * Profiler.begin(PHYSICS);
+ * try{
+ *     step();
+ * }finally{
+ *     Profiler.end(PHYSICS);
+ * }
+ * }</pre>
+ *
+ * @implNote The Profiler is disabled by default, then a Scope costs one volatile Read. It should only be enabled or disabled between Frames,
+ * while no Scope is open. Enabled, a Scope costs a Thread Local Lookup and two Reads of the Clock, and never allocates or touches its Name.
+ * Only while a Capture runs, every measured Thread holds a Ring for its finished Scopes, it is allocated with its first captured Scope.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class Profiler {
+
+    //How many finished Scopes every Thread can hold until they get collected.
+    private static final int RING_CAPACITY = 1 << 16;
+
+    private static volatile boolean enabled = false;
+    private static volatile ProfilerSink[] sinks = new ProfilerSink[0];
+    private static volatile ChromeTraceWriter capture;
+    //All Scopes by Name, they are never removed.
+    private static final Map<String, ProfileScope> scopes = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextScope = new AtomicInteger();
+    //The State of every Thread that began a Scope. Threads that died are removed every Frame and when a Thread registers,
+    //while a Capture runs only once it collected their last Scopes.
+    private static final List<ProfileThread> threads = new CopyOnWriteArrayList<>();
+    //The dropped Scopes of the removed Threads.
+    private static final AtomicLong retiredDropped = new AtomicLong();
+    private static final ThreadLocal<ProfileThread> current = ThreadLocal.withInitial(() -> {
+        ProfileThread thread = new ProfileThread(Thread.currentThread(), RING_CAPACITY);
+        retireDead();
+        threads.add(thread);
+        return thread;
+    });
+
+    /** @return the Scope with a Name, it gets created on the first Call. Keep it in a Field instead of calling this for every Measurement.
+     *
+     * @param name the Name of the Scope.
+     *
+     * @author snoweuph
+     */
+    public static ProfileScope scope(String name){
+        return scopes.computeIfAbsent(name, key -> new ProfileScope(nextScope.getAndIncrement(), key));
+    }
+
+    //Measuring
+    /** Begins a Scope on the current Thread, it must be ended by {@link #end(ProfileScope)} on the same Thread.
+     *
+     * @param scope the Scope.
+     *
+     * @author snoweuph
+     */
+    public static void begin(ProfileScope scope){
+        if(!enabled) return;
+        if(!current.get().begin(scope, System.nanoTime())) return;
+        ProfilerSink[] sinks = Profiler.sinks;
+        for(int i = 0; i < sinks.length; i++){
+            sinks[i].begin(scope);
+        }
+    }
+    /** Ends a Scope of the current Thread, it should be the innermost open one.
+     * Scopes inside of it that were left open by an Exception end with it, so a Failure can't break the Nesting of later Frames.
+     *
+     * @param scope the Scope.
+     *
+     * @author snoweuph
+     */
+    public static void end(ProfileScope scope){
+        if(!enabled) return;
+        long time = System.nanoTime();
+        ProfileThread thread = current.get();
+        if(!thread.prepareEnd(scope)) return;
+        boolean capturing = capture != null;
+        ProfilerSink[] sinks = Profiler.sinks;
+        ProfileScope closed;
+        do{
+            closed = thread.end(time, capturing);
+            for(int i = sinks.length - 1; i >= 0; i--){
+                sinks[i].end(closed);
+            }
+        }while(closed != scope);
+    }
+    /** Collects the finished Scopes of all Threads into the running Capture, call it once per Frame, so that the Rings of the Threads don't overflow.
+     *
+     * @author snoweuph
+     */
+    public static void frame(){
+        ChromeTraceWriter capture = Profiler.capture;
+        if(capture != null) capture.collect();
+        else retireDead();
+    }
+
+    //Capturing
+    /** Starts recording all Scopes into a Trace, it also enables the Profiler. Scopes that finished before are not part of it.
+     *
+     * @param writer the Trace.
+     *
+     * @throws IllegalStateException if another Capture runs.
+     *
+     * @author snoweuph
+     */
+    public static synchronized void startCapture(ChromeTraceWriter writer){
+        if(capture != null) throw new IllegalStateException("Another Capture is already running");
+        //Skip everything that finished before, and forget the Threads that died since the last Capture
+        for(ProfileThread thread : threads){
+            thread.read.set(thread.written.get());
+            if(!thread.owner.isAlive()) retire(thread);
+        }
+        capture = writer;
+        enabled = true;
+    }
+    /** Stops the running Capture, collects the last Scopes into it and closes it. The Profiler stays enabled.
+     *
+     * @author snoweuph
+     */
+    public static synchronized void stopCapture(){
+        ChromeTraceWriter writer = capture;
+        if(writer == null) return;
+        capture = null;
+        writer.collect();
+        writer.close();
+        //The Rings are only needed while capturing
+        for(ProfileThread thread : threads){
+            thread.ring = null;
+        }
+    }
+
+    //Package Access for the Capture
+    static List<ProfileThread> getThreads(){
+        return threads;
+    }
+    static void retire(ProfileThread thread){
+        if(threads.remove(thread)) retiredDropped.addAndGet(thread.dropped.get());
+    }
+    /** Forgets the Threads that died, unless a Capture runs, then it forgets them once it collected their last Scopes.
+     *
+     * @author snoweuph
+     */
+    private static void retireDead(){
+        if(capture != null) return;
+        for(ProfileThread thread : threads){
+            if(!thread.owner.isAlive()) retire(thread);
+        }
+    }
+    static long getRetiredDropped(){
+        return retiredDropped.get();
+    }
+
+    //Setter
+    /** Enables or disables the Profiler, it should only be called between Frames, while no Scope is open.
+     *
+     * @param enabled whether Scopes get measured.
+     *
+     * @author snoweuph
+     */
+    public static void setEnabled(boolean enabled){
+        Profiler.enabled = enabled;
+    }
+    /** Adds a Sink that gets told about every Scope.
+     *
+     * @param sink the Sink.
+     *
+     * @author snoweuph
+     */
+    public static synchronized void addSink(ProfilerSink sink){
+        ProfilerSink[] newSinks = Arrays.copyOf(sinks, sinks.length + 1);
+        newSinks[sinks.length] = sink;
+        sinks = newSinks;
+    }
+    /** Removes a Sink.
+     *
+     * @param sink the Sink.
+     *
+     * @author snoweuph
+     */
+    public static synchronized void removeSink(ProfilerSink sink){
+        ProfilerSink[] newSinks = new ProfilerSink[sinks.length];
+        int count = 0;
+        for(ProfilerSink other : sinks){
+            if(other != sink) newSinks[count++] = other;
+        }
+        sinks = Arrays.copyOf(newSinks, count);
+    }
+
+    //Getter
+    /** @return whether Scopes get measured.
+     *
+     * @author snoweuph
+     */
+    public static boolean isEnabled(){
+        return enabled;
+    }
+    /** @return whether a Capture runs.
+     *
+     * @author snoweuph
+     */
+    public static boolean isCapturing(){
+        return capture != null;
+    }
+}
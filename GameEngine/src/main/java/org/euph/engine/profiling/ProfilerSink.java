@@ -0,0 +1,26 @@
+package org.euph.engine.profiling;
+
+/** Gets told live whenever a {@link ProfileScope} begins or ends, on the Thread that runs it, for example to forward it to an external Profiler.
+ *
+ * @implNote The Calls happen on the hot Path of every profiled Section, so they must not allocate or format Text.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public interface ProfilerSink {
+
+    /** Gets called when a Scope begins.
+     *
+     * @param scope the Scope.
+     *
+     * @author snoweuph
+     */
+    void begin(ProfileScope scope);
+    /** Gets called when a Scope ends, Scopes of one Thread always end in the reverse Order they began.
+     *
+     * @param scope the Scope.
+     *
+     * @author snoweuph
+     */
+    void end(ProfileScope scope);
+}
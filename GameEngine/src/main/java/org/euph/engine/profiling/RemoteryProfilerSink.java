@@ -0,0 +1,68 @@
+package org.euph.engine.profiling;
+
+import org.lwjgl.system.MemoryUtil;
+import org.lwjgl.util.remotery.Remotery;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/** Forwards all {@link ProfileScope Scopes} as CPU Samples to Remotery, so that they show up nested in its Viewer.
+ * Remotery must have a global Instance while this Sink is added to the {@link Profiler}.
+ *
+ * @implNote Every Scope gets its Name encoded once into native Memory, together with the Hash Cache of Remotery,
+ * so beginning a Sample only passes two Pointers. The native Memory lives as long as the Sink, it is freed by {@link #free()}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class RemoteryProfilerSink implements ProfilerSink {
+
+    //The encoded Names and Hash Caches, by the ID of their Scope.
+    private volatile ByteBuffer[] names = new ByteBuffer[0];
+    private volatile IntBuffer[] hashes = new IntBuffer[0];
+
+    @Override
+    public void begin(ProfileScope scope){
+        ByteBuffer[] names = this.names;
+        IntBuffer[] hashes = this.hashes;
+        if(scope.getId() >= names.length || names[scope.getId()] == null){
+            encode(scope);
+            names = this.names;
+            hashes = this.hashes;
+        }
+        Remotery.rmt_BeginCPUSample(names[scope.getId()], Remotery.RMTSF_Aggregate, hashes[scope.getId()]);
+    }
+    @Override
+    public void end(ProfileScope scope){
+        Remotery.rmt_EndCPUSample();
+    }
+    /** Frees the native Memory of all Names, the Sink must not be used anymore afterwards.
+     *
+     * @author snoweuph
+     */
+    public synchronized void free(){
+        for(ByteBuffer name : names) if(name != null) MemoryUtil.memFree(name);
+        for(IntBuffer hash : hashes) if(hash != null) MemoryUtil.memFree(hash);
+        names = new ByteBuffer[0];
+        hashes = new IntBuffer[0];
+    }
+
+    /** Encodes the Name of a Scope the first Time it is seen, this happens once per Scope, from any Thread.
+     *
+     * @param scope the Scope.
+     *
+     * @author snoweuph
+     */
+    private synchronized void encode(ProfileScope scope){
+        int id = scope.getId();
+        if(id < names.length && names[id] != null) return;
+        ByteBuffer[] newNames = Arrays.copyOf(names, Math.max(names.length, id + 1));
+        IntBuffer[] newHashes = Arrays.copyOf(hashes, newNames.length);
+        newNames[id] = MemoryUtil.memUTF8(scope.getName());
+        newHashes[id] = MemoryUtil.memCallocInt(1);
+        //Publish the Hash Caches first, the Names are what the Readers check
+        hashes = newHashes;
+        names = newNames;
+    }
+}
@@ -0,0 +1,475 @@
+package org.euph.engine.renderSystem;
+
+import org.euph.engine.util.ParallelWork;
+import org.joml.FrustumIntersection;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.joml.Vector4f;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** Finds out which of many Objects the Camera can see, so that only those get drawn.
+ * Every Object is a World Space Box or Sphere, identified by its Index. An Object is culled if it is outside of the View Frustum,
+ * farther away than the {@link #setMaxDistance(float) maximum Distance} or smaller on Screen than the {@link #setMinScreenSize(float) minimum Size}.
+ * The Indices of all visible Objects are written into a compact List, in ascending Order.
+ * <pre>{@code
+ * int tree = culler.add(min, max);
+ * culler.cull(projection, view);
+ * for(int i = 0; i < culler.getVisibleCount(); i++) draw(culler.getVisible()[i]);
+ * }</pre>
+ *
+ * @implNote The Objects are kept as packed Arrays of their Centers, Half Extents and Radii, so the Tests run over contiguous Memory.
+ * An Object gets tested against the Planes of the Frustum with its Sphere first, and only if the Sphere touches a Plane with its Box.
+ * The Objects are grouped into Chunks of {@link #CHUNK_SIZE} following Indices, and every Chunk keeps the Box around its Objects and their largest Radius.
+ * With the hierarchical Test, a Chunk outside of the Frustum gets skipped as a whole and a Chunk inside of it skips the Plane Tests of its Objects.
+ * A Chunk is too far away when its Box is farther than the maximum Distance plus the largest Radius, so it never skips an Object the Test of the Object would keep.
+ * That pays off when following Indices are close to each other in the World, like when they are added in the Order of a Grid.
+ * Many Objects are culled in Batches of Chunks on a {@link ForkJoinPool}, the calling Thread takes Batches as well and only waits
+ * for Batches that already run, so culling from a Worker of the same Pool can't dead lock. The Batches are claimed through a {@link ParallelWork},
+ * so a Helper that starts after its Cull ended finds no Batch left, even if the next Cull runs on the calling Thread only.
+ * Each Chunk writes into its own Part of the List, which gets compacted afterwards, so the Result is the same no matter how many Threads helped.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class FrustumCuller {
+
+    //The Amount of following Objects that share one Box for the hierarchical Test.
+    public static final int CHUNK_SIZE = 64;
+    //Below this Amount of Objects the Culling runs on the calling Thread only.
+    private static final int PARALLEL_THRESHOLD = 8192;
+    //The Amount of Batches per Thread of the Pool, so that uneven Batches even out.
+    private static final int BATCHES_PER_THREAD = 4;
+    private static final int INITIAL_CAPACITY = 256;
+    //What the hierarchical Test found out about a Chunk.
+    private static final byte CHUNK_TESTED = 0;
+    private static final byte CHUNK_OUTSIDE = 1;
+    private static final byte CHUNK_INSIDE = 2;
+
+    private final ForkJoinPool pool;
+    //The Objects.
+    private int size = 0;
+    private float[] centerX = new float[INITIAL_CAPACITY];
+    private float[] centerY = new float[INITIAL_CAPACITY];
+    private float[] centerZ = new float[INITIAL_CAPACITY];
+    private float[] extentX = new float[INITIAL_CAPACITY];
+    private float[] extentY = new float[INITIAL_CAPACITY];
+    private float[] extentZ = new float[INITIAL_CAPACITY];
+    private float[] radius = new float[INITIAL_CAPACITY];
+    //The Boxes of the Chunks, rebuilt when an Object of the Chunk changed.
+    private float[] chunkMin = new float[3 * INITIAL_CAPACITY / CHUNK_SIZE];
+    private float[] chunkMax = new float[3 * INITIAL_CAPACITY / CHUNK_SIZE];
+    private float[] chunkRadius = new float[INITIAL_CAPACITY / CHUNK_SIZE];
+    private boolean[] chunkDirty = new boolean[INITIAL_CAPACITY / CHUNK_SIZE];
+    private byte[] chunkStates = new byte[INITIAL_CAPACITY / CHUNK_SIZE];
+    private int[] chunkVisible = new int[INITIAL_CAPACITY / CHUNK_SIZE];
+    //The Result, every Chunk writes into its own Part before it gets compacted.
+    private int[] visible = new int[INITIAL_CAPACITY];
+    private int visibleCount = 0;
+
+    //The Settings.
+    private float maxDistance = 0;
+    private float minScreenSize = 0;
+    private boolean hierarchical = true;
+
+    //The Camera of the current Cull.
+    private final Matrix4f viewProjection = new Matrix4f();
+    private final FrustumIntersection frustum = new FrustumIntersection();
+    private final Vector4f plane = new Vector4f();
+    private final Vector3f camera = new Vector3f();
+    private final float[] planes = new float[24];
+    private float projectionScale;
+
+    //The State of a parallel Cull.
+    private int chunkCount;
+    private int batchCount;
+    private final ParallelWork work = new ParallelWork();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final Runnable helper = this::cullBatches;
+
+    /** Creates a new Culler without any Objects, that culls on the common {@link ForkJoinPool}.
+     *
+     * @author snoweuph
+     */
+    public FrustumCuller(){
+        this(ForkJoinPool.commonPool());
+    }
+    /** Creates a new Culler without any Objects.
+     *
+     * @param pool the Pool many Objects get culled on, or null to always cull on the calling Thread.
+     *
+     * @author snoweuph
+     */
+    public FrustumCuller(ForkJoinPool pool){
+        this.pool = pool;
+    }
+
+    //Objects
+    /** Adds an Object with a Box.
+     *
+     * @param min the lower Corner of the Box in World Space.
+     * @param max the upper Corner of the Box in World Space.
+     * @return the Index of the Object.
+     *
+     * @author snoweuph
+     */
+    public int add(Vector3fc min, Vector3fc max){
+        if(size == centerX.length) grow(size * 2);
+        size++;
+        set(size - 1, min, max);
+        return size - 1;
+    }
+    /** Adds an Object with a Sphere.
+     *
+     * @param center the Center of the Sphere in World Space.
+     * @param radius the Radius of the Sphere.
+     * @return the Index of the Object.
+     *
+     * @author snoweuph
+     */
+    public int addSphere(Vector3fc center, float radius){
+        if(size == centerX.length) grow(size * 2);
+        size++;
+        setSphere(size - 1, center, radius);
+        return size - 1;
+    }
+    /** Moves an Object and gives it a Box.
+     *
+     * @param index the Index of the Object.
+     * @param min the lower Corner of the Box in World Space.
+     * @param max the upper Corner of the Box in World Space.
+     *
+     * @author snoweuph
+     */
+    public void set(int index, Vector3fc min, Vector3fc max){
+        checkIndex(index);
+        extentX[index] = (max.x() - min.x()) * 0.5f;
+        extentY[index] = (max.y() - min.y()) * 0.5f;
+        extentZ[index] = (max.z() - min.z()) * 0.5f;
+        centerX[index] = min.x() + extentX[index];
+        centerY[index] = min.y() + extentY[index];
+        centerZ[index] = min.z() + extentZ[index];
+        radius[index] = (float) Math.sqrt(extentX[index] * extentX[index] + extentY[index] * extentY[index] + extentZ[index] * extentZ[index]);
+        chunkDirty[index / CHUNK_SIZE] = true;
+    }
+    /** Moves an Object and gives it a Sphere.
+     *
+     * @param index the Index of the Object.
+     * @param center the Center of the Sphere in World Space.
+     * @param radius the Radius of the Sphere.
+     *
+     * @author snoweuph
+     */
+    public void setSphere(int index, Vector3fc center, float radius){
+        checkIndex(index);
+        centerX[index] = center.x();
+        centerY[index] = center.y();
+        centerZ[index] = center.z();
+        //The Box around the Sphere, it only gets tested if the Sphere touches a Plane
+        extentX[index] = radius;
+        extentY[index] = radius;
+        extentZ[index] = radius;
+        this.radius[index] = radius;
+        chunkDirty[index / CHUNK_SIZE] = true;
+    }
+    /** Removes an Object by moving the last Object into its Place.
+     *
+     * @param index the Index of the Object.
+     * @return the old Index of the Object that now has the Index, or -1 if the removed Object was the last one.
+     *
+     * @author snoweuph
+     */
+    public int remove(int index){
+        checkIndex(index);
+        int last = size - 1;
+        size--;
+        chunkDirty[last / CHUNK_SIZE] = true;
+        if(index == last) return -1;
+        centerX[index] = centerX[last];
+        centerY[index] = centerY[last];
+        centerZ[index] = centerZ[last];
+        extentX[index] = extentX[last];
+        extentY[index] = extentY[last];
+        extentZ[index] = extentZ[last];
+        radius[index] = radius[last];
+        chunkDirty[index / CHUNK_SIZE] = true;
+        return last;
+    }
+    /** Removes all Objects.
+     *
+     * @author snoweuph
+     */
+    public void clear(){
+        size = 0;
+        visibleCount = 0;
+        chunkCount = 0;
+    }
+
+    //Culling
+    /** Finds all visible Objects, see {@link #getVisible()}.
+     *
+     * @param projection the Projection Matrix of the Camera.
+     * @param view the View Matrix of the Camera.
+     *
+     * @throws RuntimeException if a Batch failed on another Thread.
+     *
+     * @author snoweuph
+     */
+    public void cull(Matrix4fc projection, Matrix4fc view){
+        projection.mul(view, viewProjection);
+        frustum.set(viewProjection, false);
+        for(int i = 0; i < 6; i++){
+            viewProjection.frustumPlane(i, plane);
+            planes[i * 4] = plane.x;
+            planes[i * 4 + 1] = plane.y;
+            planes[i * 4 + 2] = plane.z;
+            planes[i * 4 + 3] = plane.w;
+        }
+        view.origin(camera);
+        projectionScale = projection.m11();
+        chunkCount = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int threads = pool == null ? 1 : pool.getParallelism();
+        batchCount = size < PARALLEL_THRESHOLD || threads <= 1 ? 1 : Math.min(chunkCount, threads * BATCHES_PER_THREAD);
+        if(batchCount == 1){
+            cullChunks(0, chunkCount);
+        }else{
+            failure.set(null);
+            //Publishes the Cull to the Helpers
+            work.start(batchCount);
+            for(int i = 1; i < threads; i++){
+                pool.execute(helper);
+            }
+            cullBatches();
+            //The Helpers still write into the Parts of their Chunks, so an Interrupt can't end the Wait
+            work.await();
+            Throwable cause = failure.get();
+            if(cause != null) throw new RuntimeException("Culling failed", cause);
+        }
+        //Compact the Parts of the Chunks, in the Order of the Chunks
+        visibleCount = 0;
+        for(int chunk = 0; chunk < chunkCount; chunk++){
+            System.arraycopy(visible, chunk * CHUNK_SIZE, visible, visibleCount, chunkVisible[chunk]);
+            visibleCount += chunkVisible[chunk];
+        }
+    }
+    /** Takes Batches until none are left, it runs on the calling Thread and on the Helpers in the Pool.
+     *
+     * @author snoweuph
+     */
+    private void cullBatches(){
+        int batch;
+        while((batch = work.claim()) >= 0){
+            try{
+                cullChunks(chunkCount * batch / batchCount, chunkCount * (batch + 1) / batchCount);
+            }catch (Throwable t){
+                failure.compareAndSet(null, t);
+            }finally{
+                if(work.finish()) work.release();
+            }
+        }
+    }
+    private void cullChunks(int from, int to){
+        for(int chunk = from; chunk < to; chunk++){
+            cullChunk(chunk);
+        }
+    }
+    private void cullChunk(int chunk){
+        int start = chunk * CHUNK_SIZE;
+        int end = Math.min(size, start + CHUNK_SIZE);
+        boolean inside = false;
+        if(hierarchical){
+            if(chunkDirty[chunk]) updateChunk(chunk, start, end);
+            int result = isChunkTooFar(chunk) ? FrustumIntersection.OUTSIDE : frustum.intersectAab(
+                    chunkMin[chunk * 3], chunkMin[chunk * 3 + 1], chunkMin[chunk * 3 + 2],
+                    chunkMax[chunk * 3], chunkMax[chunk * 3 + 1], chunkMax[chunk * 3 + 2]);
+            if(result != FrustumIntersection.INSIDE && result != FrustumIntersection.INTERSECT){
+                chunkStates[chunk] = CHUNK_OUTSIDE;
+                chunkVisible[chunk] = 0;
+                return;
+            }
+            inside = result == FrustumIntersection.INSIDE;
+        }
+        chunkStates[chunk] = inside ? CHUNK_INSIDE : CHUNK_TESTED;
+        float cameraX = camera.x;
+        float cameraY = camera.y;
+        float cameraZ = camera.z;
+        float maxDistance = this.maxDistance;
+        float minScreenSize = this.minScreenSize;
+        //The Radius on Screen is about the Radius times the Projection Scale through the Distance, as a Part of the half Screen Height,
+        //so it is halved for the whole Height, and squared to compare without a Root
+        float sizeFactor = 4 * minScreenSize * minScreenSize / (projectionScale * projectionScale);
+        int out = start;
+        for(int i = start; i < end; i++){
+            float x = centerX[i];
+            float y = centerY[i];
+            float z = centerZ[i];
+            float r = radius[i];
+            if(maxDistance > 0 || minScreenSize > 0){
+                float dx = x - cameraX;
+                float dy = y - cameraY;
+                float dz = z - cameraZ;
+                float distanceSquared = dx * dx + dy * dy + dz * dz;
+                if(maxDistance > 0 && distanceSquared > (maxDistance + r) * (maxDistance + r)) continue;
+                if(minScreenSize > 0 && r * r < sizeFactor * distanceSquared) continue;
+            }
+            if(!inside && !isInFrustum(i, x, y, z, r)) continue;
+            visible[out++] = i;
+        }
+        chunkVisible[chunk] = out - start;
+    }
+    private boolean isInFrustum(int i, float x, float y, float z, float r){
+        boolean touching = false;
+        for(int p = 0; p < 24; p += 4){
+            float distance = planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3];
+            if(distance < -r) return false;
+            if(distance < r) touching = true;
+        }
+        if(!touching) return true;
+        //The Sphere touches a Plane, the Box is tighter
+        for(int p = 0; p < 24; p += 4){
+            float distance = planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3];
+            float reach = Math.abs(planes[p]) * extentX[i] + Math.abs(planes[p + 1]) * extentY[i] + Math.abs(planes[p + 2]) * extentZ[i];
+            if(distance < -reach) return false;
+        }
+        return true;
+    }
+    private boolean isChunkTooFar(int chunk){
+        if(maxDistance <= 0) return false;
+        //The Distance from the Camera to the closest Point of the Box of the Chunk, no Center of its Objects is closer than that
+        float dx = Math.max(0, Math.max(chunkMin[chunk * 3] - camera.x, camera.x - chunkMax[chunk * 3]));
+        float dy = Math.max(0, Math.max(chunkMin[chunk * 3 + 1] - camera.y, camera.y - chunkMax[chunk * 3 + 1]));
+        float dz = Math.max(0, Math.max(chunkMin[chunk * 3 + 2] - camera.z, camera.z - chunkMax[chunk * 3 + 2]));
+        //The Spheres of the Objects can reach past the Box, like the Corners of a Box Object do
+        float reach = maxDistance + chunkRadius[chunk];
+        return dx * dx + dy * dy + dz * dz > reach * reach;
+    }
+    private void updateChunk(int chunk, int start, int end){
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+        float maxRadius = 0;
+        for(int i = start; i < end; i++){
+            maxRadius = Math.max(maxRadius, radius[i]);
+            minX = Math.min(minX, centerX[i] - extentX[i]);
+            minY = Math.min(minY, centerY[i] - extentY[i]);
+            minZ = Math.min(minZ, centerZ[i] - extentZ[i]);
+            maxX = Math.max(maxX, centerX[i] + extentX[i]);
+            maxY = Math.max(maxY, centerY[i] + extentY[i]);
+            maxZ = Math.max(maxZ, centerZ[i] + extentZ[i]);
+        }
+        chunkMin[chunk * 3] = minX;
+        chunkMin[chunk * 3 + 1] = minY;
+        chunkMin[chunk * 3 + 2] = minZ;
+        chunkMax[chunk * 3] = maxX;
+        chunkMax[chunk * 3 + 1] = maxY;
+        chunkMax[chunk * 3 + 2] = maxZ;
+        chunkRadius[chunk] = maxRadius;
+        chunkDirty[chunk] = false;
+    }
+
+    private void grow(int capacity){
+        centerX = Arrays.copyOf(centerX, capacity);
+        centerY = Arrays.copyOf(centerY, capacity);
+        centerZ = Arrays.copyOf(centerZ, capacity);
+        extentX = Arrays.copyOf(extentX, capacity);
+        extentY = Arrays.copyOf(extentY, capacity);
+        extentZ = Arrays.copyOf(extentZ, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        visible = Arrays.copyOf(visible, capacity);
+        int chunks = capacity / CHUNK_SIZE;
+        chunkMin = Arrays.copyOf(chunkMin, chunks * 3);
+        chunkMax = Arrays.copyOf(chunkMax, chunks * 3);
+        chunkRadius = Arrays.copyOf(chunkRadius, chunks);
+        chunkDirty = Arrays.copyOf(chunkDirty, chunks);
+        chunkStates = Arrays.copyOf(chunkStates, chunks);
+        chunkVisible = Arrays.copyOf(chunkVisible, chunks);
+    }
+    private void checkIndex(int index){
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " is out of Bounds for " + size + " Objects");
+    }
+
+    //Setter
+    /** Sets how far away Objects can be seen, measured from the Camera to the closest Point of their Sphere.
+     *
+     * @param maxDistance the Distance, 0 to see Objects at any Distance.
+     * @return this Culler, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public FrustumCuller setMaxDistance(float maxDistance){
+        if(maxDistance < 0) throw new IllegalArgumentException("The maximum Distance can't be negative");
+        this.maxDistance = maxDistance;
+        return this;
+    }
+    /** Sets how big Objects must be on Screen to be seen, Objects smaller than that would only cover a few Pixels.
+     *
+     * @param minScreenSize the Radius of the Sphere on Screen, as a Part of the Screen Height, 0 to see Objects of any Size.
+     * @return this Culler, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public FrustumCuller setMinScreenSize(float minScreenSize){
+        if(minScreenSize < 0) throw new IllegalArgumentException("The minimum Screen Size can't be negative");
+        this.minScreenSize = minScreenSize;
+        return this;
+    }
+    /** Sets whether whole Chunks get tested first, see {@link FrustumCuller}.
+     *
+     * @param hierarchical whether whole Chunks get tested first, the Default.
+     * @return this Culler, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public FrustumCuller setHierarchical(boolean hierarchical){
+        this.hierarchical = hierarchical;
+        return this;
+    }
+
+    //Getter
+    /** @return the Amount of Objects.
+     *
+     * @author snoweuph
+     */
+    public int size(){
+        return size;
+    }
+    /** @return the Indices of the visible Objects of the last {@link #cull(Matrix4fc, Matrix4fc) Cull} in ascending Order,
+     * only the first {@link #getVisibleCount()} Entries are valid. The Array is reused by the next Cull.
+     *
+     * @author snoweuph
+     */
+    public int[] getVisible(){
+        return visible;
+    }
+    /** @return the Amount of visible Objects of the last Cull.
+     *
+     * @author snoweuph
+     */
+    public int getVisibleCount(){
+        return visibleCount;
+    }
+    /** @return the Amount of Chunks the last Cull skipped as a whole, because they were outside of the Frustum or too far away.
+     *
+     * @author snoweuph
+     */
+    public int getSkippedChunks(){
+        return countChunks(CHUNK_OUTSIDE);
+    }
+    /** @return the Amount of Chunks the last Cull found completely inside of the Frustum, their Objects skipped the Plane Tests.
+     *
+     * @author snoweuph
+     */
+    public int getInsideChunks(){
+        return countChunks(CHUNK_INSIDE);
+    }
+    private int countChunks(byte state){
+        int count = 0;
+        for(int chunk = 0; chunk < chunkCount; chunk++){
+            if(chunkStates[chunk] == state) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,153 @@
+package org.euph.engine.renderSystem;
+
+import java.util.Arrays;
+
+/** A {@link RenderBackend} without any GPU, that counts the State Changes and Draws and can record every Call,
+ * so that the Sorting of a {@link RenderCommandQueue} can be tested and benchmarked headless.
+ *
+ * @implNote The recorded Calls are kept as pairs of an Operation and its Argument in a growing long Array, so recording a Frame doesn't create Objects.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class RecordingRenderBackend implements RenderBackend {
+
+    //The Operations of the recorded Calls.
+    public static final int PASS = 0;
+    public static final int SHADER = 1;
+    public static final int MATERIAL = 2;
+    public static final int MESH = 3;
+    public static final int DRAW = 4;
+
+    //Whether the Calls are recorded, or only counted.
+    private final boolean recording;
+    private long[] calls = new long[256];
+    private int callCount = 0;
+    //The Counts of the last Frame.
+    private int passes = 0;
+    private int shaders = 0;
+    private int materials = 0;
+    private int meshes = 0;
+    private int draws = 0;
+    private long frames = 0;
+
+    /** Creates a new Backend that only counts.
+     *
+     * @author snoweuph
+     */
+    public RecordingRenderBackend(){
+        this(false);
+    }
+    /** Creates a new Backend.
+     *
+     * @param recording whether every Call gets recorded, see {@link #getCall(int)}.
+     *
+     * @author snoweuph
+     */
+    public RecordingRenderBackend(boolean recording){
+        this.recording = recording;
+    }
+
+    @Override
+    public void beginFrame(){
+        callCount = 0;
+        passes = 0;
+        shaders = 0;
+        materials = 0;
+        meshes = 0;
+        draws = 0;
+    }
+    @Override
+    public void beginPass(int layer, int pass){
+        passes++;
+        record(PASS, (long) layer << 32 | pass);
+    }
+    @Override
+    public void bindShader(int shader){
+        shaders++;
+        record(SHADER, shader);
+    }
+    @Override
+    public void bindMaterial(int material){
+        materials++;
+        record(MATERIAL, material);
+    }
+    @Override
+    public void bindMesh(int mesh){
+        meshes++;
+        record(MESH, mesh);
+    }
+    @Override
+    public void draw(int instance){
+        draws++;
+        record(DRAW, instance);
+    }
+    @Override
+    public void endFrame(){
+        frames++;
+    }
+
+    private void record(int operation, long argument){
+        if(!recording) return;
+        if(callCount * 2 + 2 > calls.length) calls = Arrays.copyOf(calls, calls.length * 2);
+        calls[callCount * 2] = operation;
+        calls[callCount * 2 + 1] = argument;
+        callCount++;
+    }
+
+    //Getter
+    /** @return the Amount of State Changes of the last Frame, all Passes, Shaders, Materials and Meshes that got bound.
+     *
+     * @author snoweuph
+     */
+    public int getStateChanges(){
+        return passes + shaders + materials + meshes;
+    }
+    public int getPassChanges(){
+        return passes;
+    }
+    public int getShaderChanges(){
+        return shaders;
+    }
+    public int getMaterialChanges(){
+        return materials;
+    }
+    public int getMeshChanges(){
+        return meshes;
+    }
+    public int getDraws(){
+        return draws;
+    }
+    /** @return the Amount of finished Frames.
+     *
+     * @author snoweuph
+     */
+    public long getFrames(){
+        return frames;
+    }
+    /** @return the Amount of Calls recorded in the last Frame, 0 if this Backend only counts.
+     *
+     * @author snoweuph
+     */
+    public int getCallCount(){
+        return callCount;
+    }
+    /** @return the Operation of a recorded Call, one of {@link #PASS}, {@link #SHADER}, {@link #MATERIAL}, {@link #MESH} and {@link #DRAW}.
+     *
+     * @param index the Index of the Call, in the Order they happened.
+     *
+     * @author snoweuph
+     */
+    public int getCall(int index){
+        return (int) calls[index * 2];
+    }
+    /** @return the Argument of a recorded Call, for a Pass the Layer in the high and the Pass in the low 32 Bits.
+     *
+     * @param index the Index of the Call, in the Order they happened.
+     *
+     * @author snoweuph
+     */
+    public long getArgument(int index){
+        return calls[index * 2 + 1];
+    }
+}
@@ -0,0 +1,60 @@
+package org.euph.engine.renderSystem;
+
+/** What the sorted Draws of a {@link RenderCommandQueue} get submitted to, for example OpenGL, or a {@link RecordingRenderBackend} without any GPU.
+ * The Queue only calls a Bind when the State really changes, so a Backend can apply every Call directly.
+ *
+ * @implNote All Calls of a Frame happen on one Thread, between {@link #beginFrame()} and {@link #endFrame()}.
+ * After a Pass change, the Shader, Material and Mesh are bound again, because a Pass may reset the State.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public interface RenderBackend {
+
+    /** Gets called before the first Draw of a Frame.
+     *
+     * @author snoweuph
+     */
+    default void beginFrame(){}
+    /** Switches to another Pass, like another Render Target or Blend Mode.
+     *
+     * @param layer the Layer of the Pass, see {@link SortKey#getLayer(long)}.
+     * @param pass the Pass inside the Layer, see {@link SortKey#getPass(long)}.
+     *
+     * @author snoweuph
+     */
+    void beginPass(int layer, int pass);
+    /** Binds a Shader.
+     *
+     * @param shader the ID of the Shader, see {@link SortKey#getShader(long)}.
+     *
+     * @author snoweuph
+     */
+    void bindShader(int shader);
+    /** Binds a Material, the Textures and Uniforms of the current Shader.
+     *
+     * @param material the ID of the Material, see {@link SortKey#getMaterial(long)}.
+     *
+     * @author snoweuph
+     */
+    void bindMaterial(int material);
+    /** Binds a Mesh, the Vertex and Index Buffers.
+     *
+     * @param mesh the ID of the Mesh.
+     *
+     * @author snoweuph
+     */
+    void bindMesh(int mesh);
+    /** Draws the bound Mesh once.
+     *
+     * @param instance the ID of the Instance Data, like the Slot of its Transform, as submitted with the Draw.
+     *
+     * @author snoweuph
+     */
+    void draw(int instance);
+    /** Gets called after the last Draw of a Frame.
+     *
+     * @author snoweuph
+     */
+    default void endFrame(){}
+}
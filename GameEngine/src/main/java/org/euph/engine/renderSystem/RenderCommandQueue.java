@@ -0,0 +1,319 @@
+package org.euph.engine.renderSystem;
+
+import java.util.Arrays;
+
+import static org.lwjgl.system.MemoryUtil.*;
+
+/** Collects the Draws of a Frame as compact Commands, sorts them by their {@link SortKey} and submits them to a {@link RenderBackend}.
+ * A Command is only its Key, the ID of its Mesh and the ID of its Instance Data, so millions of them fit into a few Megabytes.
+ * <pre>{@code
+ * queue.clear();
+ * queue.submit(SortKey.pack(SortKey.LAYER_WORLD, 0, shader, material, SortKey.depth(distance, far)), mesh, transformSlot);
+ * queue.sort();
+ * queue.flush(backend);
+ * }</pre>
+ * Commands with the same Key keep the Order they were submitted in, so a Frame is always drawn the same Way.
+ *
+ * @implNote All Commands live in Off-Heap Arrays that grow but are never shrunk, so a Frame doesn't allocate once the Queue is big enough.
+ * They get sorted with a stable LSD Radix Sort over the 8 Bytes of the Keys, that moves the Keys and the Indices of their Commands between two Buffers.
+ * All 8 Histograms are built in one Pass over the Keys, and a Byte that is the same for all Keys, like the Layer in most Frames, is skipped.
+ * While flushing, the Queue only binds what differs from the previous Command, so the Backend sees the fewest State Changes the Order allows.
+ * A Queue is not thread safe, it must be freed with {@link #free()}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class RenderCommandQueue {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    //The Radix Sort goes over one Byte of the Key per Pass.
+    private static final int BUCKETS = 256;
+    private static final int PASSES = Long.BYTES;
+
+    private int capacity = 0;
+    private int size = 0;
+    //The Commands in the Order they were submitted.
+    private long keys;
+    private long meshes;
+    private long instances;
+    //The two Buffers of the Sort, each holding Keys and the Indices of their Commands.
+    private int sortCapacity = 0;
+    private long keysA;
+    private long indicesA;
+    private long keysB;
+    private long indicesB;
+    //Where the sorted Keys and Indices are, one of the two Buffers, or 0 if the Queue changed since the last Sort.
+    private long sortedKeys = NULL;
+    private long sortedIndices = NULL;
+    //The Scratch Space of the Sort.
+    private final int[] histograms = new int[PASSES * BUCKETS];
+    private boolean freed = false;
+
+    /** Creates a new empty Queue.
+     *
+     * @author snoweuph
+     */
+    public RenderCommandQueue(){
+        grow(INITIAL_CAPACITY);
+    }
+
+    /** Adds a Draw.
+     *
+     * @param key the Key that decides the Order and the State of the Draw, see {@link SortKey#pack(int, int, int, int, int)}.
+     * @param mesh the ID of the Mesh to draw.
+     * @param instance the ID of the Instance Data, like the Slot of its Transform.
+     *
+     * @author snoweuph
+     */
+    public void submit(long key, int mesh, int instance){
+        if(size == capacity) grow(capacity * 2);
+        memPutLong(keys + (long) size * Long.BYTES, key);
+        memPutInt(meshes + (long) size * Integer.BYTES, mesh);
+        memPutInt(instances + (long) size * Integer.BYTES, instance);
+        size++;
+        sortedKeys = NULL;
+    }
+    /** Adds all Commands of another Queue after the Commands of this one, in their Submission Order.
+     *
+     * @param other the other Queue, it stays unchanged.
+     *
+     * @author snoweuph
+     */
+    public void append(RenderCommandQueue other){
+        ensureAlive();
+        if(other.size == 0) return;
+        int newSize = size + other.size;
+        if(newSize > capacity) grow(Math.max(newSize, capacity * 2));
+        memCopy(other.keys, keys + (long) size * Long.BYTES, (long) other.size * Long.BYTES);
+        memCopy(other.meshes, meshes + (long) size * Integer.BYTES, (long) other.size * Integer.BYTES);
+        memCopy(other.instances, instances + (long) size * Integer.BYTES, (long) other.size * Integer.BYTES);
+        size = newSize;
+        sortedKeys = NULL;
+    }
+    /** Removes all Commands, for the next Frame.
+     *
+     * @author snoweuph
+     */
+    public void clear(){
+        size = 0;
+        sortedKeys = NULL;
+    }
+
+    /** Sorts the Commands by their Keys, compared unsigned. Commands with the same Key keep the Order they were submitted in.
+     *
+     * @author snoweuph
+     */
+    public void sort(){
+        ensureAlive();
+        if(sortCapacity < capacity){
+            keysA = nmemReallocChecked(keysA, (long) capacity * Long.BYTES);
+            indicesA = nmemReallocChecked(indicesA, (long) capacity * Integer.BYTES);
+            keysB = nmemReallocChecked(keysB, (long) capacity * Long.BYTES);
+            indicesB = nmemReallocChecked(indicesB, (long) capacity * Integer.BYTES);
+            sortCapacity = capacity;
+        }
+        //Count all Bytes of all Keys at once
+        Arrays.fill(histograms, 0);
+        for(int i = 0; i < size; i++){
+            long key = memGetLong(keys + (long) i * Long.BYTES);
+            for(int pass = 0; pass < PASSES; pass++){
+                histograms[pass * BUCKETS + (int) (key >>> (pass * 8) & 0xFF)]++;
+            }
+        }
+        //The first Pass reads the Commands in Submission Order, the others go back and forth between the two Buffers
+        long sourceKeys = keys;
+        long sourceIndices = NULL;
+        long targetKeys = keysA;
+        long targetIndices = indicesA;
+        for(int pass = 0; pass < PASSES; pass++){
+            int offset = pass * BUCKETS;
+            int shift = pass * 8;
+            //All Keys have the same Byte here, the Pass wouldn't change the Order
+            if(size == 0 || histograms[offset + (int) (memGetLong(keys) >>> shift & 0xFF)] == size) continue;
+            int sum = 0;
+            for(int bucket = 0; bucket < BUCKETS; bucket++){
+                int count = histograms[offset + bucket];
+                histograms[offset + bucket] = sum;
+                sum += count;
+            }
+            for(int i = 0; i < size; i++){
+                long key = memGetLong(sourceKeys + (long) i * Long.BYTES);
+                int index = sourceIndices == NULL ? i : memGetInt(sourceIndices + (long) i * Integer.BYTES);
+                int position = histograms[offset + (int) (key >>> shift & 0xFF)]++;
+                memPutLong(targetKeys + (long) position * Long.BYTES, key);
+                memPutInt(targetIndices + (long) position * Integer.BYTES, index);
+            }
+            sourceKeys = targetKeys;
+            sourceIndices = targetIndices;
+            targetKeys = targetKeys == keysA ? keysB : keysA;
+            targetIndices = targetIndices == indicesA ? indicesB : indicesA;
+        }
+        //No Pass changed anything, all Keys are equal
+        if(sourceIndices == NULL){
+            memCopy(keys, keysA, (long) size * Long.BYTES);
+            for(int i = 0; i < size; i++){
+                memPutInt(indicesA + (long) i * Integer.BYTES, i);
+            }
+            sourceKeys = keysA;
+            sourceIndices = indicesA;
+        }
+        sortedKeys = sourceKeys;
+        sortedIndices = sourceIndices;
+    }
+    /** Submits all Commands in sorted Order to a Backend, it sorts them first if they changed since the last {@link #sort()}.
+     * Only the State that differs from the previous Command gets bound.
+     *
+     * @param backend the Backend.
+     *
+     * @author snoweuph
+     */
+    public void flush(RenderBackend backend){
+        if(sortedKeys == NULL) sort();
+        backend.beginFrame();
+        int layer = -1;
+        int pass = -1;
+        int shader = -1;
+        int material = -1;
+        int mesh = -1;
+        for(int i = 0; i < size; i++){
+            long key = memGetLong(sortedKeys + (long) i * Long.BYTES);
+            int command = memGetInt(sortedIndices + (long) i * Integer.BYTES);
+            int nextLayer = SortKey.getLayer(key);
+            int nextPass = SortKey.getPass(key);
+            if(nextLayer != layer || nextPass != pass){
+                backend.beginPass(nextLayer, nextPass);
+                layer = nextLayer;
+                pass = nextPass;
+                //A Pass may reset all State
+                shader = -1;
+                material = -1;
+                mesh = -1;
+            }
+            int nextShader = SortKey.getShader(key);
+            if(nextShader != shader){
+                backend.bindShader(nextShader);
+                shader = nextShader;
+                //The Uniforms of a Material belong to the Shader
+                material = -1;
+            }
+            int nextMaterial = SortKey.getMaterial(key);
+            if(nextMaterial != material){
+                backend.bindMaterial(nextMaterial);
+                material = nextMaterial;
+            }
+            int nextMesh = memGetInt(meshes + (long) command * Integer.BYTES);
+            if(nextMesh != mesh){
+                backend.bindMesh(nextMesh);
+                mesh = nextMesh;
+            }
+            backend.draw(memGetInt(instances + (long) command * Integer.BYTES));
+        }
+        backend.endFrame();
+    }
+    /** Frees the Off-Heap Memory, the Queue must not be used anymore afterwards.
+     *
+     * @author snoweuph
+     */
+    public void free(){
+        if(freed) return;
+        freed = true;
+        nmemFree(keys);
+        nmemFree(meshes);
+        nmemFree(instances);
+        nmemFree(keysA);
+        nmemFree(indicesA);
+        nmemFree(keysB);
+        nmemFree(indicesB);
+        size = 0;
+        capacity = 0;
+        sortCapacity = 0;
+        sortedKeys = NULL;
+    }
+
+    private void grow(int newCapacity){
+        ensureAlive();
+        keys = nmemReallocChecked(keys, (long) newCapacity * Long.BYTES);
+        meshes = nmemReallocChecked(meshes, (long) newCapacity * Integer.BYTES);
+        instances = nmemReallocChecked(instances, (long) newCapacity * Integer.BYTES);
+        capacity = newCapacity;
+    }
+    private void ensureAlive(){
+        if(freed) throw new IllegalStateException("The Queue was freed");
+    }
+
+    //Getter
+    /** @return the Amount of Commands.
+     *
+     * @author snoweuph
+     */
+    public int size(){
+        return size;
+    }
+    /** @return whether the Commands are sorted, false if Commands were submitted since the last {@link #sort()}.
+     *
+     * @author snoweuph
+     */
+    public boolean isSorted(){
+        return sortedKeys != NULL;
+    }
+    /** @return the Key of a Command in sorted Order.
+     *
+     * @param index the Position in sorted Order.
+     *
+     * @throws IllegalStateException if the Commands aren't sorted.
+     *
+     * @author snoweuph
+     */
+    public long getSortedKey(int index){
+        return memGetLong(checkSorted(index) + (long) index * Long.BYTES);
+    }
+    /** @return the Index of a Command in Submission Order, by its Position in sorted Order.
+     *
+     * @param index the Position in sorted Order.
+     *
+     * @throws IllegalStateException if the Commands aren't sorted.
+     *
+     * @author snoweuph
+     */
+    public int getSortedCommand(int index){
+        checkSorted(index);
+        return memGetInt(sortedIndices + (long) index * Integer.BYTES);
+    }
+    /** @return the Key of a Command.
+     *
+     * @param command the Index of the Command in Submission Order.
+     *
+     * @author snoweuph
+     */
+    public long getKey(int command){
+        return memGetLong(keys + (long) checkIndex(command) * Long.BYTES);
+    }
+    /** @return the Mesh of a Command.
+     *
+     * @param command the Index of the Command in Submission Order.
+     *
+     * @author snoweuph
+     */
+    public int getMesh(int command){
+        return memGetInt(meshes + (long) checkIndex(command) * Integer.BYTES);
+    }
+    /** @return the Instance of a Command.
+     *
+     * @param command the Index of the Command in Submission Order.
+     *
+     * @author snoweuph
+     */
+    public int getInstance(int command){
+        return memGetInt(instances + (long) checkIndex(command) * Integer.BYTES);
+    }
+
+    private int checkIndex(int index){
+        if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + " is out of Bounds for " + size + " Commands");
+        return index;
+    }
+    private long checkSorted(int index){
+        if(sortedKeys == NULL) throw new IllegalStateException("The Commands aren't sorted");
+        checkIndex(index);
+        return sortedKeys;
+    }
+}
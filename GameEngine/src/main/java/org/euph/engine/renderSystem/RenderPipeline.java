@@ -1,4 +1,149 @@
 package org.euph.engine.renderSystem;
 
+import org.euph.engine.profiling.ProfileScope;
+import org.euph.engine.profiling.Profiler;
+
+import java.util.Arrays;
+
+/** A Part of the Rendering, like the 3D Scene, the Terrain or the UI, that runs a fixed Sequence of named {@link RenderStage Stages} every Frame.
+ * The Stages get added once, usually in the Constructor of the Pipeline. They don't draw themselves, they {@link #submit(long, int, int) submit}
+ * Draws to a {@link RenderCommandQueue} of this Pipeline, which the {@link RenderSystem} merges with the Queues of all other Pipelines and sorts.
+ *
+ * @implNote The {@link RenderSystem} records all Pipelines at the same Time on Worker Threads, so the Stages of a Pipeline must only touch State
+ * of their own, or State that doesn't change while rendering. One Pipeline never runs on two Threads at once, so its own Queue needs no Lock.
+ * The whole Pipeline and every Stage run inside a {@link ProfileScope}, named after the Pipeline and {@code Pipeline.stage},
+ * so they show up nested in the {@link Profiler} without any Code in the Stages. The Scopes are created when the Stages get added.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
 abstract public class RenderPipeline {
+
+    private final ProfileScope scope;
+    //The Stages in the Order they run, and their Names and Scopes at the same Index.
+    private RenderStage[] stages = new RenderStage[0];
+    private String[] stageNames = new String[0];
+    private ProfileScope[] stageScopes = new ProfileScope[0];
+    //The Queue this Pipeline records into, owned by the RenderSystem it belongs to.
+    private RenderCommandQueue queue;
+
+    /** Creates a new Pipeline without any Stages.
+     *
+     * @author snoweuph
+     */
+    protected RenderPipeline(){
+        scope = Profiler.scope(getName());
+    }
+
+    /** Runs all Stages once, in the Order they were added.
+     *
+     * @param alpha how far the real Time is between the last and the next Simulation Step, from 0 to below 1.
+     *
+     * @author snoweuph
+     */
+    public final void render(float alpha){
+        Profiler.begin(scope);
+        try{
+            for(int stage = 0; stage < stages.length; stage++){
+                Profiler.begin(stageScopes[stage]);
+                try{
+                    stages[stage].run(alpha);
+                }finally{
+                    Profiler.end(stageScopes[stage]);
+                }
+            }
+        }finally{
+            Profiler.end(scope);
+        }
+    }
+
+    /** Adds a Draw to the Queue of this Pipeline, a shorthand for {@link RenderCommandQueue#submit(long, int, int)}.
+     *
+     * @param key the Key that decides the Order and the State of the Draw, see {@link SortKey#pack(int, int, int, int, int)}.
+     * @param mesh the ID of the Mesh to draw.
+     * @param instance the ID of the Instance Data, like the Slot of its Transform.
+     *
+     * @throws IllegalStateException if this Pipeline isn't part of a {@link RenderSystem}.
+     *
+     * @author snoweuph
+     */
+    protected final void submit(long key, int mesh, int instance){
+        getQueue().submit(key, mesh, instance);
+    }
+    /** @return the Queue this Pipeline records into, it gets cleared before every Frame.
+     *
+     * @throws IllegalStateException if this Pipeline isn't part of a {@link RenderSystem}.
+     *
+     * @author snoweuph
+     */
+    protected RenderCommandQueue getQueue(){
+        if(queue == null) throw new IllegalStateException("The Pipeline " + getName() + " isn't part of a RenderSystem");
+        return queue;
+    }
+    /** Sets the Queue the Draws get recorded into, it gets called by the {@link RenderSystem} this Pipeline gets added to.
+     *
+     * @param queue the Queue, or null if the Pipeline got removed.
+     *
+     * @author snoweuph
+     */
+    void setQueue(RenderCommandQueue queue){
+        this.queue = queue;
+    }
+    /** @return whether this Pipeline belongs to a {@link RenderSystem}.
+     *
+     * @author snoweuph
+     */
+    boolean isAttached(){
+        return queue != null;
+    }
+
+    /** Adds a Stage after all others.
+     *
+     * @param name the Name of the Stage, unique inside this Pipeline.
+     * @param stage the Stage.
+     * @return this Pipeline, so that functions can be stacked.
+     *
+     * @throws IllegalArgumentException if the Pipeline already has a Stage with that Name.
+     *
+     * @author snoweuph
+     */
+    protected final RenderPipeline addStage(String name, RenderStage stage){
+        for(String other : stageNames){
+            if(other.equals(name)) throw new IllegalArgumentException("The Pipeline " + getName() + " already has a Stage " + name);
+        }
+        int count = stages.length;
+        stages = Arrays.copyOf(stages, count + 1);
+        stageNames = Arrays.copyOf(stageNames, count + 1);
+        stageScopes = Arrays.copyOf(stageScopes, count + 1);
+        stages[count] = stage;
+        stageNames[count] = name;
+        stageScopes[count] = Profiler.scope(getName() + "." + name);
+        return this;
+    }
+
+    //Getter
+    /** @return the Name of this Pipeline, as shown by Profilers. By default it is the Name of its Class.
+     *
+     * @author snoweuph
+     */
+    public String getName(){
+        String name = getClass().getSimpleName();
+        return name.isEmpty() ? getClass().getName() : name;
+    }
+    /** @return the Amount of Stages.
+     *
+     * @author snoweuph
+     */
+    public int getStageCount(){
+        return stages.length;
+    }
+    /** @return the Name of a Stage.
+     *
+     * @param index the Index of the Stage, in the Order they run.
+     *
+     * @author snoweuph
+     */
+    public String getStageName(int index){
+        return stageNames[index];
+    }
 }
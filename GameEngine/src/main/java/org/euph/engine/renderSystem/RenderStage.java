@@ -0,0 +1,18 @@
+package org.euph.engine.renderSystem;
+
+/** One Step of a {@link RenderPipeline}, like Culling, Recording the Draw Commands or a Post Processing Pass.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RenderStage {
+
+    /** Runs the Stage once for a Frame.
+     *
+     * @param alpha how far the real Time is between the last and the next Simulation Step, from 0 to below 1.
+     *
+     * @author snoweuph
+     */
+    void run(float alpha);
+}
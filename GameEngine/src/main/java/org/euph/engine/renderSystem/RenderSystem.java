@@ -1,4 +1,294 @@
 package org.euph.engine.renderSystem;
 
+import org.euph.engine.profiling.ProfileScope;
+import org.euph.engine.profiling.Profiler;
+import org.euph.engine.util.ParallelWork;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** Renders a Frame: all its {@link RenderPipeline RenderPipelines} record their Draws at the same Time on a {@link ForkJoinPool},
+ * then the Draws get merged into one {@link RenderCommandQueue}, sorted by their {@link SortKey SortKeys} and submitted to the {@link RenderBackend}
+ * on the Thread that calls {@link #render(float)}, usually the one that owns the GL Context.
+ * Sorting the Draws of all Pipelines together lets the Backend draw everything with the fewest State Changes.
+ * <pre>{@code
+ * RenderSystem renderer = new RenderSystem(backend).addPipeline(new RenderPipeline3d()).addPipeline(new UIRenderPipeline()).setPipelined(true);
+ * renderer.render(alpha);
+ * }</pre>
+ * Pipelined, the Draws of a Frame get submitted during the next {@link #render(float)}, while the Pipelines already record the Frame after it.
+ * That hides the Submission behind the Recording, for one Frame of Latency. {@link #finish()} submits the last recorded Frame.
+ *
+ * @implNote Every Pipeline records into a Queue of its own, and the Queues are merged in the Order the Pipelines were added,
+ * by the Thread that finishes last, which also sorts the merged Queue. The Sort is stable, so the submitted Order never depends on which Thread was faster.
+ * The Pipelines get claimed one by one through a {@link ParallelWork}, by Helpers on the Pool and by the calling Thread, which records all Pipelines no Helper took yet
+ * and then parks until the last one got merged. So a busy Pool can't stall the Frame, and no Latch gets allocated per Frame.
+ * There are two merged Queues, one is recorded while the other one gets submitted.
+ * The whole Frame runs inside a {@link ProfileScope}, the Pipelines and their Stages, the Merge, the Sort and the Submission nest inside of it.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
 public class RenderSystem {
+
+    private static final ProfileScope SCOPE = Profiler.scope("RenderSystem");
+    private static final ProfileScope MERGE_SCOPE = Profiler.scope("RenderSystem.merge");
+    private static final ProfileScope SORT_SCOPE = Profiler.scope("RenderSystem.sort");
+    private static final ProfileScope SUBMIT_SCOPE = Profiler.scope("RenderSystem.submit");
+    private static final ProfileScope WAIT_SCOPE = Profiler.scope("RenderSystem.wait");
+
+    private final RenderBackend backend;
+    private final ForkJoinPool pool;
+    private final List<RenderPipeline> pipelines = new ArrayList<>();
+    private boolean pipelined = false;
+
+    //The two merged Queues, one gets recorded while the other one gets submitted.
+    private final RenderCommandQueue[] frames = {new RenderCommandQueue(), new RenderCommandQueue()};
+    private int recording = 0;
+    private int lastRecorded = 0;
+    //Whether the Queue that isn't recorded holds a Frame that wasn't submitted yet.
+    private boolean pending = false;
+
+    //The State of the current Recording.
+    private float alpha;
+    private final ParallelWork work = new ParallelWork();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final Runnable helper = this::recordPipelines;
+
+    /** Creates a new RenderSystem without any Pipelines, that records on the common {@link ForkJoinPool}.
+     *
+     * @param backend what the sorted Draws get submitted to.
+     *
+     * @author snoweuph
+     */
+    public RenderSystem(RenderBackend backend){
+        this(backend, ForkJoinPool.commonPool());
+    }
+    /** Creates a new RenderSystem without any Pipelines.
+     *
+     * @param backend what the sorted Draws get submitted to.
+     * @param pool the Pool the Pipelines record on, next to the calling Thread.
+     *
+     * @author snoweuph
+     */
+    public RenderSystem(RenderBackend backend, ForkJoinPool pool){
+        this.backend = backend;
+        this.pool = pool;
+    }
+
+    /** Renders a Frame. Pipelined, it submits the Frame recorded by the last Call, else the Frame recorded by this Call.
+     *
+     * @param alpha how far the real Time is between the last and the next Simulation Step, from 0 to below 1.
+     *
+     * @throws RuntimeException if a Pipeline failed, the first Failure is rethrown after all other Pipelines finished.
+     *
+     * @author snoweuph
+     */
+    public void render(float alpha){
+        Profiler.begin(SCOPE);
+        try{
+            startRecording(alpha);
+            //Submit the last Frame while the Workers record this one
+            if(pending){
+                submit(frames[1 - recording]);
+                pending = false;
+            }
+            awaitRecording();
+            lastRecorded = recording;
+            if(pipelined){
+                pending = true;
+                recording = 1 - recording;
+            }else{
+                submit(frames[recording]);
+            }
+        }finally{
+            Profiler.end(SCOPE);
+        }
+    }
+    /** Submits the last recorded Frame, if it wasn't yet, for example before closing the Window while pipelined.
+     *
+     * @author snoweuph
+     */
+    public void finish(){
+        if(!pending) return;
+        Profiler.begin(SCOPE);
+        try{
+            submit(frames[1 - recording]);
+            pending = false;
+        }finally{
+            Profiler.end(SCOPE);
+        }
+    }
+    /** Frees all Queues, the RenderSystem must not be used anymore afterwards.
+     *
+     * @author snoweuph
+     */
+    public void free(){
+        for(RenderPipeline pipeline : pipelines){
+            pipeline.getQueue().free();
+            pipeline.setQueue(null);
+        }
+        pipelines.clear();
+        frames[0].free();
+        frames[1].free();
+        pending = false;
+    }
+
+    //Recording
+    private void startRecording(float alpha){
+        this.alpha = alpha;
+        failure.set(null);
+        int count = pipelines.size();
+        //Publishes the Frame to the Helpers
+        work.start(count);
+        if(count == 0){
+            merge();
+            return;
+        }
+        //The calling Thread records too, unless it submits the last Frame first
+        int helpers = Math.min(pending ? count : count - 1, pool.getParallelism());
+        for(int i = 0; i < helpers; i++){
+            pool.execute(helper);
+        }
+    }
+    private void awaitRecording(){
+        recordPipelines();
+        Profiler.begin(WAIT_SCOPE);
+        work.await();
+        Profiler.end(WAIT_SCOPE);
+        Throwable cause = failure.get();
+        if(cause != null) throw new RuntimeException("A Pipeline failed while recording", cause);
+    }
+    /** Records Pipelines until none are left, it runs on the calling Thread and on the Helpers in the Pool.
+     *
+     * @author snoweuph
+     */
+    private void recordPipelines(){
+        int next;
+        while((next = work.claim()) >= 0){
+            record(next);
+        }
+    }
+    private void record(int index){
+        try{
+            RenderPipeline pipeline = pipelines.get(index);
+            pipeline.getQueue().clear();
+            pipeline.render(alpha);
+        }catch (Throwable t){
+            failure.compareAndSet(null, t);
+        }
+        //The last Pipeline to finish merges all of them
+        if(work.finish()) merge();
+    }
+    /** Merges the Queues of all Pipelines in their Order and sorts the Result, then releases the Thread that waits for the Recording.
+     *
+     * @author snoweuph
+     */
+    private void merge(){
+        try{
+            RenderCommandQueue frame = frames[recording];
+            Profiler.begin(MERGE_SCOPE);
+            frame.clear();
+            for(int i = 0; i < pipelines.size(); i++){
+                frame.append(pipelines.get(i).getQueue());
+            }
+            Profiler.end(MERGE_SCOPE);
+            Profiler.begin(SORT_SCOPE);
+            frame.sort();
+            Profiler.end(SORT_SCOPE);
+        }catch (Throwable t){
+            failure.compareAndSet(null, t);
+        }finally{
+            work.release();
+        }
+    }
+    private void submit(RenderCommandQueue frame){
+        Profiler.begin(SUBMIT_SCOPE);
+        try{
+            frame.flush(backend);
+        }finally{
+            Profiler.end(SUBMIT_SCOPE);
+        }
+    }
+
+    //Setter
+    /** Adds a Pipeline after all others, its Draws come first when their Keys are equal to the Draws of later Pipelines.
+     *
+     * @param pipeline the Pipeline.
+     * @return this RenderSystem, so that functions can be stacked.
+     *
+     * @throws IllegalArgumentException if the Pipeline already belongs to a RenderSystem.
+     *
+     * @author snoweuph
+     */
+    public RenderSystem addPipeline(RenderPipeline pipeline){
+        if(pipeline.isAttached()) throw new IllegalArgumentException("The Pipeline " + pipeline.getName() + " already belongs to a RenderSystem");
+        pipeline.setQueue(new RenderCommandQueue());
+        pipelines.add(pipeline);
+        return this;
+    }
+    /** Removes a Pipeline.
+     *
+     * @param pipeline the Pipeline.
+     * @return this RenderSystem, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public RenderSystem removePipeline(RenderPipeline pipeline){
+        if(pipelines.remove(pipeline)){
+            pipeline.getQueue().free();
+            pipeline.setQueue(null);
+        }
+        return this;
+    }
+    /** Sets whether a Frame gets submitted while the next one is recorded.
+     *
+     * @param pipelined whether the Submission overlaps the Recording of the next Frame, for one Frame of Latency.
+     * @return this RenderSystem, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public RenderSystem setPipelined(boolean pipelined){
+        this.pipelined = pipelined;
+        return this;
+    }
+
+    //Getter
+    /** @return all Pipelines in the Order they run.
+     *
+     * @author snoweuph
+     */
+    public List<RenderPipeline> getPipelines(){
+        return Collections.unmodifiableList(pipelines);
+    }
+    /** @return the merged and sorted Queue of the last recorded Frame.
+     *
+     * @author snoweuph
+     */
+    public RenderCommandQueue getQueue(){
+        return frames[lastRecorded];
+    }
+    /** @return what the sorted Draws get submitted to.
+     *
+     * @author snoweuph
+     */
+    public RenderBackend getBackend(){
+        return backend;
+    }
+    /** @return whether a Frame gets submitted while the next one is recorded.
+     *
+     * @author snoweuph
+     */
+    public boolean isPipelined(){
+        return pipelined;
+    }
+    /** @return whether a recorded Frame waits to be submitted.
+     *
+     * @author snoweuph
+     */
+    public boolean isPending(){
+        return pending;
+    }
 }
@@ -0,0 +1,104 @@
+package org.euph.engine.renderSystem;
+
+/** Packs everything that decides the Order of a Draw into one 64 bit Key, so that sorting the Draws of a Frame is sorting Numbers.
+ * From the highest to the lowest Bits the Key holds the Layer, the Pass, the Shader, the Material and the Depth,
+ * so the sorted Draws are grouped by Layer and Pass first, and switch the Shader as rarely as possible, then the Material.
+ * <pre>{@code
+ * long key = SortKey.pack(SortKey.LAYER_WORLD, PASS_OPAQUE, shader, material, SortKey.depth(distance, far));
+ * }</pre>
+ * The Key is compared unsigned, see {@link Long#compareUnsigned(long, long)}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class SortKey {
+
+    //The Width of each Part in Bits.
+    public static final int LAYER_BITS = 4;
+    public static final int PASS_BITS = 4;
+    public static final int SHADER_BITS = 12;
+    public static final int MATERIAL_BITS = 20;
+    public static final int DEPTH_BITS = 24;
+    //Where each Part starts.
+    private static final int DEPTH_SHIFT = 0;
+    private static final int MATERIAL_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+    private static final int SHADER_SHIFT = MATERIAL_SHIFT + MATERIAL_BITS;
+    private static final int PASS_SHIFT = SHADER_SHIFT + SHADER_BITS;
+    private static final int LAYER_SHIFT = PASS_SHIFT + PASS_BITS;
+    //The highest Value of each Part.
+    public static final int MAX_LAYER = (1 << LAYER_BITS) - 1;
+    public static final int MAX_PASS = (1 << PASS_BITS) - 1;
+    public static final int MAX_SHADER = (1 << SHADER_BITS) - 1;
+    public static final int MAX_MATERIAL = (1 << MATERIAL_BITS) - 1;
+    public static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+
+    //Common Layers, lower Layers are drawn first.
+    public static final int LAYER_WORLD = 0;
+    public static final int LAYER_EFFECTS = 8;
+    public static final int LAYER_UI = 14;
+
+    private SortKey(){}
+
+    /** Packs a Key.
+     *
+     * @param layer the Layer, from 0 to {@link #MAX_LAYER}.
+     * @param pass the Pass inside the Layer, from 0 to {@link #MAX_PASS}.
+     * @param shader the ID of the Shader, from 0 to {@link #MAX_SHADER}.
+     * @param material the ID of the Material, from 0 to {@link #MAX_MATERIAL}.
+     * @param depth the quantized Depth, from 0 to {@link #MAX_DEPTH}, see {@link #depth(float, float)}.
+     * @return the Key.
+     *
+     * @throws IllegalArgumentException if a Part is out of its Range.
+     *
+     * @author snoweuph
+     */
+    public static long pack(int layer, int pass, int shader, int material, int depth){
+        if((layer & ~MAX_LAYER) != 0 || (pass & ~MAX_PASS) != 0 || (shader & ~MAX_SHADER) != 0 || (material & ~MAX_MATERIAL) != 0 || (depth & ~MAX_DEPTH) != 0){
+            throw new IllegalArgumentException("A Part of the Sort Key is out of Range: layer " + layer + ", pass " + pass + ", shader " + shader + ", material " + material + ", depth " + depth);
+        }
+        return (long) layer << LAYER_SHIFT
+                | (long) pass << PASS_SHIFT
+                | (long) shader << SHADER_SHIFT
+                | (long) material << MATERIAL_SHIFT
+                | (long) depth << DEPTH_SHIFT;
+    }
+    /** @return a Distance quantized into the Depth of a Key, so that closer Draws come first, for opaque Geometry that should fill the Depth Buffer front to back.
+     *
+     * @param distance the Distance to the Camera.
+     * @param far the farthest Distance, everything behind it gets the highest Depth.
+     *
+     * @author snoweuph
+     */
+    public static int depth(float distance, float far){
+        if(!(distance > 0)) return 0;
+        if(distance >= far) return MAX_DEPTH;
+        return (int) (distance / far * MAX_DEPTH);
+    }
+    /** @return a Distance quantized into the Depth of a Key, so that farther Draws come first, for transparent Geometry that must be blended back to front.
+     *
+     * @param distance the Distance to the Camera.
+     * @param far the farthest Distance, everything behind it gets the lowest Depth.
+     *
+     * @author snoweuph
+     */
+    public static int depthBackToFront(float distance, float far){
+        return MAX_DEPTH - depth(distance, far);
+    }
+
+    //Unpacking
+    public static int getLayer(long key){
+        return (int) (key >>> LAYER_SHIFT) & MAX_LAYER;
+    }
+    public static int getPass(long key){
+        return (int) (key >>> PASS_SHIFT) & MAX_PASS;
+    }
+    public static int getShader(long key){
+        return (int) (key >>> SHADER_SHIFT) & MAX_SHADER;
+    }
+    public static int getMaterial(long key){
+        return (int) (key >>> MATERIAL_SHIFT) & MAX_MATERIAL;
+    }
+    public static int getDepth(long key){
+        return (int) (key >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+}
@@ -1,6 +1,65 @@
 package org.euph.engine.renderSystem.pipelines;
 
+import org.euph.engine.renderSystem.FrustumCuller;
 import org.euph.engine.renderSystem.RenderPipeline;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fc;
 
+/** Renders the 3D Scene. Its first Stage, {@code cull}, finds the Objects of its {@link FrustumCuller} the Camera can see,
+ * so that later Stages only draw {@link FrustumCuller#getVisible() those}.
+ *
+ * @implNote The Camera gets copied by {@link #setCamera(Matrix4fc, Matrix4fc)}, so it can be set for the next Frame while this one still records.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
 public class RenderPipeline3d extends RenderPipeline {
+
+    private final FrustumCuller culler = new FrustumCuller();
+    //The Camera the next Frame gets culled with.
+    private final Matrix4f projection = new Matrix4f();
+    private final Matrix4f view = new Matrix4f();
+    private final Matrix4f nextProjection = new Matrix4f();
+    private final Matrix4f nextView = new Matrix4f();
+    private final Object cameraLock = new Object();
+
+    /** Creates a new 3D Pipeline, with an identity Camera until {@link #setCamera(Matrix4fc, Matrix4fc)} gets called.
+     *
+     * @author snoweuph
+     */
+    public RenderPipeline3d(){
+        addStage("cull", alpha -> {
+            synchronized(cameraLock){
+                projection.set(nextProjection);
+                view.set(nextView);
+            }
+            culler.cull(projection, view);
+        });
+    }
+
+    //Setter
+    /** Sets the Camera, it is used from the next Frame that starts recording.
+     *
+     * @param projection the Projection Matrix of the Camera.
+     * @param view the View Matrix of the Camera.
+     * @return this Pipeline, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public RenderPipeline3d setCamera(Matrix4fc projection, Matrix4fc view){
+        synchronized(cameraLock){
+            nextProjection.set(projection);
+            nextView.set(view);
+        }
+        return this;
+    }
+
+    //Getter
+    /** @return the Culler that holds the Bounds of all Objects of the Scene, and the visible ones after the {@code cull} Stage.
+     *
+     * @author snoweuph
+     */
+    public FrustumCuller getCuller(){
+        return culler;
+    }
 }
@@ -0,0 +1,36 @@
+package org.euph.engine.runtime;
+
+/** The Source of Time for an {@link EngineLoop}. The Loop never asks the System for the Time directly,
+ * so it can be driven by a {@link ManualClock} to replay or test a Run without waiting for real Time to pass.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public interface Clock {
+
+    /** @return the current Time in Nanoseconds, only the Difference between two Calls has a Meaning.
+     *
+     * @author snoweuph
+     */
+    long nanoTime();
+    /** Lets the current Thread sleep. Like every Sleep of the Operating System it may take longer than asked, but never shorter.
+     *
+     * @param nanos the Time to sleep in Nanoseconds.
+     *
+     * @author snoweuph
+     */
+    void sleep(long nanos);
+    /** Gives the Rest of the Time Slice of the current Thread to others, while waiting for a Point in Time that is too close to sleep.
+     *
+     * @author snoweuph
+     */
+    void spin();
+
+    /** @return the Clock of the System, based on {@link System#nanoTime()}.
+     *
+     * @author snoweuph
+     */
+    static Clock system(){
+        return SystemClock.INSTANCE;
+    }
+}
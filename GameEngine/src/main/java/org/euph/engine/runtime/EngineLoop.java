@@ -0,0 +1,247 @@
+package org.euph.engine.runtime;
+
+import org.euph.engine.profiling.ProfileScope;
+import org.euph.engine.profiling.Profiler;
+
+/** The Main Loop of the Engine. It runs the Simulation in fixed Steps and draws as often as it can, or as often as the Frame Cap allows.
+ * A fixed Step makes the Simulation deterministic and independent of the Frame Rate, the Renderer gets an Alpha to blend between two Steps.
+ * <pre>{@code
+ * EngineLoop loop = new EngineLoop(60).setFrameCap(144);
+ * loop.run(new LoopHandler(){
+ *     public void simulate(float step){ scheduler.run(step); }
+ *     public void render(float alpha){ window.update(); }
+ *     public boolean isRunning(){ return !window.shouldClose(); }
+ * });
+ * }</pre>
+ *
+ * @implNote The real Time of every Frame goes into an Accumulator and the Simulation runs as many Steps as fit into it.
+ * If a Frame takes longer than the {@link #setMaxFrameTime(long) maximum Frame Time}, the Rest is dropped instead of simulated,
+ * otherwise a slow Simulation would need ever more Steps per Frame and never catch up again.
+ * All Time comes from a {@link Clock}, so a {@link ManualClock} drives the Loop without any real Time passing.
+ * Every Frame, without the Wait for the Frame Cap, runs inside a {@link ProfileScope}, and the {@link Profiler} gets told when it ended.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class EngineLoop {
+
+    public static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final ProfileScope FRAME_SCOPE = Profiler.scope("Frame");
+    private static final ProfileScope PACE_SCOPE = Profiler.scope("Frame.pace");
+
+    private final Clock clock;
+    private final FramePacer pacer;
+    //The fixed Step of the Simulation.
+    private final long step;
+    private final float stepSeconds;
+    //The longest Frame that is simulated in full.
+    private long maxFrameTime;
+    //The shortest Frame, 0 if the Frame Rate isn't capped.
+    private long minFrameTime = 0;
+    //The State of the Loop.
+    private long lastFrame;
+    private long nextDeadline;
+    private long accumulator = 0;
+    private boolean started = false;
+    private volatile boolean stopped = false;
+    //The Counters.
+    private long ticks = 0;
+    private long frames = 0;
+    private int ticksLastFrame = 0;
+    private long droppedTime = 0;
+    private float alpha = 0;
+    private float delta = 0;
+
+    /** Creates a new Loop on the {@link Clock#system() System Clock}.
+     *
+     * @param tickRate the Simulation Steps per Second.
+     *
+     * @author snoweuph
+     */
+    public EngineLoop(int tickRate){
+        this(Clock.system(), tickRate);
+    }
+    /** Creates a new Loop.
+     *
+     * @param clock the {@link Clock} to take the Time from.
+     * @param tickRate the Simulation Steps per Second.
+     *
+     * @author snoweuph
+     */
+    public EngineLoop(Clock clock, int tickRate){
+        if(tickRate <= 0) throw new IllegalArgumentException("The Tick Rate must be positive, but was " + tickRate);
+        this.clock = clock;
+        this.pacer = new FramePacer(clock);
+        this.step = NANOS_PER_SECOND / tickRate;
+        this.stepSeconds = (float) step / NANOS_PER_SECOND;
+        //A quarter of a Second, but at least a few Steps for low Tick Rates
+        this.maxFrameTime = Math.max(NANOS_PER_SECOND / 4, 4 * step);
+    }
+
+    /** Runs Frames until the Handler doesn't want to run anymore or the Loop is {@link #stop() stopped}.
+     *
+     * @param handler the Work of every Frame.
+     *
+     * @author snoweuph
+     */
+    public void run(LoopHandler handler){
+        stopped = false;
+        while(!stopped && handler.isRunning() && !Thread.currentThread().isInterrupted()){
+            frame(handler);
+        }
+    }
+    /** Runs a single Frame: input, as many Simulation Steps as the passed Time needs, render, and then waits if the Frame Rate is capped.
+     * The first Frame only starts the Clock and doesn't simulate.
+     *
+     * @param handler the Work of the Frame.
+     *
+     * @author snoweuph
+     */
+    public void frame(LoopHandler handler){
+        long now = clock.nanoTime();
+        if(!started){
+            started = true;
+            lastFrame = now;
+            nextDeadline = now;
+        }
+        long frameTime = now - lastFrame;
+        lastFrame = now;
+        delta = (float) frameTime / NANOS_PER_SECOND;
+        //Drop what can't be simulated in Time, to not spiral into ever longer Frames
+        if(frameTime > maxFrameTime){
+            droppedTime += frameTime - maxFrameTime;
+            frameTime = maxFrameTime;
+        }
+        accumulator += frameTime;
+        Profiler.begin(FRAME_SCOPE);
+        handler.input(delta);
+        ticksLastFrame = 0;
+        while(accumulator >= step){
+            handler.simulate(stepSeconds);
+            accumulator -= step;
+            ticks++;
+            ticksLastFrame++;
+        }
+        alpha = (float) accumulator / step;
+        handler.render(alpha);
+        Profiler.end(FRAME_SCOPE);
+        frames++;
+        if(minFrameTime > 0){
+            Profiler.begin(PACE_SCOPE);
+            pace();
+            Profiler.end(PACE_SCOPE);
+        }
+        Profiler.frame();
+    }
+    /** Waits for the Deadline of the next Frame. The Deadlines are a fixed Grid, so that the Frame Rate doesn't drift by the Error of every single Wait.
+     *
+     * @author snoweuph
+     */
+    private void pace(){
+        nextDeadline += minFrameTime;
+        long now = clock.nanoTime();
+        //Start a new Grid after a long Frame, instead of rushing through Frames to catch up
+        if(now - nextDeadline > minFrameTime) nextDeadline = now;
+        pacer.waitUntil(nextDeadline);
+    }
+    /** Makes {@link #run(LoopHandler)} return after the current Frame, it can be called from any Thread.
+     *
+     * @author snoweuph
+     */
+    public void stop(){
+        stopped = true;
+    }
+
+    //Setter
+    /** Caps the Frame Rate, the Loop waits between Frames instead of spinning. Not needed when VSync already limits the Frame Rate.
+     *
+     * @param framesPerSecond the maximum Frames per Second, 0 to not cap it.
+     * @return this Loop, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public EngineLoop setFrameCap(int framesPerSecond){
+        if(framesPerSecond < 0) throw new IllegalArgumentException("The Frame Cap can't be negative");
+        minFrameTime = framesPerSecond == 0 ? 0 : NANOS_PER_SECOND / framesPerSecond;
+        nextDeadline = clock.nanoTime();
+        return this;
+    }
+    /** Sets the longest Frame that is simulated in full, the Time above it is dropped and the Simulation slows down instead.
+     *
+     * @param nanos the Time in Nanoseconds, at least one Step.
+     * @return this Loop, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public EngineLoop setMaxFrameTime(long nanos){
+        if(nanos < step) throw new IllegalArgumentException("The maximum Frame Time must fit at least one Step");
+        maxFrameTime = nanos;
+        return this;
+    }
+
+    //Getter
+    /** @return the fixed Step of the Simulation in Seconds.
+     *
+     * @author snoweuph
+     */
+    public float getStep(){
+        return stepSeconds;
+    }
+    /** @return the fixed Step of the Simulation in Nanoseconds.
+     *
+     * @author snoweuph
+     */
+    public long getStepNanos(){
+        return step;
+    }
+    /** @return how far the real Time was between the last and the next Simulation Step in the last Frame, from 0 to below 1.
+     *
+     * @author snoweuph
+     */
+    public float getAlpha(){
+        return alpha;
+    }
+    /** @return the real Time of the last Frame in Seconds, before dropping anything.
+     *
+     * @author snoweuph
+     */
+    public float getDelta(){
+        return delta;
+    }
+    /** @return the amount of Simulation Steps run so far.
+     *
+     * @author snoweuph
+     */
+    public long getTicks(){
+        return ticks;
+    }
+    /** @return the amount of Frames run so far.
+     *
+     * @author snoweuph
+     */
+    public long getFrames(){
+        return frames;
+    }
+    /** @return the amount of Simulation Steps of the last Frame.
+     *
+     * @author snoweuph
+     */
+    public int getTicksLastFrame(){
+        return ticksLastFrame;
+    }
+    /** @return the Time in Nanoseconds that was dropped so far, because Frames took longer than the maximum Frame Time.
+     *
+     * @author snoweuph
+     */
+    public long getDroppedTime(){
+        return droppedTime;
+    }
+    /** @return the {@link Clock} of this Loop.
+     *
+     * @author snoweuph
+     */
+    public Clock getClock(){
+        return clock;
+    }
+}
@@ -0,0 +1,77 @@
+package org.euph.engine.runtime;
+
+/** Waits for a Point in Time as exactly as possible, without burning a whole Core while doing so.
+ * Sleeping alone is too coarse, the Operating System may wake the Thread a Millisecond or more too late, and spinning alone keeps the CPU busy.
+ * So the Pacer sleeps until shortly before the Point in Time and spins for the Rest.
+ *
+ * @implNote The Pacer measures how much later than asked the Sleeps end, and sleeps until that much before the Point in Time.
+ * It learns the 90th Percentile of the Oversleep with a streaming Estimator that moves up a Bit after every later and down a Bit after every earlier Wakeup.
+ * Every Step is bounded, so the rare very late Wakeups of busy Machines can't make the Pacer spin for long, as they would with a Mean and Deviation.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class FramePacer {
+
+    //Sleeps shorter than this aren't worth it, spinning is more exact.
+    private static final long MIN_SLEEP = 100_000;
+    //The Percentile of the Oversleep that is learned, and how far one Measurement moves the Estimate, relative to it.
+    private static final double PERCENTILE = 0.9;
+    private static final double STEP = 0.1;
+    //The lowest and highest Estimate.
+    private static final double MIN_ESTIMATE = 10_000;
+    private static final double MAX_ESTIMATE = 20_000_000;
+
+    private final Clock clock;
+    //The learned Percentile of the Oversleep.
+    private double estimate = 500_000;
+
+    /** Creates a new Pacer.
+     *
+     * @param clock the {@link Clock} to wait on.
+     *
+     * @author snoweuph
+     */
+    public FramePacer(Clock clock){
+        this.clock = clock;
+    }
+
+    /** Waits until the {@link Clock} reached a Point in Time, it returns at once if it already did.
+     *
+     * @param deadline the Point in Time in Nanoseconds of the {@link Clock}.
+     *
+     * @author snoweuph
+     */
+    public void waitUntil(long deadline){
+        long now = clock.nanoTime();
+        //Without Sleeps nothing gets learned, so an Estimate that doesn't let any Sleep happen sinks as if the Sleep was on Time
+        if(deadline - now > MIN_SLEEP && deadline - now - estimate <= MIN_SLEEP) learn(0);
+        //Sleeps can also end too early, so sleep again as long as there is enough Time left
+        while(deadline - now - estimate > MIN_SLEEP){
+            long requested = deadline - now - (long) estimate;
+            clock.sleep(requested);
+            long after = clock.nanoTime();
+            //Early Wakeups count as on Time
+            learn(Math.max(0, after - now - requested));
+            now = after;
+        }
+        while(deadline - clock.nanoTime() > 0){
+            clock.spin();
+        }
+    }
+    private void learn(long oversleep){
+        //Up by the Percentile and down by the Rest, so that the Estimate settles where that Share of the Measurements is below it
+        if(oversleep > estimate) estimate += STEP * PERCENTILE * estimate;
+        else estimate -= STEP * (1 - PERCENTILE) * estimate;
+        estimate = Math.max(MIN_ESTIMATE, Math.min(MAX_ESTIMATE, estimate));
+    }
+
+    //Getter
+    /** @return the Time in Nanoseconds a Sleep is currently expected to take longer than asked, the Pacer spins for about this long before a Point in Time.
+     *
+     * @author snoweuph
+     */
+    public long getOversleepEstimate(){
+        return (long) estimate;
+    }
+}
@@ -0,0 +1,176 @@
+package org.euph.engine.runtime;
+
+import org.euph.engine.entityComponentSystem.SystemScheduler;
+import org.euph.engine.entityComponentSystem.World;
+import org.euph.engine.metrics.EngineMetrics;
+
+/** Runs the Simulation of a {@link World} without any Window, GL Context or Display, for dedicated Servers, Bots, Soak Tests and Benchmarks.
+ * It only runs the {@link SystemScheduler} in fixed Steps through an {@link EngineLoop} and never touches GLFW, so it works on Machines without a GPU.
+ * <pre>{@code
+ * HeadlessRuntime server = new HeadlessRuntime(new SystemScheduler().addSystem(new SpatialSystem()), 30);
+ * server.run();
+ * }</pre>
+ *
+ * @implNote Paced, one Step is run per Frame and the Loop sleeps until the next one is due, so an idle Server barely uses the CPU.
+ * Unpaced, the Loop runs on a {@link ManualClock} that moves one Step per Frame, so the Steps run back to back as fast as the Systems allow
+ * and a Run is exactly as long in Simulation Time as asked for, no matter how fast the Machine is.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class HeadlessRuntime {
+
+    private final SystemScheduler scheduler;
+    private final int tickRate;
+    //The Amount of Steps after which the Run ends, 0 to run until stopped.
+    private long maxTicks = 0;
+    private boolean paced = true;
+    private volatile boolean stopped = false;
+    //Where every Step and Frame gets recorded, or null.
+    private EngineMetrics metrics;
+    //The Loop of the current or last Run.
+    private EngineLoop loop;
+
+    /** Creates a new Runtime for the {@link org.euph.engine.entityComponentSystem.EntityComponentSystem#getDefaultWorld() default World}, without any Systems yet.
+     *
+     * @param tickRate the Simulation Steps per Second.
+     *
+     * @author snoweuph
+     */
+    public HeadlessRuntime(int tickRate){
+        this(new SystemScheduler(), tickRate);
+    }
+    /** Creates a new Runtime.
+     *
+     * @param scheduler the Systems to run every Step.
+     * @param tickRate the Simulation Steps per Second.
+     *
+     * @author snoweuph
+     */
+    public HeadlessRuntime(SystemScheduler scheduler, int tickRate){
+        if(tickRate <= 0) throw new IllegalArgumentException("The Tick Rate must be positive, but was " + tickRate);
+        this.scheduler = scheduler;
+        this.tickRate = tickRate;
+    }
+
+    /** Runs the Simulation until it is {@link #stop() stopped}, the maximum amount of Steps is reached or the Thread is interrupted.
+     *
+     * @author snoweuph
+     */
+    public void run(){
+        stopped = false;
+        ManualClock manualClock = paced ? null : new ManualClock();
+        loop = paced ? new EngineLoop(tickRate).setFrameCap(tickRate) : new EngineLoop(manualClock, tickRate);
+        EngineLoop current = loop;
+        current.run(new LoopHandler() {
+            //The real Time of the last Frame, also unpaced
+            private long lastFrame = System.nanoTime();
+            @Override
+            public void simulate(float step) {
+                scheduler.run(step);
+                if(metrics != null) metrics.step();
+            }
+            @Override
+            public void render(float alpha) {
+                //Unpaced every Frame takes exactly one Step
+                if(manualClock != null) manualClock.advance(current.getStepNanos());
+                long now = System.nanoTime();
+                if(metrics != null) metrics.frame(now - lastFrame);
+                lastFrame = now;
+            }
+            @Override
+            public boolean isRunning() {
+                return !stopped && (maxTicks == 0 || current.getTicks() < maxTicks);
+            }
+        });
+    }
+    /** Makes {@link #run()} return after the current Step, it can be called from any Thread, for example from a Shutdown Hook.
+     *
+     * @author snoweuph
+     */
+    public void stop(){
+        stopped = true;
+    }
+
+    //Setter
+    /** Sets after how many Steps the Run ends, for Soak Tests and Benchmarks.
+     *
+     * @param maxTicks the Amount of Steps, 0 to run until stopped.
+     * @return this Runtime, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public HeadlessRuntime setMaxTicks(long maxTicks){
+        if(maxTicks < 0) throw new IllegalArgumentException("The maximum Amount of Ticks can't be negative");
+        this.maxTicks = maxTicks;
+        return this;
+    }
+    /** Sets whether the Steps are run in real Time, or back to back as fast as possible.
+     *
+     * @param paced whether the Steps are run in real Time, the Default.
+     * @return this Runtime, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public HeadlessRuntime setPaced(boolean paced){
+        this.paced = paced;
+        return this;
+    }
+
+    /** Sets where every Step and Frame gets recorded, the Frame Time is the real Time between two Frames, also when unpaced.
+     *
+     * @param metrics the Metrics, they must measure the {@link SystemScheduler} of this Runtime, or null to not record anything.
+     * @return this Runtime, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public HeadlessRuntime setMetrics(EngineMetrics metrics){
+        if(metrics != null && metrics.getScheduler() != scheduler) throw new IllegalArgumentException("The Metrics measure another Scheduler");
+        this.metrics = metrics;
+        return this;
+    }
+
+    //Getter
+    /** @return the Systems that run every Step.
+     *
+     * @author snoweuph
+     */
+    public SystemScheduler getScheduler(){
+        return scheduler;
+    }
+    /** @return the {@link World} that is simulated.
+     *
+     * @author snoweuph
+     */
+    public World getWorld(){
+        return scheduler.getWorld();
+    }
+    /** @return the Simulation Steps per Second.
+     *
+     * @author snoweuph
+     */
+    public int getTickRate(){
+        return tickRate;
+    }
+    /** @return where every Step and Frame gets recorded, or null.
+     *
+     * @author snoweuph
+     */
+    public EngineMetrics getMetrics(){
+        return metrics;
+    }
+    /** @return the Loop of the current or last Run, or null if it never ran.
+     *
+     * @author snoweuph
+     */
+    public EngineLoop getLoop(){
+        return loop;
+    }
+    /** @return the Amount of Steps of the current or last Run.
+     *
+     * @author snoweuph
+     */
+    public long getTicks(){
+        return loop == null ? 0 : loop.getTicks();
+    }
+}
@@ -0,0 +1,38 @@
+package org.euph.engine.runtime;
+
+/** The Work an {@link EngineLoop} runs every Frame.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public interface LoopHandler {
+
+    /** Gets called once at the Start of every Frame, before the Simulation, for example to poll the Events of the Windows.
+     *
+     * @param delta the real Time since the last Frame in Seconds.
+     *
+     * @author snoweuph
+     */
+    default void input(float delta){}
+    /** Advances the Simulation by one fixed Step. It gets called as often as needed to catch up with the real Time, 0 or more times per Frame.
+     *
+     * @param step the fixed Step in Seconds, always the same.
+     *
+     * @author snoweuph
+     */
+    void simulate(float step);
+    /** Draws a Frame. The Simulation usually is a bit behind the real Time, the Renderer should blend the last two Simulation States with the Alpha.
+     *
+     * @param alpha how far the real Time is between the last and the next Simulation Step, from 0 to below 1.
+     *
+     * @author snoweuph
+     */
+    void render(float alpha);
+    /** @return whether the Loop should keep running, it gets asked before every Frame.
+     *
+     * @author snoweuph
+     */
+    default boolean isRunning(){
+        return true;
+    }
+}
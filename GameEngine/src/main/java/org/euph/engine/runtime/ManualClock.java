@@ -0,0 +1,59 @@
+package org.euph.engine.runtime;
+
+/** A {@link Clock} that only moves when it is told to, or when something sleeps on it.
+ * It makes Runs of an {@link EngineLoop} reproducible, because every Frame takes exactly the Time it is given:
+ * <pre>{@code
+ * ManualClock clock = new ManualClock();
+ * EngineLoop loop = new EngineLoop(clock, 60);
+ * clock.advance(EngineLoop.NANOS_PER_SECOND / 30);
+ * loop.frame(handler); //Simulates two Ticks
+ * }</pre>
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class ManualClock implements Clock {
+
+    private long time = 0;
+    //The Time that passes with every Call of spin, so that Waiting for a Point in Time always ends.
+    private long spinStep = 1000;
+
+    @Override
+    public long nanoTime(){
+        return time;
+    }
+    @Override
+    public void sleep(long nanos){
+        if(nanos > 0) time += nanos;
+    }
+    @Override
+    public void spin(){
+        time += spinStep;
+    }
+    /** Moves the Time forward.
+     *
+     * @param nanos the Time to move in Nanoseconds.
+     * @return this Clock, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public ManualClock advance(long nanos){
+        if(nanos < 0) throw new IllegalArgumentException("Time can't move backwards");
+        time += nanos;
+        return this;
+    }
+
+    //Setter
+    /** Sets the Time that passes with every Call of {@link #spin()}.
+     *
+     * @param nanos the Time in Nanoseconds, at least 1.
+     * @return this Clock, so that functions can be stacked.
+     *
+     * @author snoweuph
+     */
+    public ManualClock setSpinStep(long nanos){
+        if(nanos < 1) throw new IllegalArgumentException("Spinning must move the Time");
+        spinStep = nanos;
+        return this;
+    }
+}
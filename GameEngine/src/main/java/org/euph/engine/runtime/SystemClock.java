@@ -0,0 +1,29 @@
+package org.euph.engine.runtime;
+
+import java.util.concurrent.locks.LockSupport;
+
+/** The {@link Clock} of the System, based on {@link System#nanoTime()}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+final class SystemClock implements Clock {
+
+    static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock(){}
+
+    @Override
+    public long nanoTime(){
+        return System.nanoTime();
+    }
+    @Override
+    public void sleep(long nanos){
+        //Parking doesn't throw on Interrupts, the Loop checks for them itself
+        LockSupport.parkNanos(nanos);
+    }
+    @Override
+    public void spin(){
+        Thread.yield();
+    }
+}
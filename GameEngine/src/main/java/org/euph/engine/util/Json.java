@@ -0,0 +1,32 @@
+package org.euph.engine.util;
+
+/** Helpers for the Files the Engine writes as JSON, like the Metrics and the Profiler Traces.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class Json {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private Json(){}
+
+    /** Appends a String as JSON String, with Quotes and with the Quotes, Backslashes and Control Characters in it escaped.
+     *
+     * @param text where the String gets appended to.
+     * @param value the String.
+     * @return the Text.
+     *
+     * @author snoweuph
+     */
+    public static StringBuilder appendString(StringBuilder text, String value){
+        text.append('"');
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if(c == '"' || c == '\\') text.append('\\').append(c);
+            else if(c < 0x20) text.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            else text.append(c);
+        }
+        return text.append('"');
+    }
+}
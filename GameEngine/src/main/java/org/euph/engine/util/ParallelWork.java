@@ -0,0 +1,115 @@
+package org.euph.engine.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/** Splits one Run of Work into Tasks that Helpers on a Pool and the Thread that started the Run take at the same Time.
+ * The starting Thread works on the Tasks as well, so the Run finishes even if the Pool is busy, or if the Thread is a Worker of the Pool itself.
+ * One Instance is reused for every Run, nothing gets allocated per Run:
+ * <pre>{@code
+ * work.start(count);
+ * for(int i = 1; i < threads; i++) pool.execute(helper);
+ * helper.run(); //while((task = work.claim()) >= 0){ run(task); if(work.finish()) work.release(); }
+ * work.await();
+ * }</pre>
+ * The last finished Task can do the final Step of the Run, like merging, before it calls {@link #release()}.
+ *
+ * @implNote The Amount of Tasks and the next unclaimed one are a single atomic Value, so a Helper that starts after its Run ended
+ * finds no Task left, and can't take Part in the next Run. Only claimed Tasks count towards the End of a Run.
+ * Users that hand out their Tasks in their own Order, skip {@link #claim()} and only count with {@link #finish()}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public final class ParallelWork {
+
+    //The Amount of Tasks in the upper and the next unclaimed one in the lower Half.
+    private final AtomicLong claims = new AtomicLong();
+    //The Tasks that didn't finish yet.
+    private final AtomicInteger remaining = new AtomicInteger();
+    private volatile boolean done = true;
+    private volatile Thread waiter;
+    private boolean interrupted = false;
+
+    /** Starts a Run, the calling Thread is the one that waits for it. The State of the Run must be set before, so that the Helpers see it.
+     *
+     * @param tasks the Amount of Tasks, if it is 0 the Run still has to be {@link #release() released}.
+     *
+     * @author snoweuph
+     */
+    public void start(int tasks){
+        waiter = Thread.currentThread();
+        done = false;
+        remaining.set(tasks);
+        claims.set((long) tasks << 32);
+    }
+    /** @return the Index of the next unclaimed Task of the current Run, or -1 if all are claimed.
+     *
+     * @author snoweuph
+     */
+    public int claim(){
+        while(true){
+            long current = claims.get();
+            int next = (int) current;
+            if(next >= (int) (current >>> 32)) return -1;
+            if(claims.compareAndSet(current, current + 1)) return next;
+        }
+    }
+    /** Marks a claimed Task as finished.
+     *
+     * @return whether it was the last Task of the Run, then the Caller has to {@link #release()} the Run.
+     *
+     * @author snoweuph
+     */
+    public boolean finish(){
+        return remaining.decrementAndGet() == 0;
+    }
+    /** Ends the Run and wakes the waiting Thread.
+     *
+     * @author snoweuph
+     */
+    public void release(){
+        done = true;
+        LockSupport.unpark(waiter);
+    }
+    /** Wakes the waiting Thread without ending the Run, for example because new Tasks got ready.
+     *
+     * @author snoweuph
+     */
+    public void signal(){
+        LockSupport.unpark(waiter);
+    }
+    /** Parks the waiting Thread until the next {@link #signal()} or the End of the Run, it returns at once if the Run ended already.
+     * An Interrupt doesn't end the Wait, the Helpers still use the State of the Run, it gets restored by {@link #await()}.
+     *
+     * @author snoweuph
+     */
+    public void park(){
+        if(done) return;
+        LockSupport.park(this);
+        if(Thread.interrupted()) interrupted = true;
+    }
+    /** Waits until the Run is {@link #release() released}, and restores an Interrupt that happened while waiting.
+     *
+     * @author snoweuph
+     */
+    public void await(){
+        while(!done){
+            park();
+        }
+        if(interrupted){
+            interrupted = false;
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //Getter
+    /** @return whether the current Run was {@link #release() released}.
+     *
+     * @author snoweuph
+     */
+    public boolean isDone(){
+        return done;
+    }
+}
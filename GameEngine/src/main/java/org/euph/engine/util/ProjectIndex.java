@@ -0,0 +1,78 @@
+package org.euph.engine.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/** This Class reads the Type Indices that get generated at Compile Time by the componentIndexer Annotation Processor.
+ * Every compiled Module has its own Index, all of them on the Classpath are merged, so Types defined outside the Engine are found as well.
+ * Only if no Index exists at all, for example when the Processor wasn't run, the Classpath gets scanned through {@link ProjectReflection}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class ProjectIndex {
+
+    /** The Path all Indices are stored at, followed by the Name of the Base Type. Must match the one of the Processor. */
+    public static final String INDEX_PATH = "META-INF/euph/index/";
+
+    /** @return all Subtypes of a Base Type, from the generated Indices or from a Classpath Scan if there are none.
+     * The Classes aren't initialized by this.
+     *
+     * @param type the Base Type.
+     * @param <T> the Base Type.
+     *
+     * @author snoweuph
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Set<Class<? extends T>> getSubTypesOf(Class<T> type){
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if(loader == null) loader = ProjectIndex.class.getClassLoader();
+        Set<String> names = readIndex(loader, type.getName());
+        //No Index was generated, fall back to scanning the Classpath
+        if(names == null) return ProjectReflection.DATA.getSubTypesOf(type);
+        Set<Class<? extends T>> subTypes = new LinkedHashSet<>();
+        for(String name : names){
+            try{
+                Class<?> subType = Class.forName(name, false, loader);
+                if(type.isAssignableFrom(subType)) subTypes.add((Class<? extends T>) subType);
+            }catch (ClassNotFoundException e){
+                //The Index is outdated, the Class got removed since it was written
+            }
+        }
+        return subTypes;
+    }
+
+    /** @return the merged Names of all Indices of a Base Type, or null if there is no Index.
+     *
+     * @param loader the ClassLoader to search the Indices with.
+     * @param type the Name of the Base Type.
+     *
+     * @author snoweuph
+     */
+    private static Set<String> readIndex(ClassLoader loader, String type){
+        try{
+            Enumeration<URL> indices = loader.getResources(INDEX_PATH + type);
+            if(!indices.hasMoreElements()) return null;
+            Set<String> names = new LinkedHashSet<>();
+            while(indices.hasMoreElements()){
+                try(BufferedReader reader = new BufferedReader(new InputStreamReader(indices.nextElement().openStream(), StandardCharsets.UTF_8))){
+                    String line;
+                    while((line = reader.readLine()) != null){
+                        line = line.trim();
+                        if(!line.isEmpty()) names.add(line);
+                    }
+                }
+            }
+            return names;
+        }catch (IOException e){
+            throw new UncheckedIOException("Couldn't read the Type Index of " + type, e);
+        }
+    }
+}
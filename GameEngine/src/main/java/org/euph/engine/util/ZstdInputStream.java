@@ -0,0 +1,121 @@
+package org.euph.engine.util;
+
+import org.lwjgl.util.zstd.ZSTDInBuffer;
+import org.lwjgl.util.zstd.ZSTDOutBuffer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.system.MemoryUtil.memAlloc;
+import static org.lwjgl.system.MemoryUtil.memFree;
+import static org.lwjgl.util.zstd.Zstd.*;
+
+/** An InputStream that decompresses Zstandard Data, as written by the {@link ZstdOutputStream}.
+ * It works in constant Memory: the compressed Data is read from the wrapped Stream in Blocks of the recommended Stream Size.
+ *
+ * @implNote The native Context and Buffers are freed by {@link #close()}, so the Stream must always be closed.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class ZstdInputStream extends InputStream {
+
+    private final InputStream in;
+    private final long context;
+    //The compressed Input that wasn't decompressed yet and the decompressed Output that wasn't read yet, both Off-Heap.
+    private final ByteBuffer input;
+    private final ByteBuffer output;
+    private final ZSTDInBuffer inBuffer = ZSTDInBuffer.calloc();
+    private final ZSTDOutBuffer outBuffer = ZSTDOutBuffer.calloc();
+    //The Heap Copy of the compressed Input, to read it from the wrapped Stream.
+    private final byte[] transfer;
+    //The Result of the last Decompression, 0 once a Frame is complete.
+    private long pending = 0;
+    private boolean closed = false;
+
+    /** Creates a new decompressing Stream.
+     *
+     * @param in the Stream the compressed Data is read from.
+     *
+     * @author snoweuph
+     */
+    public ZstdInputStream(InputStream in){
+        this.in = in;
+        context = ZSTD_createDStream();
+        input = memAlloc((int) ZSTD_DStreamInSize());
+        output = memAlloc((int) ZSTD_DStreamOutSize());
+        transfer = new byte[input.capacity()];
+        input.limit(0);
+        output.limit(0);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if(!output.hasRemaining() && !fill()) return -1;
+        return output.get() & 0xFF;
+    }
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if(len == 0) return 0;
+        if(!output.hasRemaining() && !fill()) return -1;
+        int count = Math.min(len, output.remaining());
+        output.get(b, off, count);
+        return count;
+    }
+    @Override
+    public int available() {
+        return output.remaining();
+    }
+    /** Closes the wrapped Stream and frees the native Resources.
+     *
+     * @author snoweuph
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) return;
+        try{
+            in.close();
+        }finally{
+            closed = true;
+            ZSTD_freeDStream(context);
+            inBuffer.free();
+            outBuffer.free();
+            memFree(input);
+            memFree(output);
+        }
+    }
+
+    /** Decompresses until there is new Output or the wrapped Stream ends.
+     *
+     * @return whether there is new Output.
+     *
+     * @throws EOFException the wrapped Stream ended inside a Frame.
+     *
+     * @author snoweuph
+     */
+    private boolean fill() throws IOException {
+        if(closed) throw new IOException("The Stream is closed");
+        while(true){
+            //Read more compressed Input, once the last Block is used up
+            if(!input.hasRemaining()){
+                int read = in.read(transfer);
+                if(read < 0){
+                    if(pending != 0) throw new EOFException("The Zstandard Stream ended inside a Frame");
+                    return false;
+                }
+                input.clear();
+                input.put(transfer, 0, read).flip();
+            }
+            inBuffer.src(input).pos(0);
+            output.clear();
+            outBuffer.dst(output).pos(0);
+            pending = ZSTD_decompressStream(context, outBuffer, inBuffer);
+            if(ZSTD_isError(pending)) throw new IOException("Zstandard failed: " + ZSTD_getErrorName(pending));
+            input.position(input.position() + (int) inBuffer.pos());
+            output.limit((int) outBuffer.pos()).position(0);
+            if(output.hasRemaining()) return true;
+        }
+    }
+}
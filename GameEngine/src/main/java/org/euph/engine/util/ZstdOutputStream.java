@@ -0,0 +1,141 @@
+package org.euph.engine.util;
+
+import org.lwjgl.util.zstd.ZSTDInBuffer;
+import org.lwjgl.util.zstd.ZSTDOutBuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.system.MemoryUtil.memAlloc;
+import static org.lwjgl.system.MemoryUtil.memFree;
+import static org.lwjgl.util.zstd.Zstd.*;
+
+/** An OutputStream that compresses everything written to it with Zstandard, as a single Frame.
+ * It works in constant Memory: the Data is compressed in Blocks of the recommended Stream Size and written to the wrapped Stream right away.
+ * <pre>{@code
+ * try(OutputStream out = new ZstdOutputStream(Files.newOutputStream(file))){
+ *     out.write(data);
+ * }
+ * }</pre>
+ *
+ * @implNote The native Context and Buffers are freed by {@link #close()}, so the Stream must always be closed.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+public class ZstdOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final long context;
+    //The uncompressed Input that wasn't compressed yet and the compressed Output, both Off-Heap.
+    private final ByteBuffer input;
+    private final ByteBuffer output;
+    private final ZSTDInBuffer inBuffer = ZSTDInBuffer.calloc();
+    private final ZSTDOutBuffer outBuffer = ZSTDOutBuffer.calloc();
+    //The Heap Copy of the compressed Output, to hand it to the wrapped Stream.
+    private final byte[] transfer;
+    private boolean closed = false;
+
+    /** Creates a new compressing Stream with the default Compression Level.
+     *
+     * @param out the Stream the compressed Data is written to.
+     *
+     * @author snoweuph
+     */
+    public ZstdOutputStream(OutputStream out){
+        this(out, ZSTD_CLEVEL_DEFAULT);
+    }
+    /** Creates a new compressing Stream.
+     *
+     * @param out the Stream the compressed Data is written to.
+     * @param level the Compression Level, from 1 (fastest) to {@link org.lwjgl.util.zstd.Zstd#ZSTD_maxCLevel()} (smallest).
+     *
+     * @author snoweuph
+     */
+    public ZstdOutputStream(OutputStream out, int level){
+        this.out = out;
+        context = ZSTD_createCStream();
+        check(ZSTD_CCtx_setParameter(context, ZSTD_c_compressionLevel, level));
+        input = memAlloc((int) ZSTD_CStreamInSize());
+        output = memAlloc((int) ZSTD_CStreamOutSize());
+        transfer = new byte[output.capacity()];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if(!input.hasRemaining()) compress(ZSTD_e_continue);
+        input.put((byte) b);
+    }
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while(len > 0){
+            if(!input.hasRemaining()) compress(ZSTD_e_continue);
+            int count = Math.min(len, input.remaining());
+            input.put(b, off, count);
+            off += count;
+            len -= count;
+        }
+    }
+    /** Compresses all Data written so far and flushes it to the wrapped Stream, at the Cost of a slightly worse Compression.
+     *
+     * @author snoweuph
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        compress(ZSTD_e_flush);
+        out.flush();
+    }
+    /** Ends the Frame, closes the wrapped Stream and frees the native Resources.
+     *
+     * @author snoweuph
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) return;
+        try{
+            compress(ZSTD_e_end);
+            out.close();
+        }finally{
+            closed = true;
+            ZSTD_freeCStream(context);
+            inBuffer.free();
+            outBuffer.free();
+            memFree(input);
+            memFree(output);
+        }
+    }
+
+    /** Compresses the buffered Input and writes the Output to the wrapped Stream.
+     *
+     * @param mode {@link org.lwjgl.util.zstd.Zstd#ZSTD_e_continue continue} only consumes the Input,
+     * {@link org.lwjgl.util.zstd.Zstd#ZSTD_e_flush flush} and {@link org.lwjgl.util.zstd.Zstd#ZSTD_e_end end} also drain everything the Compressor holds.
+     *
+     * @author snoweuph
+     */
+    private void compress(int mode) throws IOException {
+        input.flip();
+        inBuffer.src(input).pos(0);
+        long remaining;
+        do{
+            outBuffer.dst(output).pos(0);
+            remaining = check(ZSTD_compressStream2(context, outBuffer, inBuffer, mode));
+            int produced = (int) outBuffer.pos();
+            if(produced > 0){
+                output.get(0, transfer, 0, produced);
+                out.write(transfer, 0, produced);
+            }
+        }while(mode == ZSTD_e_continue ? inBuffer.pos() < inBuffer.size() : remaining != 0);
+        input.clear();
+    }
+    private void ensureOpen() throws IOException {
+        if(closed) throw new IOException("The Stream is closed");
+    }
+    private static long check(long result){
+        if(ZSTD_isError(result)) throw new IllegalStateException("Zstandard failed: " + ZSTD_getErrorName(result));
+        return result;
+    }
+}
@@ -0,0 +1,174 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks the Change Ticks of {@link Query Queries} with {@link Query#changed(Class[]) changed} and {@link Query#added(Class[]) added} Filters,
+ * and that {@link RemovedComponents} lists every Removal once per Reader.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class ChangeDetectionTest {
+
+    public static class Position extends Component {
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+    public static class Velocity extends Component {
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+    /** Collects the Entities its Query matches in every Run. */
+    private static class CollectSystem extends EngineSystem {
+        private final Query query;
+        private final Set<Long> seen = new HashSet<>();
+
+        private CollectSystem(World world, boolean added){
+            super(world);
+            query = added ? query(Position.class).added(Position.class) : query(Position.class).changed(Position.class);
+        }
+        @Override
+        protected void update(float delta){
+            QueryIterator it = query.iterator();
+            while(it.next()){
+                assertTrue(seen.add(it.getEntity()), "An Entity was matched twice in one Run");
+            }
+        }
+        private Set<Long> runAndCollect(){
+            seen.clear();
+            run(0);
+            return new HashSet<>(seen);
+        }
+    }
+    /** Writes the Position of every Entity with a Velocity through the Iterator. */
+    private static class MoveSystem extends EngineSystem {
+        private final Query query;
+
+        private MoveSystem(World world){
+            super(world);
+            query = query(Position.class, Velocity.class);
+        }
+        @Override
+        protected void update(float delta){
+            QueryIterator it = query.iterator();
+            while(it.next()){
+                it.getMut(0);
+            }
+        }
+    }
+    /** Collects the Entities that lost a Position since its last Run. */
+    private static class RemovedSystem extends EngineSystem {
+        private final RemovedComponents removed;
+        private final List<Long> seen = new ArrayList<>();
+
+        private RemovedSystem(World world){
+            super(world);
+            removed = removed(Position.class);
+        }
+        @Override
+        protected void update(float delta){
+            removed.forEach(seen::add);
+        }
+        private List<Long> runAndCollect(){
+            seen.clear();
+            run(0);
+            return new ArrayList<>(seen);
+        }
+    }
+
+    private final World world = new World();
+
+    @AfterEach
+    void close(){
+        world.close();
+    }
+
+    @Test
+    void changedFilterSeesAMarkedComponentOncePerRun(){
+        CollectSystem changed = new CollectSystem(world, false);
+        Position position = new Position();
+        Entity marked = new Entity(world).putComponent(position);
+        Entity moved = new Entity(world).putComponent(new Position()).putComponent(new Velocity());
+        Entity untouched = new Entity(world).putComponent(new Position());
+        //Everything is new for a System that never ran
+        assertEquals(Set.of(marked.getHandle(), moved.getHandle(), untouched.getHandle()), changed.runAndCollect());
+        assertEquals(Set.of(), changed.runAndCollect());
+
+        position.markChanged();
+        assertEquals(Set.of(marked.getHandle()), changed.runAndCollect());
+        assertEquals(Set.of(), changed.runAndCollect());
+
+        //A Change through the Iterator of another System, seen once even if it happens again before the next Run
+        MoveSystem move = new MoveSystem(world);
+        move.run(0);
+        move.run(0);
+        assertEquals(Set.of(moved.getHandle()), changed.runAndCollect());
+        assertEquals(Set.of(), changed.runAndCollect());
+    }
+
+    @Test
+    void addedFilterOnlyMatchesTheRunAfterTheAddition(){
+        CollectSystem added = new CollectSystem(world, true);
+        assertEquals(Set.of(), added.runAndCollect());
+        Position position = new Position();
+        Entity first = new Entity(world).putComponent(position);
+        assertEquals(Set.of(first.getHandle()), added.runAndCollect());
+        assertEquals(Set.of(), added.runAndCollect());
+
+        //Changing or moving it to another Archetype doesn't make it new again
+        position.markChanged();
+        first.putComponent(new Velocity());
+        Entity second = new Entity(world).putComponent(new Position());
+        assertEquals(Set.of(second.getHandle()), added.runAndCollect());
+        assertEquals(Set.of(), added.runAndCollect());
+
+        //Neither does a CommandBuffer that moves it
+        CommandBuffer commands = new CommandBuffer(world);
+        commands.add(first.getHandle(), new Velocity());
+        Entity third = new Entity(world);
+        commands.add(third.getHandle(), new Position());
+        commands.playback();
+        assertEquals(Set.of(third.getHandle()), added.runAndCollect());
+    }
+
+    @Test
+    void removalsAreReportedOncePerReader(){
+        RemovedSystem early = new RemovedSystem(world);
+        RemovedSystem late = new RemovedSystem(world);
+        Position position = new Position();
+        Entity removed = new Entity(world).putComponent(position).putComponent(new Velocity());
+        Entity destroyed = new Entity(world).putComponent(new Position());
+        Entity buffered = new Entity(world).putComponent(new Position());
+        Entity kept = new Entity(world).putComponent(new Position());
+        assertEquals(List.of(), early.runAndCollect());
+
+        removed.removeComponent(position);
+        destroyed.destroy();
+        CommandBuffer commands = new CommandBuffer(world);
+        commands.removeAll(buffered.getHandle(), Position.class);
+        commands.playback();
+        List<Long> expected = List.of(removed.getHandle(), destroyed.getHandle(), buffered.getHandle());
+        List<Long> seen = early.runAndCollect();
+        assertEquals(expected.size(), seen.size());
+        assertEquals(Set.copyOf(expected), Set.copyOf(seen));
+        assertEquals(List.of(), early.runAndCollect());
+        //A Reader that didn't run yet still sees each Removal once
+        seen = late.runAndCollect();
+        assertEquals(expected.size(), seen.size());
+        assertEquals(Set.copyOf(expected), Set.copyOf(seen));
+        assertEquals(List.of(), late.runAndCollect());
+        assertTrue(world.isAlive(kept.getHandle()));
+    }
+}
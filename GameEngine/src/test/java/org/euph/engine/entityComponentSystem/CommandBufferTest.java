@@ -0,0 +1,136 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks that playing back a {@link CommandBuffer} merges the Changes of every {@link Entity} like the direct Operations would apply them.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class CommandBufferTest {
+
+    public static class Shape extends Component {
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+    public static class Circle extends Shape {
+    }
+    public static class Box extends Shape {
+    }
+    public static class Position extends Component {
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+
+    private final World world = new World();
+
+    @AfterEach
+    void close(){
+        world.close();
+    }
+
+    @Test
+    void removeAllRemovesInheritingTypesFromManyEntities(){
+        List<Entity> full = new ArrayList<>();
+        List<Entity> partial = new ArrayList<>();
+        CommandBuffer commands = new CommandBuffer(world);
+        for(int i = 0; i < 3 * Archetype.CHUNK_CAPACITY; i++){
+            Entity entity = new Entity(world).putComponent(new Position()).putComponent(new Circle()).putComponent(new Box());
+            full.add(entity);
+            commands.removeAll(entity.getHandle(), Shape.class);
+            if(i % 3 != 0) continue;
+            Entity other = new Entity(world).putComponent(new Circle());
+            partial.add(other);
+            commands.removeAll(other.getHandle(), Shape.class);
+        }
+        commands.playback();
+        for(Entity entity : full){
+            assertEquals(Set.of(Position.class), types(entity));
+        }
+        for(Entity entity : partial){
+            assertEquals(Set.of(), types(entity));
+        }
+        assertEquals(full.size(), world.query(Position.class).size());
+        assertEquals(0, world.query(Shape.class).size());
+    }
+
+    @Test
+    void componentsMoveBetweenEntities(){
+        Entity first = new Entity(world).putComponent(new Position());
+        Entity second = new Entity(world);
+        Circle circle = new Circle();
+        first.putComponent(circle);
+        CommandBuffer commands = new CommandBuffer(world);
+        commands.add(second.getHandle(), circle);
+        commands.playback();
+        assertEquals(Set.of(Position.class), types(first));
+        assertEquals(Set.of(Circle.class), types(second));
+        assertEquals(second.getHandle(), circle.getEntityHandle());
+
+        //Moved back and removed again inside the same Buffer
+        commands.add(first.getHandle(), circle);
+        commands.remove(circle);
+        commands.playback();
+        assertEquals(Set.of(Position.class), types(first));
+        assertEquals(Set.of(), types(second));
+    }
+
+    @Test
+    void removedAndReaddedComponentsStay(){
+        Circle circle = new Circle();
+        Position position = new Position();
+        Entity entity = new Entity(world).putComponent(position).putComponent(circle);
+        CommandBuffer commands = new CommandBuffer(world);
+        commands.remove(circle);
+        commands.add(entity.getHandle(), circle);
+        commands.remove(position);
+        commands.playback();
+        assertEquals(List.of(circle), entity.getComponents());
+        assertEquals(entity.getHandle(), circle.getEntityHandle());
+    }
+
+    @Test
+    void createdEntitiesAndDestroyedEntities(){
+        Entity destroyed = new Entity(world).putComponent(new Circle());
+        Entity kept = new Entity(world).putComponent(new Box());
+        CommandBuffer commands = new CommandBuffer(world);
+        long created = commands.create();
+        commands.add(created, new Position()).add(created, new Circle());
+        long discarded = commands.create();
+        commands.add(discarded, new Position()).destroy(discarded);
+        commands.destroy(destroyed.getHandle());
+        //Commands on a destroyed Entity are ignored
+        commands.add(destroyed.getHandle(), new Position());
+        commands.playback();
+
+        long handle = commands.resolve(created);
+        assertTrue(world.isAlive(handle));
+        assertEquals(Set.of(Position.class, Circle.class), types(world.getEntity(handle)));
+        assertFalse(world.isAlive(commands.resolve(discarded)));
+        assertFalse(world.isAlive(destroyed.getHandle()));
+        assertEquals(Set.of(Box.class), types(kept));
+        assertEquals(2, world.getEntityCount());
+
+        //A stale Handle is ignored, even if its Index got recycled
+        long recycled = world.createHandle();
+        commands.add(destroyed.getHandle(), new Box());
+        commands.playback();
+        assertEquals(Set.of(), types(world.getEntity(recycled)));
+    }
+
+    private static Set<Class<?>> types(Entity entity){
+        return entity.getComponents().stream().map(Object::getClass).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,120 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks that the required Components added to an {@link Entity} are the Instances {@link Component#getRequiredComponents()} returns.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class RequiredComponentsTest {
+
+    public static class Health extends Component {
+        public int value;
+
+        public Health(){
+            this(1);
+        }
+        public Health(int value){
+            this.value = value;
+        }
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>(List.of(new Armor(7)));
+        }
+    }
+    public static class Armor extends Component {
+        public int value;
+
+        public Armor(){
+            this(1);
+        }
+        public Armor(int value){
+            this.value = value;
+        }
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+    @Pooled
+    public static class Marker extends Component {
+        public int value = 0;
+
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+        @Override
+        protected void reset(){
+            value = 0;
+        }
+    }
+    public static class Player extends Component {
+        @Override
+        protected List<Component> getRequiredComponents(){
+            Marker marker = new Marker();
+            marker.value = 5;
+            return new ArrayList<>(List.of(new Health(100), marker));
+        }
+    }
+
+    private final World world = new World();
+
+    @AfterEach
+    void close(){
+        world.close();
+    }
+
+    @Test
+    void configuredRequirementsAreKept(){
+        Entity player = new Entity(world).putComponent(new Player());
+        assertEquals(100, find(player, Health.class).value);
+        //Required by a Requirement
+        assertEquals(7, find(player, Armor.class).value);
+    }
+
+    @Test
+    void presentTypesArentReplaced(){
+        Entity player = new Entity(world).putComponent(new Armor(3)).putComponent(new Player());
+        assertEquals(3, find(player, Armor.class).value);
+        assertEquals(100, find(player, Health.class).value);
+        assertEquals(4, player.getComponents().size());
+    }
+
+    @Test
+    void pooledRequirementsComeFromThePool(){
+        Entity player = new Entity(world).putComponent(new Player());
+        //Pooled Types opt out of configured Requirements, they come in their reset State
+        assertEquals(0, find(player, Marker.class).value);
+    }
+
+    @Test
+    void batchesAndCommandBuffersKeepConfiguredRequirements(){
+        long[] spawned = world.spawnBatch(3, Player::new);
+        for(long handle : spawned){
+            assertEquals(100, find(world.getEntity(handle), Health.class).value);
+            assertEquals(7, find(world.getEntity(handle), Armor.class).value);
+        }
+        CommandBuffer buffer = new CommandBuffer(world);
+        long created = buffer.create();
+        buffer.add(created, new Player());
+        buffer.playback();
+        Entity entity = world.getEntity(buffer.resolve(created));
+        assertEquals(100, find(entity, Health.class).value);
+        assertEquals(7, find(entity, Armor.class).value);
+    }
+
+    private static <T extends Component> T find(Entity entity, Class<T> type){
+        for(Component component : entity.getComponents()){
+            if(component.getClass() == type) return type.cast(component);
+        }
+        return fail("The Entity has no " + type.getSimpleName());
+    }
+}
@@ -0,0 +1,182 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks that a {@link Snapshot} translates stored Handles and that a failed Load leaves the {@link World} as it was.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class SnapshotTest {
+
+    @Packed
+    public static class Follow extends Component {
+        @EntityReference
+        public long target = Entity.NULL;
+        public long raw;
+        public float distance;
+
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+    public static class Link extends Component {
+        @EntityReference
+        public long target = Entity.NULL;
+        public long raw;
+        public String name;
+        public Entity leader;
+
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+    @Pooled
+    public static class Broken extends Component {
+        public int value;
+
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+
+    private final World source = new World();
+    private final World target = new World();
+
+    @AfterEach
+    void close(){
+        source.close();
+        target.close();
+    }
+
+    @Test
+    void markedHandlesAreTranslated() throws IOException {
+        Entity leader = new Entity(source);
+        Follow follow = new Follow();
+        follow.target = leader.getHandle();
+        follow.raw = leader.getHandle();
+        follow.distance = 2;
+        Link link = new Link();
+        link.target = leader.getHandle();
+        link.raw = leader.getHandle();
+        link.name = "leader";
+        new Entity(source).putComponent(follow).putComponent(link);
+        leader.putComponent(new Link());
+
+        //Existing Entities make the loaded Handles differ from the saved ones
+        for(int i = 0; i < 5; i++){
+            target.createHandle();
+        }
+        long[] loaded = Snapshot.load(target, save(source));
+        assertEquals(2, loaded.length);
+        long loadedLeader = Arrays.stream(loaded).filter(handle -> find(target.getEntity(handle), Follow.class) == null).findFirst().orElseThrow();
+        long loadedFollower = Arrays.stream(loaded).filter(handle -> handle != loadedLeader).findFirst().orElseThrow();
+        assertNotEquals(leader.getHandle(), loadedLeader);
+
+        Follow loadedFollow = find(target.getEntity(loadedFollower), Follow.class);
+        assertEquals(loadedLeader, loadedFollow.target);
+        //Unmarked Fields keep the saved Handle
+        assertEquals(leader.getHandle(), loadedFollow.raw);
+        assertEquals(2, loadedFollow.distance);
+        Link loadedLink = find(target.getEntity(loadedFollower), Link.class);
+        assertEquals(loadedLeader, loadedLink.target);
+        assertEquals(leader.getHandle(), loadedLink.raw);
+        assertEquals("leader", loadedLink.name);
+        assertEquals(Entity.NULL, find(target.getEntity(loadedLeader), Link.class).target);
+    }
+
+    @Test
+    void entityFieldsGetTheEntityObjectOfTheWorld() throws IOException {
+        Entity leader = new Entity(source);
+        Link link = new Link();
+        link.leader = leader;
+        new Entity(source).putComponent(link);
+        leader.putComponent(new Link());
+
+        //Loading holds the exclusive Lock, in the concurrent Mode the Entity Objects must be taken without locking again
+        target.setConcurrent(true);
+        long[] loaded = Snapshot.load(target, save(source));
+        Link loadedLink = Arrays.stream(loaded).mapToObj(handle -> find(target.getEntity(handle), Link.class)).filter(found -> found.leader != null).findFirst().orElseThrow();
+        assertNotSame(leader, loadedLink.leader);
+        assertSame(target.getEntity(loadedLink.leader.getHandle()), loadedLink.leader);
+        assertNull(find(loadedLink.leader, Link.class).leader);
+    }
+
+    @Test
+    void truncatedSnapshotLeavesTheWorldUnchanged() throws IOException {
+        for(int i = 0; i < 3 * Archetype.CHUNK_CAPACITY; i++){
+            Follow follow = new Follow();
+            follow.distance = i;
+            new Entity(source).putComponent(follow).putComponent(new Link());
+        }
+        byte[] snapshot = save(source).readAllBytes();
+        Entity existing = new Entity(target).putComponent(new Follow()).putComponent(new Link());
+        int[] sizes = sizes(target);
+
+        //Cut the Stream at several Points, inside the Handles and inside the Columns
+        for(int length : new int[]{20, snapshot.length / 3, snapshot.length / 2, snapshot.length - 1}){
+            ByteArrayInputStream stream = new ByteArrayInputStream(Arrays.copyOf(snapshot, length));
+            assertThrows(IOException.class, () -> Snapshot.load(target, stream));
+            assertEquals(1, target.getEntityCount());
+            assertArrayEquals(sizes, sizes(target));
+            assertTrue(target.isAlive(existing.getHandle()));
+        }
+        //The World still works after the failed Loads
+        assertEquals(3 * Archetype.CHUNK_CAPACITY, Snapshot.load(target, new ByteArrayInputStream(snapshot)).length);
+        assertEquals(3 * Archetype.CHUNK_CAPACITY + 1, target.getEntityCount());
+        assertEquals(3 * Archetype.CHUNK_CAPACITY + 1, target.query(Follow.class, Link.class).size());
+    }
+
+    @Test
+    void failingCodecLeavesTheWorldUnchanged() throws IOException {
+        for(int i = 0; i < 10; i++){
+            new Entity(source).putComponent(new Link()).putComponent(new Broken());
+        }
+        Snapshot.registerCodec(Broken.class, new ComponentCodec<>(){
+            @Override
+            public void write(Broken component, SnapshotOutput out) throws IOException {
+                out.writeInt(component.value);
+            }
+            @Override
+            public Broken read(SnapshotInput in){
+                throw new IllegalStateException("Broken");
+            }
+        });
+        int pooled = ComponentPool.of(Broken.class).getStatistics().getSize();
+        assertThrows(IllegalStateException.class, () -> Snapshot.load(target, save(source)));
+        assertEquals(0, target.getEntityCount());
+        for(Archetype archetype : target.getArchetypes()){
+            assertEquals(0, archetype.size());
+        }
+        assertEquals(pooled, ComponentPool.of(Broken.class).getStatistics().getSize());
+    }
+
+    private static ByteArrayInputStream save(World world) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        Snapshot.save(world, stream);
+        return new ByteArrayInputStream(stream.toByteArray());
+    }
+    private static int[] sizes(World world){
+        //A failed Load can leave new empty Archetypes behind
+        return world.getArchetypes().stream().mapToInt(Archetype::size).filter(size -> size > 0).toArray();
+    }
+    private static <T extends Component> T find(Entity entity, Class<T> type){
+        for(Component component : entity.getComponents()){
+            if(component.getClass() == type) return type.cast(component);
+        }
+        return null;
+    }
+}
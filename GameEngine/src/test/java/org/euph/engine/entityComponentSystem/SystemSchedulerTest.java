@@ -0,0 +1,136 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks that a {@link SystemScheduler} keeps the Order of conflicting Systems and finishes its Frames
+ * when it gets run from a Worker of its own Pool.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class SystemSchedulerTest {
+
+    private static final int FRAMES = 100;
+
+    public static class Position extends Component {
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+    public static class Velocity extends Component {
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+    /** Appends its Number to a shared Log, Systems that write the same type conflict and have to log in the Order they were added. */
+    private static class LogSystem extends EngineSystem {
+        private final int number;
+        private final Class<? extends Component> writes;
+        private final List<Integer> log;
+
+        private LogSystem(World world, int number, Class<? extends Component> writes, List<Integer> log){
+            super(world);
+            this.number = number;
+            this.writes = writes;
+            this.log = log;
+        }
+        @Override
+        protected void update(float delta){
+            synchronized (log){
+                log.add(number);
+            }
+        }
+        @Override
+        protected List<Class<? extends Component>> getWriteComponents(){
+            List<Class<? extends Component>> components = new ArrayList<>();
+            components.add(writes);
+            return components;
+        }
+    }
+
+    private final List<World> worlds = new ArrayList<>();
+    private final List<ForkJoinPool> pools = new ArrayList<>();
+
+    @AfterEach
+    void close(){
+        pools.forEach(ForkJoinPool::shutdownNow);
+        worlds.forEach(World::close);
+    }
+
+    @Test
+    void conflictingSystemsRunInTheirOrder(){
+        List<Integer> log = new ArrayList<>();
+        SystemScheduler scheduler = scheduler(pool(4), log);
+        for(int frame = 0; frame < FRAMES; frame++){
+            log.clear();
+            scheduler.run(0);
+            assertInOrder(log);
+        }
+    }
+
+    @Test
+    void runsFromAWorkerOfItsOwnPool(){
+        //The only Worker runs the Frame, so nobody else can take the Tasks it hands to the Pool
+        ForkJoinPool pool = pool(1);
+        List<Integer> log = new ArrayList<>();
+        SystemScheduler scheduler = scheduler(pool, log);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for(int frame = 0; frame < FRAMES; frame++){
+                log.clear();
+                pool.submit(() -> scheduler.run(0)).get(5, TimeUnit.SECONDS);
+                assertInOrder(log);
+            }
+        });
+    }
+
+    @Test
+    void worldsTickedFromAParallelStreamOfTheCommonPool(){
+        List<List<Integer>> logs = new ArrayList<>();
+        List<SystemScheduler> schedulers = new ArrayList<>();
+        for(int i = 0; i < 8; i++){
+            logs.add(new ArrayList<>());
+            schedulers.add(scheduler(ForkJoinPool.commonPool(), logs.get(i)));
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for(int frame = 0; frame < FRAMES; frame++){
+                logs.forEach(List::clear);
+                IntStream.range(0, schedulers.size()).parallel().forEach(i -> schedulers.get(i).run(0));
+                logs.forEach(SystemSchedulerTest::assertInOrder);
+            }
+        });
+    }
+
+    /** Creates a Scheduler of a new World with two Chains of conflicting Systems, that don't conflict with each other. */
+    private SystemScheduler scheduler(ForkJoinPool pool, List<Integer> log){
+        World world = new World();
+        worlds.add(world);
+        SystemScheduler scheduler = new SystemScheduler(world, pool);
+        for(int i = 0; i < 6; i++){
+            scheduler.addSystem(new LogSystem(world, i, i % 2 == 0 ? Position.class : Velocity.class, log));
+        }
+        return scheduler;
+    }
+    private ForkJoinPool pool(int threads){
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        pools.add(pool);
+        return pool;
+    }
+    private static void assertInOrder(List<Integer> log){
+        assertEquals(6, log.size());
+        //Each Chain keeps its Order, the Chains can interleave
+        assertEquals(List.of(0, 2, 4), log.stream().filter(number -> number % 2 == 0).toList());
+        assertEquals(List.of(1, 3, 5), log.stream().filter(number -> number % 2 == 1).toList());
+    }
+}
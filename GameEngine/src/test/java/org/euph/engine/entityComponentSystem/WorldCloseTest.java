@@ -0,0 +1,90 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks that closing a {@link World} frees its Off-Heap Memory, returns its pooled Components and leaves it unusable.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class WorldCloseTest {
+
+    @Packed
+    public static class Velocity extends Component {
+        public float x, y, z;
+
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+    @Pooled(capacity = 8192)
+    public static class Bullet extends Component {
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+
+    @Test
+    void closeFreesAllChunks(){
+        for(boolean concurrent : new boolean[]{false, true}){
+            World world = new World();
+            world.setConcurrent(concurrent);
+            //More than two Chunks, and one emptied Chunk that becomes the spare one
+            long[] handles = world.spawnBatch(3 * Archetype.CHUNK_CAPACITY, Velocity::new, ComponentPool.of(Bullet.class));
+            for(int i = 2 * Archetype.CHUNK_CAPACITY; i < handles.length; i++){
+                world.destroy(handles[i]);
+            }
+            List<ArchetypeChunk> chunks = new ArrayList<>();
+            for(Archetype archetype : world.getArchetypes()){
+                chunks.addAll(archetype.getChunks());
+            }
+            assertTrue(chunks.stream().anyMatch(chunk -> chunk.packed.length > 0 && chunk.packed[0] != 0));
+            int pooled = ComponentPool.of(Bullet.class).getStatistics().getSize();
+
+            world.close();
+            assertTrue(world.isClosed());
+            for(ArchetypeChunk chunk : chunks){
+                for(long address : chunk.packed){
+                    assertEquals(0, address);
+                }
+            }
+            for(Archetype archetype : world.getArchetypes()){
+                assertEquals(0, archetype.size());
+                assertTrue(archetype.getChunks().isEmpty());
+            }
+            assertEquals(pooled + 2 * Archetype.CHUNK_CAPACITY, ComponentPool.of(Bullet.class).getStatistics().getSize());
+            //Drain the Pool again for the next Round
+            for(int i = 0; i < 2 * Archetype.CHUNK_CAPACITY; i++){
+                ComponentPool.of(Bullet.class).obtain();
+            }
+        }
+    }
+
+    @Test
+    void closedWorldIsUnusable(){
+        World world = new World();
+        long entity = new Entity(world).putComponent(new Velocity()).getHandle();
+        Query query = world.query(Velocity.class);
+        world.close();
+        //Closing again does nothing
+        world.close();
+        assertFalse(world.isAlive(entity));
+        assertNull(world.getEntity(entity));
+        assertThrows(IllegalStateException.class, world::createHandle);
+        assertThrows(IllegalStateException.class, query::iterator);
+        assertThrows(IllegalStateException.class, world::getEntityCount);
+    }
+
+    @Test
+    void defaultWorldCantBeClosed(){
+        assertThrows(IllegalStateException.class, () -> EntityComponentSystem.getDefaultWorld().close());
+        assertFalse(EntityComponentSystem.getDefaultWorld().isClosed());
+    }
+}
@@ -0,0 +1,219 @@
+package org.euph.engine.entityComponentSystem;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Hammers a {@link World} in concurrent Mode from many Threads and checks that it stays consistent.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class WorldConcurrencyTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 2;
+    private static final int OPERATIONS = 5_000;
+
+    public static class Position extends Component {
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+    public static class Velocity extends Component {
+        @Override
+        protected List<Component> getRequiredComponents(){
+            return new ArrayList<>();
+        }
+    }
+    public static class FastVelocity extends Velocity {
+    }
+
+    @Test
+    void staysConsistentUnderConcurrentAddRemoveAndQuery() throws Exception {
+        World world = new World();
+        world.setConcurrent(true);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        //Every Writer only touches its own Entities, so that the expected State is known at the End
+        List<Map<Entity, Set<Class<? extends Component>>>> expected = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for(int w = 0; w < WRITERS; w++){
+            Map<Entity, Set<Class<? extends Component>>> owned = new HashMap<>();
+            expected.add(owned);
+            long seed = w;
+            threads.add(new Thread(() -> run(failure, start, () -> write(world, owned, new Random(seed)))));
+        }
+        List<Thread> readers = new ArrayList<>();
+        for(int r = 0; r < READERS; r++){
+            readers.add(new Thread(() -> run(failure, start, () -> {
+                Query positions = world.query(Position.class).optional(Velocity.class);
+                Query velocities = world.query(Velocity.class);
+                while(writing.get()){
+                    read(world, positions, velocities);
+                }
+                positions.dispose();
+                velocities.dispose();
+            })));
+        }
+        threads.forEach(Thread::start);
+        readers.forEach(Thread::start);
+        start.countDown();
+        for(Thread thread : threads){
+            thread.join();
+        }
+        writing.set(false);
+        for(Thread reader : readers){
+            reader.join();
+        }
+        if(failure.get() != null) fail(failure.get());
+
+        //Compare the final State against what the Writers did
+        int alive = 0;
+        int withPosition = 0;
+        int withVelocity = 0;
+        for(Map<Entity, Set<Class<? extends Component>>> owned : expected){
+            for(Map.Entry<Entity, Set<Class<? extends Component>>> entry : owned.entrySet()){
+                Entity entity = entry.getKey();
+                assertTrue(world.isAlive(entity.getHandle()));
+                Set<Class<? extends Component>> types = new HashSet<>();
+                for(Component component : entity.getComponents()){
+                    assertEquals(entity.getHandle(), component.getEntityHandle());
+                    assertTrue(types.add(component.getClass()), "A type is stored twice on " + entity.getHandle());
+                }
+                assertEquals(entry.getValue(), types);
+                alive++;
+                if(types.contains(Position.class)) withPosition++;
+                if(types.contains(Velocity.class) || types.contains(FastVelocity.class)) withVelocity++;
+            }
+        }
+        assertEquals(alive, world.getEntityCount());
+        Query positions = world.query(Position.class);
+        Query velocities = world.query(Velocity.class);
+        assertEquals(withPosition, positions.size());
+        assertEquals(withVelocity, velocities.size());
+        assertEquals(withVelocity, world.getComponentInstances(Velocity.class).size());
+        int iterated = 0;
+        try(QueryIterator iterator = positions.iterator()){
+            while(iterator.next()){
+                assertTrue(world.isAlive(iterator.getEntity()));
+                iterated++;
+            }
+        }
+        assertEquals(withPosition, iterated);
+    }
+
+    @Test
+    void readsInsideAnIterationDontWaitForAQueuedWriter(){
+        assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+            World world = new World();
+            world.setConcurrent(true);
+            Position position = new Position();
+            new Entity(world).putComponent(position);
+            long bare = world.createHandle();
+            Query query = world.query(Position.class);
+            Thread writer = new Thread(world::createHandle);
+            try(QueryIterator iterator = query.iterator()){
+                assertTrue(iterator.next());
+                //Queue a Writer behind the shared Lock of the Iteration
+                writer.start();
+                while(writer.getState() != Thread.State.WAITING){
+                    Thread.onSpinWait();
+                }
+                //A non reentrant shared Lock would wait behind the Writer here
+                assertNotNull(world.getEntity(bare));
+                position.markChanged();
+                assertEquals(1, query.size());
+                assertTrue(world.isAlive(iterator.getEntity()));
+                assertEquals(1, world.getComponentInstances(Position.class).size());
+                //Changing the Structure would wait for this Thread itself
+                assertThrows(IllegalStateException.class, () -> world.destroy(bare));
+            }
+            writer.join();
+            assertEquals(3, world.getEntityCount());
+        });
+    }
+
+    private static void write(World world, Map<Entity, Set<Class<? extends Component>>> owned, Random random){
+        List<Entity> entities = new ArrayList<>();
+        for(int i = 0; i < OPERATIONS; i++){
+            int operation = entities.isEmpty() ? 0 : random.nextInt(6);
+            Entity entity = entities.isEmpty() ? null : entities.get(random.nextInt(entities.size()));
+            switch(operation){
+                case 0 -> {
+                    Entity created = new Entity(world);
+                    entities.add(created);
+                    owned.put(created, new HashSet<>());
+                }
+                case 1 -> {
+                    if(owned.get(entity).add(Position.class)) entity.putComponent(new Position());
+                }
+                case 2 -> {
+                    Set<Class<? extends Component>> types = owned.get(entity);
+                    if(types.contains(Velocity.class) || types.contains(FastVelocity.class)) break;
+                    Velocity velocity = random.nextBoolean() ? new Velocity() : new FastVelocity();
+                    types.add(velocity.getClass());
+                    entity.putComponent(velocity);
+                }
+                case 3 -> {
+                    entity.removeAllComponents(Position.class);
+                    owned.get(entity).remove(Position.class);
+                }
+                case 4 -> {
+                    //Removes the Subtype too
+                    entity.removeAllComponents(Velocity.class);
+                    owned.get(entity).remove(Velocity.class);
+                    owned.get(entity).remove(FastVelocity.class);
+                }
+                default -> {
+                    entity.destroy();
+                    entities.remove(entity);
+                    owned.remove(entity);
+                }
+            }
+        }
+    }
+
+    private static void read(World world, Query positions, Query velocities){
+        try(QueryIterator iterator = positions.iterator()){
+            while(iterator.next()){
+                long entity = iterator.getEntity();
+                Position position = iterator.get(0);
+                assertEquals(entity, position.getEntityHandle());
+                Velocity velocity = iterator.get(1);
+                if(velocity != null) assertEquals(entity, velocity.getEntityHandle());
+                //Nested Reads while holding the shared Lock
+                assertTrue(world.isAlive(entity));
+                assertNotNull(world.getEntity(entity));
+                position.markChanged();
+            }
+        }
+        velocities.size();
+        for(Component velocity : world.getComponentInstances(Velocity.class)){
+            assertInstanceOf(Velocity.class, velocity);
+        }
+    }
+
+    private static void run(AtomicReference<Throwable> failure, CountDownLatch start, Runnable body){
+        try{
+            start.await();
+            body.run();
+        }catch (Throwable t){
+            failure.compareAndSet(null, t);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.euph.engine.entityComponentSystem.systems.spatial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Compares a {@link HandleMap} with a {@link HashMap} under random Puts and Removes, so that the Entries moved back by a Remove stay reachable.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class HandleMapTest {
+
+    @Test
+    void matchesHashMap(){
+        Random random = new Random(7);
+        HandleMap map = new HandleMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        //Few Keys, so that the Probe Sequences collide often
+        for(int operation = 0; operation < 200_000; operation++){
+            long handle = 1 + random.nextInt(3000) + ((long) random.nextInt(3) << 32);
+            if(random.nextInt(3) == 0){
+                Integer removed = expected.remove(handle);
+                assertEquals(removed == null ? -1 : removed, map.remove(handle));
+            }else{
+                int slot = random.nextInt(1_000_000);
+                expected.put(handle, slot);
+                map.put(handle, slot);
+            }
+            if(operation % 1000 == 0){
+                for(Map.Entry<Long, Integer> entry : expected.entrySet()){
+                    assertEquals(entry.getValue(), map.get(entry.getKey()));
+                }
+            }
+        }
+        map.clear();
+        for(long handle : expected.keySet()){
+            assertEquals(-1, map.get(handle));
+        }
+    }
+}
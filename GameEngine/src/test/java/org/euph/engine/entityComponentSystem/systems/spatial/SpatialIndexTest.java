@@ -0,0 +1,181 @@
+package org.euph.engine.entityComponentSystem.systems.spatial;
+
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Compares the Box, Radius, Ray and nearest Queries of the {@link SpatialHashGrid} and the {@link BoundingVolumeHierarchy}
+ * with a Brute Force Test of every Box, while Boxes get put, moved and removed.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class SpatialIndexTest {
+
+    private static final int ENTITIES = 2000;
+    private static final int QUERIES = 200;
+    private static final float EPSILON = 1e-4f;
+
+    //The Boxes as the Brute Force sees them, 6 Floats per Entity.
+    private final Map<Long, float[]> boxes = new HashMap<>();
+
+    @Test
+    void gridMatchesBruteForce(){
+        check(() -> new SpatialHashGrid(4));
+    }
+    @Test
+    void hierarchyMatchesBruteForce(){
+        check(BoundingVolumeHierarchy::new);
+    }
+
+    private void check(Supplier<SpatialIndex> factory){
+        Random random = new Random(3);
+        SpatialIndex index = factory.get();
+        for(long entity = 1; entity <= ENTITIES; entity++){
+            put(index, entity, random);
+        }
+        compare(index, random);
+        //Move some, remove some and add new ones, then everything must still match
+        for(int round = 0; round < 3; round++){
+            for(long entity = 1; entity <= ENTITIES; entity++){
+                if(random.nextInt(4) == 0) put(index, entity, random);
+            }
+            for(long entity = 1; entity <= ENTITIES; entity += 1 + random.nextInt(6)){
+                assertEquals(boxes.remove(entity) != null, index.remove(entity));
+                assertFalse(index.contains(entity));
+            }
+            for(int i = 0; i < 100; i++){
+                put(index, ENTITIES + round * 100L + i + 1, random);
+            }
+            assertEquals(boxes.size(), index.size());
+            compare(index, random);
+        }
+        index.clear();
+        boxes.clear();
+        assertEquals(0, index.size());
+        compare(index, random);
+    }
+    /** Puts a Point, a small or flat Box, or a Box bigger than a Cell of the Grid. */
+    private void put(SpatialIndex index, long entity, Random random){
+        Vector3f min = randomPoint(random);
+        Vector3f size = switch (random.nextInt(5)) {
+            case 0 -> new Vector3f();
+            case 1 -> new Vector3f(random.nextFloat() * 6, 0, random.nextFloat() * 6);
+            case 2 -> new Vector3f(random.nextFloat() * 20, random.nextFloat() * 20, random.nextFloat() * 20);
+            default -> new Vector3f(random.nextFloat() * 3, random.nextFloat() * 3, random.nextFloat() * 3);
+        };
+        Vector3f max = new Vector3f(min).add(size);
+        index.put(entity, min, max);
+        boxes.put(entity, new float[]{min.x, min.y, min.z, max.x, max.y, max.z});
+        assertTrue(index.contains(entity));
+    }
+    private void compare(SpatialIndex index, Random random){
+        for(int query = 0; query < QUERIES; query++){
+            Vector3f min = randomPoint(random);
+            Vector3f max = new Vector3f(min).add(random.nextFloat() * 30, random.nextFloat() * 30, random.nextFloat() * 30);
+            Set<Long> expected = new HashSet<>();
+            boxes.forEach((entity, box) -> {
+                if(box[0] <= max.x && box[3] >= min.x && box[1] <= max.y && box[4] >= min.y && box[2] <= max.z && box[5] >= min.z) expected.add(entity);
+            });
+            assertEquals(expected, collect(action -> index.queryBox(min, max, action::add)));
+
+            Vector3f center = randomPoint(random);
+            float radius = random.nextFloat() * 25;
+            expected.clear();
+            boxes.forEach((entity, box) -> {
+                if(distance(box, center) <= radius) expected.add(entity);
+            });
+            assertEquals(expected, collect(action -> index.queryRadius(center, radius, action::add)));
+
+            compareRaycast(index, randomPoint(random), randomDirection(random));
+            compareNearest(index, randomPoint(random), 1 + random.nextInt(16));
+        }
+    }
+    private void compareRaycast(SpatialIndex index, Vector3f origin, Vector3f direction){
+        float maxDistance = 500;
+        long closest = 0;
+        double closestDistance = maxDistance;
+        for(Map.Entry<Long, float[]> box : boxes.entrySet()){
+            double entry = rayEntry(box.getValue(), origin, direction);
+            if(entry < closestDistance){
+                closest = box.getKey();
+                closestDistance = entry;
+            }
+        }
+        RayHit hit = new RayHit().reset(maxDistance);
+        assertEquals(closest != 0, index.raycast(origin, direction, hit));
+        assertEquals(closest != 0, hit.hasHit());
+        if(closest == 0) return;
+        assertEquals(closestDistance, hit.getDistance(), EPSILON * Math.max(1, closestDistance));
+        //Another Entity can be hit at the same Distance, like when the Ray starts inside of two Boxes
+        assertEquals(closestDistance, rayEntry(boxes.get(hit.getEntity()), origin, direction), EPSILON * Math.max(1, closestDistance));
+    }
+    private void compareNearest(SpatialIndex index, Vector3f point, int count){
+        List<Float> expected = new ArrayList<>();
+        boxes.values().forEach(box -> expected.add(distance(box, point)));
+        expected.sort(null);
+        NearestNeighbors nearest = new NearestNeighbors(count).reset(Float.POSITIVE_INFINITY);
+        index.nearest(point, nearest);
+        assertEquals(Math.min(count, expected.size()), nearest.size());
+        Set<Long> found = new HashSet<>();
+        for(int i = 0; i < nearest.size(); i++){
+            //Entities at the same Distance can come in any Order, so only the Distances are compared
+            assertEquals(expected.get(i), nearest.getDistance(i), EPSILON);
+            assertEquals(distance(boxes.get(nearest.getEntity(i)), point), nearest.getDistance(i), EPSILON);
+            assertTrue(found.add(nearest.getEntity(i)));
+        }
+    }
+
+    private static Set<Long> collect(Consumer<Set<Long>> query){
+        Set<Long> result = new HashSet<>();
+        query.accept(result);
+        return result;
+    }
+    private static Vector3f randomPoint(Random random){
+        return new Vector3f(random.nextFloat() * 200 - 100, random.nextFloat() * 40 - 20, random.nextFloat() * 200 - 100);
+    }
+    private static Vector3f randomDirection(Random random){
+        //Some Rays run along an Axis, so that they are parallel to the Faces of the Boxes
+        if(random.nextInt(4) == 0){
+            Vector3f direction = new Vector3f();
+            direction.setComponent(random.nextInt(3), random.nextBoolean() ? 1 : -1);
+            return direction;
+        }
+        return new Vector3f(random.nextFloat() * 2 - 1, random.nextFloat() * 0.4f - 0.2f, random.nextFloat() * 2 - 1).normalize();
+    }
+    private static float distance(float[] box, Vector3f point){
+        float dx = Math.max(0, Math.max(box[0] - point.x, point.x - box[3]));
+        float dy = Math.max(0, Math.max(box[1] - point.y, point.y - box[4]));
+        float dz = Math.max(0, Math.max(box[2] - point.z, point.z - box[5]));
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+    /** @return the Distance at which the Ray enters the Box, 0 if it starts inside, or infinite if it misses it, from the Slabs of the three Axes. */
+    private static double rayEntry(float[] box, Vector3f origin, Vector3f direction){
+        double near = 0;
+        double far = Double.POSITIVE_INFINITY;
+        for(int axis = 0; axis < 3; axis++){
+            double o = origin.get(axis);
+            double d = direction.get(axis);
+            if(d == 0){
+                if(o < box[axis] || o > box[3 + axis]) return Double.POSITIVE_INFINITY;
+                continue;
+            }
+            double t0 = (box[axis] - o) / d;
+            double t1 = (box[3 + axis] - o) / d;
+            near = Math.max(near, Math.min(t0, t1));
+            far = Math.min(far, Math.max(t0, t1));
+        }
+        return near <= far ? near : Double.POSITIVE_INFINITY;
+    }
+}
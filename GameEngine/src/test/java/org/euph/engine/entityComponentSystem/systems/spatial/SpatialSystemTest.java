@@ -0,0 +1,120 @@
+package org.euph.engine.entityComponentSystem.systems.spatial;
+
+import org.euph.engine.entityComponentSystem.CommandBuffer;
+import org.euph.engine.entityComponentSystem.Entity;
+import org.euph.engine.entityComponentSystem.World;
+import org.euph.engine.entityComponentSystem.components.Bounds;
+import org.euph.engine.entityComponentSystem.components.Static;
+import org.euph.engine.entityComponentSystem.components.Transform;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks that a {@link SpatialSystem} updates its Indices incrementally, when Entities move, gain or lose {@link Bounds} and {@link Static},
+ * or get destroyed directly or through a {@link CommandBuffer}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class SpatialSystemTest {
+
+    private final World world = new World();
+    private final SpatialSystem spatial = new SpatialSystem(world, 2);
+
+    @AfterEach
+    void close(){
+        world.close();
+    }
+
+    @Test
+    void movedEntitiesAreFoundAtTheirNewPosition(){
+        Transform transform = new Transform();
+        transform.position.set(10, 0, 0);
+        Entity entity = new Entity(world).putComponent(transform);
+        spatial.run(0);
+        assertEquals(Set.of(entity.getHandle()), near(10, 0, 0));
+
+        transform.position.set(-30, 5, 0);
+        transform.markChanged();
+        spatial.run(0);
+        assertEquals(Set.of(), near(10, 0, 0));
+        assertEquals(Set.of(entity.getHandle()), near(-30, 5, 0));
+
+        //Without marking the Change the Index keeps the old Position
+        transform.position.set(50, 0, 0);
+        spatial.run(0);
+        assertEquals(Set.of(entity.getHandle()), near(-30, 5, 0));
+    }
+
+    @Test
+    void boundsAndStaticDecideTheBoxAndTheIndex(){
+        Transform transform = new Transform();
+        Entity entity = new Entity(world).putComponent(transform);
+        spatial.run(0);
+        assertTrue(spatial.getDynamicIndex().contains(entity.getHandle()));
+        //A Point at the Origin
+        assertEquals(Set.of(), box(3, 3));
+
+        Bounds bounds = new Bounds();
+        bounds.min.set(-4);
+        bounds.max.set(4);
+        entity.putComponent(bounds);
+        spatial.run(0);
+        assertEquals(Set.of(entity.getHandle()), box(3, 3));
+
+        Static marker = new Static();
+        entity.putComponent(marker);
+        spatial.run(0);
+        assertTrue(spatial.getStaticIndex().contains(entity.getHandle()));
+        assertFalse(spatial.getDynamicIndex().contains(entity.getHandle()));
+        assertEquals(Set.of(entity.getHandle()), box(3, 3));
+
+        entity.removeComponent(marker);
+        spatial.run(0);
+        assertTrue(spatial.getDynamicIndex().contains(entity.getHandle()));
+        assertFalse(spatial.getStaticIndex().contains(entity.getHandle()));
+
+        entity.removeComponent(bounds);
+        spatial.run(0);
+        assertTrue(spatial.getDynamicIndex().contains(entity.getHandle()));
+        assertEquals(Set.of(), box(3, 3));
+        assertEquals(Set.of(entity.getHandle()), near(0, 0, 0));
+    }
+
+    @Test
+    void destroyedEntitiesAreDropped(){
+        Entity moving = new Entity(world).putComponent(new Transform());
+        Entity fixed = new Entity(world).putComponent(new Static());
+        Entity buffered = new Entity(world).putComponent(new Bounds()).putComponent(new Static());
+        spatial.run(0);
+        assertEquals(1, spatial.getDynamicIndex().size());
+        assertEquals(2, spatial.getStaticIndex().size());
+
+        moving.destroy();
+        world.destroy(fixed.getHandle());
+        CommandBuffer commands = new CommandBuffer(world);
+        commands.destroy(buffered.getHandle());
+        commands.playback();
+        spatial.run(0);
+        assertEquals(0, spatial.getDynamicIndex().size());
+        assertEquals(0, spatial.getStaticIndex().size());
+        assertEquals(Set.of(), near(0, 0, 0));
+    }
+
+    private Set<Long> near(float x, float y, float z){
+        Set<Long> found = new HashSet<>();
+        spatial.queryRadius(new Vector3f(x, y, z), 1, found::add);
+        return found;
+    }
+    /** @return the Entities overlapping the Box from the Corner to the Corner plus the Size on every Axis. */
+    private Set<Long> box(float corner, float size){
+        Set<Long> found = new HashSet<>();
+        spatial.queryBox(new Vector3f(corner), new Vector3f(corner + size), found::add);
+        return found;
+    }
+}
@@ -0,0 +1,131 @@
+package org.euph.engine.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks the Bucket Boundaries of a {@link MetricHistogram} and compares its Percentiles with the Ranks of a sorted Array.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class MetricHistogramTest {
+
+    private static final double[] PERCENTILES = {0, 1, 10, 50, 90, 99, 99.9, 100};
+
+    private final MetricHistogram histogram = new MetricHistogram();
+    //Holds a single Value to find the Bucket it falls into.
+    private final MetricHistogram single = new MetricHistogram();
+
+    @Test
+    void smallValuesGetABucketEach(){
+        for(long value = 0; value < 128; value++){
+            assertEquals(value, bucketEnd(value));
+        }
+        //Negative Values are counted as 0
+        assertEquals(0, bucketEnd(-5));
+        assertEquals(0, bucketEnd(Long.MIN_VALUE));
+    }
+
+    @Test
+    void everyPowerOfTwoIsSplitIntoSixtyFourBuckets(){
+        //The first Buckets above the exact ones are two Values wide
+        assertEquals(129, bucketEnd(128));
+        assertEquals(129, bucketEnd(129));
+        assertEquals(131, bucketEnd(130));
+        assertEquals(255, bucketEnd(254));
+        assertEquals(259, bucketEnd(256));
+        for(int bit = 7; bit < 63; bit++){
+            long power = 1L << bit;
+            long width = power >> 6;
+            //Every Power of Two starts a Bucket and ends the one before
+            assertEquals(power - 1, bucketEnd(power - 1));
+            assertEquals(power + width - 1, bucketEnd(power));
+            assertEquals(power + width - 1, bucketEnd(power + width - 1));
+            assertEquals(power + 2 * width - 1, bucketEnd(power + width));
+            assertEquals(2 * power - 1, bucketEnd(2 * power - 1 - width / 2));
+        }
+        assertEquals(Long.MAX_VALUE, bucketEnd(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, bucketEnd(Long.MAX_VALUE - (1L << 56) + 1));
+        assertEquals(Long.MAX_VALUE - (1L << 56), bucketEnd(Long.MAX_VALUE - (1L << 56)));
+    }
+
+    @Test
+    void bucketsAreAtMostOneSixtyFourthOfTheirValueWide(){
+        Random random = new Random(11);
+        for(int i = 0; i < 100_000; i++){
+            long value = randomValue(random);
+            long end = bucketEnd(value);
+            assertTrue(end >= value && end - value <= value >> 6, value + " was rounded up to " + end);
+        }
+    }
+
+    @Test
+    void percentilesMatchASortedArray(){
+        Random random = new Random(5);
+        for(int count : new int[]{1, 2, 7, 100, 1001, 50_000}){
+            histogram.reset();
+            long[] values = new long[count];
+            for(int i = 0; i < count; i++){
+                values[i] = randomValue(random);
+                histogram.record(values[i]);
+            }
+            assertEquals(count, histogram.getCount());
+            Arrays.sort(values);
+            for(double percentile : PERCENTILES){
+                long expected = values[rank(percentile, count) - 1];
+                assertEquals(bucketEnd(expected), histogram.getPercentile(percentile), "P" + percentile + " of " + count + " Values");
+            }
+        }
+    }
+
+    @Test
+    void removedValuesLeaveThePercentiles(){
+        Random random = new Random(9);
+        List<Long> kept = new ArrayList<>();
+        for(int i = 0; i < 5000; i++){
+            long value = randomValue(random);
+            histogram.record(value);
+            kept.add(value);
+            if(random.nextInt(3) == 0){
+                histogram.remove(kept.remove(random.nextInt(kept.size())));
+            }
+        }
+        assertEquals(kept.size(), histogram.getCount());
+        long[] values = kept.stream().mapToLong(Long::longValue).sorted().toArray();
+        for(double percentile : PERCENTILES){
+            assertEquals(bucketEnd(values[rank(percentile, values.length) - 1]), histogram.getPercentile(percentile));
+        }
+        for(long value : values){
+            histogram.remove(value);
+        }
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+        //The Values of one Bucket can't be told apart, so 1001 removes the 1000 and nothing is left to remove
+        histogram.record(1000);
+        histogram.remove(1001);
+        assertThrows(IllegalStateException.class, () -> histogram.remove(1000));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(100.5));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(-1));
+    }
+
+    /** @return the highest Value of the Bucket the Value falls into, read from a Histogram that only holds it. */
+    private long bucketEnd(long value){
+        single.reset();
+        single.record(value);
+        return single.getPercentile(100);
+    }
+    /** @return the Rank of the Percentile, counted from 1, like the nearest Rank Method. */
+    private static int rank(double percentile, int count){
+        return Math.max(1, (int) Math.ceil(percentile / 100 * count));
+    }
+    /** @return a Value with a random Amount of Bits, so that every Power of Two is as likely. */
+    private static long randomValue(Random random){
+        return random.nextLong() >>> (1 + random.nextInt(63));
+    }
+}
@@ -0,0 +1,106 @@
+package org.euph.engine.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** Checks that a {@link Metric} only keeps the Statistics of its Window, and that recording a Sample doesn't allocate.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class MetricTest {
+
+    private static final int WINDOW = 100;
+    private static final double[] PERCENTILES = {0, 50, 90, 99, 100};
+
+    @Test
+    void oldSamplesLeaveTheWindow(){
+        Random random = new Random(13);
+        Metric metric = new Metric("frame", Metric.Unit.NANOSECONDS, WINDOW);
+        long[] recorded = new long[5 * WINDOW + 17];
+        for(int i = 0; i < recorded.length; i++){
+            //Every few Frames a Spike, so that the Maximum and the high Percentiles change when it leaves the Window
+            recorded[i] = random.nextInt(20) == 0 ? 50_000_000 + random.nextInt(1_000_000) : 16_000_000 + random.nextInt(500_000);
+            metric.record(recorded[i]);
+            long[] window = Arrays.copyOfRange(recorded, Math.max(0, i + 1 - WINDOW), i + 1);
+            assertEquals(window.length, metric.getSize());
+            assertEquals(i + 1, metric.getTotal());
+            assertEquals(recorded[i], metric.getLast());
+            assertEquals(Arrays.stream(window).sum() / window.length, metric.getMean());
+            Arrays.sort(window);
+            assertEquals(window[window.length - 1], metric.getMax());
+            for(double percentile : PERCENTILES){
+                long expected = window[Math.max(1, (int) Math.ceil(percentile / 100 * window.length)) - 1];
+                long actual = metric.getPercentile(percentile);
+                //Rounded up to the End of its Bucket, but never above the Maximum
+                assertTrue(actual >= expected && actual - expected <= expected >> 6, "P" + percentile + " was " + actual + " instead of " + expected);
+                assertTrue(actual <= metric.getMax());
+            }
+        }
+    }
+
+    @Test
+    void aSpikeIsForgottenOnceItLeftTheWindow(){
+        Metric metric = new Metric("entities", Metric.Unit.COUNT, 3);
+        metric.record(1_000_000);
+        metric.record(5);
+        metric.record(5);
+        assertEquals(1_000_000, metric.getMax());
+        assertEquals(1_000_000, metric.getPercentile(99));
+        metric.record(7);
+        assertEquals(7, metric.getMax());
+        assertEquals(7, metric.getPercentile(100));
+        assertEquals(5, metric.getPercentile(50));
+        assertEquals(5, metric.getMean());
+        assertEquals(3, metric.getSize());
+        assertEquals(4, metric.getTotal());
+
+        metric.reset();
+        assertEquals(0, metric.getSize());
+        assertEquals(0, metric.getTotal());
+        assertEquals(0, metric.getMax());
+        assertEquals(0, metric.getPercentile(50));
+        assertEquals(0, metric.getLast());
+        metric.record(9);
+        assertEquals(9, metric.getPercentile(100));
+        assertEquals(9, metric.getMean());
+        assertThrows(IllegalArgumentException.class, () -> new Metric("empty", Metric.Unit.COUNT, 0));
+    }
+
+    @Test
+    void recordingDoesNotAllocate(){
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean, "The VM can't measure the Allocations of a Thread");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(), "The VM can't measure the Allocations of a Thread");
+        Metric metric = new Metric("frame", Metric.Unit.NANOSECONDS, WINDOW);
+        Random random = new Random(17);
+        long[] samples = new long[10 * WINDOW];
+        for(int i = 0; i < samples.length; i++){
+            samples[i] = random.nextLong() >>> random.nextInt(64);
+        }
+        long checksum = record(metric, samples);
+        //The Measurement itself can allocate a few Bytes, so it is taken once without recording
+        long before = threads.getCurrentThreadAllocatedBytes();
+        long overhead = threads.getCurrentThreadAllocatedBytes() - before;
+        before = threads.getCurrentThreadAllocatedBytes();
+        checksum += record(metric, samples);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before - overhead;
+        assertEquals(0, allocated, "Recording " + samples.length + " Samples allocated " + allocated + " Bytes");
+        assertNotEquals(0, checksum);
+    }
+
+    private static long record(Metric metric, long[] samples){
+        long checksum = 0;
+        for(long sample : samples){
+            metric.record(sample);
+            checksum += metric.getPercentile(99) + metric.getMax() + metric.getMean();
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,101 @@
+package org.euph.engine.profiling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks that the {@link Profiler} only holds Rings while a Capture runs and forgets Threads that died.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class ProfilerTest {
+
+    private static final ProfileScope WORK = Profiler.scope("ProfilerTest.work");
+
+    @AfterEach
+    void reset(){
+        Profiler.stopCapture();
+        Profiler.setEnabled(false);
+    }
+
+    @Test
+    void ringsOnlyExistWhileCapturing(){
+        Profiler.setEnabled(true);
+        measure();
+        ProfileThread thread = find(Thread.currentThread());
+        assertNull(thread.ring);
+
+        StringWriter trace = new StringWriter();
+        ChromeTraceWriter writer = new ChromeTraceWriter(trace);
+        Profiler.startCapture(writer);
+        measure();
+        assertNotNull(thread.ring);
+        Profiler.frame();
+        assertEquals(1, writer.getEventCount());
+
+        Profiler.stopCapture();
+        assertNull(thread.ring);
+        assertTrue(trace.toString().contains("ProfilerTest.work"));
+        //Scopes after the Capture don't allocate a new Ring
+        measure();
+        assertNull(thread.ring);
+    }
+
+    @Test
+    void deadThreadsAreForgottenAfterTheirLastScopes() throws InterruptedException {
+        ChromeTraceWriter writer = new ChromeTraceWriter(new StringWriter());
+        Profiler.startCapture(writer);
+        Thread[] workers = new Thread[8];
+        for(int i = 0; i < workers.length; i++){
+            workers[i] = new Thread(ProfilerTest::measure, "ProfilerTest-" + i);
+            workers[i].start();
+        }
+        for(Thread worker : workers){
+            worker.join();
+        }
+        for(Thread worker : workers){
+            assertNotNull(find(worker));
+        }
+        Profiler.frame();
+        //Every Scope of the dead Threads got written before they were dropped
+        assertEquals(workers.length, writer.getEventCount());
+        for(Thread worker : workers){
+            assertNull(find(worker));
+        }
+    }
+
+    @Test
+    void deadThreadsAreForgottenWithoutACapture() throws InterruptedException {
+        Profiler.setEnabled(true);
+        Thread worker = new Thread(ProfilerTest::measure, "ProfilerTest-frame");
+        worker.start();
+        worker.join();
+        assertNotNull(find(worker));
+        Profiler.frame();
+        assertNull(find(worker));
+
+        //A Thread that registers forgets the dead ones as well
+        worker = new Thread(ProfilerTest::measure, "ProfilerTest-register");
+        worker.start();
+        worker.join();
+        Thread registering = new Thread(ProfilerTest::measure, "ProfilerTest-next");
+        registering.start();
+        registering.join();
+        assertNull(find(worker));
+    }
+
+    private static void measure(){
+        Profiler.begin(WORK);
+        Profiler.end(WORK);
+    }
+    private static ProfileThread find(Thread owner){
+        for(ProfileThread thread : Profiler.getThreads()){
+            if(thread.owner == owner) return thread;
+        }
+        return null;
+    }
+}
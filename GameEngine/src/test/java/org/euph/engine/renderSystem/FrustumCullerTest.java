@@ -0,0 +1,199 @@
+package org.euph.engine.renderSystem;
+
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Compares the visible Objects a {@link FrustumCuller} finds with a Brute Force Test of every Object,
+ * with and without the hierarchical Test, on the calling Thread and on Pools, with and without the Cutoffs.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class FrustumCullerTest {
+
+    //More than the parallel Threshold of the Culler
+    private static final int OBJECTS = 20_000;
+    private static final float[][] CUTOFFS = {{0, 0}, {60, 0}, {0, 0.01f}, {45, 0.005f}};
+    private static final float FIELD_OF_VIEW = (float) Math.toRadians(70);
+
+    private final Matrix4f projection = new Matrix4f().perspective(FIELD_OF_VIEW, 16f / 9, 0.1f, 500);
+    private final List<ForkJoinPool> pools = new ArrayList<>();
+    //The Objects as the Brute Force sees them.
+    private final List<float[]> objects = new ArrayList<>();
+
+    @AfterEach
+    void shutdown(){
+        pools.forEach(ForkJoinPool::shutdownNow);
+    }
+
+    @Test
+    void matchesBruteForce(){
+        Random random = new Random(5);
+        FrustumCuller[] cullers = cullers();
+        for(FrustumCuller culler : cullers){
+            fill(culler, new Random(1));
+        }
+        for(int camera = 0; camera < 8; camera++){
+            Matrix4f view = randomView(random);
+            for(float[] cutoff : CUTOFFS){
+                int[] expected = bruteForce(view, cutoff[0], cutoff[1]);
+                for(FrustumCuller culler : cullers){
+                    culler.setMaxDistance(cutoff[0]).setMinScreenSize(cutoff[1]);
+                    culler.cull(projection, view);
+                    assertArrayEquals(expected, Arrays.copyOf(culler.getVisible(), culler.getVisibleCount()));
+                }
+            }
+        }
+        //The Grid makes the hierarchical Test skip Chunks
+        assertTrue(cullers[0].getSkippedChunks() > 0);
+    }
+
+    @Test
+    void singleThreadedCullsAfterParallelOnesMatchBruteForce(){
+        //Late Helpers of a parallel Cull must not take Part in the following small Cull
+        Random random = new Random(9);
+        FrustumCuller culler = new FrustumCuller(pool(4));
+        fill(culler, new Random(1));
+        List<float[]> all = new ArrayList<>(objects);
+        for(int round = 0; round < 50; round++){
+            Matrix4f view = randomView(random);
+            objects.clear();
+            objects.addAll(all);
+            culler.cull(projection, view);
+            assertArrayEquals(bruteForce(view, 0, 0), Arrays.copyOf(culler.getVisible(), culler.getVisibleCount()));
+            //Shrink below the parallel Threshold, removing the last Object doesn't move any other
+            for(int i = OBJECTS - 1; i >= 1000; i--){
+                culler.remove(i);
+            }
+            objects.subList(1000, OBJECTS).clear();
+            culler.cull(projection, view);
+            assertArrayEquals(bruteForce(view, 0, 0), Arrays.copyOf(culler.getVisible(), culler.getVisibleCount()));
+            for(int i = 1000; i < OBJECTS; i++){
+                add(culler, all.get(i));
+            }
+        }
+    }
+
+    @Test
+    void distanceOfChunksCountsTheRadiusOfTheirObjects(){
+        //A Unit Box in front of the Camera, its Sphere reaches about 0.37 closer than its Box
+        Matrix4f view = new Matrix4f().lookAt(-10, 0.5f, 0.5f, 0, 0.5f, 0.5f, 0, 1, 0);
+        for(boolean hierarchical : new boolean[]{false, true}){
+            FrustumCuller culler = new FrustumCuller(null).setHierarchical(hierarchical).setMaxDistance(9.8f);
+            culler.add(new Vector3f(0, 0, 0), new Vector3f(1, 1, 1));
+            culler.cull(projection, view);
+            assertEquals(1, culler.getVisibleCount());
+            culler.setMaxDistance(9.5f);
+            culler.cull(projection, view);
+            assertEquals(0, culler.getVisibleCount());
+        }
+    }
+
+    @Test
+    void minScreenSizeIsAPartOfTheScreenHeight(){
+        //The Screen is 2 * 10 * tan(35 Degrees) = 14 high at a Distance of 10, so a Sphere with a Radius of 1 covers about 0.0714 of it
+        Matrix4f view = new Matrix4f().lookAt(0, 0, 10, 0, 0, 0, 0, 1, 0);
+        FrustumCuller culler = new FrustumCuller(null).setMinScreenSize(0.07f);
+        culler.addSphere(new Vector3f(), 1);
+        culler.cull(projection, view);
+        assertEquals(1, culler.getVisibleCount());
+        culler.setMinScreenSize(0.073f);
+        culler.cull(projection, view);
+        assertEquals(0, culler.getVisibleCount());
+    }
+
+    @Test
+    void clearForgetsTheChunksOfTheLastCull(){
+        FrustumCuller culler = new FrustumCuller(null);
+        fill(culler, new Random(1));
+        culler.cull(projection, randomView(new Random(3)));
+        assertTrue(culler.getSkippedChunks() > 0);
+        culler.clear();
+        assertEquals(0, culler.getSkippedChunks());
+        assertEquals(0, culler.getInsideChunks());
+        assertEquals(0, culler.getVisibleCount());
+    }
+
+    private FrustumCuller[] cullers(){
+        List<FrustumCuller> cullers = new ArrayList<>();
+        for(boolean hierarchical : new boolean[]{true, false}){
+            cullers.add(new FrustumCuller(null).setHierarchical(hierarchical));
+            cullers.add(new FrustumCuller(pool(1)).setHierarchical(hierarchical));
+            cullers.add(new FrustumCuller(pool(4)).setHierarchical(hierarchical));
+        }
+        return cullers.toArray(new FrustumCuller[0]);
+    }
+    private ForkJoinPool pool(int threads){
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        pools.add(pool);
+        return pool;
+    }
+    /** Adds Boxes in the Order of a Grid, so that following Indices are close to each other, and Spheres all over the Place. */
+    private void fill(FrustumCuller culler, Random random){
+        boolean record = objects.isEmpty();
+        for(int i = 0; i < OBJECTS; i++){
+            float[] object;
+            if(i < OBJECTS / 2){
+                float x = (i % 100) * 2 - 100;
+                float z = (i / 100) * 2 - 100;
+                float extent = 0.2f + random.nextFloat();
+                object = new float[]{x, random.nextFloat() * 4, z, extent, extent * 2, extent, 0};
+                object[6] = (float) Math.sqrt(object[3] * object[3] + object[4] * object[4] + object[5] * object[5]);
+            }else{
+                float r = 0.05f + random.nextFloat() * 3;
+                object = new float[]{random.nextFloat() * 300 - 150, random.nextFloat() * 40 - 20, random.nextFloat() * 300 - 150, r, r, r, r};
+            }
+            add(culler, object);
+            if(record) objects.add(object);
+        }
+    }
+    /** Adds an Object as Sphere if its Radius is its Extent, else as Box. */
+    private static void add(FrustumCuller culler, float[] object){
+        if(object[6] == object[3]) culler.addSphere(new Vector3f(object[0], object[1], object[2]), object[6]);
+        else culler.add(new Vector3f(object[0] - object[3], object[1] - object[4], object[2] - object[5]), new Vector3f(object[0] + object[3], object[1] + object[4], object[2] + object[5]));
+    }
+    private static Matrix4f randomView(Random random){
+        Vector3f eye = new Vector3f(random.nextFloat() * 200 - 100, random.nextFloat() * 10, random.nextFloat() * 200 - 100);
+        float yaw = random.nextFloat() * (float) Math.PI * 2;
+        return new Matrix4f().lookAt(eye, new Vector3f(eye).add((float) Math.cos(yaw), -0.2f, (float) Math.sin(yaw)), new Vector3f(0, 1, 0));
+    }
+    /** Tests every Object on its own, with the Rules the Culler documents. The Size on Screen comes from the Field of View,
+     * at a Distance the Screen Height covers twice the Distance times the Tangent of half the Field of View. */
+    private int[] bruteForce(Matrix4f view, float maxDistance, float minScreenSize){
+        Matrix4f viewProjection = new Matrix4f(projection).mul(view);
+        Vector4f[] planes = new Vector4f[6];
+        for(int p = 0; p < 6; p++){
+            planes[p] = viewProjection.frustumPlane(p, new Vector4f());
+        }
+        Vector3f camera = view.origin(new Vector3f());
+        double halfHeight = Math.tan(FIELD_OF_VIEW / 2);
+        List<Integer> visible = new ArrayList<>();
+        for(int i = 0; i < objects.size(); i++){
+            float[] object = objects.get(i);
+            float r = object[6];
+            double distance = camera.distance(object[0], object[1], object[2]);
+            if(maxDistance > 0 && distance - r > maxDistance) continue;
+            if(minScreenSize > 0 && r / (2 * distance * halfHeight) < minScreenSize) continue;
+            boolean outside = false;
+            for(Vector4f plane : planes){
+                double side = plane.x * object[0] + plane.y * object[1] + plane.z * object[2] + plane.w;
+                double reach = Math.abs(plane.x) * object[3] + Math.abs(plane.y) * object[4] + Math.abs(plane.z) * object[5];
+                //Outside of the Sphere or outside of the Box
+                if(side < -r || side < -reach) outside = true;
+            }
+            if(!outside) visible.add(i);
+        }
+        return visible.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,213 @@
+package org.euph.engine.renderSystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks the Order a {@link RenderCommandQueue} sorts its Commands in and the State Changes it flushes to a {@link RecordingRenderBackend}.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class RenderCommandQueueTest {
+
+    private final RenderCommandQueue queue = new RenderCommandQueue();
+
+    @AfterEach
+    void free(){
+        queue.free();
+    }
+
+    @Test
+    void sortsStableAndUnsigned(){
+        Random random = new Random(3);
+        for(int size : new int[]{0, 1, 2, 100, 1024, 1025, 20_000}){
+            queue.clear();
+            long[] keys = new long[size];
+            for(int i = 0; i < size; i++){
+                //Few distinct Keys, so many are equal, and Layers above 7 set the Sign Bit
+                keys[i] = SortKey.pack(random.nextInt(SortKey.MAX_LAYER + 1), 0, random.nextInt(4), random.nextInt(4), random.nextInt(8) << 16);
+                queue.submit(keys[i], i % 7, i);
+            }
+            queue.sort();
+            assertTrue(queue.isSorted());
+            assertOrder(keys);
+        }
+    }
+
+    @Test
+    void sortsKeysThatOnlyDifferInSomeBytes(){
+        //Equal Keys skip every Pass, the others only differ in the highest or the lowest Byte
+        long[][] cases = {
+                {5, 5, 5, 5},
+                {0x8000_0000_0000_0000L, 0x0100_0000_0000_0000L, 0xFF00_0000_0000_0000L, 0L, 0x8000_0000_0000_0000L},
+                {3, 1, 2, 1, 0xFF, 0}
+        };
+        for(long[] keys : cases){
+            queue.clear();
+            for(int i = 0; i < keys.length; i++){
+                queue.submit(keys[i], 0, i);
+            }
+            queue.sort();
+            assertOrder(keys);
+        }
+    }
+
+    @Test
+    void flushBindsOnlyChangedState(){
+        long opaque = SortKey.pack(SortKey.LAYER_WORLD, 0, 1, 1, 10);
+        queue.submit(SortKey.pack(SortKey.LAYER_WORLD, 0, 2, 2, 0), 5, 3);
+        queue.submit(SortKey.pack(SortKey.LAYER_WORLD, 0, 1, 2, 0), 5, 2);
+        queue.submit(opaque, 5, 0);
+        queue.submit(opaque, 5, 1);
+        queue.submit(SortKey.pack(SortKey.LAYER_UI, 0, 2, 2, 0), 6, 4);
+        RecordingRenderBackend backend = new RecordingRenderBackend(true);
+        queue.flush(backend);
+
+        assertEquals(2, backend.getPassChanges());
+        assertEquals(3, backend.getShaderChanges());
+        //A new Shader binds the Material again, even if it stays the same
+        assertEquals(4, backend.getMaterialChanges());
+        //A new Pass binds the Mesh again
+        assertEquals(2, backend.getMeshChanges());
+        assertEquals(5, backend.getDraws());
+        assertEquals(11, backend.getStateChanges());
+        assertEquals(1, backend.getFrames());
+        int[] expected = {
+                RecordingRenderBackend.PASS, RecordingRenderBackend.SHADER, RecordingRenderBackend.MATERIAL, RecordingRenderBackend.MESH,
+                RecordingRenderBackend.DRAW, RecordingRenderBackend.DRAW, RecordingRenderBackend.MATERIAL, RecordingRenderBackend.DRAW,
+                RecordingRenderBackend.SHADER, RecordingRenderBackend.MATERIAL, RecordingRenderBackend.DRAW,
+                RecordingRenderBackend.PASS, RecordingRenderBackend.SHADER, RecordingRenderBackend.MATERIAL, RecordingRenderBackend.MESH, RecordingRenderBackend.DRAW
+        };
+        assertEquals(expected.length, backend.getCallCount());
+        for(int call = 0; call < expected.length; call++){
+            assertEquals(expected[call], backend.getCall(call), "Call " + call);
+        }
+        //The Instances in sorted Order, equal Keys in Submission Order
+        int[] draws = IntStream.range(0, backend.getCallCount()).filter(call -> backend.getCall(call) == RecordingRenderBackend.DRAW).map(call -> (int) backend.getArgument(call)).toArray();
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, draws);
+
+        //A second Frame counts from zero
+        queue.flush(backend);
+        assertEquals(11, backend.getStateChanges());
+        assertEquals(2, backend.getFrames());
+    }
+
+    @Test
+    void flushedStateChangesMatchTheSortedOrder(){
+        Random random = new Random(11);
+        for(int i = 0; i < 5000; i++){
+            queue.submit(SortKey.pack(random.nextInt(3), random.nextInt(2), random.nextInt(8), random.nextInt(16), random.nextInt(100)), random.nextInt(4), i);
+        }
+        RecordingRenderBackend backend = new RecordingRenderBackend();
+        queue.flush(backend);
+        //Walk the sorted Commands with the same Rules by Hand
+        int passes = 0, shaders = 0, materials = 0, meshes = 0;
+        long lastPass = -1;
+        int shader = -1, material = -1, mesh = -1;
+        for(int i = 0; i < queue.size(); i++){
+            long key = queue.getSortedKey(i);
+            int command = queue.getSortedCommand(i);
+            long pass = (long) SortKey.getLayer(key) << 32 | SortKey.getPass(key);
+            if(pass != lastPass){
+                passes++;
+                lastPass = pass;
+                shader = material = mesh = -1;
+            }
+            if(SortKey.getShader(key) != shader){
+                shaders++;
+                shader = SortKey.getShader(key);
+                material = -1;
+            }
+            if(SortKey.getMaterial(key) != material){
+                materials++;
+                material = SortKey.getMaterial(key);
+            }
+            if(queue.getMesh(command) != mesh){
+                meshes++;
+                mesh = queue.getMesh(command);
+            }
+        }
+        assertEquals(passes, backend.getPassChanges());
+        assertEquals(shaders, backend.getShaderChanges());
+        assertEquals(materials, backend.getMaterialChanges());
+        assertEquals(meshes, backend.getMeshChanges());
+        assertEquals(5000, backend.getDraws());
+    }
+
+    @Test
+    void appendKeepsBothQueuesInOrder(){
+        RenderCommandQueue other = new RenderCommandQueue();
+        try{
+            for(int i = 0; i < 3; i++){
+                queue.submit(100 - i, i, i);
+            }
+            //More than the initial Capacity, so that appending grows the Queue
+            for(int i = 0; i < 2000; i++){
+                other.submit(i, 10 + i, 1000 + i);
+            }
+            queue.sort();
+            queue.append(other);
+            assertFalse(queue.isSorted());
+            assertEquals(2003, queue.size());
+            assertEquals(2000, other.size());
+            for(int i = 0; i < 3; i++){
+                assertEquals(100 - i, queue.getKey(i));
+                assertEquals(i, queue.getMesh(i));
+            }
+            for(int i = 0; i < 2000; i++){
+                assertEquals(i, queue.getKey(3 + i));
+                assertEquals(10 + i, queue.getMesh(3 + i));
+                assertEquals(1000 + i, queue.getInstance(3 + i));
+            }
+            other.clear();
+            queue.append(other);
+            assertEquals(2003, queue.size());
+        }finally{
+            other.free();
+        }
+    }
+
+    @Test
+    void clearAndFree(){
+        queue.submit(1, 2, 3);
+        queue.sort();
+        queue.clear();
+        assertEquals(0, queue.size());
+        assertFalse(queue.isSorted());
+        assertThrows(IndexOutOfBoundsException.class, () -> queue.getKey(0));
+        assertThrows(IllegalStateException.class, () -> queue.getSortedKey(0));
+        //A cleared Queue can be reused
+        queue.submit(4, 5, 6);
+        queue.sort();
+        assertEquals(4, queue.getSortedKey(0));
+        assertEquals(0, queue.getSortedCommand(0));
+
+        queue.free();
+        assertEquals(0, queue.size());
+        assertThrows(IllegalStateException.class, () -> queue.submit(1, 2, 3));
+        assertThrows(IllegalStateException.class, queue::sort);
+        RenderCommandQueue other = new RenderCommandQueue();
+        assertThrows(IllegalStateException.class, () -> queue.append(other));
+        other.free();
+        //Freeing again does nothing
+        queue.free();
+    }
+
+    /** Compares the sorted Order of the Queue with a stable Sort of the Indices by {@link Long#compareUnsigned(long, long)}. */
+    private void assertOrder(long[] keys){
+        Integer[] expected = IntStream.range(0, keys.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(expected, Comparator.comparing(i -> keys[i], Long::compareUnsigned));
+        assertEquals(keys.length, queue.size());
+        for(int i = 0; i < keys.length; i++){
+            assertEquals(keys[expected[i]], queue.getSortedKey(i), "Key " + i);
+            assertEquals((int) expected[i], queue.getSortedCommand(i), "Command " + i);
+        }
+    }
+}
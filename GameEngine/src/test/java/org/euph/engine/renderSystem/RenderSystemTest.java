@@ -0,0 +1,139 @@
+package org.euph.engine.renderSystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks that a {@link RenderSystem} records its Pipelines into the same sorted Frame on any Pool, even on one that is busy.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class RenderSystemTest {
+
+    private static final int PIPELINES = 6;
+    private static final int DRAWS = 50;
+
+    /** Submits the same Draws every Frame, the Keys of all Pipelines overlap, so only the stable Merge decides their Order.
+     *
+     * @author snoweuph
+     */
+    private static final class TestPipeline extends RenderPipeline {
+        private final int id;
+        private volatile boolean failing = false;
+
+        private TestPipeline(int id){
+            this.id = id;
+            addStage("draw", alpha -> {
+                if(failing) throw new IllegalStateException("Pipeline " + id + " failed");
+                for(int i = 0; i < DRAWS; i++){
+                    submit(SortKey.pack(SortKey.LAYER_WORLD, 0, i % 3, 0, 0), id, i);
+                }
+            });
+        }
+    }
+
+    private ForkJoinPool pool;
+    private RenderSystem renderer;
+    private final TestPipeline[] pipelines = new TestPipeline[PIPELINES];
+
+    private void create(ForkJoinPool pool){
+        this.pool = pool;
+        renderer = new RenderSystem(new RecordingRenderBackend(), pool);
+        for(int i = 0; i < PIPELINES; i++){
+            pipelines[i] = new TestPipeline(i);
+            renderer.addPipeline(pipelines[i]);
+        }
+    }
+    @AfterEach
+    void free(){
+        if(renderer == null) return;
+        renderer.free();
+        pool.shutdownNow();
+        renderer = null;
+    }
+
+    @Test
+    void framesAreTheSameOnAnyPool(){
+        for(boolean pipelined : new boolean[]{false, true}){
+            for(int threads : new int[]{1, 2, 4}){
+                create(new ForkJoinPool(threads));
+                renderer.setPipelined(pipelined);
+                RecordingRenderBackend backend = (RecordingRenderBackend) renderer.getBackend();
+                for(int frame = 0; frame < 200; frame++){
+                    renderer.render(0);
+                    assertOrder(renderer.getQueue());
+                    //Pipelined, the first Frame gets submitted by the second Call
+                    assertEquals(pipelined ? frame : frame + 1, backend.getFrames());
+                    if(backend.getFrames() > 0) assertEquals(PIPELINES * DRAWS, backend.getDraws());
+                }
+                renderer.finish();
+                assertEquals(200, backend.getFrames());
+                free();
+            }
+        }
+    }
+
+    @Test
+    void busyPoolDoesntStallTheFrame() throws InterruptedException {
+        create(new ForkJoinPool(1));
+        //Block the only Worker of the Pool
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        pool.execute(() -> {
+            blocked.countDown();
+            try{
+                release.await();
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        try{
+            //The calling Thread records all Pipelines itself
+            assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+                for(int frame = 0; frame < 10; frame++){
+                    renderer.render(0);
+                    assertOrder(renderer.getQueue());
+                }
+            });
+        }finally{
+            release.countDown();
+        }
+        //The Helpers that start late find no Pipelines left and don't touch the next Frame
+        renderer.render(0);
+        assertOrder(renderer.getQueue());
+    }
+
+    @Test
+    void failuresAreRethrownAfterTheFrame(){
+        create(new ForkJoinPool(2));
+        pipelines[2].failing = true;
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> renderer.render(0));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        pipelines[2].failing = false;
+        renderer.render(0);
+        assertOrder(renderer.getQueue());
+    }
+
+    /** The merged Frame holds the Draws by Shader, then by Pipeline and then in Submission Order. */
+    private static void assertOrder(RenderCommandQueue queue){
+        assertEquals(PIPELINES * DRAWS, queue.size());
+        int position = 0;
+        for(int shader = 0; shader < 3; shader++){
+            for(int pipeline = 0; pipeline < PIPELINES; pipeline++){
+                for(int i = shader; i < DRAWS; i += 3){
+                    int command = queue.getSortedCommand(position++);
+                    assertEquals(pipeline, queue.getMesh(command));
+                    assertEquals(i, queue.getInstance(command));
+                }
+            }
+        }
+    }
+}
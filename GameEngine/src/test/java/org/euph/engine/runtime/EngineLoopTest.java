@@ -0,0 +1,124 @@
+package org.euph.engine.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Drives an {@link EngineLoop} with a {@link ManualClock} and checks the Ticks, Alphas and dropped Time of every Frame.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class EngineLoopTest {
+
+    private static final long SECOND = EngineLoop.NANOS_PER_SECOND;
+
+    private final ManualClock clock = new ManualClock();
+    private final EngineLoop loop = new EngineLoop(clock, 60);
+    private final CountingHandler handler = new CountingHandler();
+
+    @Test
+    void framesRunTheTicksThatFitIntoThem(){
+        long step = loop.getStepNanos();
+        //The first Frame only starts the Clock
+        loop.frame(handler);
+        assertEquals(0, loop.getTicksLastFrame());
+
+        clock.advance(SECOND / 30);
+        loop.frame(handler);
+        assertEquals(2, loop.getTicksLastFrame());
+        long accumulator = SECOND / 30 - 2 * step;
+        assertEquals((float) accumulator / step, loop.getAlpha(), 1e-6f);
+
+        clock.advance(8_000_000);
+        loop.frame(handler);
+        assertEquals(0, loop.getTicksLastFrame());
+        accumulator += 8_000_000;
+        assertEquals((float) accumulator / step, loop.getAlpha(), 1e-6f);
+
+        clock.advance(10_000_000);
+        loop.frame(handler);
+        assertEquals(1, loop.getTicksLastFrame());
+        accumulator += 10_000_000 - step;
+        assertEquals((float) accumulator / step, loop.getAlpha(), 1e-6f);
+
+        assertEquals(3, loop.getTicks());
+        assertEquals(3, handler.simulated);
+        assertEquals(4, loop.getFrames());
+        assertEquals(loop.getAlpha(), handler.alpha);
+        assertEquals(loop.getStep(), handler.step);
+        assertEquals(0, loop.getDroppedTime());
+    }
+
+    @Test
+    void stallsAreClampedToTheMaximumFrameTime(){
+        loop.frame(handler);
+        clock.advance(5 * SECOND);
+        loop.frame(handler);
+        //A quarter of a Second is simulated, the Rest is dropped
+        assertEquals(15, loop.getTicksLastFrame());
+        assertEquals(5 * SECOND - SECOND / 4, loop.getDroppedTime());
+        assertEquals(5f, loop.getDelta(), 1e-6f);
+        //The Loop goes on normally afterwards
+        clock.advance(SECOND / 60);
+        loop.frame(handler);
+        assertEquals(1, loop.getTicksLastFrame());
+        assertEquals(5 * SECOND - SECOND / 4, loop.getDroppedTime());
+    }
+
+    @Test
+    void randomFramesRunAllTicksOfTheirTime(){
+        Random random = new Random(7);
+        long step = loop.getStepNanos();
+        long total = 0;
+        loop.frame(handler);
+        for(int frame = 0; frame < 10_000; frame++){
+            long frameTime = random.nextInt(40_000_000);
+            clock.advance(frameTime);
+            total += frameTime;
+            long before = loop.getTicks();
+            loop.frame(handler);
+            assertEquals(loop.getTicks() - before, loop.getTicksLastFrame());
+            //The Ticks never get ahead of the real Time and never fall a whole Step behind
+            assertEquals(total / step, loop.getTicks());
+            assertEquals((float) (total % step) / step, loop.getAlpha(), 1e-6f);
+        }
+        assertEquals(total / step, handler.simulated);
+        assertEquals(0, loop.getDroppedTime());
+    }
+
+    @Test
+    void cappedFramesWaitForTheirDeadline(){
+        loop.setFrameCap(100);
+        long start = clock.nanoTime();
+        for(int frame = 0; frame < 100; frame++){
+            loop.frame(handler);
+        }
+        //Every Frame is at least a hundredth of a Second long, the Waits don't drift
+        long elapsed = clock.nanoTime() - start;
+        assertTrue(elapsed >= SECOND, "The Frames took " + elapsed);
+        assertTrue(elapsed < SECOND + SECOND / 100, "The Frames took " + elapsed);
+    }
+
+    /** Counts what the Loop calls.
+     *
+     * @author snoweuph
+     */
+    private static final class CountingHandler implements LoopHandler {
+        private long simulated = 0;
+        private float step;
+        private float alpha;
+
+        @Override
+        public void simulate(float step){
+            simulated++;
+            this.step = step;
+        }
+        @Override
+        public void render(float alpha){
+            this.alpha = alpha;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.euph.engine.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks that a {@link FramePacer} learns how much later than asked the Sleeps of its {@link Clock} end.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class FramePacerTest {
+
+    private static final long FRAME = EngineLoop.NANOS_PER_SECOND / 60;
+    private static final long OVERSLEEP = 2_000_000;
+
+    @Test
+    void learnsTheOversleepOfTheClock(){
+        OversleepingClock clock = new OversleepingClock();
+        clock.oversleep = OVERSLEEP;
+        FramePacer pacer = new FramePacer(clock);
+        //The Start Estimate is too low, so the first Waits end late
+        long deadline = clock.nanoTime();
+        long late = 0;
+        for(int frame = 0; frame < 200; frame++){
+            deadline += FRAME;
+            pacer.waitUntil(deadline);
+            assertTrue(clock.nanoTime() >= deadline);
+            if(frame < 5) late = Math.max(late, clock.nanoTime() - deadline);
+        }
+        assertTrue(late > OVERSLEEP / 2, "The first Waits ended " + late + " too late");
+        //The Estimate settles around the Oversleep, and the Waits end on Time
+        assertTrue(pacer.getOversleepEstimate() >= OVERSLEEP * 0.98, "The Estimate is " + pacer.getOversleepEstimate());
+        assertTrue(pacer.getOversleepEstimate() <= OVERSLEEP * 1.1, "The Estimate is " + pacer.getOversleepEstimate());
+        long lateness = 0;
+        for(int frame = 0; frame < 50; frame++){
+            deadline += FRAME;
+            pacer.waitUntil(deadline);
+            lateness = Math.max(lateness, clock.nanoTime() - deadline);
+        }
+        assertTrue(lateness < OVERSLEEP / 10, "A Wait ended " + lateness + " too late");
+    }
+
+    @Test
+    void forgetsTheOversleepWhenSleepsGetExact(){
+        OversleepingClock clock = new OversleepingClock();
+        clock.oversleep = OVERSLEEP;
+        FramePacer pacer = new FramePacer(clock);
+        long deadline = clock.nanoTime();
+        for(int frame = 0; frame < 200; frame++){
+            deadline += FRAME;
+            pacer.waitUntil(deadline);
+        }
+        long learned = pacer.getOversleepEstimate();
+        clock.oversleep = 0;
+        for(int frame = 0; frame < 200; frame++){
+            deadline += FRAME;
+            pacer.waitUntil(deadline);
+            assertTrue(clock.nanoTime() - deadline < 10_000);
+        }
+        //Every exact Sleep moves the Estimate down a Bit, so less Time is spun
+        assertTrue(pacer.getOversleepEstimate() < learned / 4, "The Estimate is " + pacer.getOversleepEstimate());
+    }
+
+    @Test
+    void passedDeadlinesReturnAtOnce(){
+        ManualClock clock = new ManualClock();
+        clock.advance(FRAME);
+        new FramePacer(clock).waitUntil(0);
+        assertEquals(FRAME, clock.nanoTime());
+    }
+
+    /** A {@link ManualClock} whose Sleeps end a fixed Time later than asked.
+     *
+     * @author snoweuph
+     */
+    private static final class OversleepingClock extends ManualClock {
+        private long oversleep;
+
+        @Override
+        public void sleep(long nanos){
+            super.sleep(nanos);
+            advance(oversleep);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.euph.engine.runtime;
+
+import org.euph.engine.entityComponentSystem.EngineSystem;
+import org.euph.engine.entityComponentSystem.SystemScheduler;
+import org.euph.engine.entityComponentSystem.World;
+import org.euph.engine.metrics.EngineMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs a {@link HeadlessRuntime} unpaced, on the {@link ManualClock} it moves by one Step per Frame,
+ * and checks that it runs exactly the asked Steps and shuts down when stopped or interrupted.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class HeadlessRuntimeTest {
+
+    private static final int TICK_RATE = 60;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    /** Counts its Runs and remembers the Step it got. */
+    private static class CountSystem extends EngineSystem {
+        private volatile int runs = 0;
+        private float delta;
+        //Called with the Amount of Runs after every Run.
+        private IntConsumer onRun = runs -> {};
+
+        private CountSystem(World world){
+            super(world);
+        }
+        @Override
+        protected void update(float delta){
+            this.delta = delta;
+            onRun.accept(++runs);
+        }
+    }
+
+    private final World world = new World();
+    private final CountSystem counter = new CountSystem(world);
+    private final SystemScheduler scheduler = new SystemScheduler(world).addSystem(counter);
+
+    @AfterEach
+    void close(){
+        world.close();
+    }
+
+    @Test
+    void unpacedRunsExactlyTheMaximumTicks(){
+        EngineMetrics metrics = new EngineMetrics(scheduler);
+        HeadlessRuntime runtime = new HeadlessRuntime(scheduler, TICK_RATE).setPaced(false).setMaxTicks(10 * TICK_RATE).setMetrics(metrics);
+        //Ten Seconds of Simulation Time, but the Steps run back to back
+        assertTimeoutPreemptively(TIMEOUT, runtime::run);
+        assertEquals(10 * TICK_RATE, runtime.getTicks());
+        assertEquals(10 * TICK_RATE, counter.runs);
+        //The first Frame only starts the Clock, every other one takes exactly one Step and nothing gets dropped
+        EngineLoop loop = runtime.getLoop();
+        assertEquals(10 * TICK_RATE + 1, loop.getFrames());
+        assertEquals(0, loop.getDroppedTime());
+        assertEquals(loop.getStep(), counter.delta);
+        assertEquals(1f / TICK_RATE, counter.delta, 1e-6f);
+        assertEquals(10 * TICK_RATE, metrics.getStepTime().getTotal());
+        assertEquals(10 * TICK_RATE + 1, metrics.getFrameTime().getTotal());
+
+        //Another Run starts counting again
+        assertTimeoutPreemptively(TIMEOUT, runtime::run);
+        assertNotSame(loop, runtime.getLoop());
+        assertEquals(10 * TICK_RATE, runtime.getTicks());
+        assertEquals(20 * TICK_RATE, counter.runs);
+    }
+
+    @Test
+    void stopEndsTheRunAfterTheCurrentStep(){
+        HeadlessRuntime runtime = new HeadlessRuntime(scheduler, TICK_RATE).setPaced(false);
+        counter.onRun = runs -> {
+            if(runs == 25) runtime.stop();
+        };
+        assertTimeoutPreemptively(TIMEOUT, runtime::run);
+        assertEquals(25, runtime.getTicks());
+        assertEquals(25, counter.runs);
+    }
+
+    @Test
+    void stopFromAnotherThreadShutsTheRunDown() throws InterruptedException {
+        HeadlessRuntime runtime = new HeadlessRuntime(scheduler, TICK_RATE).setPaced(false);
+        CountDownLatch running = new CountDownLatch(10);
+        counter.onRun = runs -> running.countDown();
+        Thread server = new Thread(runtime::run, "Server");
+        server.start();
+        assertTrue(running.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+        //Like a Shutdown Hook would
+        runtime.stop();
+        server.join(TIMEOUT.toMillis());
+        assertFalse(server.isAlive(), "The Run didn't end after it was stopped");
+        assertTrue(runtime.getTicks() >= 10);
+        assertEquals(runtime.getTicks(), counter.runs);
+    }
+
+    @Test
+    void interruptEndsTheRun() throws InterruptedException {
+        HeadlessRuntime runtime = new HeadlessRuntime(scheduler, TICK_RATE).setPaced(false);
+        CountDownLatch running = new CountDownLatch(10);
+        counter.onRun = runs -> running.countDown();
+        Thread server = new Thread(runtime::run, "Server");
+        server.start();
+        assertTrue(running.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+        server.interrupt();
+        server.join(TIMEOUT.toMillis());
+        assertFalse(server.isAlive(), "The Run didn't end after its Thread was interrupted");
+        assertEquals(runtime.getTicks(), counter.runs);
+    }
+}
@@ -0,0 +1,23 @@
+package org.euph.engine.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Checks that {@link Json#appendString(StringBuilder, String)} escapes what a JSON String can't hold.
+ *
+ * @author snoweuph
+ * @version 1.0
+ */
+class JsonTest {
+
+    @Test
+    void escapesQuotesBackslashesAndControlCharacters(){
+        assertEquals("\"frame\"", Json.appendString(new StringBuilder(), "frame").toString());
+        assertEquals("\"\"", Json.appendString(new StringBuilder(), "").toString());
+        assertEquals("\"a\\\"b\\\\c\"", Json.appendString(new StringBuilder(), "a\"b\\c").toString());
+        assertEquals("\"\\u0000\\u0009\\u000a\\u001f \"", Json.appendString(new StringBuilder(), "\u0000\t\n\u001f ").toString());
+        //Everything else is kept as it is, the Writer encodes it
+        assertEquals("x:\"\u00e4/\"", Json.appendString(new StringBuilder("x:"), "\u00e4/").toString());
+    }
+}